@@ -0,0 +1,56 @@
+plugins {
+    // core Java support
+    java
+
+    // Spring Boot + dependency management
+    id("org.springframework.boot") version "3.2.4"
+    id("io.spring.dependency-management") version "1.1.4"
+
+    // JMH benchmarks under src/jmh, run with ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "org.champqcsoft"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation("org.springframework.boot:spring-boot-starter-webflux")
+    // not the hateoas starter: it pulls in spring-boot-starter-web and the gateway would start on MVC
+    implementation("org.springframework.hateoas:spring-hateoas")
+    implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+
+    compileOnly("org.projectlombok:lombok")
+    annotationProcessor("org.projectlombok:lombok")
+
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
+
+    // MockServerWebExchange for the WebFlux link builder
+    jmh("org.springframework:spring-test")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+}
+
+tasks.withType<Test> {
+    // JUnit 5
+    useJUnitPlatform()
+
+    // show pass/fail in console
+    testLogging {
+        events("passed", "skipped", "failed")
+        showExceptions    = true
+        showStackTraces   = true
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.apigatewayservice.utils;
+
+import com.example.apigatewayservice.presentationlayer.CatalogController;
+import com.example.apigatewayservice.presentationlayer.CatalogWatchController;
+import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogResponseModel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+/**
+ * The three links {@code GET /api/v1/catalogs} puts on every catalog, built with the WebFlux
+ * {@code linkTo(methodOn(...), exchange)} the controllers would otherwise use and with
+ * {@link LinkTemplate}s, plus the cost of a client that sends {@code X-Omit-Links}. The
+ * WebFlux links come out absolute (from the exchange), the templates relative.
+ * Run with {@code ./gradlew jmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkBuildingBenchmark {
+
+    private static final LinkTemplate CATALOG = LinkTemplate.of(CatalogController.class, "getCatalogById");
+    private static final LinkTemplate ALL_CATALOGS = LinkTemplate.of(CatalogController.class, "getCatalogs");
+    private static final LinkTemplate CATALOG_WATCHES = LinkTemplate.of(CatalogWatchController.class, "getWatchesInCatalogWithFiltering");
+
+    private final MockServerWebExchange exchange =
+            MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost:8080/api/v1/catalogs"));
+    private int next;
+
+    private String catalogId() {
+        return "CAT-" + (next++ & 1023);
+    }
+
+    @Benchmark
+    public CatalogResponseModel webFluxLinks() {
+        String catalogId = catalogId();
+        CatalogResponseModel c = CatalogResponseModel.builder().catalogId(catalogId).build();
+        return Mono.zip(
+                        linkTo(methodOn(CatalogController.class).getCatalogById(catalogId, null), exchange)
+                                .withSelfRel().toMono(),
+                        linkTo(methodOn(CatalogController.class).getCatalogs(null), exchange)
+                                .withRel("all-catalogs").toMono(),
+                        linkTo(methodOn(CatalogWatchController.class)
+                                .getWatchesInCatalogWithFiltering(catalogId, null, null), exchange)
+                                .withRel("watches").toMono())
+                .map(links -> {
+                    c.add(links.getT1());
+                    c.add(links.getT2());
+                    c.add(links.getT3());
+                    return c;
+                })
+                .block();
+    }
+
+    @Benchmark
+    public CatalogResponseModel templateLinks() {
+        String catalogId = catalogId();
+        CatalogResponseModel c = CatalogResponseModel.builder().catalogId(catalogId).build();
+        c.add(CATALOG.self(catalogId));
+        c.add(ALL_CATALOGS.link("all-catalogs"));
+        c.add(CATALOG_WATCHES.link("watches", catalogId));
+        return c;
+    }
+
+    @Benchmark
+    public CatalogResponseModel omittedLinks() {
+        return CatalogResponseModel.builder().catalogId(catalogId()).build();
+    }
+}
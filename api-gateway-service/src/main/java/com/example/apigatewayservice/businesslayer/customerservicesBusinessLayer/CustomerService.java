@@ -3,21 +3,22 @@ package com.example.apigatewayservice.businesslayer.customerservicesBusinessLaye
 import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerRequestModel;
 import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerResponseModel;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 
 @Service
 public interface CustomerService {
 
-    List<CustomerResponseModel> getCustomers();
+    Flux<CustomerResponseModel> getCustomers();
 
-    CustomerResponseModel getCustomerbyCustomerId(String customerId);
+    Mono<CustomerResponseModel> getCustomerbyCustomerId(String customerId);
 
-    CustomerResponseModel getCustomerbyEmail(String email);
+    Mono<CustomerResponseModel> getCustomerbyEmail(String email);
 
-    CustomerResponseModel addCustomer(CustomerRequestModel newCustomerData);
+    Mono<CustomerResponseModel> addCustomer(CustomerRequestModel newCustomerData);
 
-    CustomerResponseModel updateCustomer(String customerId, CustomerRequestModel newCustomerData);
+    Mono<CustomerResponseModel> updateCustomer(String customerId, CustomerRequestModel newCustomerData);
 
-    String deleteCustomerbyCustomerId(String customerId);
+    Mono<String> deleteCustomerbyCustomerId(String customerId);
 }
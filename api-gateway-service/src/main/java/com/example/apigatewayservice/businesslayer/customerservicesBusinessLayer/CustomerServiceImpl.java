@@ -4,8 +4,9 @@ import com.example.apigatewayservice.domainclientlayer.CustomerServiceClient;
 import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerRequestModel;
 import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerResponseModel;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 
 @Service
 public class CustomerServiceImpl implements CustomerService {
@@ -19,14 +20,14 @@ public class CustomerServiceImpl implements CustomerService {
 
 
     @Override
-    public List<CustomerResponseModel> getCustomers() {
+    public Flux<CustomerResponseModel> getCustomers() {
 
         return this.customerServiceClient.getCustomers();
 
     }
 
     @Override
-    public CustomerResponseModel getCustomerbyCustomerId(String customer_id) {
+    public Mono<CustomerResponseModel> getCustomerbyCustomerId(String customer_id) {
 
         return this.customerServiceClient.getCustomerbyCustomerId(customer_id);
 
@@ -35,28 +36,28 @@ public class CustomerServiceImpl implements CustomerService {
 
 
     @Override
-    public CustomerResponseModel addCustomer(CustomerRequestModel newCustomerData) {
+    public Mono<CustomerResponseModel> addCustomer(CustomerRequestModel newCustomerData) {
 
         return this.customerServiceClient.addCustomer(newCustomerData);
 
     }
 
     @Override
-    public CustomerResponseModel updateCustomer(String customerId, CustomerRequestModel newCustomerData) {
+    public Mono<CustomerResponseModel> updateCustomer(String customerId, CustomerRequestModel newCustomerData) {
 
         return this.customerServiceClient.updateCustomer(customerId,newCustomerData);
 
     }
 
     @Override
-    public String deleteCustomerbyCustomerId(String customerId) {
+    public Mono<String> deleteCustomerbyCustomerId(String customerId) {
 
         return this.customerServiceClient.deleteCustomerbyCustomerId(customerId);
 
     }
 
     @Override
-    public CustomerResponseModel getCustomerbyEmail(String email) {
+    public Mono<CustomerResponseModel> getCustomerbyEmail(String email) {
 
         return this.customerServiceClient.getCustomerbyEmail(email);
 
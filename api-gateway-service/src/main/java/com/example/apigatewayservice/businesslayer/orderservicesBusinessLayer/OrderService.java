@@ -2,22 +2,32 @@ package com.example.apigatewayservice.businesslayer.orderservicesBusinessLayer;
 
 
 
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderDetailResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderExpansion;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderRequestModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderSearchRequestModel;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.util.Set;
 
 @Service
 public interface OrderService {
 
-    List<OrderResponseModel> getAllOrders();
+    Mono<OrderPageResponseModel> getAllOrders(OrderSearchRequestModel search);
 
-    OrderResponseModel getOrderById(String orderId);
+    Flux<OrderResponseModel> exportOrders();
 
-    OrderResponseModel createOrder(OrderRequestModel orderRequestModel);
+    Mono<OrderResponseModel> getOrderById(String orderId);
 
-    OrderResponseModel updateOrder(String orderId, OrderRequestModel orderRequestModel);
+    Mono<OrderDetailResponseModel> getOrderDetail(String orderId, Set<OrderExpansion> expand);
 
-    String deleteOrder(String orderId);
+    Mono<OrderResponseModel> createOrder(OrderRequestModel orderRequestModel, String idempotencyKey);
+
+    Mono<OrderResponseModel> updateOrder(String orderId, OrderRequestModel orderRequestModel);
+
+    Mono<String> deleteOrder(String orderId);
 }
@@ -1,54 +1,145 @@
 package com.example.apigatewayservice.businesslayer.orderservicesBusinessLayer;
 
 
+import com.example.apigatewayservice.domainclientlayer.CustomerServiceClient;
 import com.example.apigatewayservice.domainclientlayer.OrderServiceClient;
+import com.example.apigatewayservice.domainclientlayer.ProductServiceClient;
+import com.example.apigatewayservice.domainclientlayer.servicePlanServiceClient;
+import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogResponseModel;
+import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderDetailResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderExpansion;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderRequestModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderSearchRequestModel;
+import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseModel;
+import com.example.apigatewayservice.utils.InvalidInputException;
+import com.example.apigatewayservice.utils.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 
 @Service
+@Slf4j
 public class OrderServiceImpl implements OrderService {
 
 
     private final OrderServiceClient orderServiceClient;
+    private final CustomerServiceClient customerServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final servicePlanServiceClient servicePlanServiceClient;
 
     public OrderServiceImpl(
-           OrderServiceClient orderServiceClient
+           OrderServiceClient orderServiceClient,
+           CustomerServiceClient customerServiceClient,
+           ProductServiceClient productServiceClient,
+           servicePlanServiceClient servicePlanServiceClient
     ) {
        this.orderServiceClient = orderServiceClient;
+       this.customerServiceClient = customerServiceClient;
+       this.productServiceClient = productServiceClient;
+       this.servicePlanServiceClient = servicePlanServiceClient;
     }
 
     @Override
-    public List<OrderResponseModel> getAllOrders() {
+    public Mono<OrderPageResponseModel> getAllOrders(OrderSearchRequestModel search) {
 
-        return this.orderServiceClient.getAllOrders();
+        return this.orderServiceClient.getAllOrders(search);
     }
 
     @Override
-    public OrderResponseModel getOrderById(String orderId) {
+    public Flux<OrderResponseModel> exportOrders() {
+
+        return this.orderServiceClient.exportOrders();
+    }
+
+    @Override
+    public Mono<OrderResponseModel> getOrderById(String orderId) {
 
         return this.orderServiceClient.getOrderById(orderId);
 
     }
 
+    /**
+     * The order first, then every expanded relation at the same time. Catalog, watch and plan
+     * reads go through the response cache, so details of orders sharing a catalog or plan
+     * (and concurrent requests for the same one) share those fetches. A relation whose service
+     * is down is listed as unavailable instead of failing the whole detail.
+     */
+    @Override
+    public Mono<OrderDetailResponseModel> getOrderDetail(String orderId, Set<OrderExpansion> expand) {
+
+        return this.orderServiceClient.getOrderById(orderId)
+                .flatMap(order -> {
+                    Set<OrderExpansion> unavailable = Collections.synchronizedSet(EnumSet.noneOf(OrderExpansion.class));
+
+                    Mono<Optional<CustomerResponseModel>> customer = relation(expand, OrderExpansion.CUSTOMER,
+                            order.getCustomerId(), customerServiceClient::getCustomerbyCustomerId, unavailable);
+                    Mono<Optional<CatalogResponseModel>> catalog = relation(expand, OrderExpansion.CATALOG,
+                            order.getCatalogId(), productServiceClient::getCatalogById, unavailable);
+                    Mono<Optional<WatchResponseModel>> watch = relation(expand, OrderExpansion.WATCH,
+                            order.getWatchId(), productServiceClient::getCatalogWatchByID, unavailable);
+                    Mono<Optional<ServicePlanResponseModel>> plan = relation(expand, OrderExpansion.SERVICE_PLAN,
+                            order.getServicePlanId(), servicePlanServiceClient::getServicePlansById, unavailable);
+
+                    return Mono.zip(customer, catalog, watch, plan)
+                            .map(refs -> OrderDetailResponseModel.builder()
+                                    .order(order)
+                                    .customer(refs.getT1().orElse(null))
+                                    .catalog(refs.getT2().orElse(null))
+                                    .watch(refs.getT3().orElse(null))
+                                    .servicePlan(refs.getT4().orElse(null))
+                                    .unavailable(unavailable.isEmpty() ? null : new ArrayList<>(EnumSet.copyOf(unavailable)))
+                                    .build());
+                });
+    }
+
+    private <T> Mono<Optional<T>> relation(Set<OrderExpansion> expand, OrderExpansion relation, String id,
+                                           Function<String, Mono<T>> fetch, Set<OrderExpansion> unavailable) {
+        if (!expand.contains(relation) || id == null) {
+            return Mono.just(Optional.empty());
+        }
+        return fetch.apply(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(ex -> !(ex instanceof NotFoundException || ex instanceof InvalidInputException), ex -> {
+                    log.warn("order detail: {} {} unavailable: {}", relation, id, ex.toString());
+                    unavailable.add(relation);
+                    return Mono.just(Optional.empty());
+                });
+    }
+
     @Override
-    public OrderResponseModel createOrder(OrderRequestModel req) {
+    public Mono<OrderResponseModel> createOrder(OrderRequestModel req, String idempotencyKey) {
 
-        return this.orderServiceClient.createOrder(req);
+        // callers that did not send a key still get safe retries between us and order-services
+        String key = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyKey
+                : UUID.randomUUID().toString();
+        return this.orderServiceClient.createOrder(req, key);
     }
     @Override
-    public OrderResponseModel updateOrder(String orderId, OrderRequestModel req) {
+    public Mono<OrderResponseModel> updateOrder(String orderId, OrderRequestModel req) {
 
         return this.orderServiceClient.updateOrder(orderId, req);
 
     }
 
     @Override
-    public String deleteOrder(String orderId) {
+    public Mono<String> deleteOrder(String orderId) {
 
 return this.orderServiceClient.deleteOrder(orderId);
     }
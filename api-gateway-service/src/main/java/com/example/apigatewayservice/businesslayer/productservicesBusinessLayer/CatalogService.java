@@ -6,20 +6,21 @@ package com.example.apigatewayservice.businesslayer.productservicesBusinessLayer
 import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogRequestModel;
 import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogResponseModel;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 
 @Service
 public interface CatalogService {
 
 
-    List<CatalogResponseModel> getCatalogs();
+    Flux<CatalogResponseModel> getCatalogs();
 
-    CatalogResponseModel getCatalogById(String catalogId);
+    Mono<CatalogResponseModel> getCatalogById(String catalogId);
 
-    CatalogResponseModel addCatalog(CatalogRequestModel catalogRequestModel);
+    Mono<CatalogResponseModel> addCatalog(CatalogRequestModel catalogRequestModel);
 
-    CatalogResponseModel updateCatalog(CatalogRequestModel catalogRequestModel, String catalogId);
+    Mono<CatalogResponseModel> updateCatalog(CatalogRequestModel catalogRequestModel, String catalogId);
 
-    String deleteCatalog(String catalogId);
+    Mono<String> deleteCatalog(String catalogId);
 }
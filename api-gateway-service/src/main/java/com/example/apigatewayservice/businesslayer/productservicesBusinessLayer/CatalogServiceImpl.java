@@ -7,8 +7,9 @@ import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogReques
 import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogResponseModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 
 @Service
 public class CatalogServiceImpl implements CatalogService {
@@ -24,14 +25,14 @@ public class CatalogServiceImpl implements CatalogService {
 
 
     @Override
-    public List<CatalogResponseModel> getCatalogs() {
+    public Flux<CatalogResponseModel> getCatalogs() {
 
         return this.productServiceClient.getCatalogs();
 
     }
 
     @Override
-    public CatalogResponseModel getCatalogById(String catalogId) {
+    public Mono<CatalogResponseModel> getCatalogById(String catalogId) {
 
         return this.productServiceClient.getCatalogById(catalogId);
 
@@ -39,7 +40,7 @@ public class CatalogServiceImpl implements CatalogService {
 
 
     @Override
-    public CatalogResponseModel addCatalog(CatalogRequestModel catalogRequestModel) {
+    public Mono<CatalogResponseModel> addCatalog(CatalogRequestModel catalogRequestModel) {
 
 
         return this.productServiceClient.addCatalog(catalogRequestModel);
@@ -47,7 +48,7 @@ public class CatalogServiceImpl implements CatalogService {
 
 
     @Override
-    public CatalogResponseModel updateCatalog(CatalogRequestModel catalogRequestModel, String catalogId){
+    public Mono<CatalogResponseModel> updateCatalog(CatalogRequestModel catalogRequestModel, String catalogId){
 
 
         return this.productServiceClient.updateCatalog(catalogRequestModel,catalogId);
@@ -56,7 +57,7 @@ public class CatalogServiceImpl implements CatalogService {
 
 
     @Override
-    public String deleteCatalog(String catalogId){
+    public Mono<String> deleteCatalog(String catalogId){
 
         return this.productServiceClient.deleteCatalog(catalogId);
     }
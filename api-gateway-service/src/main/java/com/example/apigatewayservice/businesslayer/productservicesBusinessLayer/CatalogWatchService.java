@@ -5,23 +5,24 @@ package com.example.apigatewayservice.businesslayer.productservicesBusinessLayer
 import com.example.apigatewayservice.presentationlayer.watchdtos.WatchRequestModel;
 import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseModel;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 import java.util.Map;
 
 @Service
 public interface CatalogWatchService {
 
 
-    List<WatchResponseModel> getWatchesInCatalogWithFiltering(String catalogId, Map<String, String> queryParams);
+    Flux<WatchResponseModel> getWatchesInCatalogWithFiltering(String catalogId, Map<String, String> queryParams);
 
-    WatchResponseModel getCatalogWatchByID(String watchId);
+    Mono<WatchResponseModel> getCatalogWatchByID(String watchId);
 
-    WatchResponseModel addWatches(WatchRequestModel watchRequestModel, String catalogId);
+    Mono<WatchResponseModel> addWatches(WatchRequestModel watchRequestModel, String catalogId);
 
-    WatchResponseModel updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel);
+    Mono<WatchResponseModel> updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel);
 
-    String removeWatchInCatalog(String catalogId, String watchId);
+    Mono<String> removeWatchInCatalog(String catalogId, String watchId);
 
-    List<WatchResponseModel> getWatchesWithFilter(Map<String, String> queryParams);
+    Flux<WatchResponseModel> getWatchesWithFilter(Map<String, String> queryParams);
 }
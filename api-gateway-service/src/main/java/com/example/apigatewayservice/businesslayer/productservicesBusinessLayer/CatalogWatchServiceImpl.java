@@ -8,10 +8,11 @@ import com.example.apigatewayservice.presentationlayer.watchdtos.WatchRequestMod
 import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
@@ -30,7 +31,7 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
     }
 
     @Override
-    public List<WatchResponseModel> getWatchesInCatalogWithFiltering(String catalogId, Map<String, String> queryParams) {
+    public Flux<WatchResponseModel> getWatchesInCatalogWithFiltering(String catalogId, Map<String, String> queryParams) {
 
 
         return this.productServiceClient.getWatchesInCatalogWithFiltering(catalogId,queryParams);
@@ -38,21 +39,21 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
     }
 
     @Override
-    public List<WatchResponseModel> getWatchesWithFilter(Map<String, String> queryParams) {
+    public Flux<WatchResponseModel> getWatchesWithFilter(Map<String, String> queryParams) {
 
 
         return this.productServiceClient.getWatchesWithFilter(queryParams);
     }
 
     @Override
-    public WatchResponseModel getCatalogWatchByID(String watchId) {
+    public Mono<WatchResponseModel> getCatalogWatchByID(String watchId) {
 
         return this.productServiceClient.getCatalogWatchByID(watchId);
 
     }
 
     @Override
-    public WatchResponseModel addWatches(WatchRequestModel watchRequestModel, String catalogId) {
+    public Mono<WatchResponseModel> addWatches(WatchRequestModel watchRequestModel, String catalogId) {
 
         return this.productServiceClient.addWatches(watchRequestModel,catalogId);
 
@@ -60,7 +61,7 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
 
 
     @Override
-    public WatchResponseModel updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel) {
+    public Mono<WatchResponseModel> updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel) {
 
 
 
@@ -74,7 +75,7 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
 
 
     @Override
-    public  String removeWatchInCatalog(String catalogId, String watchId){
+    public  Mono<String> removeWatchInCatalog(String catalogId, String watchId){
 
         return this.productServiceClient.removeWatchInCatalog(catalogId,watchId);
 
@@ -4,20 +4,21 @@ package com.example.apigatewayservice.businesslayer.servicePlanservicesBusinessL
 import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanRequestModel;
 import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanResponseModel;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 
 @Service
 public interface ServicePlanService {
     
     
-    List<ServicePlanResponseModel> getServicePlans();
+    Flux<ServicePlanResponseModel> getServicePlans();
 
-    ServicePlanResponseModel getServicePlansById(String planId);
+    Mono<ServicePlanResponseModel> getServicePlansById(String planId);
 
-    ServicePlanResponseModel addServicePlan(ServicePlanRequestModel servicePlanRequestModel);
+    Mono<ServicePlanResponseModel> addServicePlan(ServicePlanRequestModel servicePlanRequestModel);
 
-    ServicePlanResponseModel updateServicePlan(String planId, ServicePlanRequestModel servicePlanRequestModel);
+    Mono<ServicePlanResponseModel> updateServicePlan(String planId, ServicePlanRequestModel servicePlanRequestModel);
 
-    String deleteServicePlanById(String planId);
+    Mono<String> deleteServicePlanById(String planId);
 }
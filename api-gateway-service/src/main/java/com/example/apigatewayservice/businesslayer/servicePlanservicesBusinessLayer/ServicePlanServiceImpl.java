@@ -7,8 +7,9 @@ import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePl
 import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanResponseModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 
 @Service
 public class ServicePlanServiceImpl implements ServicePlanService {
@@ -24,31 +25,31 @@ public class ServicePlanServiceImpl implements ServicePlanService {
 
 
     @Override
-    public List<ServicePlanResponseModel> getServicePlans() {
+    public Flux<ServicePlanResponseModel> getServicePlans() {
 
         return this.servicePlanServiceClient.getServicePlans();
     }
 
     @Override
-    public ServicePlanResponseModel getServicePlansById(String planId) {
+    public Mono<ServicePlanResponseModel> getServicePlansById(String planId) {
 
         return this.servicePlanServiceClient.getServicePlansById(planId);
     }
 
     @Override
-    public ServicePlanResponseModel addServicePlan(ServicePlanRequestModel servicePlanRequestModel) {
+    public Mono<ServicePlanResponseModel> addServicePlan(ServicePlanRequestModel servicePlanRequestModel) {
 
         return this.servicePlanServiceClient.addServicePlan(servicePlanRequestModel);
     }
 
     @Override
-    public ServicePlanResponseModel updateServicePlan(String planId, ServicePlanRequestModel servicePlanRequestModel) {
+    public Mono<ServicePlanResponseModel> updateServicePlan(String planId, ServicePlanRequestModel servicePlanRequestModel) {
 
         return this.servicePlanServiceClient.updateServicePlan(planId,servicePlanRequestModel);
     }
 
     @Override
-    public String deleteServicePlanById(String planId) {
+    public Mono<String> deleteServicePlanById(String planId) {
 
         return this.servicePlanServiceClient.deleteServicePlanById(planId);
     }
@@ -0,0 +1,28 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What a conditional GET got back: either a 304 (nothing but the fact that the stored copy
+ * is still current) or a 200 with the new body and its entity tag.
+ */
+@Getter
+@AllArgsConstructor
+public class ConditionalResponse {
+
+    private static final ConditionalResponse NOT_MODIFIED = new ConditionalResponse(true, null, null);
+
+    private final boolean notModified;
+    private final String etag;
+    private final byte[] body;
+
+    public static ConditionalResponse notModified() {
+        return NOT_MODIFIED;
+    }
+
+    public static ConditionalResponse of(String etag, byte[] body) {
+        return new ConditionalResponse(false, etag, body);
+    }
+}
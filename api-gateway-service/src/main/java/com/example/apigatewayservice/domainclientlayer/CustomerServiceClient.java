@@ -6,21 +6,16 @@ import com.example.apigatewayservice.utils.HttpErrorInfo;
 import com.example.apigatewayservice.utils.InvalidInputException;
 import com.example.apigatewayservice.utils.NotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.introspect.TypeResolutionContext;
 import org.springframework.beans.factory.annotation.Value;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
-import java.util.List;
-
-import static org.springframework.http.HttpStatus.NOT_FOUND;
-import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
 @Component
 @Slf4j
@@ -28,110 +23,90 @@ public class CustomerServiceClient {
 
 
 
-    private final RestTemplate restTemplate;
+    private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final Hedger hedger;
 
     private final String CUSTOMER_SERVICE_BASE_URL;
 
-    private CustomerServiceClient(RestTemplate restTemplate,
+    private CustomerServiceClient(WebClient.Builder webClientBuilder,
                                   ObjectMapper objectMapper,
+                                  DownstreamGuardRegistry downstreamGuardRegistry,
+                                  LoadBalancerRegistry loadBalancerRegistry,
+                                  HedgingRegistry hedgingRegistry,
                                   @Value("${app.customer-services.host}") String customerServicesHost,
                                   @Value("${app.customer-services.port}") String customerServicesPort) {
 
-        this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.hedger = hedgingRegistry.register("customer-services");
         this.CUSTOMER_SERVICE_BASE_URL = "http://" +
                 customerServicesHost+":"+customerServicesPort+"/api/v1/customers";
+        this.webClient = webClientBuilder.baseUrl(CUSTOMER_SERVICE_BASE_URL)
+                .filter(downstreamGuardRegistry.register("customer-services").filter())
+                .filter(loadBalancerRegistry.register("customer-services", customerServicesHost, customerServicesPort, "/api/v1/customers").filter())
+                .build();
     }
 
 
-    public List<CustomerResponseModel> getCustomers() {
-        try {
-            return this.restTemplate.exchange(
-                    CUSTOMER_SERVICE_BASE_URL,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<CustomerResponseModel>>() {}
-            ).getBody();
-        } catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+    public Flux<CustomerResponseModel> getCustomers() {
+        return webClient.get()
+                .retrieve()
+                .bodyToFlux(CustomerResponseModel.class)
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
     }
 
-    public CustomerResponseModel getCustomerbyCustomerId(String customerId) {
-        try {
-            return restTemplate.getForObject(
-                    CUSTOMER_SERVICE_BASE_URL + "/" + customerId,
-                    CustomerResponseModel.class
-            );
-        }
-        catch (HttpClientErrorException.NotFound nf) {
-            log.debug("Customer {} not found → returning null", customerId);
-            return null;
-        }
-        catch (HttpClientErrorException ce) {
-            throw handleHttpClientException(ce);
-        }
+    public Mono<CustomerResponseModel> getCustomerbyCustomerId(String customerId) {
+        return hedger.call("getCustomerbyCustomerId", webClient.get()
+                        .uri("/{customerId}", customerId)
+                        .retrieve()
+                        .bodyToMono(CustomerResponseModel.class))
+                .onErrorResume(WebClientResponseException.NotFound.class, nf -> {
+                    log.debug("Customer {} not found → returning empty", customerId);
+                    return Mono.empty();
+                })
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
     }
 
-    public CustomerResponseModel addCustomer(CustomerRequestModel newCustomerData) {
-
-//        if(newCustomerData == null || newCustomerData == isEM) {
-//            throw new IllegalArgumentException("New customer data cannot be null");
-//        }
-
-        try {
-            return restTemplate.postForObject(
-                    CUSTOMER_SERVICE_BASE_URL,
-                    newCustomerData,
-                    CustomerResponseModel.class
-            );
-        }catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+    public Mono<CustomerResponseModel> addCustomer(CustomerRequestModel newCustomerData) {
+        return webClient.post()
+                .bodyValue(newCustomerData)
+                .retrieve()
+                .bodyToMono(CustomerResponseModel.class)
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
     }
 
-    public CustomerResponseModel updateCustomer(String customerId, CustomerRequestModel newCustomerData) {
-
-        try {
-
-                    restTemplate.put(
-                            CUSTOMER_SERVICE_BASE_URL + "/" + customerId,
-                            newCustomerData
-                    );
-                    return getCustomerbyCustomerId(customerId);
-
-        }catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+    public Mono<CustomerResponseModel> updateCustomer(String customerId, CustomerRequestModel newCustomerData) {
+        return webClient.put()
+                .uri("/{customerId}", customerId)
+                .bodyValue(newCustomerData)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .then(getCustomerbyCustomerId(customerId));
     }
 
-    public String deleteCustomerbyCustomerId(String customerId) {
-
-        try{
-             restTemplate.delete(CUSTOMER_SERVICE_BASE_URL + "/" + customerId);
-             return "Customer deleted successfully. ";
-
-        }catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+    public Mono<String> deleteCustomerbyCustomerId(String customerId) {
+        return webClient.delete()
+                .uri("/{customerId}", customerId)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .thenReturn("Customer deleted successfully. ");
     }
 
-    public CustomerResponseModel getCustomerbyEmail(String email) {
-        try {
-            return restTemplate.getForObject(
-                    CUSTOMER_SERVICE_BASE_URL + "?email=" + email,
-                    CustomerResponseModel.class
-            );
-        } catch (HttpClientErrorException.NotFound nf) {
-            log.debug("Customer with email {} not found → returning null", email);
-            return null;
-        } catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+    public Mono<CustomerResponseModel> getCustomerbyEmail(String email) {
+        return webClient.get()
+                .uri(uri -> uri.queryParam("email", email).build())
+                .retrieve()
+                .bodyToMono(CustomerResponseModel.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, nf -> {
+                    log.debug("Customer with email {} not found → returning empty", email);
+                    return Mono.empty();
+                })
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
     }
 
-    private String getErrorMessage(HttpClientErrorException ex) {
+    private String getErrorMessage(WebClientResponseException ex) {
         try {
             return objectMapper.readValue(ex.getResponseBodyAsString(), HttpErrorInfo.class).getMessage();
         }catch (IOException ioex){
@@ -139,7 +114,12 @@ public class CustomerServiceClient {
         }
     }
 
-    private RuntimeException handleHttpClientException(HttpClientErrorException ex){
+    private Throwable handleWebClientException(WebClientResponseException ex){
+
+        // 5xx stays as it is, like HttpServerErrorException did with RestTemplate
+        if (!ex.getStatusCode().is4xxClientError()) {
+            return ex;
+        }
 
         HttpStatus statusCode = (HttpStatus) ex.getStatusCode();
         String errorMessage = getErrorMessage(ex);
@@ -0,0 +1,115 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import com.example.apigatewayservice.utils.DownstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker plus bulkhead in front of one downstream service, installed as a
+ * {@link #filter() WebClient filter} so every request of the client goes through it.
+ * <p>
+ * At most {@code maxConcurrent} exchanges are waiting for response headers at once; one more
+ * is turned away at once rather than parked, since a parked request still holds its caller.
+ * Transport errors (connect refused, response timeout, no pooled connection) and 5xx answers
+ * count as failures for the {@link CircuitBreaker}; 4xx answers count as successes.
+ * Both kinds of rejection fail with {@link DownstreamUnavailableException} (503); the
+ * errors of calls that did go out are passed on unchanged, so retries keep working.
+ * A request cancelled before its answer gives its permission back without an outcome.
+ */
+@Slf4j
+public class DownstreamGuard {
+
+    private final String name;
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejectedByBreaker = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+
+    public DownstreamGuard(String name, boolean enabled, int maxConcurrent, CircuitBreaker breaker) {
+        this.name = name;
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.breaker = breaker;
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> enabled ? exchange(request, next) : next.exchange(request);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquirePermission()) {
+                rejectedByBreaker.increment();
+                return Mono.error(new DownstreamUnavailableException(name + " circuit breaker is open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                breaker.releasePermission();
+                rejectedByBulkhead.increment();
+                return Mono.error(new DownstreamUnavailableException(
+                        name + " bulkhead is full (" + maxConcurrent + " calls in flight)"));
+            }
+
+            calls.increment();
+            AtomicBoolean settled = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (settled.compareAndSet(false, true)) {
+                            if (response.statusCode().is5xxServerError()) {
+                                failed(request, response.statusCode().toString());
+                            } else {
+                                breaker.onSuccess();
+                            }
+                        }
+                    })
+                    .doOnError(ex -> {
+                        if (settled.compareAndSet(false, true)) {
+                            failed(request, ex.toString());
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (settled.compareAndSet(false, true)) {
+                            breaker.releasePermission();
+                        }
+                        bulkhead.release();
+                    });
+        });
+    }
+
+    private void failed(ClientRequest request, String reason) {
+        failures.increment();
+        breaker.onFailure();
+        log.debug("{} {} {} failed: {}", name, request.method(), request.url().getPath(), reason);
+    }
+
+    public DownstreamGuardStats stats() {
+        return DownstreamGuardStats.builder()
+                .name(name)
+                .enabled(enabled)
+                .state(breaker.getState().name())
+                .failureRate(breaker.getFailureRate())
+                .bufferedCalls(breaker.getBufferedCalls())
+                .inFlight(maxConcurrent - bulkhead.availablePermits())
+                .maxConcurrent(maxConcurrent)
+                .calls(calls.sum())
+                .failures(failures.sum())
+                .rejectedByBreaker(rejectedByBreaker.sum())
+                .rejectedByBulkhead(rejectedByBulkhead.sum())
+                .timesOpened(breaker.getTimesOpened())
+                .build();
+    }
+}
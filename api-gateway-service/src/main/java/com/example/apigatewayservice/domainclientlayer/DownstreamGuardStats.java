@@ -0,0 +1,30 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class DownstreamGuardStats {
+
+    private String name;
+    private boolean enabled;
+    private String state;
+    private double failureRate;
+    private int bufferedCalls;
+    private int inFlight;
+    private int maxConcurrent;
+    private long calls;
+    private long failures;
+    private long rejectedByBreaker;
+    private long rejectedByBulkhead;
+    private long timesOpened;
+
+    public double getRejectionRatio() {
+        long attempts = calls + rejectedByBreaker + rejectedByBulkhead;
+        return attempts == 0 ? 0.0 : (double) (rejectedByBreaker + rejectedByBulkhead) / attempts;
+    }
+}
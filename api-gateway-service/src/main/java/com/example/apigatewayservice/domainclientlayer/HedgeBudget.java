@@ -0,0 +1,44 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the extra load hedging puts on the services, across all of them: every call earns
+ * {@code percent}/100 of a hedge, up to {@code burst} saved hedges, and every hedge spends one.
+ * When a replica is slow for everybody, hedging therefore adds at most {@code percent}% more
+ * requests instead of doubling them.
+ */
+public class HedgeBudget {
+
+    private static final long UNIT = 1_000;     // thousandths of a hedge
+
+    private final long earnedPerCall;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public HedgeBudget(double percent, int burst) {
+        this.earnedPerCall = Math.round(percent / 100.0 * UNIT);
+        this.maxBalance = (long) burst * UNIT;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void onCall() {
+        balance.accumulateAndGet(earnedPerCall, (current, earned) -> Math.min(maxBalance, current + earned));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - UNIT));
+        return true;
+    }
+
+    public double getAvailable() {
+        return (double) balance.get() / UNIT;
+    }
+}
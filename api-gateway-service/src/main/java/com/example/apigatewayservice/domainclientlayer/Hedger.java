@@ -0,0 +1,142 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedged reads against one downstream service. An exchange that has not answered after the
+ * observed {@code percentile} latency of its endpoint gets a second subscription to the same
+ * request, which the service's load balancer sends to another replica; whichever answers
+ * first is passed on and the other is cancelled. Only for idempotent reads.
+ * <p>
+ * Hedges are paid for from the shared {@link HedgeBudget}. Until an endpoint has seen
+ * {@code minSamples} answers its percentile is unknown and requests go out unhedged.
+ * A 4xx is an answer like any other; a 5xx, a transport error or a guard rejection is not,
+ * and waits for the other attempt if one is out.
+ */
+@Slf4j
+public class Hedger {
+
+    private final String name;
+    private final boolean enabled;
+    private final int windowSize;
+    private final double percentile;
+    private final int minSamples;
+    private final long minDelayNanos;
+    private final HedgeBudget budget;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    public Hedger(String name, boolean enabled, int windowSize, double percentile, int minSamples,
+                  long minDelayMillis, HedgeBudget budget) {
+        this.name = name;
+        this.enabled = enabled;
+        this.windowSize = windowSize;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.budget = budget;
+    }
+
+    /** {@code attempt} is subscribed to once per attempt, so it must be a cold, repeatable request. */
+    public <T> Mono<T> call(String endpoint, Mono<T> attempt) {
+        if (!enabled) {
+            return attempt;
+        }
+
+        return Mono.defer(() -> {
+            LatencyTracker tracker = trackers.computeIfAbsent(endpoint,
+                    e -> new LatencyTracker(windowSize, percentile, minSamples));
+            calls.increment();
+            budget.onCall();
+
+            long hedgeAfterNanos = tracker.percentileNanos();
+            if (hedgeAfterNanos < 0) {
+                return timed(tracker, attempt);
+            }
+
+            // attempts still out that could answer; a failure only decides once it is the last
+            AtomicInteger running = new AtomicInteger(1);
+            Mono<Outcome<T>> primary = outcome(timed(tracker, attempt), false);
+            Mono<Outcome<T>> hedge = Mono.delay(Duration.ofNanos(Math.max(hedgeAfterNanos, minDelayNanos)))
+                    .flatMap(tick -> {
+                        if (!budget.tryWithdraw()) {
+                            budgetExhausted.increment();
+                            return Mono.empty();
+                        }
+                        hedged.increment();
+                        running.incrementAndGet();
+                        log.debug("{} {} slower than p{} ({} ms), hedging", name, endpoint, percentile,
+                                TimeUnit.NANOSECONDS.toMillis(hedgeAfterNanos));
+                        return outcome(timed(tracker, attempt), true);
+                    });
+
+            return Flux.merge(primary, hedge)
+                    .filter(outcome -> outcome.answered() || running.decrementAndGet() == 0)
+                    .next()
+                    .flatMap(outcome -> {
+                        if (outcome.hedge() && outcome.answered()) {
+                            hedgeWins.increment();
+                        }
+                        return outcome.toMono();
+                    });
+        });
+    }
+
+    private static <T> Mono<T> timed(LatencyTracker tracker, Mono<T> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.doOnSuccess(value -> tracker.record(System.nanoTime() - start));
+        });
+    }
+
+    private static <T> Mono<Outcome<T>> outcome(Mono<T> attempt, boolean hedge) {
+        return attempt
+                .map(value -> new Outcome<>(value, null, true, hedge))
+                .defaultIfEmpty(new Outcome<>(null, null, true, hedge))
+                .onErrorResume(ex -> Mono.just(new Outcome<>(null, ex, isAnswer(ex), hedge)));
+    }
+
+    private static boolean isAnswer(Throwable ex) {
+        return ex instanceof WebClientResponseException wcre && wcre.getStatusCode().is4xxClientError();
+    }
+
+    private record Outcome<T>(T value, Throwable error, boolean answered, boolean hedge) {
+
+        Mono<T> toMono() {
+            return error != null ? Mono.error(error) : Mono.justOrEmpty(value);
+        }
+    }
+
+    public HedgingStats stats() {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        trackers.forEach((endpoint, tracker) -> percentiles.put(endpoint,
+                tracker.percentileNanos() < 0 ? null : tracker.percentileNanos() / 1_000_000.0));
+        return HedgingStats.builder()
+                .name(name)
+                .enabled(enabled)
+                .percentile(percentile)
+                .calls(calls.sum())
+                .hedged(hedged.sum())
+                .hedgeWins(hedgeWins.sum())
+                .budgetExhausted(budgetExhausted.sum())
+                .budgetAvailable(budget.getAvailable())
+                .hedgeAfterMillis(percentiles)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.*;
+
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class HedgingStats {
+
+    private String name;
+    private boolean enabled;
+    private double percentile;
+    private long calls;
+    private long hedged;
+    private long hedgeWins;
+    private long budgetExhausted;
+    private double budgetAvailable;
+    // endpoint → current hedge delay, null until the endpoint has enough samples
+    private Map<String, Double> hedgeAfterMillis;
+
+    public double getHedgeRate() {
+        return calls == 0 ? 0.0 : (double) hedged / calls;
+    }
+
+    public double getHedgeWinRate() {
+        return hedged == 0 ? 0.0 : (double) hedgeWins / hedged;
+    }
+}
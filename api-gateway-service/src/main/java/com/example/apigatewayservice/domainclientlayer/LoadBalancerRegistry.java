@@ -0,0 +1,135 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns one {@link LoadBalancer} per downstream service. The replicas are
+ * {@code app.<service>.replicas}, a list of {@code host:port}; without it the service is its
+ * single {@code app.<service>.host} and {@code .port}, and requests go out untouched.
+ * <p>
+ * {@code app.load-balancing.enabled} switches balancing off everywhere,
+ * {@code app.load-balancing.<service>.enabled} for one service. {@code eject-after-failures},
+ * {@code eject-ms}, {@code max-ejection-percent}, {@code health-path} and
+ * {@code unhealthy-after} are read under {@code app.load-balancing.<service>.} first and
+ * {@code app.load-balancing.} after that. Every replica of a balanced service gets a GET on
+ * its {@code health-path} each {@code app.load-balancing.health-check-interval-ms}, and only
+ * a 2xx passes. The services have no actuator, so the default path is a cheap real read
+ * that the client names when it registers the service.
+ */
+@Component
+@Slf4j
+public class LoadBalancerRegistry {
+
+    private final Environment environment;
+    private final WebClient healthClient;
+    private final Duration healthInterval;
+    private final Duration healthTimeout;
+    private final Map<String, Registration> balancers = new LinkedHashMap<>();
+    private Disposable healthChecks;
+
+    private record Registration(LoadBalancer balancer, String healthPath, int unhealthyAfter) {}
+
+    public LoadBalancerRegistry(Environment environment, WebClient.Builder webClientBuilder) {
+        this.environment = environment;
+        // a builder of its own: the health checks must not go through the balancers they feed
+        this.healthClient = webClientBuilder.clone().build();
+        this.healthInterval = Duration.ofMillis(
+                environment.getProperty("app.load-balancing.health-check-interval-ms", Long.class, 5_000L));
+        this.healthTimeout = Duration.ofMillis(
+                environment.getProperty("app.load-balancing.health-timeout-ms", Long.class, 1_000L));
+    }
+
+    public synchronized LoadBalancer register(String service, String host, String port, String healthPath) {
+        String authority = host + ":" + port;
+        boolean enabled = environment.getProperty("app.load-balancing.enabled", Boolean.class, true)
+                && environment.getProperty("app.load-balancing." + service + ".enabled", Boolean.class, true);
+        List<String> replicas = Binder.get(environment)
+                .bind("app." + service + ".replicas", Bindable.listOf(String.class))
+                .orElse(List.of());
+        if (!enabled || replicas.isEmpty()) {
+            replicas = List.of(authority);
+        }
+        int ejectAfterFailures = setting(service, "eject-after-failures", Integer.class, 5);
+        long ejectMillis = setting(service, "eject-ms", Long.class, 30_000L);
+        int maxEjectionPercent = setting(service, "max-ejection-percent", Integer.class, 50);
+
+        LoadBalancer balancer = new LoadBalancer(service, enabled, authority, replicas,
+                ejectAfterFailures, ejectMillis, maxEjectionPercent);
+        balancers.put(service, new Registration(balancer,
+                setting(service, "health-path", String.class, healthPath),
+                setting(service, "unhealthy-after", Integer.class, 2)));
+        log.info("load balancing {}: {} over {} (eject for {} ms after {} failures in a row)",
+                service, balancer.isBalancing() ? "on" : "off", replicas, ejectMillis, ejectAfterFailures);
+        return balancer;
+    }
+
+    @PostConstruct
+    public void startHealthChecks() {
+        healthChecks = Flux.interval(healthInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> checkHealth())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopHealthChecks() {
+        if (healthChecks != null) {
+            healthChecks.dispose();
+        }
+    }
+
+    Mono<Void> checkHealth() {
+        List<Mono<Void>> checks = new ArrayList<>();
+        for (Registration registration : registrations()) {
+            if (!registration.balancer().isBalancing()) {
+                continue;
+            }
+            for (LoadBalancer.Replica replica : registration.balancer().getReplicas()) {
+                checks.add(healthClient.get()
+                        .uri("http://" + replica.getAddress() + registration.healthPath())
+                        .exchangeToMono(response -> response.releaseBody()
+                                .thenReturn(response.statusCode().is2xxSuccessful()))
+                        .timeout(healthTimeout)
+                        .onErrorResume(ex -> {
+                            log.debug("health check of {} failed: {}", replica.getAddress(), ex.toString());
+                            return Mono.just(false);
+                        })
+                        .doOnNext(passed -> replica.onHealthCheck(passed, registration.unhealthyAfter()))
+                        .then());
+            }
+        }
+        return Mono.when(checks);
+    }
+
+    private synchronized List<Registration> registrations() {
+        return new ArrayList<>(balancers.values());
+    }
+
+    public synchronized List<LoadBalancerStats> stats() {
+        List<LoadBalancerStats> stats = new ArrayList<>();
+        balancers.values().forEach(r -> stats.add(r.balancer().stats()));
+        return stats;
+    }
+
+    private <T> T setting(String service, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("app.load-balancing." + service + "." + key, type);
+        return value != null ? value : environment.getProperty("app.load-balancing." + key, type, defaultValue);
+    }
+}
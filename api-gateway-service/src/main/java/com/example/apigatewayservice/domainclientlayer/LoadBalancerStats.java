@@ -0,0 +1,34 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class LoadBalancerStats {
+
+    private String name;
+    private boolean enabled;
+    private List<ReplicaStats> replicas;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    @Builder
+    public static class ReplicaStats {
+
+        private String address;
+        private boolean healthy;
+        private boolean ejected;
+        private int outstanding;
+        private long calls;
+        private long failures;
+        private long ejections;
+    }
+}
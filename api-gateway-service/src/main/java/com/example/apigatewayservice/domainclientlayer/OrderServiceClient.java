@@ -1,22 +1,28 @@
 package com.example.apigatewayservice.domainclientlayer;
 
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderRequestModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderSearchRequestModel;
 import com.example.apigatewayservice.utils.HttpErrorInfo;
 import com.example.apigatewayservice.utils.InvalidInputException;
 import com.example.apigatewayservice.utils.NotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
@@ -25,86 +31,122 @@ import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 @Slf4j
 public class OrderServiceClient {
 
-        private final RestTemplate restTemplate;
+        private final WebClient webClient;
         private final ObjectMapper objectMapper;
         private final String ORDER_SERVICE_BASE_URL;
+        private final int createAttempts;
 
-        public OrderServiceClient(RestTemplate restTemplate,
+        public OrderServiceClient(WebClient.Builder webClientBuilder,
                                   ObjectMapper objectMapper,
+                                  DownstreamGuardRegistry downstreamGuardRegistry,
+                                  LoadBalancerRegistry loadBalancerRegistry,
                                   @Value("${app.order-services.host}") String orderServicesHost,
-                                  @Value("${app.order-services.port}") String orderServicesPort) {
-            this.restTemplate  = restTemplate;
+                                  @Value("${app.order-services.port}") String orderServicesPort,
+                                  @Value("${app.order-services.create-attempts:3}") int createAttempts) {
             this.objectMapper  = objectMapper;
+            this.createAttempts = Math.max(1, createAttempts);
             this.ORDER_SERVICE_BASE_URL = "http://" +
                     orderServicesHost + ":" + orderServicesPort + "/api/v1/orders";
+            this.webClient = webClientBuilder.baseUrl(ORDER_SERVICE_BASE_URL)
+                    .filter(downstreamGuardRegistry.register("order-services").filter())
+                    .filter(loadBalancerRegistry.register("order-services", orderServicesHost, orderServicesPort, "/api/v1/orders?limit=1").filter())
+                    .build();
         }
 
-        public List<OrderResponseModel> getAllOrders() {
-            try {
-                return restTemplate.exchange(
-                        ORDER_SERVICE_BASE_URL,
-                        HttpMethod.GET,
-                        null,
-                        new ParameterizedTypeReference<List<OrderResponseModel>>() {}
-                ).getBody();
-            } catch (HttpClientErrorException ex) {
-                throw handleHttpClientException(ex);
-            }
-        }
+        public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
-    public OrderResponseModel getOrderById(String orderId) {
-        try {
-            return restTemplate.getForObject(
-                    ORDER_SERVICE_BASE_URL + "/" + orderId,
-                    OrderResponseModel.class
-            );
-        }
-        catch (HttpClientErrorException.NotFound nf) {
-            log.debug("Order {} not found → returning null", orderId);
-            return null;
+        public Mono<OrderPageResponseModel> getAllOrders(OrderSearchRequestModel search) {
+            return webClient.get()
+                    .uri(uri -> uri
+                            .queryParamIfPresent("customerId", Optional.ofNullable(search.getCustomerId()))
+                            .queryParamIfPresent("watchId", Optional.ofNullable(search.getWatchId()))
+                            .queryParamIfPresent("status", Optional.ofNullable(search.getStatus()))
+                            .queryParamIfPresent("from", Optional.ofNullable(search.getFrom()))
+                            .queryParamIfPresent("to", Optional.ofNullable(search.getTo()))
+                            .queryParamIfPresent("cursor", Optional.ofNullable(search.getCursor()))
+                            .queryParamIfPresent("limit", Optional.ofNullable(search.getLimit()))
+                            .build())
+                    .retrieve()
+                    .toEntityList(OrderResponseModel.class)
+                    .map(response -> OrderPageResponseModel.builder()
+                            .orders(response.getBody() == null ? List.of() : response.getBody())
+                            .nextCursor(response.getHeaders().getFirst(NEXT_CURSOR_HEADER))
+                            .build())
+                    .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
         }
-        catch (HttpClientErrorException ce) {
-            throw handleHttpClientException(ce);
+
+        /**
+         * Decodes the NDJSON export line by line as it arrives; demand from the caller is
+         * passed upstream, so at most a few orders are in memory at any time.
+         */
+        public Flux<OrderResponseModel> exportOrders() {
+            return webClient.get()
+                    .uri("/export")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .retrieve()
+                    .bodyToFlux(OrderResponseModel.class)
+                    .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
         }
+
+    public Mono<OrderResponseModel> getOrderById(String orderId) {
+        return webClient.get()
+                .uri("/{orderId}", orderId)
+                .retrieve()
+                .bodyToMono(OrderResponseModel.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, nf -> {
+                    log.debug("Order {} not found → returning empty", orderId);
+                    return Mono.empty();
+                })
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
     }
 
-        public OrderResponseModel createOrder(OrderRequestModel newOrder) {
-            try {
-                return restTemplate.postForObject(
-                        ORDER_SERVICE_BASE_URL,
-                        newOrder,
-                        OrderResponseModel.class
-                );
-            } catch (HttpClientErrorException ex) {
-                throw handleHttpClientException(ex);
-            }
+        /**
+         * Every attempt carries the same {@code Idempotency-Key}, so retrying after a timeout
+         * can never create a second order or take stock twice. Only transport failures
+         * (connect refused, response timeout) are retried; an HTTP answer is final.
+         */
+        public Mono<OrderResponseModel> createOrder(OrderRequestModel newOrder, String idempotencyKey) {
+            return webClient.post()
+                    .header("Idempotency-Key", idempotencyKey)
+                    .bodyValue(newOrder)
+                    .retrieve()
+                    .bodyToMono(OrderResponseModel.class)
+                    .retryWhen(Retry.max(createAttempts - 1)
+                            .filter(WebClientRequestException.class::isInstance)
+                            .doBeforeRetry(signal -> log.warn("POST order attempt {} failed ({}), retrying with the same key",
+                                    signal.totalRetries() + 1, signal.failure().getMessage()))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
         }
 
-        public OrderResponseModel updateOrder(String orderId, OrderRequestModel updateOrder) {
-            try {
-                restTemplate.put(
-                        ORDER_SERVICE_BASE_URL + "/" + orderId,
-                        updateOrder
-                );
-                return getOrderById(orderId);
-            } catch (HttpClientErrorException ex) {
-                throw handleHttpClientException(ex);
-            }
+        public Mono<OrderResponseModel> updateOrder(String orderId, OrderRequestModel updateOrder) {
+            return webClient.put()
+                    .uri("/{orderId}", orderId)
+                    .bodyValue(updateOrder)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                    .then(getOrderById(orderId));
         }
 
-        public String deleteOrder(String orderId) {
-            try {
-                restTemplate.delete(ORDER_SERVICE_BASE_URL + "/" + orderId);
-                return "Order deleted successfully.";
-            } catch (HttpClientErrorException ex) {
-                throw handleHttpClientException(ex);
-            }
+        public Mono<String> deleteOrder(String orderId) {
+            return webClient.delete()
+                    .uri("/{orderId}", orderId)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                    .thenReturn("Order deleted successfully.");
         }
 
-        private RuntimeException handleHttpClientException(HttpClientErrorException ex) {
-            HttpStatus status = (HttpStatus) ex.getStatusCode();
-            String message = extractErrorMessage(ex);
+        // 5xx stays as it is, like HttpServerErrorException did with RestTemplate
+        private Throwable handleWebClientException(WebClientResponseException ex) {
+            if (!ex.getStatusCode().is4xxClientError()) {
+                return ex;
+            }
+            return toGatewayException((HttpStatus) ex.getStatusCode(), extractErrorMessage(ex.getResponseBodyAsString()));
+        }
 
+        private RuntimeException toGatewayException(HttpStatus status, String message) {
             if (status == UNPROCESSABLE_ENTITY) {
                 return new InvalidInputException(message);
             } else if (status == NOT_FOUND) {
@@ -115,9 +157,9 @@ public class OrderServiceClient {
             }
         }
 
-        private String extractErrorMessage(HttpClientErrorException ex) {
+        private String extractErrorMessage(String responseBody) {
             try {
-                return objectMapper.readValue(ex.getResponseBodyAsString(), HttpErrorInfo.class)
+                return objectMapper.readValue(responseBody, HttpErrorInfo.class)
                         .getMessage();
             } catch (IOException io) {
                 return io.getMessage();
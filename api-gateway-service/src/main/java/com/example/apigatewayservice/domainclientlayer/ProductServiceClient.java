@@ -7,210 +7,240 @@ import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseMo
 import com.example.apigatewayservice.utils.HttpErrorInfo;
 import com.example.apigatewayservice.utils.InvalidInputException;
 import com.example.apigatewayservice.utils.NotFoundException;
+import com.example.apigatewayservice.utils.SmileCodec;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
 
 @Component
 @Slf4j
 public class ProductServiceClient {
 
-    private final RestTemplate restTemplate;
+    private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final SmileCodec smileCodec;
+    private final ResponseCache responseCache;
+    private final Hedger hedger;
 
     private final String CATALOG_BASE_URL;
     private final String WATCH_BASE_URL;
     private final String CATALOG_WATCHES_BASE_URL;
 
-    public ProductServiceClient(RestTemplate restTemplate,
+    public ProductServiceClient(WebClient.Builder webClientBuilder,
                                 ObjectMapper objectMapper,
+                                SmileCodec smileCodec,
+                                SingleFlightRegistry singleFlightRegistry,
+                                ResponseCacheRegistry responseCacheRegistry,
+                                DownstreamGuardRegistry downstreamGuardRegistry,
+                                LoadBalancerRegistry loadBalancerRegistry,
+                                HedgingRegistry hedgingRegistry,
                                 @Value("${app.product-services.host}") String productServicesHost,
                                 @Value("${app.product-services.port}") String productServicesPort) {
-        this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.smileCodec = smileCodec;
+        this.responseCache = responseCacheRegistry.register("product-services",
+                singleFlightRegistry.register("product-services"));
+        this.hedger = hedgingRegistry.register("product-services");
 
         String baseUrl = "http://" + productServicesHost + ":" + productServicesPort;
         this.CATALOG_BASE_URL        = baseUrl + "/api/v1/catalogs";
         this.WATCH_BASE_URL          = baseUrl + "/api/v1/watches";
         this.CATALOG_WATCHES_BASE_URL= baseUrl + "/api/v1/catalogs/{catalogId}/watches";
+        this.webClient = webClientBuilder
+                .filter(downstreamGuardRegistry.register("product-services").filter())
+                .filter(loadBalancerRegistry.register("product-services", productServicesHost, productServicesPort, "/api/v1/watches?limit=1").filter())
+                .build();
 }
 
 //CatalogServiceImpl ///////////////
 
-    public List<CatalogResponseModel> getCatalogs() {
+    public Flux<CatalogResponseModel> getCatalogs() {
 
-        try {
-            ResponseEntity<List<CatalogResponseModel>> resp = restTemplate.exchange(
-                    CATALOG_BASE_URL,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<>() {}
-            );
-            return resp.getBody();
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+        return getMany("catalogs", CatalogResponseModel.class, CATALOG_BASE_URL, uri -> uri.build());
     }
 
-    public CatalogResponseModel getCatalogById(String catalogId) {
-        try {
-            return restTemplate.getForObject(
-                    CATALOG_BASE_URL + "/" + catalogId,
-                    CatalogResponseModel.class
-            );
-        }
-        catch (HttpClientErrorException.NotFound nf) {
-            log.debug("Catalog {} not found → returning null", catalogId);
-            return null;
-        }
-        catch (HttpClientErrorException ce) {
-            throw handleHttpClientException(ce);
-        }
+    public Mono<CatalogResponseModel> getCatalogById(String catalogId) {
+        return getOne("getCatalogById", "catalogs/" + catalogId, false, CatalogResponseModel.class,
+                CATALOG_BASE_URL + "/{catalogId}", uri -> uri.build(catalogId));
     }
 
-    public CatalogResponseModel addCatalog(CatalogRequestModel catalogRequestModel) {
+    public Mono<CatalogResponseModel> addCatalog(CatalogRequestModel catalogRequestModel) {
 
-        try {
-            return restTemplate.postForObject(
-                    CATALOG_BASE_URL,
-                    catalogRequestModel,
-                    CatalogResponseModel.class
-            );
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+        return webClient.post()
+                .uri(CATALOG_BASE_URL)
+                .bodyValue(catalogRequestModel)
+                .retrieve()
+                .bodyToMono(CatalogResponseModel.class)
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(created -> responseCache.invalidate("catalogs"));
     }
 
-    public CatalogResponseModel updateCatalog(CatalogRequestModel catalogRequestModel, String catalogId) {
-        try {
-            restTemplate.put(
-                    CATALOG_BASE_URL + "/" + catalogId,
-                    catalogRequestModel
-            );
-            return getCatalogById(catalogId);
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+    public Mono<CatalogResponseModel> updateCatalog(CatalogRequestModel catalogRequestModel, String catalogId) {
+        return webClient.put()
+                .uri(CATALOG_BASE_URL + "/{catalogId}", catalogId)
+                .bodyValue(catalogRequestModel)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(done -> responseCache.invalidate("catalogs"))
+                // refreshed, not joined: a GET already in flight may have read the old version
+                .then(getOne("getCatalogById", "catalogs/" + catalogId, true, CatalogResponseModel.class,
+                        CATALOG_BASE_URL + "/{catalogId}", uri -> uri.build(catalogId)));
     }
 
-    public String deleteCatalog(String catalogId) {
+    public Mono<String> deleteCatalog(String catalogId) {
 
-        try {
-            restTemplate.delete(CATALOG_BASE_URL + "/" + catalogId);
-            return "Catalog deleted successfully.";
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+        return webClient.delete()
+                .uri(CATALOG_BASE_URL + "/{catalogId}", catalogId)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                // the catalog, the catalog list and the catalog's watch lists
+                .doOnSuccess(done -> responseCache.invalidatePrefix("catalogs"))
+                .thenReturn("Catalog deleted successfully.");
     }
 
     //Watch Endpoint
 
 
-    public List<WatchResponseModel> getWatchesWithFilter(Map<String,String> queryParams) {
-        try {
-            UriComponentsBuilder b = UriComponentsBuilder.fromUriString(WATCH_BASE_URL);
-            queryParams.forEach(b::queryParam);
-            ResponseEntity<List<WatchResponseModel>> resp = restTemplate.exchange(
-                    b.toUriString(),
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<>() {}
-            );
-            return resp.getBody();
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+    public Flux<WatchResponseModel> getWatchesWithFilter(Map<String,String> queryParams) {
+        return getMany("watches?" + new TreeMap<>(queryParams), WatchResponseModel.class, WATCH_BASE_URL, uri -> {
+            queryParams.forEach(uri::queryParam);
+            return uri.build();
+        });
     }
 
-    public WatchResponseModel getCatalogWatchByID(String watchId) {
-        try {
-            return restTemplate.getForObject(
-                    WATCH_BASE_URL + "/" + watchId,
-                    WatchResponseModel.class
-            );
-        }
-        catch (HttpClientErrorException.NotFound nf) {
-            log.debug("Watch {} not found → returning null", watchId);
-            return null;
-        }
-        catch (HttpClientErrorException ce) {
-            throw handleHttpClientException(ce);
-        }
+    public Mono<WatchResponseModel> getCatalogWatchByID(String watchId) {
+        return getOne("getCatalogWatchByID", "watches/" + watchId, false, WatchResponseModel.class,
+                WATCH_BASE_URL + "/{watchId}", uri -> uri.build(watchId));
     }
 
 
     //CatalogWatchServiceImpl ///////////////////
 
-    public List<WatchResponseModel> getWatchesInCatalogWithFiltering(String catalogId, Map<String, String> queryParams) {
+    public Flux<WatchResponseModel> getWatchesInCatalogWithFiltering(String catalogId, Map<String, String> queryParams) {
 
-        try {
-            UriComponentsBuilder b = UriComponentsBuilder
-                    .fromUriString(CATALOG_WATCHES_BASE_URL.replace("{catalogId}", catalogId));
-            queryParams.forEach(b::queryParam);
-            ResponseEntity<List<WatchResponseModel>> resp = restTemplate.exchange(
-                    b.toUriString(),
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<>() {}
-            );
-            return resp.getBody();
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+        return getMany("catalogs/" + catalogId + "/watches?" + new TreeMap<>(queryParams), WatchResponseModel.class,
+                CATALOG_WATCHES_BASE_URL, uri -> {
+                    queryParams.forEach(uri::queryParam);
+                    return uri.build(catalogId);
+                });
 
     }
 
 
-    public WatchResponseModel addWatches(WatchRequestModel watchRequestModel, String catalogId) {
+    public Mono<WatchResponseModel> addWatches(WatchRequestModel watchRequestModel, String catalogId) {
 
-        try {
-            String url = CATALOG_WATCHES_BASE_URL.replace("{catalogId}", catalogId);
-            return restTemplate.postForObject(
-                    url,
-                    watchRequestModel,
-                    WatchResponseModel.class
-            );
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+        return webClient.post()
+                .uri(CATALOG_WATCHES_BASE_URL, catalogId)
+                .bodyValue(watchRequestModel)
+                .retrieve()
+                .bodyToMono(WatchResponseModel.class)
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(created -> invalidateWatchLists(catalogId));
     }
 
-    public WatchResponseModel updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel) {
+    public Mono<WatchResponseModel> updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel) {
+
+        return webClient.put()
+                .uri(CATALOG_WATCHES_BASE_URL + "/{watchId}", catalogId, watchId)
+                .bodyValue(watchRequestModel)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(done -> invalidateWatchLists(catalogId))
+                // refreshed, not joined: a GET already in flight may have read the old version
+                .then(getOne("getCatalogWatchByID", "watches/" + watchId, true, WatchResponseModel.class,
+                        WATCH_BASE_URL + "/{watchId}", uri -> uri.build(watchId)));
+    }
 
-        try {
-            String url = CATALOG_WATCHES_BASE_URL.replace("{catalogId}", catalogId) + "/" + watchId;
-            restTemplate.put(url, watchRequestModel);
-            return getCatalogWatchByID(watchId);
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
-        }
+    public Mono<String> removeWatchInCatalog(String catalogId, String watchId) {
+
+        return webClient.delete()
+                .uri(CATALOG_WATCHES_BASE_URL + "/{watchId}", catalogId, watchId)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(done -> {
+                    responseCache.invalidate("watches/" + watchId);
+                    invalidateWatchLists(catalogId);
+                })
+                .thenReturn("Watch deleted successfully.");
+    }
+
+    private void invalidateWatchLists(String catalogId) {
+        responseCache.invalidatePrefix("watches?");
+        responseCache.invalidatePrefix("catalogs/" + catalogId + "/watches?");
     }
 
-    public String removeWatchInCatalog(String catalogId, String watchId) {
 
+    // GETs are answered by the response cache; every caller decodes its own copy of the
+    // shared body because the controllers add links to what they get back. What does go out
+    // for a single resource is hedged once it runs slower than usual
+    private <T> Mono<T> getOne(String endpoint, String key, boolean refresh, Class<T> type,
+                               String uriTemplate, Function<UriBuilder, URI> uriFunction) {
+        Function<String, Mono<ConditionalResponse>> get = conditionalGet(uriTemplate, uriFunction);
+        Function<String, Mono<ConditionalResponse>> fetch = etag -> hedger.call(endpoint, get.apply(etag));
+        return (refresh ? responseCache.refresh(key, fetch) : responseCache.get(key, fetch))
+                .map(body -> this.<T>decode(body, objectMapper.constructType(type)))
+                .onErrorResume(WebClientResponseException.NotFound.class, nf -> {
+                    log.debug("{} not found → returning empty", key);
+                    return Mono.empty();
+                })
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
+    }
+
+    private <T> Flux<T> getMany(String key, Class<T> type, String uriTemplate, Function<UriBuilder, URI> uriFunction) {
+        return responseCache.get(key, conditionalGet(uriTemplate, uriFunction))
+                .flatMapIterable(body -> this.<List<T>>decode(body,
+                        objectMapper.getTypeFactory().constructCollectionType(List.class, type)))
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
+    }
+
+    private Function<String, Mono<ConditionalResponse>> conditionalGet(String uriTemplate, Function<UriBuilder, URI> uriFunction) {
+        return etag -> webClient.get()
+                .uri(uriTemplate, uriFunction)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().thenReturn(ConditionalResponse.notModified());
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.<ConditionalResponse>createError();
+                    }
+                    String responseEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(byte[].class).map(body -> ConditionalResponse.of(responseEtag, body));
+                });
+    }
+
+    private <T> T decode(byte[] body, JavaType type) {
         try {
-            String url = CATALOG_WATCHES_BASE_URL.replace("{catalogId}", catalogId) + "/" + watchId;
-            restTemplate.delete(url);
-            return "Watch deleted successfully.";
-        } catch (HttpClientErrorException ex) {
-            throw handleHttpClientException(ex);
+            return smileCodec.readValue(body, type);
+        } catch (IOException ex) {
+            throw new IllegalStateException("cannot decode product-services response as " + type, ex);
         }
     }
 
-
-    private String getErrorMessage(HttpClientErrorException ex) {
+    private String getErrorMessage(WebClientResponseException ex) {
         try {
             return objectMapper.readValue(ex.getResponseBodyAsString(), HttpErrorInfo.class).getMessage();
         }catch (IOException ioex){
@@ -218,7 +248,12 @@ public class ProductServiceClient {
         }
     }
 
-    private RuntimeException handleHttpClientException(HttpClientErrorException ex){
+    private Throwable handleWebClientException(WebClientResponseException ex){
+
+        // 5xx stays as it is, like HttpServerErrorException did with RestTemplate
+        if (!ex.getStatusCode().is4xxClientError()) {
+            return ex;
+        }
 
         HttpStatus statusCode = (HttpStatus) ex.getStatusCode();
         String errorMessage = getErrorMessage(ex);
@@ -0,0 +1,217 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import com.example.apigatewayservice.utils.DownstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Shared cache of downstream GET responses, kept as raw bodies with their entity tags.
+ * <p>
+ * A copy younger than {@code ttl} is served as-is. Up to {@code stale-while-revalidate}
+ * past that it is still served, and one background request revalidates it. Anything older
+ * waits for the origin. Revalidation sends {@code If-None-Match}, so an unchanged resource
+ * costs a 304 and no body. Responses without an ETag are never stored.
+ * <p>
+ * When the origin is down (open breaker, full bulkhead, transport error or 5xx) a copy up to
+ * {@code stale-if-error} past the revalidation window is served instead of the error.
+ * <p>
+ * Writes going through the gateway call {@link #invalidate} / {@link #invalidatePrefix};
+ * a fetch that was already in flight when that happened does not put its (older) result back.
+ * The origin fetches go through the service's {@link SingleFlight}, so a burst of misses
+ * for one key still costs one request.
+ */
+@Slf4j
+public class ResponseCache {
+
+    private final String name;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final long staleWhileRevalidateMillis;
+    private final long staleIfErrorMillis;
+    private final int maxEntries;
+    private final SingleFlight singleFlight;
+    private final LongSupplier clock;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder staleIfErrorHits = new LongAdder();
+
+    public ResponseCache(String name, boolean enabled, long ttlMillis, long staleWhileRevalidateMillis,
+                         long staleIfErrorMillis, int maxEntries, SingleFlight singleFlight) {
+        this(name, enabled, ttlMillis, staleWhileRevalidateMillis, staleIfErrorMillis, maxEntries, singleFlight,
+                System::currentTimeMillis);
+    }
+
+    ResponseCache(String name, boolean enabled, long ttlMillis, long staleWhileRevalidateMillis,
+                  long staleIfErrorMillis, int maxEntries, SingleFlight singleFlight, LongSupplier clock) {
+        this.name = name;
+        this.enabled = enabled;
+        this.ttlMillis = ttlMillis;
+        this.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+        this.staleIfErrorMillis = staleIfErrorMillis;
+        this.maxEntries = maxEntries;
+        this.singleFlight = singleFlight;
+        this.clock = clock;
+    }
+
+    /**
+     * @param fetch issues the GET, with {@code If-None-Match} set to the given tag when it is not null
+     */
+    public Mono<byte[]> get(String key, Function<String, Mono<ConditionalResponse>> fetch) {
+        if (!enabled) {
+            return singleFlight.execute(key, () -> fetch.apply(null)).map(ConditionalResponse::getBody);
+        }
+        return Mono.defer(() -> {
+            Entry entry = entries.get(key);
+            long age = entry == null ? Long.MAX_VALUE : clock.getAsLong() - entry.storedAt;
+
+            if (age < ttlMillis) {
+                hits.increment();
+                return Mono.just(entry.body);
+            }
+            if (age < ttlMillis + staleWhileRevalidateMillis) {
+                staleHits.increment();
+                if (entry.revalidating.compareAndSet(false, true)) {
+                    fetchAndStore(key, entry, fetch)
+                            .doFinally(signal -> entry.revalidating.set(false))
+                            .subscribe(body -> { }, ex -> log.debug("background revalidation of {} failed: {}", key, ex.toString()));
+                }
+                return Mono.just(entry.body);
+            }
+            misses.increment();
+            return fetchAndStore(key, entry, fetch);
+        });
+    }
+
+    /** Drops the stored copy and fetches a new one, without joining a request already in flight. */
+    public Mono<byte[]> refresh(String key, Function<String, Mono<ConditionalResponse>> fetch) {
+        return Mono.defer(() -> {
+            invalidate(key);
+            long epoch = invalidations.get();
+            return fetch.apply(null).map(response -> store(key, null, response, epoch));
+        });
+    }
+
+    public void invalidate(String key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public void invalidatePrefix(String prefix) {
+        invalidations.incrementAndGet();
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private Mono<byte[]> fetchAndStore(String key, Entry entry, Function<String, Mono<ConditionalResponse>> fetch) {
+        String etag = entry == null ? null : entry.etag;
+        return singleFlight.execute(key + "|" + etag, () -> {
+            long epoch = invalidations.get();
+            if (etag != null) {
+                revalidations.increment();
+            }
+            return fetch.apply(etag)
+                    .map(response -> store(key, entry, response, epoch))
+                    .onErrorResume(ResponseCache::isOutage, ex -> serveStale(key, entry, ex))
+                    .doOnError(ex -> {
+                        if (entry != null) {
+                            entries.remove(key, entry);
+                        }
+                    });
+        });
+    }
+
+    private Mono<byte[]> serveStale(String key, Entry entry, Throwable ex) {
+        if (entry == null || clock.getAsLong() - entry.storedAt >= ttlMillis + staleWhileRevalidateMillis + staleIfErrorMillis) {
+            return Mono.error(ex);
+        }
+        staleIfErrorHits.increment();
+        log.debug("{} unavailable, serving stale {}: {}", name, key, ex.toString());
+        return Mono.just(entry.body);
+    }
+
+    private static boolean isOutage(Throwable ex) {
+        return ex instanceof DownstreamUnavailableException
+                || ex instanceof WebClientRequestException
+                || ex instanceof WebClientResponseException wre && wre.getStatusCode().is5xxServerError();
+    }
+
+    private byte[] store(String key, Entry previous, ConditionalResponse response, long epoch) {
+        boolean current = epoch == invalidations.get();
+
+        if (response.isNotModified()) {
+            if (previous == null) {
+                throw new IllegalStateException(name + " answered 304 for " + key + " without a conditional request");
+            }
+            notModified.increment();
+            if (current) {
+                entries.replace(key, previous, new Entry(previous.etag, previous.body, clock.getAsLong()));
+            }
+            return previous.body;
+        }
+
+        if (enabled && current && response.getEtag() != null) {
+            if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+                evictOldest();
+            }
+            entries.put(key, new Entry(response.getEtag(), response.getBody(), clock.getAsLong()));
+        }
+        return response.getBody();
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().storedAt, b.getValue().storedAt))
+                .ifPresent(oldest -> {
+                    if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                        evictions.increment();
+                    }
+                });
+    }
+
+    public ResponseCacheStats stats() {
+        return ResponseCacheStats.builder()
+                .name(name)
+                .enabled(enabled)
+                .size(entries.size())
+                .hits(hits.sum())
+                .staleHits(staleHits.sum())
+                .misses(misses.sum())
+                .revalidations(revalidations.sum())
+                .notModified(notModified.sum())
+                .evictions(evictions.sum())
+                .staleIfErrorHits(staleIfErrorHits.sum())
+                .build();
+    }
+
+    private static final class Entry {
+
+        private final String etag;
+        private final byte[] body;
+        private final long storedAt;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        private Entry(String etag, byte[] body, long storedAt) {
+            this.etag = etag;
+            this.body = body;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns one {@link ResponseCache} per downstream service. {@code app.response-cache.enabled}
+ * switches caching off everywhere, {@code app.response-cache.<service>.enabled} for one service.
+ * {@code ttl-ms}, {@code stale-while-revalidate-ms}, {@code stale-if-error-ms} and {@code max-entries}
+ * are read under {@code app.response-cache.<service>.} first and {@code app.response-cache.} after that.
+ */
+@Component
+@Slf4j
+public class ResponseCacheRegistry {
+
+    private final Environment environment;
+    private final Map<String, ResponseCache> caches = new LinkedHashMap<>();
+
+    public ResponseCacheRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    public synchronized ResponseCache register(String service, SingleFlight singleFlight) {
+        boolean enabled = environment.getProperty("app.response-cache.enabled", Boolean.class, true)
+                && environment.getProperty("app.response-cache." + service + ".enabled", Boolean.class, true);
+        long ttlMillis = setting(service, "ttl-ms", Long.class, 5_000L);
+        long staleWhileRevalidateMillis = setting(service, "stale-while-revalidate-ms", Long.class, 30_000L);
+        long staleIfErrorMillis = setting(service, "stale-if-error-ms", Long.class, 300_000L);
+        int maxEntries = setting(service, "max-entries", Integer.class, 1_000);
+
+        ResponseCache cache = new ResponseCache(service, enabled, ttlMillis, staleWhileRevalidateMillis,
+                staleIfErrorMillis, maxEntries, singleFlight);
+        caches.put(service, cache);
+        log.info("response cache {}: {} (ttl {} ms, stale-while-revalidate {} ms, {} entries)",
+                service, enabled ? "on" : "off", ttlMillis, staleWhileRevalidateMillis, maxEntries);
+        return cache;
+    }
+
+    public synchronized List<ResponseCacheStats> stats() {
+        List<ResponseCacheStats> stats = new ArrayList<>();
+        caches.values().forEach(c -> stats.add(c.stats()));
+        return stats;
+    }
+
+    private <T> T setting(String service, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("app.response-cache." + service + "." + key, type);
+        return value != null ? value : environment.getProperty("app.response-cache." + key, type, defaultValue);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ResponseCacheStats {
+
+    private String name;
+    private boolean enabled;
+    private int size;
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long revalidations;
+    private long notModified;
+    private long evictions;
+    private long staleIfErrorHits;
+
+    // share of lookups answered without waiting for the origin
+    public double getHitRatio() {
+        long lookups = hits + staleHits + misses;
+        return lookups == 0 ? 0.0 : (double) (hits + staleHits) / lookups;
+    }
+
+    // share of revalidations the origin answered with a 304 instead of a full body
+    public double getNotModifiedRatio() {
+        return revalidations == 0 ? 0.0 : (double) notModified / revalidations;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical downstream calls into one.
+ * <p>
+ * The first caller for a key starts the call; everyone who asks for the same key while
+ * it is in flight subscribes to that same call and receives its result (or its error).
+ * Nothing is kept once the call finishes, so this is not a cache: the next request
+ * after completion goes downstream again.
+ * <p>
+ * The result is handed to every caller as-is, so it must not be mutated; the clients
+ * share the raw response body and decode a private copy per caller.
+ */
+public class SingleFlight {
+
+    private final String name;
+    private final boolean enabled;
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder downstreamCalls = new LongAdder();
+
+    public SingleFlight(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            requests.increment();
+            return (Mono<T>) inFlight.computeIfAbsent(key, k -> {
+                downstreamCalls.increment();
+                return lead(k, call);
+            });
+        });
+    }
+
+    private <T> Mono<T> lead(String key, Supplier<Mono<T>> call) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        // cache() replays the one result to every follower; the entry goes once the call is done
+        Mono<T> shared = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    public SingleFlightStats stats() {
+        return SingleFlightStats.builder()
+                .name(name)
+                .enabled(enabled)
+                .inFlight(inFlight.size())
+                .requests(requests.sum())
+                .downstreamCalls(downstreamCalls.sum())
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns one {@link SingleFlight} per downstream service. {@code app.single-flight.enabled}
+ * switches coalescing off everywhere, {@code app.single-flight.<service>.enabled} for one
+ * service (e.g. {@code app.single-flight.product-services.enabled}).
+ */
+@Component
+@Slf4j
+public class SingleFlightRegistry {
+
+    private final Environment environment;
+    private final Map<String, SingleFlight> singleFlights = new LinkedHashMap<>();
+
+    public SingleFlightRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    public synchronized SingleFlight register(String service) {
+        boolean enabled = environment.getProperty("app.single-flight.enabled", Boolean.class, true)
+                && environment.getProperty("app.single-flight." + service + ".enabled", Boolean.class, true);
+
+        SingleFlight singleFlight = new SingleFlight(service, enabled);
+        singleFlights.put(service, singleFlight);
+        log.info("single-flight {}: {}", service, enabled ? "on" : "off");
+        return singleFlight;
+    }
+
+    public synchronized List<SingleFlightStats> stats() {
+        List<SingleFlightStats> stats = new ArrayList<>();
+        singleFlights.values().forEach(s -> stats.add(s.stats()));
+        return stats;
+    }
+}
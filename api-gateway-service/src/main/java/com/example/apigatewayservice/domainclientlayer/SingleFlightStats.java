@@ -0,0 +1,27 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class SingleFlightStats {
+
+    private String name;
+    private boolean enabled;
+    private int inFlight;
+    private long requests;
+    private long downstreamCalls;
+
+    public long getCollapsed() {
+        return requests - downstreamCalls;
+    }
+
+    // share of requests answered by someone else's downstream call
+    public double getCollapseRatio() {
+        return requests == 0 ? 0.0 : (double) getCollapsed() / requests;
+    }
+}
@@ -6,113 +6,154 @@ import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePl
 import com.example.apigatewayservice.utils.HttpErrorInfo;
 import com.example.apigatewayservice.utils.InvalidInputException;
 import com.example.apigatewayservice.utils.NotFoundException;
+import com.example.apigatewayservice.utils.SmileCodec;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Function;
 
 @Component
 @Slf4j
 public class servicePlanServiceClient {
 
 
-    private final RestTemplate restTemplate;
+    private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final SmileCodec smileCodec;
+    private final ResponseCache responseCache;
+    private final Hedger hedger;
 
     private final String PLAN_BASE_URL;
 
 
-    public servicePlanServiceClient(RestTemplate restTemplate, ObjectMapper objectMapper,
+    public servicePlanServiceClient(WebClient.Builder webClientBuilder, ObjectMapper objectMapper,
+                                    SmileCodec smileCodec,
+                                    SingleFlightRegistry singleFlightRegistry,
+                                    ResponseCacheRegistry responseCacheRegistry,
+                                    DownstreamGuardRegistry downstreamGuardRegistry,
+                                    LoadBalancerRegistry loadBalancerRegistry,
+                                    HedgingRegistry hedgingRegistry,
                                     @Value("${app.service-plan-services.host}") String servicePlanServicesHost,
                                     @Value("${app.service-plan-services.port}") String servicePlanServicesPort) {
 
-        this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.smileCodec = smileCodec;
+        this.responseCache = responseCacheRegistry.register("service-plan-services",
+                singleFlightRegistry.register("service-plan-services"));
+        this.hedger = hedgingRegistry.register("service-plan-services");
 
         this.PLAN_BASE_URL = "http://" + servicePlanServicesHost + ":" + servicePlanServicesPort + "/api/v1/plans";
+        this.webClient = webClientBuilder.baseUrl(PLAN_BASE_URL)
+                .filter(downstreamGuardRegistry.register("service-plan-services").filter())
+                .filter(loadBalancerRegistry.register("service-plan-services", servicePlanServicesHost, servicePlanServicesPort, "/api/v1/plans").filter())
+                .build();
     }
 
 
 
 
-    public List<ServicePlanResponseModel> getServicePlans() {
+    public Flux<ServicePlanResponseModel> getServicePlans() {
 
-        try {
-            return restTemplate.exchange(
-                    PLAN_BASE_URL,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<ServicePlanResponseModel>>() {}
-            ).getBody();
-        } catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+        return responseCache.get("plans", conditionalGet(null))
+                .flatMapIterable(body -> this.<List<ServicePlanResponseModel>>decode(body,
+                        objectMapper.getTypeFactory().constructCollectionType(List.class, ServicePlanResponseModel.class)))
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
 
     }
 
 
-    public ServicePlanResponseModel getServicePlansById(String planId) {
-        try {
-            return restTemplate.getForObject(
-                    PLAN_BASE_URL + "/" + planId,
-                    ServicePlanResponseModel.class
-            );
-        }
-        catch (HttpClientErrorException.NotFound nf) {
-            log.debug("Plan {} not found → returning null", planId);
-            return null;
-        }
-        catch (HttpClientErrorException ce) {
-            throw handleHttpClientException(ce);
-        }
+    public Mono<ServicePlanResponseModel> getServicePlansById(String planId) {
+        return getServicePlansById(planId, false);
     }
 
-    public ServicePlanResponseModel addServicePlan(ServicePlanRequestModel servicePlanRequestModel) {
+    // every caller decodes its own copy of the shared body: the controllers add links to it.
+    // The GET itself is hedged once it runs slower than usual
+    private Mono<ServicePlanResponseModel> getServicePlansById(String planId, boolean refresh) {
+        Function<String, Mono<ConditionalResponse>> get = conditionalGet(planId);
+        Function<String, Mono<ConditionalResponse>> fetch = etag -> hedger.call("getServicePlansById", get.apply(etag));
+        return (refresh ? responseCache.refresh("plans/" + planId, fetch) : responseCache.get("plans/" + planId, fetch))
+                .map(body -> this.<ServicePlanResponseModel>decode(body, objectMapper.constructType(ServicePlanResponseModel.class)))
+                .onErrorResume(WebClientResponseException.NotFound.class, nf -> {
+                    log.debug("Plan {} not found → returning empty", planId);
+                    return Mono.empty();
+                })
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException);
+    }
 
-        try {
-            return restTemplate.postForObject(
-                    PLAN_BASE_URL,
-                    servicePlanRequestModel,
-                    ServicePlanResponseModel.class
-            );
-        } catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+    public Mono<ServicePlanResponseModel> addServicePlan(ServicePlanRequestModel servicePlanRequestModel) {
+
+        return webClient.post()
+                .bodyValue(servicePlanRequestModel)
+                .retrieve()
+                .bodyToMono(ServicePlanResponseModel.class)
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(created -> responseCache.invalidate("plans"));
     }
 
-    public ServicePlanResponseModel updateServicePlan(String planId, ServicePlanRequestModel servicePlanRequestModel) {
+    public Mono<ServicePlanResponseModel> updateServicePlan(String planId, ServicePlanRequestModel servicePlanRequestModel) {
+
+        return webClient.put()
+                .uri("/{planId}", planId)
+                .bodyValue(servicePlanRequestModel)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(done -> responseCache.invalidate("plans"))
+                // after PUT, re-fetch the updated resource, bypassing any GET already in flight
+                .then(getServicePlansById(planId, true));
+    }
 
-        try {
-            restTemplate.put(
-                    PLAN_BASE_URL + "/" + planId,
-                    servicePlanRequestModel
-            );
-            // after PUT, re-fetch the updated resource
-            return getServicePlansById(planId);
-        } catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
-        }
+    public Mono<String> deleteServicePlanById(String planId) {
+
+        return webClient.delete()
+                .uri("/{planId}", planId)
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(WebClientResponseException.class, this::handleWebClientException)
+                .doOnSuccess(done -> responseCache.invalidatePrefix("plans"))
+                .thenReturn("Service plan deleted successfully.");
     }
 
-    public String deleteServicePlanById(String planId) {
+    // GET of the plan list (planId null) or of one plan, conditional when a tag is given
+    private Function<String, Mono<ConditionalResponse>> conditionalGet(String planId) {
+        return etag -> webClient.get()
+                .uri(uri -> planId == null ? uri.build() : uri.path("/{planId}").build(planId))
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().thenReturn(ConditionalResponse.notModified());
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.<ConditionalResponse>createError();
+                    }
+                    String responseEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(byte[].class).map(body -> ConditionalResponse.of(responseEtag, body));
+                });
+    }
 
+    private <T> T decode(byte[] body, JavaType type) {
         try {
-            restTemplate.delete(PLAN_BASE_URL + "/" + planId);
-            return "Service plan deleted successfully.";
-        } catch (HttpClientErrorException e) {
-            throw handleHttpClientException(e);
+            return smileCodec.readValue(body, type);
+        } catch (IOException ex) {
+            throw new IllegalStateException("cannot decode service-plan-services response as " + type, ex);
         }
     }
 
-    private String getErrorMessage(HttpClientErrorException ex) {
+    private String getErrorMessage(WebClientResponseException ex) {
         try {
             return objectMapper.readValue(ex.getResponseBodyAsString(), HttpErrorInfo.class).getMessage();
         }catch (IOException ioex){
@@ -120,7 +161,12 @@ public class servicePlanServiceClient {
         }
     }
 
-    private RuntimeException handleHttpClientException(HttpClientErrorException ex){
+    private Throwable handleWebClientException(WebClientResponseException ex){
+
+        // 5xx stays as it is, like HttpServerErrorException did with RestTemplate
+        if (!ex.getStatusCode().is4xxClientError()) {
+            return ex;
+        }
 
         HttpStatus statusCode = (HttpStatus) ex.getStatusCode();
         String errorMessage = getErrorMessage(ex);
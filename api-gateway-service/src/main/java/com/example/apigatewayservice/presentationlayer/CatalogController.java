@@ -5,16 +5,16 @@ package com.example.apigatewayservice.presentationlayer;
 import com.example.apigatewayservice.businesslayer.productservicesBusinessLayer.CatalogService;
 import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogRequestModel;
 import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogResponseModel;
+import com.example.apigatewayservice.utils.ETags;
+import com.example.apigatewayservice.utils.LinkTemplate;
+import com.example.apigatewayservice.utils.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.hateoas.Link;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
-
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -23,6 +23,10 @@ import java.util.List;
 @RequestMapping("api/v1/catalogs")
 public class CatalogController {
 
+    private static final LinkTemplate CATALOG = LinkTemplate.of(CatalogController.class, "getCatalogById");
+    private static final LinkTemplate ALL_CATALOGS = LinkTemplate.of(CatalogController.class, "getCatalogs");
+    private static final LinkTemplate CATALOG_WATCHES = LinkTemplate.of(CatalogWatchController.class, "getWatchesInCatalogWithFiltering");
+
     private CatalogService catalogService;
 
     public CatalogController(CatalogService catalogService) {
@@ -30,62 +34,73 @@ public class CatalogController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<CatalogResponseModel>> getCatalogs() {
-
-        List<CatalogResponseModel> list = catalogService.getCatalogs();
-        list.forEach(c -> {
-            c.add(linkTo(methodOn(CatalogController.class)
-                    .getCatalogById(c.getCatalogId())).withSelfRel());
-            c.add(linkTo(methodOn(CatalogController.class)
-                    .getCatalogs()).withRel("all-catalogs"));
-            c.add(linkTo(methodOn(CatalogWatchController.class)
-                    .getWatchesInCatalogWithFiltering(c.getCatalogId(), null)).withRel("watches"));
-        });
-        return ResponseEntity.ok(list);
+    public Mono<ResponseEntity<List<CatalogResponseModel>>> getCatalogs(ServerHttpRequest request) {
+
+        boolean links = LinkTemplate.linksWanted(request);
+        return catalogService.getCatalogs()
+                .doOnNext(c -> {
+                    if (links) {
+                        addLinks(c, c.getCatalogId());
+                    }
+                })
+                .collectList()
+                .map(catalogs -> ResponseEntity.ok()
+                        .eTag(ETags.of(catalogs, CatalogResponseModel::getCatalogId, CatalogResponseModel::getVersion, request))
+                        .body(catalogs));
     }
 
     @GetMapping("/{catalogId}")
-    public ResponseEntity<CatalogResponseModel> getCatalogById(@PathVariable String catalogId) {
-        CatalogResponseModel c = catalogService.getCatalogById(catalogId);
-        c.add(linkTo(methodOn(CatalogController.class)
-                .getCatalogById(catalogId)).withSelfRel());
-        c.add(linkTo(methodOn(CatalogController.class)
-                .getCatalogs()).withRel("all-catalogs"));
-        c.add(linkTo(methodOn(CatalogWatchController.class)
-                .getWatchesInCatalogWithFiltering(catalogId, null)).withRel("watches"));
-        return ResponseEntity.ok(c);
+    public Mono<ResponseEntity<CatalogResponseModel>> getCatalogById(@PathVariable String catalogId, ServerHttpRequest request) {
+        return catalogService.getCatalogById(catalogId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Catalog not found: " + catalogId)))
+                .map(c -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        addLinks(c, catalogId);
+                    }
+                    return ResponseEntity.ok().eTag(ETags.of(c.getVersion(), request)).body(c);
+                });
     }
 
     @PostMapping()
-    public ResponseEntity<CatalogResponseModel> addCatalog(@RequestBody CatalogRequestModel catalogRequestModel) {
-
-        CatalogResponseModel c = catalogService.addCatalog(catalogRequestModel);
-        c.add(linkTo(methodOn(CatalogController.class)
-                .getCatalogById(c.getCatalogId())).withSelfRel());
-        c.add(linkTo(methodOn(CatalogController.class)
-                .getCatalogs()).withRel("all-catalogs"));
-        return ResponseEntity.status(HttpStatus.CREATED).body(c);
+    public Mono<ResponseEntity<CatalogResponseModel>> addCatalog(@RequestBody CatalogRequestModel catalogRequestModel, ServerHttpRequest request) {
+
+        return catalogService.addCatalog(catalogRequestModel)
+                .map(c -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        c.add(CATALOG.self(c.getCatalogId()));
+                        c.add(ALL_CATALOGS.link("all-catalogs"));
+                    }
+                    return ResponseEntity.status(HttpStatus.CREATED).body(c);
+                });
     }
 
     @PutMapping("/{catalogId}")
-    public ResponseEntity<CatalogResponseModel> updateCatalog(@RequestBody CatalogRequestModel catalogRequestModel,@PathVariable String catalogId) {
-
-        CatalogResponseModel c = catalogService.updateCatalog(catalogRequestModel, catalogId);
-        c.add(linkTo(methodOn(CatalogController.class)
-                .getCatalogById(catalogId)).withSelfRel());
-        c.add(linkTo(methodOn(CatalogController.class)
-                .getCatalogs()).withRel("all-catalogs"));
-        return ResponseEntity.ok(c);
+    public Mono<ResponseEntity<CatalogResponseModel>> updateCatalog(@RequestBody CatalogRequestModel catalogRequestModel,@PathVariable String catalogId, ServerHttpRequest request) {
+
+        return catalogService.updateCatalog(catalogRequestModel, catalogId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Catalog not found: " + catalogId)))
+                .map(c -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        c.add(CATALOG.self(catalogId));
+                        c.add(ALL_CATALOGS.link("all-catalogs"));
+                    }
+                    return ResponseEntity.ok(c);
+                });
     }
 
     @DeleteMapping("/{catalogId}")
-    public ResponseEntity<String> deleteCatalog(@PathVariable String catalogId) {
-
-        catalogService.deleteCatalog(catalogId);
-        Link all = linkTo(methodOn(CatalogController.class).getCatalogs()).withRel("all-catalogs");
-        return ResponseEntity
-                .noContent()
-                .header(HttpHeaders.LINK, all.toUri().toString())
-                .build();
+    public Mono<ResponseEntity<String>> deleteCatalog(@PathVariable String catalogId) {
+
+        return catalogService.deleteCatalog(catalogId)
+                .thenReturn(ResponseEntity
+                        .noContent()
+                        .header(HttpHeaders.LINK, ALL_CATALOGS.expand())
+                        .build());
+    }
+
+    private static void addLinks(CatalogResponseModel c, String catalogId) {
+        c.add(CATALOG.self(catalogId));
+        c.add(ALL_CATALOGS.link("all-catalogs"));
+        c.add(CATALOG_WATCHES.link("watches", catalogId));
     }
 }
@@ -5,23 +5,26 @@ package com.example.apigatewayservice.presentationlayer;
 import com.example.apigatewayservice.businesslayer.productservicesBusinessLayer.CatalogWatchService;
 import com.example.apigatewayservice.presentationlayer.watchdtos.WatchRequestModel;
 import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseModel;
+import com.example.apigatewayservice.utils.ETags;
+import com.example.apigatewayservice.utils.LinkTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Slf4j
 @RestController
 @RequestMapping("api/v1/catalogs/{catalog_id}/watches")
 public class CatalogWatchController {
 
+    private static final LinkTemplate WATCH = LinkTemplate.of(CatalogWatchController.class, "getWatchInCatalogByWatchId");
+    private static final LinkTemplate ALL_WATCHES = LinkTemplate.of(CatalogWatchController.class, "getWatchesInCatalogWithFiltering");
+
     private final CatalogWatchService catalogWatchService;
 
     public CatalogWatchController(CatalogWatchService catalogWatchService) {
@@ -29,52 +32,57 @@ public class CatalogWatchController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<WatchResponseModel>> getWatchesInCatalogWithFiltering(@PathVariable("catalog_id") String catalogId, @RequestParam Map<String,String> queryParams) {
-
-        List<WatchResponseModel> list = catalogWatchService.getWatchesInCatalogWithFiltering(catalogId, queryParams);
-
-        list.forEach(w -> {
-            // self link
-            w.add(linkTo(methodOn(CatalogWatchController.class)
-                    .getWatchInCatalogByWatchId(w.getWatchId()))
-                    .withSelfRel());
-            // link back to this collection (no filters)
-            w.add(linkTo(methodOn(CatalogWatchController.class)
-                    .getWatchesInCatalogWithFiltering(catalogId, Collections.emptyMap()))
-                    .withRel("all-watches"));
-        });
-
-        return ResponseEntity.ok(list);
+    public Mono<ResponseEntity<List<WatchResponseModel>>> getWatchesInCatalogWithFiltering(@PathVariable("catalog_id") String catalogId, @RequestParam Map<String,String> queryParams, ServerHttpRequest request) {
+
+        boolean links = LinkTemplate.linksWanted(request);
+        return catalogWatchService.getWatchesInCatalogWithFiltering(catalogId, LinkTemplate.withoutLinksParam(queryParams))
+                .doOnNext(w -> {
+                    if (links) {
+                        // self link
+                        w.add(WATCH.self(catalogId, w.getWatchId()));
+                        // link back to this collection (no filters)
+                        w.add(ALL_WATCHES.link("all-watches", catalogId));
+                    }
+                })
+                .collectList()
+                .map(watches -> ResponseEntity.ok()
+                        .eTag(ETags.of(watches, WatchResponseModel::getWatchId, WatchResponseModel::getVersion, request))
+                        .body(watches));
     }
 
     @GetMapping("/{watchId}")
-    public ResponseEntity<WatchResponseModel> getWatchInCatalogByWatchId(@PathVariable("watchId") String watchId) {
+    public Mono<ResponseEntity<WatchResponseModel>> getWatchInCatalogByWatchId(@PathVariable("watchId") String watchId, ServerHttpRequest request) {
 
-        return ResponseEntity.ok().body(catalogWatchService.getCatalogWatchByID(watchId));
+        // an unknown watch has always answered 200 with an empty body here
+        return catalogWatchService.getCatalogWatchByID(watchId)
+                .map(w -> ResponseEntity.ok().eTag(ETags.of(w.getVersion(), request)).body(w))
+                .defaultIfEmpty(ResponseEntity.ok().build());
     }
 
     @PostMapping
-    public ResponseEntity<WatchResponseModel> addWatches(
+    public Mono<ResponseEntity<WatchResponseModel>> addWatches(
             @PathVariable("catalog_id") String catalog_id,
             @RequestBody WatchRequestModel watchRequestModel
     ){
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(catalogWatchService.addWatches(watchRequestModel,catalog_id));
+        return catalogWatchService.addWatches(watchRequestModel,catalog_id)
+                .map(w -> ResponseEntity.status(HttpStatus.CREATED).body(w));
     }
 
     @PutMapping("/{watchId}")
-    public ResponseEntity<WatchResponseModel> updateWatchInCatalog(
+    public Mono<ResponseEntity<WatchResponseModel>> updateWatchInCatalog(
             @PathVariable("catalog_id") String catalogId, @PathVariable("watchId") String watchId, @RequestBody WatchRequestModel watchRequestModel
     ){
-        return ResponseEntity.ok().body(catalogWatchService.updateWatchInInventory(catalogId,watchId,watchRequestModel));
+        return catalogWatchService.updateWatchInInventory(catalogId,watchId,watchRequestModel)
+                .map(w -> ResponseEntity.ok().body(w))
+                .defaultIfEmpty(ResponseEntity.ok().build());
     }
 
     @DeleteMapping("/{watchId}")
-    ResponseEntity<String> removeWatchInCatalog(@PathVariable("catalog_id") String catalogId, @PathVariable("watchId") String watchId) {
-
-        catalogWatchService.removeWatchInCatalog(catalogId,watchId);
+    Mono<ResponseEntity<String>> removeWatchInCatalog(@PathVariable("catalog_id") String catalogId, @PathVariable("watchId") String watchId) {
 
-        return ResponseEntity.ok("Watch with Id: " + watchId + " deleted successfully.");
+        return catalogWatchService.removeWatchInCatalog(catalogId,watchId)
+                .thenReturn(ResponseEntity.ok("Watch with Id: " + watchId + " deleted successfully."));
     }
 
 
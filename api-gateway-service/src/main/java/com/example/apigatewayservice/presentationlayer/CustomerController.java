@@ -4,26 +4,31 @@ package com.example.apigatewayservice.presentationlayer;
 import com.example.apigatewayservice.businesslayer.customerservicesBusinessLayer.CustomerService;
 import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerRequestModel;
 import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerResponseModel;
+import com.example.apigatewayservice.utils.ETags;
+import com.example.apigatewayservice.utils.LinkTemplate;
+import com.example.apigatewayservice.utils.NotFoundException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.hateoas.Link;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Slf4j
 @RestController
 @RequestMapping("api/v1/customers")
 public class CustomerController {
 
+    private static final LinkTemplate CUSTOMER = LinkTemplate.of(CustomerController.class, "getCustomerById");
+    private static final LinkTemplate ALL_CUSTOMERS = LinkTemplate.of(CustomerController.class, "getCustomers");
+    private static final LinkTemplate CUSTOMER_BY_EMAIL = LinkTemplate.of(CustomerController.class, "getCustomerByEmail");
+
 
     private final CustomerService customerService;
 
@@ -32,76 +37,88 @@ public class CustomerController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<CustomerResponseModel>> getCustomers() {
-        List<CustomerResponseModel> list = customerService.getCustomers();
-        list.forEach(c -> {
-            c.add(linkTo(methodOn(CustomerController.class)
-                    .getCustomerById(c.getCustomerId())).withSelfRel());
-            c.add(linkTo(methodOn(CustomerController.class)
-                    .getCustomers()).withRel("all-customers"));
-        });
-        return ResponseEntity.ok(list);
+    public Mono<ResponseEntity<List<CustomerResponseModel>>> getCustomers(ServerHttpRequest request) {
+        boolean links = LinkTemplate.linksWanted(request);
+        return customerService.getCustomers()
+                .doOnNext(c -> {
+                    if (links) {
+                        c.add(CUSTOMER.self(c.getCustomerId()));
+                        c.add(ALL_CUSTOMERS.link("all-customers"));
+                    }
+                })
+                .collectList()
+                .map(customers -> ResponseEntity.ok()
+                        .eTag(ETags.of(customers, CustomerResponseModel::getCustomerId, CustomerResponseModel::getVersion, request))
+                        .body(customers));
     }
 
     @GetMapping("/{customer_id}")
-    public ResponseEntity<CustomerResponseModel> getCustomerById(@PathVariable String customer_id) {
-        CustomerResponseModel c = customerService.getCustomerbyCustomerId(customer_id);
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomerById(customer_id)).withSelfRel());
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomers()).withRel("all-customers"));
-        return ResponseEntity.ok(c);
+    public Mono<ResponseEntity<CustomerResponseModel>> getCustomerById(@PathVariable String customer_id, ServerHttpRequest request) {
+        return customerService.getCustomerbyCustomerId(customer_id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Customer not found: " + customer_id)))
+                .map(c -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        c.add(CUSTOMER.self(customer_id));
+                        c.add(ALL_CUSTOMERS.link("all-customers"));
+                    }
+                    return ResponseEntity.ok().eTag(ETags.of(c.getVersion(), request)).body(c);
+                });
     }
 
     @GetMapping(params = "email")
-    public ResponseEntity<CustomerResponseModel> getCustomerByEmail(@RequestParam String email) {
-
-        CustomerResponseModel c = customerService.getCustomerbyEmail(email);
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomerByEmail(email)).withSelfRel());
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomers()).withRel("all-customers"));
-        return ResponseEntity.ok(c);
+    public Mono<ResponseEntity<CustomerResponseModel>> getCustomerByEmail(@RequestParam String email, ServerHttpRequest request) {
+
+        return customerService.getCustomerbyEmail(email)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Customer not found with email: " + email)))
+                .map(c -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        c.add(CUSTOMER_BY_EMAIL.self(email));
+                        c.add(ALL_CUSTOMERS.link("all-customers"));
+                    }
+                    return ResponseEntity.ok().eTag(ETags.of(c.getVersion(), request)).body(c);
+                });
     }
 
     @PostMapping()
-    public ResponseEntity<CustomerResponseModel> addCustomer(@RequestBody @Valid CustomerRequestModel newCustomerData) {
-
-        CustomerResponseModel c = customerService.addCustomer(newCustomerData);
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomerById(c.getCustomerId())).withSelfRel());
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomers()).withRel("all-customers"));
-
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(c);
+    public Mono<ResponseEntity<CustomerResponseModel>> addCustomer(@RequestBody @Valid CustomerRequestModel newCustomerData, ServerHttpRequest request) {
+
+        return customerService.addCustomer(newCustomerData)
+                .map(c -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        c.add(CUSTOMER.self(c.getCustomerId()));
+                        c.add(ALL_CUSTOMERS.link("all-customers"));
+                    }
+
+                    return ResponseEntity
+                            .status(HttpStatus.CREATED)
+                            .body(c);
+                });
     }
 
     @PutMapping("/{customer_id}")
-    public ResponseEntity<CustomerResponseModel> updateCustomer(
+    public Mono<ResponseEntity<CustomerResponseModel>> updateCustomer(
             @PathVariable String customer_id,
-            @RequestBody CustomerRequestModel newCustomerData) {
-
-        CustomerResponseModel c = customerService.updateCustomer(customer_id, newCustomerData);
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomerById(customer_id)).withSelfRel());
-        c.add(linkTo(methodOn(CustomerController.class)
-                .getCustomers()).withRel("all-customers"));
-        return ResponseEntity.ok(c);
+            @RequestBody CustomerRequestModel newCustomerData,
+            ServerHttpRequest request) {
+
+        return customerService.updateCustomer(customer_id, newCustomerData)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Customer not found: " + customer_id)))
+                .map(c -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        c.add(CUSTOMER.self(customer_id));
+                        c.add(ALL_CUSTOMERS.link("all-customers"));
+                    }
+                    return ResponseEntity.ok(c);
+                });
     }
 
     @DeleteMapping("/{customer_id}")
-    public ResponseEntity<String> deleteCustomerById(@PathVariable String customer_id) {
-        customerService.deleteCustomerbyCustomerId(customer_id);
-
-        String msg = "Deleted " + customer_id;
-
-        Link all = linkTo(methodOn(CustomerController.class).getCustomers()).withRel("all-customers");
-        return ResponseEntity
-                .noContent()
-                .header(HttpHeaders.LINK, all.toUri().toString())
-                .build();
+    public Mono<ResponseEntity<String>> deleteCustomerById(@PathVariable String customer_id) {
+        return customerService.deleteCustomerbyCustomerId(customer_id)
+                .thenReturn(ResponseEntity
+                        .noContent()
+                        .header(HttpHeaders.LINK, ALL_CUSTOMERS.expand())
+                        .build());
     }
 
 
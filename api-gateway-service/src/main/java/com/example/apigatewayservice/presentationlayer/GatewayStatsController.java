@@ -0,0 +1,92 @@
+package com.example.apigatewayservice.presentationlayer;
+
+
+import com.example.apigatewayservice.domainclientlayer.DownstreamGuardRegistry;
+import com.example.apigatewayservice.domainclientlayer.DownstreamGuardStats;
+import com.example.apigatewayservice.domainclientlayer.HedgingRegistry;
+import com.example.apigatewayservice.domainclientlayer.HedgingStats;
+import com.example.apigatewayservice.domainclientlayer.LoadBalancerRegistry;
+import com.example.apigatewayservice.domainclientlayer.LoadBalancerStats;
+import com.example.apigatewayservice.domainclientlayer.ResponseCacheRegistry;
+import com.example.apigatewayservice.domainclientlayer.ResponseCacheStats;
+import com.example.apigatewayservice.domainclientlayer.SingleFlightRegistry;
+import com.example.apigatewayservice.domainclientlayer.SingleFlightStats;
+import com.example.apigatewayservice.utils.LoadShedder;
+import com.example.apigatewayservice.utils.LoadSheddingStats;
+import com.example.apigatewayservice.utils.RateLimitStats;
+import com.example.apigatewayservice.utils.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Runtime counters of the gateway's own machinery in front of the downstream services.
+ */
+@Slf4j
+@RestController
+@RequestMapping("api/v1/gateway")
+public class GatewayStatsController {
+
+    private final SingleFlightRegistry singleFlightRegistry;
+    private final ResponseCacheRegistry responseCacheRegistry;
+    private final DownstreamGuardRegistry downstreamGuardRegistry;
+    private final HedgingRegistry hedgingRegistry;
+    private final LoadBalancerRegistry loadBalancerRegistry;
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+
+    public GatewayStatsController(SingleFlightRegistry singleFlightRegistry,
+                                  ResponseCacheRegistry responseCacheRegistry,
+                                  DownstreamGuardRegistry downstreamGuardRegistry,
+                                  HedgingRegistry hedgingRegistry,
+                                  LoadBalancerRegistry loadBalancerRegistry,
+                                  RateLimiter rateLimiter,
+                                  LoadShedder loadShedder) {
+        this.singleFlightRegistry = singleFlightRegistry;
+        this.responseCacheRegistry = responseCacheRegistry;
+        this.downstreamGuardRegistry = downstreamGuardRegistry;
+        this.hedgingRegistry = hedgingRegistry;
+        this.loadBalancerRegistry = loadBalancerRegistry;
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+    }
+
+    @GetMapping("/single-flight")
+    public ResponseEntity<List<SingleFlightStats>> getSingleFlightStats() {
+        return ResponseEntity.ok(singleFlightRegistry.stats());
+    }
+
+    @GetMapping("/response-cache")
+    public ResponseEntity<List<ResponseCacheStats>> getResponseCacheStats() {
+        return ResponseEntity.ok(responseCacheRegistry.stats());
+    }
+
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<List<DownstreamGuardStats>> getCircuitBreakerStats() {
+        return ResponseEntity.ok(downstreamGuardRegistry.stats());
+    }
+
+    @GetMapping("/hedging")
+    public ResponseEntity<List<HedgingStats>> getHedgingStats() {
+        return ResponseEntity.ok(hedgingRegistry.stats());
+    }
+
+    @GetMapping("/load-balancing")
+    public ResponseEntity<List<LoadBalancerStats>> getLoadBalancingStats() {
+        return ResponseEntity.ok(loadBalancerRegistry.stats());
+    }
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<RateLimitStats> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.stats());
+    }
+
+    @GetMapping("/load-shedding")
+    public ResponseEntity<LoadSheddingStats> getLoadSheddingStats() {
+        return ResponseEntity.ok(loadShedder.stats());
+    }
+}
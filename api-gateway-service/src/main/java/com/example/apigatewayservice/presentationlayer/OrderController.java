@@ -1,24 +1,46 @@
 package com.example.apigatewayservice.presentationlayer;
 
 import com.example.apigatewayservice.businesslayer.orderservicesBusinessLayer.OrderService;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderDetailResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderExpansion;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderRequestModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderSearchRequestModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderStatus;
+import com.example.apigatewayservice.utils.LinkTemplate;
+import com.example.apigatewayservice.utils.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.Set;
 
 @Slf4j
 @RestController
 @RequestMapping("api/v1/orders")
 public class OrderController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final LinkTemplate ORDER = LinkTemplate.of(OrderController.class, "getOrderById");
+    private static final LinkTemplate ORDER_DETAIL = LinkTemplate.of(OrderController.class, "getOrderDetail");
+    private static final LinkTemplate CUSTOMER = LinkTemplate.of(CustomerController.class, "getCustomerById");
+    private static final LinkTemplate CATALOG = LinkTemplate.of(CatalogController.class, "getCatalogById");
+    private static final LinkTemplate CATALOG_WATCH = LinkTemplate.of(CatalogWatchController.class, "getWatchInCatalogByWatchId");
+    private static final LinkTemplate SERVICE_PLAN = LinkTemplate.of(ServicePlanController.class, "getServicePlanById");
+
     private final OrderService orderService;
 
     public OrderController(OrderService orderService) {
@@ -26,70 +48,142 @@ public class OrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderResponseModel>> getAllOrders() {
-        log.debug("API-Gateway ➜ GET all orders");
-        List<OrderResponseModel> orders = orderService.getAllOrders();
-        orders.forEach(this::addHateoasLinks);
-        return ResponseEntity.ok(orders);
+    public Mono<ResponseEntity<List<OrderResponseModel>>> getAllOrders(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String watchId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request
+    ) {
+        log.debug("API-Gateway ➜ GET orders (customer={}, watch={}, status={}, cursor={})", customerId, watchId, status, cursor);
+        return orderService.getAllOrders(OrderSearchRequestModel.builder()
+                .customerId(customerId)
+                .watchId(watchId)
+                .status(status)
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .limit(limit)
+                .build())
+                .map(page -> toPageResponse(page, request));
+    }
+
+    // relayed element by element as order-services produces them, never collected
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderResponseModel> exportOrders(ServerHttpRequest request) {
+        log.debug("API-Gateway ➜ GET orders export");
+        if (!LinkTemplate.linksWanted(request)) {
+            return orderService.exportOrders();
+        }
+        return orderService.exportOrders()
+                .doOnNext(this::addHateoasLinks);
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponseModel> getOrderById(@PathVariable String orderId) {
+    public Mono<ResponseEntity<OrderResponseModel>> getOrderById(@PathVariable String orderId, ServerHttpRequest request) {
         log.debug("API-Gateway ➜ GET order {}", orderId);
-        OrderResponseModel order = orderService.getOrderById(orderId);
-        addHateoasLinks(order);
-        return ResponseEntity.ok(order);
+        return orderService.getOrderById(orderId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Order not found: " + orderId)))
+                .doOnNext(o -> addHateoasLinks(o, request))
+                .map(ResponseEntity::ok);
+    }
+
+    // the order with its customer, catalog, watch and plan embedded, e.g. ?expand=customer,watch
+    @GetMapping("/{orderId}/detail")
+    public Mono<ResponseEntity<OrderDetailResponseModel>> getOrderDetail(
+            @PathVariable String orderId,
+            @RequestParam(required = false) String expand,
+            ServerHttpRequest request
+    ) {
+        log.debug("API-Gateway ➜ GET order {} detail (expand={})", orderId, expand);
+        Set<OrderExpansion> expansions = OrderExpansion.parse(expand);
+        return orderService.getOrderDetail(orderId, expansions)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Order not found: " + orderId)))
+                .doOnNext(detail -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        addHateoasLinks(detail.getOrder());
+                        detail.add(ORDER_DETAIL.self(orderId, expand));
+                    }
+                })
+                .map(ResponseEntity::ok);
     }
 
     @PostMapping
-    public ResponseEntity<OrderResponseModel> createOrder(@RequestBody OrderRequestModel req) {
+    public Mono<ResponseEntity<OrderResponseModel>> createOrder(
+            @RequestBody OrderRequestModel req,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            ServerHttpRequest request
+    ) {
         log.debug("API-Gateway ➜ POST new order: {}", req.getOrderName());
-        OrderResponseModel order = orderService.createOrder(req);
-        addHateoasLinks(order);
-        URI location = linkTo(methodOn(OrderController.class).getOrderById(order.getOrderId())).toUri();
-        return ResponseEntity.created(location).body(order);
+        return orderService.createOrder(req, idempotencyKey)
+                .doOnNext(o -> addHateoasLinks(o, request))
+                .map(order -> {
+                    URI location = URI.create(ORDER.expand(order.getOrderId()));
+                    return ResponseEntity.created(location).body(order);
+                });
     }
 
     @PutMapping("/{orderId}")
-    public ResponseEntity<OrderResponseModel> updateOrder(
+    public Mono<ResponseEntity<OrderResponseModel>> updateOrder(
             @PathVariable String orderId,
-            @RequestBody OrderRequestModel req
+            @RequestBody OrderRequestModel req,
+            ServerHttpRequest request
     ) {
         log.debug("API-Gateway ➜ PUT order {} → {}", orderId, req.getOrderStatus());
-        OrderResponseModel order = orderService.updateOrder(orderId, req);
-        addHateoasLinks(order);
-        return ResponseEntity.ok(order);
+        return orderService.updateOrder(orderId, req)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Order not found: " + orderId)))
+                .doOnNext(o -> addHateoasLinks(o, request))
+                .map(ResponseEntity::ok);
     }
 
     @DeleteMapping("/{orderId}")
-    public ResponseEntity<Void> deleteOrder(@PathVariable String orderId) {
+    public Mono<ResponseEntity<Void>> deleteOrder(@PathVariable String orderId) {
         log.debug("API-Gateway ➜ DELETE order {}", orderId);
-        orderService.deleteOrder(orderId);
-        return ResponseEntity.noContent().build();
+        return orderService.deleteOrder(orderId)
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    private ResponseEntity<List<OrderResponseModel>> toPageResponse(OrderPageResponseModel page, ServerHttpRequest request) {
+        if (LinkTemplate.linksWanted(request)) {
+            page.getOrders().forEach(this::addHateoasLinks);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            // same query, next page
+            String next = UriComponentsBuilder.fromUri(request.getURI())
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                    .header(HttpHeaders.LINK, Link.of(next, "next").toString());
+        }
+        return response.body(page.getOrders());
+    }
+
+    private void addHateoasLinks(OrderResponseModel o, ServerHttpRequest request) {
+        if (LinkTemplate.linksWanted(request)) {
+            addHateoasLinks(o);
+        }
     }
 
     private void addHateoasLinks(OrderResponseModel o) {
         // self link
-        o.add(linkTo(methodOn(OrderController.class)
-                .getOrderById(o.getOrderId()))
-                .withSelfRel());
+        o.add(ORDER.self(o.getOrderId()));
 
         // customer
-        o.add(Link.of("/api/v1/customers/" + o.getCustomerId(), "customer"));
+        o.add(CUSTOMER.link("customer", o.getCustomerId()));
 
         // catalog
-        o.add(Link.of("/api/v1/catalogs/" + o.getCatalogId(), "catalog"));
+        o.add(CATALOG.link("catalog", o.getCatalogId()));
 
         // watch in catalog
-        o.add(Link.of(
-                "/api/v1/catalogs/" +
-                        o.getCatalogId() +
-                        "/watches/" +
-                        o.getWatchId(),
-                "watch"));
+        o.add(CATALOG_WATCH.link("watch", o.getCatalogId(), o.getWatchId()));
 
         // service plan
-        o.add(Link.of("/api/v1/plans/" + o.getServicePlanId(), "servicePlan"));
+        o.add(SERVICE_PLAN.link("servicePlan", o.getServicePlanId()));
     }
 
 }
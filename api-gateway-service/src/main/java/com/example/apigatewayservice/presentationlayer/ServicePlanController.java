@@ -5,22 +5,26 @@ package com.example.apigatewayservice.presentationlayer;
 import com.example.apigatewayservice.businesslayer.servicePlanservicesBusinessLayer.ServicePlanService;
 import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanRequestModel;
 import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+import com.example.apigatewayservice.utils.ETags;
+import com.example.apigatewayservice.utils.LinkTemplate;
+import com.example.apigatewayservice.utils.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.hateoas.Link;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/api/v1/plans")
 public class ServicePlanController {
 
+    private static final LinkTemplate PLAN = LinkTemplate.of(ServicePlanController.class, "getServicePlanById");
+    private static final LinkTemplate ALL_PLANS = LinkTemplate.of(ServicePlanController.class, "getServicePlans");
+
     private final ServicePlanService servicePlanService;
 
     @Autowired
@@ -29,65 +33,73 @@ public class ServicePlanController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<ServicePlanResponseModel>> getServicePlans() {
-
-        List<ServicePlanResponseModel> list = servicePlanService.getServicePlans();
-        list.forEach(p -> {
-            p.add(linkTo(methodOn(ServicePlanController.class)
-                    .getServicePlanById(p.getPlanId())).withSelfRel());
-            p.add(linkTo(methodOn(ServicePlanController.class)
-                    .getServicePlans()).withRel("all-plans"));
-        });
-        return ResponseEntity.ok(list);
+    public Mono<ResponseEntity<List<ServicePlanResponseModel>>> getServicePlans(ServerHttpRequest request) {
+
+        boolean links = LinkTemplate.linksWanted(request);
+        return servicePlanService.getServicePlans()
+                .doOnNext(p -> {
+                    if (links) {
+                        p.add(PLAN.self(p.getPlanId()));
+                        p.add(ALL_PLANS.link("all-plans"));
+                    }
+                })
+                .collectList()
+                .map(plans -> ResponseEntity.ok()
+                        .eTag(ETags.of(plans, ServicePlanResponseModel::getPlanId, ServicePlanResponseModel::getVersion, request))
+                        .body(plans));
     }
 
     @GetMapping("/{plan_id}")
-    public ResponseEntity<ServicePlanResponseModel> getServicePlanById(@PathVariable String plan_id) {
-
-        ServicePlanResponseModel p = servicePlanService.getServicePlansById(plan_id);
-        p.add(linkTo(methodOn(ServicePlanController.class)
-                .getServicePlanById(plan_id)).withSelfRel());
-        p.add(linkTo(methodOn(ServicePlanController.class)
-                .getServicePlans()).withRel("all-plans"));
-        return ResponseEntity.ok(p);
+    public Mono<ResponseEntity<ServicePlanResponseModel>> getServicePlanById(@PathVariable String plan_id, ServerHttpRequest request) {
+
+        return servicePlanService.getServicePlansById(plan_id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Service plan not found: " + plan_id)))
+                .map(p -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        p.add(PLAN.self(plan_id));
+                        p.add(ALL_PLANS.link("all-plans"));
+                    }
+                    return ResponseEntity.ok().eTag(ETags.of(p.getVersion(), request)).body(p);
+                });
 
     }
 
     @PostMapping()
-    public ResponseEntity<ServicePlanResponseModel> addServicePlan(@RequestBody ServicePlanRequestModel servicePlanRequestModel) {
-
-        ServicePlanResponseModel p = servicePlanService.addServicePlan(servicePlanRequestModel);
-        p.add(linkTo(methodOn(ServicePlanController.class)
-                .getServicePlanById(p.getPlanId())).withSelfRel());
-        p.add(linkTo(methodOn(ServicePlanController.class)
-                .getServicePlans()).withRel("all-plans"));
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(p);
+    public Mono<ResponseEntity<ServicePlanResponseModel>> addServicePlan(@RequestBody ServicePlanRequestModel servicePlanRequestModel, ServerHttpRequest request) {
+
+        return servicePlanService.addServicePlan(servicePlanRequestModel)
+                .map(p -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        p.add(PLAN.self(p.getPlanId()));
+                        p.add(ALL_PLANS.link("all-plans"));
+                    }
+                    return ResponseEntity
+                            .status(HttpStatus.CREATED)
+                            .body(p);
+                });
     }
 
     @PutMapping("/{plan_id}")
-    public ResponseEntity<ServicePlanResponseModel> updateServicePlan(@PathVariable String plan_id, @RequestBody ServicePlanRequestModel servicePlanRequestModel) {
-
-        ServicePlanResponseModel p = servicePlanService.updateServicePlan(plan_id, servicePlanRequestModel);
-        p.add(linkTo(methodOn(ServicePlanController.class)
-                .getServicePlanById(plan_id)).withSelfRel());
-        p.add(linkTo(methodOn(ServicePlanController.class)
-                .getServicePlans()).withRel("all-plans"));
-        return ResponseEntity.ok(p);
+    public Mono<ResponseEntity<ServicePlanResponseModel>> updateServicePlan(@PathVariable String plan_id, @RequestBody ServicePlanRequestModel servicePlanRequestModel, ServerHttpRequest request) {
+
+        return servicePlanService.updateServicePlan(plan_id, servicePlanRequestModel)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Service plan not found: " + plan_id)))
+                .map(p -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        p.add(PLAN.self(plan_id));
+                        p.add(ALL_PLANS.link("all-plans"));
+                    }
+                    return ResponseEntity.ok(p);
+                });
 
     }
 
     @DeleteMapping("/{plan_id}")
-    public ResponseEntity<String> deleteServicePlanById(@PathVariable String plan_id) {
-
-        servicePlanService.deleteServicePlanById(plan_id);
-        String msg = "Deleted " + plan_id;
-        Link all = linkTo(methodOn(ServicePlanController.class)
-                .getServicePlans()).withRel("all-plans");
-        return ResponseEntity
-                .noContent()
-                .header(HttpHeaders.LINK, all.toUri().toString())
-                .build();
+    public Mono<ResponseEntity<String>> deleteServicePlanById(@PathVariable String plan_id) {
+        return servicePlanService.deleteServicePlanById(plan_id)
+                .thenReturn(ResponseEntity
+                        .noContent()
+                        .header(HttpHeaders.LINK, ALL_PLANS.expand())
+                        .build());
     }
 }
@@ -4,21 +4,32 @@ package com.example.apigatewayservice.presentationlayer;
 
 import com.example.apigatewayservice.businesslayer.productservicesBusinessLayer.CatalogWatchService;
 import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseModel;
+import com.example.apigatewayservice.utils.ETags;
+import com.example.apigatewayservice.utils.LinkTemplate;
+import com.example.apigatewayservice.utils.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Slf4j
 @RestController
 @RequestMapping("api/v1/watches")
 public class WatchController {
 
+    private static final LinkTemplate WATCH = LinkTemplate.of(WatchController.class, "getWatchInCatalogByID");
+    private static final LinkTemplate ALL_WATCHES = LinkTemplate.of(WatchController.class, "getWatchesWithFilter");
+
+    // as in product-services
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final CatalogWatchService catalogWatchService;
 
     public WatchController(CatalogWatchService catalogWatchService) {
@@ -26,29 +37,53 @@ public class WatchController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<WatchResponseModel>> getWatchesWithFilter(@RequestParam Map <String,String> queryParams){
-
-        List<WatchResponseModel> list = catalogWatchService.getWatchesWithFilter(queryParams);
-        list.forEach(w -> {
-            w.add(linkTo(methodOn(WatchController.class)
-                    .getWatchInCatalogByID(w.getWatchId())).withSelfRel());
-            w.add(linkTo(methodOn(WatchController.class)
-                    .getWatchesWithFilter(null)).withRel("all-watches"));
-        });
-        return ResponseEntity.ok(list);
-    }
+    public Mono<ResponseEntity<List<WatchResponseModel>>> getWatchesWithFilter(@RequestParam Map <String,String> queryParams, ServerHttpRequest request){
 
-    @GetMapping("/{watchId}")
-    public ResponseEntity<WatchResponseModel> getWatchInCatalogByID(@PathVariable String watchId){
-
-        WatchResponseModel w = catalogWatchService.getCatalogWatchByID(watchId);
-        w.add(linkTo(methodOn(WatchController.class)
-                .getWatchInCatalogByID(watchId)).withSelfRel());
-        w.add(linkTo(methodOn(WatchController.class)
-                .getWatchesWithFilter(null)).withRel("all-watches"));
-        return ResponseEntity.ok(w);
+        boolean links = LinkTemplate.linksWanted(request);
+        return catalogWatchService.getWatchesWithFilter(LinkTemplate.withoutLinksParam(queryParams))
+                .doOnNext(w -> {
+                    if (links) {
+                        w.add(WATCH.self(w.getWatchId()));
+                        w.add(ALL_WATCHES.link("all-watches"));
+                    }
+                })
+                .collectList()
+                .map(watches -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .eTag(ETags.of(watches, WatchResponseModel::getWatchId, WatchResponseModel::getVersion, request));
+                    // product-services' own next link names product-services, so a full page gets
+                    // one here that points back at the gateway with the last watch as the cursor
+                    if (!watches.isEmpty() && watches.size() == pageSize(queryParams.get("limit"))) {
+                        String next = UriComponentsBuilder.fromUri(request.getURI())
+                                .replaceQueryParam("after", watches.get(watches.size() - 1).getWatchId())
+                                .build()
+                                .toUriString();
+                        response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                    }
+                    return response.body(watches);
+                });
     }
-}
 
+    // the page size product-services applies, so it can tell a full page from the last one
+    private static int pageSize(String limit) {
+        try {
+            return limit == null ? DEFAULT_PAGE_SIZE : Math.min(Integer.parseInt(limit), MAX_PAGE_SIZE);
+        } catch (NumberFormatException ex) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
 
+    @GetMapping("/{watchId}")
+    public Mono<ResponseEntity<WatchResponseModel>> getWatchInCatalogByID(@PathVariable String watchId, ServerHttpRequest request){
 
+        return catalogWatchService.getCatalogWatchByID(watchId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Watch not found: " + watchId)))
+                .map(w -> {
+                    if (LinkTemplate.linksWanted(request)) {
+                        w.add(WATCH.self(watchId));
+                        w.add(ALL_WATCHES.link("all-watches"));
+                    }
+                    return ResponseEntity.ok().eTag(ETags.of(w.getVersion(), request)).body(w);
+                });
+    }
+}
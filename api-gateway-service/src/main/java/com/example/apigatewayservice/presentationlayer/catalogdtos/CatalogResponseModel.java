@@ -13,4 +13,5 @@ public class CatalogResponseModel extends RepresentationModel<CatalogResponseMod
     private String catalogId;
     private String type;
     private String description;
+    private Long version;
 }
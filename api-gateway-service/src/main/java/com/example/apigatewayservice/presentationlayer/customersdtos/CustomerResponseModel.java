@@ -22,6 +22,7 @@ public class CustomerResponseModel extends RepresentationModel<CustomerResponseM
     private String city;
     private String province;
     private List<PhoneNumber> phoneNumbers;
+    private Long version;
 
 
 }
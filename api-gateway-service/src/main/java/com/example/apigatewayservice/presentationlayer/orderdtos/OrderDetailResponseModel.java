@@ -0,0 +1,36 @@
+package com.example.apigatewayservice.presentationlayer.orderdtos;
+
+
+import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogResponseModel;
+import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerResponseModel;
+import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseModel;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+/**
+ * An order with the full representations of what it refers to, so a client needs one
+ * round trip instead of following every link. Relations left out of {@code expand}, or that
+ * no longer exist, are absent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderDetailResponseModel extends RepresentationModel<OrderDetailResponseModel> {
+
+    private OrderResponseModel order;
+
+    private CustomerResponseModel customer;
+    private CatalogResponseModel catalog;
+    private WatchResponseModel watch;
+    private ServicePlanResponseModel servicePlan;
+
+    // expanded relations whose service could not be reached; the rest of the detail is still served
+    private List<OrderExpansion> unavailable;
+}
@@ -0,0 +1,42 @@
+package com.example.apigatewayservice.presentationlayer.orderdtos;
+
+import com.example.apigatewayservice.utils.InvalidInputException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Relations of an order that {@code GET /api/v1/orders/{orderId}/detail} can embed,
+ * chosen with {@code expand=customer,watch} (or {@code expand=all}, the default).
+ */
+public enum OrderExpansion {
+
+    CUSTOMER,
+    CATALOG,
+    WATCH,
+    SERVICE_PLAN;
+
+    public static Set<OrderExpansion> parse(String expand) {
+        if (expand == null || expand.isBlank() || expand.trim().equalsIgnoreCase("all")) {
+            return EnumSet.allOf(OrderExpansion.class);
+        }
+
+        Set<OrderExpansion> expansions = EnumSet.noneOf(OrderExpansion.class);
+        for (String part : expand.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty() || name.equalsIgnoreCase("none")) {
+                continue;
+            }
+            // servicePlan, service-plan and service_plan all mean SERVICE_PLAN
+            String normalized = name.replaceAll("([a-z])([A-Z])", "$1_$2").replace('-', '_').toUpperCase(Locale.ROOT);
+            try {
+                expansions.add(OrderExpansion.valueOf(normalized));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidInputException("Unknown expand value '" + name
+                        + "', expected any of customer, catalog, watch, servicePlan, all or none");
+            }
+        }
+        return expansions;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.apigatewayservice.presentationlayer.orderdtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+public class OrderPageResponseModel {
+
+    private List<OrderResponseModel> orders;
+    // null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.example.apigatewayservice.presentationlayer.orderdtos;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+public class OrderSearchRequestModel {
+
+    private String customerId;
+    private String watchId;
+    private OrderStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    // opaque, handed back verbatim to order-services
+    private String cursor;
+    private Integer limit;
+}
@@ -15,4 +15,5 @@ public class ServicePlanResponseModel extends RepresentationModel<ServicePlanRes
     private String planId;
     private String coverageDetails;
     private LocalDate expirationDate;
+    private Long version;
 }
@@ -21,4 +21,5 @@ public class WatchResponseModel extends RepresentationModel<WatchResponseModel>
     private List<Accessory> accessories;
     private Price price;
     private WatchBrand watchBrand;
+    private Long version;
 }
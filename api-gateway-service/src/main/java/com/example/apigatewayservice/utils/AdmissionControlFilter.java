@@ -0,0 +1,134 @@
+package com.example.apigatewayservice.utils;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for everything under {@code /api/v1/}: the {@link LoadShedder} first
+ * (503 when the gateway is overloaded), then the {@link RateLimiter} (429 when the client or
+ * the route is over its rate). Both answer with a {@code Retry-After} and the usual
+ * {@link HttpErrorInfo} body, before any downstream service is touched.
+ * <p>
+ * Clients are told apart by the authenticated principal, else by remote address. The
+ * {@code app.rate-limit.client-header} header ({@code X-Client-Id} by default) is only taken
+ * from the proxies listed in {@code app.rate-limit.trusted-proxies}; from anyone else it could
+ * be set to a new value on every request. The gateway's own
+ * {@code /api/v1/gateway} endpoints are never limited, so the counters stay readable under load.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class AdmissionControlFilter implements WebFilter {
+
+    private static final String API_PREFIX = "/api/v1/";
+    private static final String GATEWAY_PREFIX = "/api/v1/gateway";
+
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final ObjectMapper objectMapper;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+
+    public AdmissionControlFilter(RateLimiter rateLimiter,
+                                  LoadShedder loadShedder,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.rate-limit.client-header:X-Client-Id}") String clientHeader,
+                                  @Value("${app.rate-limit.trusted-proxies:}") Set<String> trustedProxies) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.objectMapper = objectMapper;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = trustedProxies;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.startsWith(API_PREFIX) || path.startsWith(GATEWAY_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        LoadShedder.Priority priority = loadShedder.classify(request.getMethod(), path);
+        if (loadShedder.shouldShed(priority)) {
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, loadShedder.getRetryAfterSeconds(),
+                    "Gateway is overloaded, " + priority.name().toLowerCase() + " priority requests are shed");
+        }
+
+        return exchange.getPrincipal()
+                .map(principal -> "principal:" + principal.getName())
+                .defaultIfEmpty(clientId(request))
+                .flatMap(client -> {
+                    long waitNanos = rateLimiter.tryAcquire(client, route(path));
+                    if (waitNanos > 0) {
+                        return reject(exchange, HttpStatus.TOO_MANY_REQUESTS,
+                                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)),
+                                "Rate limit exceeded");
+                    }
+
+                    loadShedder.enter();
+                    long start = System.nanoTime();
+                    return chain.filter(exchange)
+                            .doFinally(signal -> loadShedder.exit(isStream(exchange.getResponse()) ? -1 : System.nanoTime() - start));
+                });
+    }
+
+    String clientId(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        String address = remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : null;
+        if (address != null && trustedProxies.contains(address)) {
+            String client = request.getHeaders().getFirst(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return address != null ? address : "anonymous";
+    }
+
+    // "/api/v1/catalogs/CAT1/watches" → "catalogs"
+    private static String route(String path) {
+        int end = path.indexOf('/', API_PREFIX.length());
+        return end < 0 ? path.substring(API_PREFIX.length()) : path.substring(API_PREFIX.length(), end);
+    }
+
+    private static boolean isStream(ServerHttpResponse response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        return contentType != null && (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                || MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long retryAfterSeconds, String message) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        log.debug("HTTP {} on {}: {}", status, path, message);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new HttpErrorInfo(status, path, message));
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException ex) {
+            return response.setComplete();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.apigatewayservice.utils;
+
+public class DownstreamUnavailableException extends RuntimeException {
+  public DownstreamUnavailableException() {}
+
+  public DownstreamUnavailableException(String message) { super(message); }
+
+  public DownstreamUnavailableException(Throwable cause) { super(cause); }
+
+  public DownstreamUnavailableException(String message, Throwable cause) { super(message, cause); }
+}
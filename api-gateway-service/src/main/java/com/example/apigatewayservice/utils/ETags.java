@@ -0,0 +1,77 @@
+package com.example.apigatewayservice.utils;
+
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Entity tags for what the gateway returns, computed from the {@code version} the services
+ * put on every resource and the same way the services compute theirs, so a tag the client
+ * got from the gateway stays valid as long as the origin's does. Returns {@code null} (no
+ * ETag header) when a service did not report a version.
+ * <p>
+ * A body without links or in Smile is a different representation, so it gets its own tag:
+ * {@code "3"}, {@code "3-nolinks"}, {@code "3-smile"}, {@code "3-nolinks-smile"}.
+ * {@link VaryFilter} tells caches which request headers choose between them.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version, ServerHttpRequest request) {
+        return version == null ? null : tag(String.valueOf(version), request);
+    }
+
+    public static <T> String of(List<T> items, Function<T, String> id, Function<T, Long> version,
+                                ServerHttpRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (T item : items) {
+                if (version.apply(item) == null) {
+                    return null;
+                }
+                digest.update((id.apply(item) + ":" + version.apply(item) + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            return tag(HexFormat.of().formatHex(digest.digest(), 0, 16), request);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static String tag(String value, ServerHttpRequest request) {
+        return "\"" + value
+                + (LinkTemplate.linksWanted(request) ? "" : "-nolinks")
+                + (smileRequested(request) ? "-smile" : "") + "\"";
+    }
+
+    // the JSON encoder comes before the Smile one, so it wins wherever both would do
+    private static boolean smileRequested(ServerHttpRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(request.getHeaders().getAccept());
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.isCompatibleWith(SmileCodec.APPLICATION_SMILE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
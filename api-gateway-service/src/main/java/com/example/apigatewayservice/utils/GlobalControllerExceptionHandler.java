@@ -2,6 +2,7 @@ package com.example.apigatewayservice.utils;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -29,6 +30,11 @@ public class GlobalControllerExceptionHandler {
         return createResponse(UNPROCESSABLE_ENTITY, exchange, ex.getMessage());
     }
 
+    @ExceptionHandler(DownstreamUnavailableException.class)
+    public ResponseEntity<HttpErrorInfo> handleDownstreamUnavailable(ServerWebExchange exchange, DownstreamUnavailableException ex) {
+        return createResponse(SERVICE_UNAVAILABLE, exchange, ex.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<HttpErrorInfo> handleIllegalArgument(ServerWebExchange exchange, IllegalArgumentException ex) {
         return createResponse(BAD_REQUEST, exchange, ex.getMessage());
@@ -54,6 +60,7 @@ public class GlobalControllerExceptionHandler {
                 .value();
         log.debug("HTTP {} on {}: {}", status, path, message);
         return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(new HttpErrorInfo(status, path, message));
     }
 }
@@ -0,0 +1,206 @@
+package com.example.apigatewayservice.utils;
+
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A link to a controller method, resolved once from its {@code @RequestMapping}s and then
+ * expanded by plain string concatenation. {@code linkTo(methodOn(...))} builds a proxy,
+ * records the invocation and re-parses the mapping on every call, which is most of the cost
+ * of a list response; a template does that work when the controller class is loaded.
+ * <p>
+ * Values are given in the order of the path variables in the mapping, followed by the
+ * method's {@code @RequestParam}s (a {@code null} query value is left out). Hrefs are
+ * relative to the gateway, as the method-based links were.
+ */
+public final class LinkTemplate {
+
+    /** {@code X-Omit-Links: true} or {@code ?links=none} (or {@code false}) drops links from responses. */
+    public static final String OMIT_LINKS_HEADER = "X-Omit-Links";
+    public static final String LINKS_PARAM = "links";
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final String pattern;
+    private final String[] literals;      // literals[i] precedes path variable i; the last one ends the path
+    private final String[] queryNames;    // @RequestParam names, already encoded
+    private final int sizeHint;
+
+    LinkTemplate(String pattern, List<String> literals, List<String> queryNames) {
+        this.pattern = pattern;
+        this.literals = literals.toArray(String[]::new);
+        this.queryNames = queryNames.toArray(String[]::new);
+        this.sizeHint = literals.stream().mapToInt(String::length).sum() + 16 * (this.literals.length + this.queryNames.length);
+    }
+
+    /**
+     * Resolves the mapping of {@code controller}'s method named {@code methodName}. Fails fast,
+     * at class loading, when the method is missing or not a request mapping.
+     */
+    public static LinkTemplate of(Class<?> controller, String methodName) {
+        Method method = Arrays.stream(controller.getDeclaredMethods())
+                .filter(m -> m.getName().equals(methodName))
+                .filter(m -> AnnotatedElementUtils.hasAnnotation(m, RequestMapping.class))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No request mapping " + controller.getSimpleName() + "." + methodName));
+
+        String path = join(firstPath(AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class)),
+                firstPath(AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class)));
+
+        List<String> queryNames = new ArrayList<>();
+        String[] discovered = PARAMETER_NAMES.getParameterNames(method);
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            RequestParam param = AnnotatedElementUtils.findMergedAnnotation(parameters[i], RequestParam.class);
+            if (param == null || Map.class.isAssignableFrom(parameters[i].getType())) {
+                continue;   // a @RequestParam Map is the filter set, never part of the link
+            }
+            String name = !param.name().isEmpty() ? param.name()
+                    : discovered != null ? discovered[i] : parameters[i].getName();
+            queryNames.add(name);
+        }
+        return parse(path, queryNames);
+    }
+
+    /** Whether the client asked for bare representations, so links need not be built at all. */
+    public static boolean linksWanted(ServerHttpRequest request) {
+        if ("true".equalsIgnoreCase(request.getHeaders().getFirst(OMIT_LINKS_HEADER))) {
+            return false;
+        }
+        String links = request.getQueryParams().getFirst(LINKS_PARAM);
+        return links == null || !(links.equalsIgnoreCase("none") || links.equalsIgnoreCase("false"));
+    }
+
+    /** The filters of a {@code @RequestParam Map} endpoint, without the {@code links} switch the services know nothing of. */
+    public static Map<String, String> withoutLinksParam(Map<String, String> queryParams) {
+        if (queryParams == null || !queryParams.containsKey(LINKS_PARAM)) {
+            return queryParams;
+        }
+        Map<String, String> filters = new LinkedHashMap<>(queryParams);
+        filters.remove(LINKS_PARAM);
+        return filters;
+    }
+
+    public String expand(Object... values) {
+        int variables = literals.length - 1;
+        if (values.length != variables + queryNames.length) {
+            throw new IllegalArgumentException(pattern + " takes " + (variables + queryNames.length)
+                    + " values, got " + values.length);
+        }
+
+        StringBuilder href = new StringBuilder(sizeHint);
+        for (int i = 0; i < variables; i++) {
+            href.append(literals[i]);
+            appendEncoded(href, String.valueOf(values[i]), false);
+        }
+        href.append(literals[variables]);
+
+        boolean first = true;
+        for (int i = 0; i < queryNames.length; i++) {
+            Object value = values[variables + i];
+            if (value == null) {
+                continue;
+            }
+            href.append(first ? '?' : '&').append(queryNames[i]).append('=');
+            appendEncoded(href, value.toString(), true);
+            first = false;
+        }
+        return href.toString();
+    }
+
+    public Link link(LinkRelation rel, Object... values) {
+        return Link.of(expand(values), rel);
+    }
+
+    public Link link(String rel, Object... values) {
+        return Link.of(expand(values), rel);
+    }
+
+    public Link self(Object... values) {
+        return Link.of(expand(values), IanaLinkRelations.SELF);
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    static LinkTemplate parse(String pattern, List<String> queryNames) {
+        List<String> literals = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = pattern.indexOf('{', from)) >= 0) {
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed path variable in " + pattern);
+            }
+            literals.add(pattern.substring(from, open));
+            from = close + 1;
+        }
+        literals.add(pattern.substring(from));
+
+        List<String> prefixes = new ArrayList<>(queryNames.size());
+        for (String name : queryNames) {
+            prefixes.add(UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8));
+        }
+        return new LinkTemplate(pattern, literals, prefixes);
+    }
+
+    // identifiers are almost always unreserved characters, which need no encoding pass
+    private static void appendEncoded(StringBuilder href, String value, boolean query) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean unreserved = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~';
+            if (!unreserved) {
+                href.append(query ? UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8)
+                        : UriUtils.encodePathSegment(value, StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        href.append(value);
+    }
+
+    private static String firstPath(RequestMapping mapping) {
+        if (mapping == null || mapping.path().length == 0) {
+            return "";
+        }
+        return mapping.path()[0];
+    }
+
+    private static String join(String base, String path) {
+        String joined = "/" + trimSlashes(base) + (path.isEmpty() ? "" : "/" + trimSlashes(path));
+        return joined.length() > 1 && joined.endsWith("/") ? joined.substring(0, joined.length() - 1) : joined;
+    }
+
+    private static String trimSlashes(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.apigatewayservice.utils;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Turns requests away by priority once the gateway is under pressure, so the requests that
+ * matter most keep a usable latency instead of everything timing out together.
+ * <p>
+ * Pressure is the larger of requests in flight over {@code app.load-shedding.max-in-flight}
+ * and the moving average latency over {@code app.load-shedding.latency-threshold-ms}.
+ * At 1.0 LOW priority requests are shed, at 1.5 NORMAL ones, at 2.0 everything.
+ * GETs under {@code app.load-shedding.high-priority-paths} (catalog, watch and plan reads by
+ * default) are HIGH, writes under {@code app.load-shedding.low-priority-paths} (orders by default)
+ * are LOW, the rest NORMAL. A latency average with no sample for
+ * {@code app.load-shedding.latency-window-ms} no longer counts, so shedding cannot keep itself going.
+ */
+@Component
+@Slf4j
+public class LoadShedder {
+
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final long latencyThresholdNanos;
+    private final long latencyWindowNanos;
+    private final long retryAfterSeconds;
+    private final List<String> highPriorityPaths;
+    private final List<String> lowPriorityPaths;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong latencyAverageNanos = new AtomicLong();
+    private final AtomicLong lastSampleAt = new AtomicLong(Long.MIN_VALUE);
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shedHigh = new LongAdder();
+    private final LongAdder shedNormal = new LongAdder();
+    private final LongAdder shedLow = new LongAdder();
+
+    @Autowired
+    public LoadShedder(Environment environment) {
+        this(environment.getProperty("app.load-shedding.enabled", Boolean.class, true),
+                environment.getProperty("app.load-shedding.max-in-flight", Integer.class, 500),
+                environment.getProperty("app.load-shedding.latency-threshold-ms", Long.class, 1_000L),
+                environment.getProperty("app.load-shedding.latency-window-ms", Long.class, 5_000L),
+                environment.getProperty("app.load-shedding.retry-after-seconds", Long.class, 1L),
+                paths(environment.getProperty("app.load-shedding.high-priority-paths",
+                        "/api/v1/catalogs,/api/v1/watches,/api/v1/plans")),
+                paths(environment.getProperty("app.load-shedding.low-priority-paths", "/api/v1/orders")),
+                System::nanoTime);
+        log.info("load shedding: {} ({} in flight, {} ms average latency)",
+                enabled ? "on" : "off", maxInFlight, latencyThresholdNanos / 1_000_000);
+    }
+
+    LoadShedder(boolean enabled, int maxInFlight, long latencyThresholdMillis, long latencyWindowMillis,
+                long retryAfterSeconds, List<String> highPriorityPaths, List<String> lowPriorityPaths,
+                LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.latencyThresholdNanos = Math.max(1, latencyThresholdMillis) * 1_000_000;
+        this.latencyWindowNanos = latencyWindowMillis * 1_000_000;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.highPriorityPaths = highPriorityPaths;
+        this.lowPriorityPaths = lowPriorityPaths;
+        this.nanoClock = nanoClock;
+    }
+
+    public Priority classify(HttpMethod method, String path) {
+        boolean read = HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+        if (read && matches(highPriorityPaths, path)) {
+            return Priority.HIGH;
+        }
+        if (!read && matches(lowPriorityPaths, path)) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    /** Checks only; a request that goes ahead must then call {@link #enter()} and {@link #exit}. */
+    public boolean shouldShed(Priority priority) {
+        if (!enabled) {
+            return false;
+        }
+        double pressure = pressure();
+        boolean shed = switch (priority) {
+            case LOW -> pressure >= 1.0;
+            case NORMAL -> pressure >= 1.5;
+            case HIGH -> pressure >= 2.0;
+        };
+        if (shed) {
+            (priority == Priority.HIGH ? shedHigh : priority == Priority.NORMAL ? shedNormal : shedLow).increment();
+        }
+        return shed;
+    }
+
+    public void enter() {
+        inFlight.incrementAndGet();
+        admitted.increment();
+    }
+
+    /**
+     * @param latencyNanos time the request took, or a negative value to leave it out of the
+     *                     average (streams, whose duration says nothing about load)
+     */
+    public void exit(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos < 0) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long last = lastSampleAt.getAndSet(now);
+        // after a quiet spell the old average says nothing, start over from this sample
+        boolean restart = last == Long.MIN_VALUE || now - last > latencyWindowNanos;
+        latencyAverageNanos.getAndUpdate(average -> restart || average == 0
+                ? latencyNanos
+                : (long) (average + EWMA_WEIGHT * (latencyNanos - average)));
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private double pressure() {
+        double queue = (double) inFlight.get() / maxInFlight;
+        return Math.max(queue, (double) currentLatencyNanos() / latencyThresholdNanos);
+    }
+
+    private long currentLatencyNanos() {
+        long last = lastSampleAt.get();
+        if (last == Long.MIN_VALUE || nanoClock.getAsLong() - last > latencyWindowNanos) {
+            return 0;
+        }
+        return latencyAverageNanos.get();
+    }
+
+    private static boolean matches(List<String> prefixes, String path) {
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> paths(String commaSeparated) {
+        return Arrays.stream(commaSeparated.split(","))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .toList();
+    }
+
+    public LoadSheddingStats stats() {
+        return LoadSheddingStats.builder()
+                .enabled(enabled)
+                .inFlight(inFlight.get())
+                .maxInFlight(maxInFlight)
+                .latencyAverageMillis(currentLatencyNanos() / 1_000_000.0)
+                .latencyThresholdMillis(latencyThresholdNanos / 1_000_000)
+                .pressure(pressure())
+                .admitted(admitted.sum())
+                .shedHigh(shedHigh.sum())
+                .shedNormal(shedNormal.sum())
+                .shedLow(shedLow.sum())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.apigatewayservice.utils;
+
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class LoadSheddingStats {
+
+    private boolean enabled;
+    private int inFlight;
+    private int maxInFlight;
+    private double latencyAverageMillis;
+    private long latencyThresholdMillis;
+    private double pressure;
+    private long admitted;
+    private long shedHigh;
+    private long shedNormal;
+    private long shedLow;
+
+    public double getShedRatio() {
+        long shed = shedHigh + shedNormal + shedLow;
+        long requests = admitted + shed;
+        return requests == 0 ? 0.0 : (double) shed / requests;
+    }
+}
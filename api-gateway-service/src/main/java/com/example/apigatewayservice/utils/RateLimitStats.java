@@ -0,0 +1,26 @@
+package com.example.apigatewayservice.utils;
+
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RateLimitStats {
+
+    private boolean enabled;
+    private double clientRatePerSecond;
+    private int clientBurst;
+    private int trackedClients;
+    private int routes;
+    private long allowed;
+    private long limitedByClient;
+    private long limitedByRoute;
+
+    public double getLimitedRatio() {
+        long requests = allowed + limitedByClient + limitedByRoute;
+        return requests == 0 ? 0.0 : (double) (limitedByClient + limitedByRoute) / requests;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.apigatewayservice.utils;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client and per-route {@link TokenBucket}s in front of the downstream services.
+ * <p>
+ * Every client gets {@code app.rate-limit.client.rate-per-second} with bursts up to
+ * {@code app.rate-limit.client.burst}. Every route (the first path segment after
+ * {@code /api/v1/}, e.g. {@code catalogs}) gets {@code app.rate-limit.route.<route>.rate-per-second}
+ * / {@code .burst}, falling back to {@code app.rate-limit.route.rate-per-second} / {@code .burst},
+ * shared by all clients. Only the gateway's own routes get a bucket, made at startup; any other
+ * path segment shares one bucket on the fallback settings, so made-up paths cannot grow the
+ * map. {@code app.rate-limit.enabled=false} lets everything through.
+ * Buckets of clients that have gone quiet are dropped once more than
+ * {@code app.rate-limit.client.max-tracked} are held.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+    private static final Set<String> ROUTES = Set.of("customers", "catalogs", "watches", "plans", "orders");
+
+    private final Environment environment;
+    private final boolean enabled;
+    private final double clientRatePerSecond;
+    private final int clientBurst;
+    private final int maxTrackedClients;
+
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> routeBuckets;
+    private final TokenBucket otherRoutes;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limitedByClient = new LongAdder();
+    private final LongAdder limitedByRoute = new LongAdder();
+
+    public RateLimiter(Environment environment) {
+        this.environment = environment;
+        this.enabled = environment.getProperty("app.rate-limit.enabled", Boolean.class, true);
+        this.clientRatePerSecond = environment.getProperty("app.rate-limit.client.rate-per-second", Double.class, 50.0);
+        this.clientBurst = environment.getProperty("app.rate-limit.client.burst", Integer.class, 100);
+        this.maxTrackedClients = environment.getProperty("app.rate-limit.client.max-tracked", Integer.class, 10_000);
+        log.info("rate limit: {} ({}/s per client, bursts of {})", enabled ? "on" : "off", clientRatePerSecond, clientBurst);
+
+        Map<String, TokenBucket> buckets = new HashMap<>();
+        ROUTES.forEach(route -> buckets.put(route, newRouteBucket(route)));
+        this.routeBuckets = Map.copyOf(buckets);
+        this.otherRoutes = newRouteBucket(null);
+    }
+
+    /**
+     * @return 0 when the request may go ahead, otherwise the nanoseconds the client should wait
+     */
+    public long tryAcquire(String client, String route) {
+        if (!enabled) {
+            return 0;
+        }
+
+        TokenBucket clientBucket = clientBucket(client);
+        long wait = clientBucket.tryAcquire();
+        if (wait > 0) {
+            limitedByClient.increment();
+            return wait;
+        }
+        wait = routeBuckets.getOrDefault(route, otherRoutes).tryAcquire();
+        if (wait > 0) {
+            // the request is turned away, so it does not count against the client
+            clientBucket.refund();
+            limitedByRoute.increment();
+            return wait;
+        }
+        allowed.increment();
+        return 0;
+    }
+
+    private TokenBucket clientBucket(String client) {
+        TokenBucket bucket = clientBuckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientBuckets.size() >= maxTrackedClients) {
+            sweepIdleClients();
+        }
+        return clientBuckets.computeIfAbsent(client, c -> new TokenBucket(clientRatePerSecond, clientBurst));
+    }
+
+    private void sweepIdleClients() {
+        long last = lastSweep.get();
+        long now = System.nanoTime();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        clientBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    // null: the bucket shared by every other route
+    private TokenBucket newRouteBucket(String route) {
+        double ratePerSecond = setting(route, "rate-per-second", Double.class, 500.0);
+        int burst = setting(route, "burst", Integer.class, 1_000);
+        log.info("rate limit route {}: {}/s, bursts of {}", route != null ? route : "(other)", ratePerSecond, burst);
+        return new TokenBucket(ratePerSecond, burst);
+    }
+
+    private <T> T setting(String route, String key, Class<T> type, T defaultValue) {
+        T value = route == null ? null : environment.getProperty("app.rate-limit.route." + route + "." + key, type);
+        return value != null ? value : environment.getProperty("app.rate-limit.route." + key, type, defaultValue);
+    }
+
+    public RateLimitStats stats() {
+        return RateLimitStats.builder()
+                .enabled(enabled)
+                .clientRatePerSecond(clientRatePerSecond)
+                .clientBurst(clientBurst)
+                .trackedClients(clientBuckets.size())
+                .routes(routeBuckets.size())
+                .allowed(allowed.sum())
+                .limitedByClient(limitedByClient.sum())
+                .limitedByRoute(limitedByRoute.sum())
+                .build();
+    }
+}
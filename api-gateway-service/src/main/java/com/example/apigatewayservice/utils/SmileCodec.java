@@ -0,0 +1,52 @@
+package com.example.apigatewayservice.utils;
+
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Smile (binary JSON) for the hops between the gateway and the services: the mapper the
+ * WebClient codecs use, a copy of Boot's JSON one, and decoding of bodies the response cache
+ * kept as raw bytes, which may be either format depending on what the service answered.
+ */
+@Component
+public class SmileCodec {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // every Smile document starts with ":)\n", JSON never does
+    private static final byte[] HEADER = {':', ')', '\n'};
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+
+    public SmileCodec(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    public ObjectMapper getSmileMapper() {
+        return smileMapper;
+    }
+
+    public <T> T readValue(byte[] body, JavaType type) throws IOException {
+        return (isSmile(body) ? smileMapper : jsonMapper).readValue(body, type);
+    }
+
+    static boolean isSmile(byte[] body) {
+        if (body == null || body.length < HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (body[i] != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.apigatewayservice.utils;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket, kept as the single timestamp at which the bucket will be full
+ * again (the "theoretical arrival time" of the generic cell rate algorithm). Taking a token
+ * moves that timestamp forward by one refill interval with a CAS; a request is admitted
+ * while the timestamp is less than {@code burst} intervals ahead of now.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long toleranceNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double tokensPerSecond, int burst) {
+        this(tokensPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double tokensPerSecond, int burst, LongSupplier nanoClock) {
+        this.nanosPerToken = Math.max(1L, (long) (1_000_000_000L / tokensPerSecond));
+        this.toleranceNanos = (Math.max(1, burst) - 1) * nanosPerToken;
+        this.nanoClock = nanoClock;
+        this.fullAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long current = fullAt.get();
+            long base = current - now > 0 ? current : now;
+            long ahead = base - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (fullAt.compareAndSet(current, base + nanosPerToken)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Gives back a token taken by {@link #tryAcquire()} for a request that did not go ahead after all. */
+    public void refund() {
+        fullAt.addAndGet(-nanosPerToken);
+    }
+
+    /** A full bucket carries no state worth keeping. */
+    public boolean isFull() {
+        return fullAt.get() - nanoClock.getAsLong() <= 0;
+    }
+}
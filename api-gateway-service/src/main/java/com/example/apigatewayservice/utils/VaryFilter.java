@@ -0,0 +1,28 @@
+package com.example.apigatewayservice.utils;
+
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Everything under {@code /api/v1/} comes as JSON or Smile, and with or without links, each
+ * with its own {@link ETags entity tag}; {@code Vary} tells caches to key it on the request
+ * headers that choose ({@code ?links=none} is part of the URL already).
+ */
+@Component
+public class VaryFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getPath().pathWithinApplication().value().startsWith("/api/v1/")) {
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            headers.add(HttpHeaders.VARY, LinkTemplate.OMIT_LINKS_HEADER);
+        }
+        return chain.filter(exchange);
+    }
+}
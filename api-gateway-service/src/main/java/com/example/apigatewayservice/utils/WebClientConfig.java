@@ -0,0 +1,77 @@
+package com.example.apigatewayservice.utils;
+
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * One connection pool shared by every domain client. Requests beyond
+ * {@code max-connections} wait in the pool's pending queue instead of holding a thread,
+ * and a request that cannot get a connection within {@code pending-acquire-timeout-ms}
+ * fails fast rather than piling up behind a slow downstream service.
+ * <p>
+ * With {@code app.http-client.smile} on, the services are asked for Smile first and JSON
+ * second; a request that sets its own {@code Accept} (the NDJSON export) keeps it.
+ */
+@Configuration
+@Slf4j
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider(
+            @Value("${app.http-client.max-connections:500}") int maxConnections,
+            @Value("${app.http-client.pending-acquire-max-count:5000}") int pendingAcquireMaxCount,
+            @Value("${app.http-client.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMillis,
+            @Value("${app.http-client.max-idle-time-ms:30000}") long maxIdleTimeMillis) {
+
+        log.info("downstream pool: {} connections, {} pending acquires", maxConnections, pendingAcquireMaxCount);
+        return ConnectionProvider.builder("downstream-services")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMillis))
+                .build();
+    }
+
+    @Bean
+    public WebClientCustomizer downstreamWebClientCustomizer(
+            ConnectionProvider downstreamConnectionProvider,
+            @Value("${app.http-client.connect-timeout-ms:2000}") int connectTimeoutMillis,
+            @Value("${app.http-client.response-timeout-ms:5000}") long responseTimeoutMillis,
+            @Value("${app.http-client.max-in-memory-size:2097152}") int maxInMemorySize,
+            @Value("${app.http-client.smile:true}") boolean smile,
+            SmileCodec smileCodec) {
+
+        HttpClient httpClient = HttpClient.create(downstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMillis))
+                .compress(true);
+
+        return builder -> {
+            builder.clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .codecs(codecs -> {
+                        codecs.defaultCodecs().maxInMemorySize(maxInMemorySize);
+                        codecs.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileCodec.getSmileMapper()));
+                        codecs.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileCodec.getSmileMapper()));
+                    });
+            if (smile) {
+                builder.defaultHeader(HttpHeaders.ACCEPT, SmileCodec.APPLICATION_SMILE.toString(),
+                        new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9")).toString());
+            }
+        };
+    }
+}
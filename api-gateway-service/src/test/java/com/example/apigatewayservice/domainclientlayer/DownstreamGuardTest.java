@@ -0,0 +1,109 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+import com.example.apigatewayservice.utils.DownstreamUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DownstreamGuardTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final AtomicInteger sent = new AtomicInteger();
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://product/api/v1/watches/W1")).build();
+
+    // window of 4, opens at 50% once 4 calls are in, stays open 1 s, closes after 2 good probes
+    private DownstreamGuard guard(int maxConcurrent) {
+        return new DownstreamGuard("product-services", true, maxConcurrent,
+                new CircuitBreaker(4, 4, 50, 1_000, 2, now::get));
+    }
+
+    private ExchangeFunction answering(HttpStatus status) {
+        return req -> {
+            sent.incrementAndGet();
+            return Mono.just(ClientResponse.create(status).build());
+        };
+    }
+
+    private Mono<ClientResponse> call(DownstreamGuard guard, ExchangeFunction next) {
+        return guard.filter().filter(request, next);
+    }
+
+    @Test
+    @DisplayName("guard: 5xx answers open the breaker, then calls fail fast without going out")
+    void serverErrorsOpenTheBreaker() {
+        DownstreamGuard guard = guard(10);
+        call(guard, answering(HttpStatus.OK)).block();
+        call(guard, answering(HttpStatus.NOT_FOUND)).block();   // the caller's problem, not an outage
+        call(guard, answering(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        call(guard, answering(HttpStatus.BAD_GATEWAY)).block();
+
+        assertThatThrownBy(() -> call(guard, answering(HttpStatus.OK)).block())
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("circuit breaker is open");
+        assertThat(sent.get()).isEqualTo(4);
+
+        DownstreamGuardStats stats = guard.stats();
+        assertThat(stats.getState()).isEqualTo("OPEN");
+        assertThat(stats.getFailures()).isEqualTo(2);
+        assertThat(stats.getRejectedByBreaker()).isEqualTo(1);
+        assertThat(stats.getTimesOpened()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("guard: after the open period successful probes close the breaker, a failed probe reopens it")
+    void halfOpenProbes() {
+        DownstreamGuard guard = guard(10);
+        for (int i = 0; i < 4; i++) {
+            call(guard, req -> Mono.error(new IllegalStateException("connection refused"))).onErrorResume(ex -> Mono.empty()).block();
+        }
+        assertThat(guard.stats().getState()).isEqualTo("OPEN");
+
+        now.addAndGet(1_000);
+        assertThat(guard.stats().getState()).isEqualTo("HALF_OPEN");
+        call(guard, answering(HttpStatus.INTERNAL_SERVER_ERROR)).block();
+        assertThat(guard.stats().getState()).isEqualTo("OPEN");
+        assertThat(guard.stats().getTimesOpened()).isEqualTo(2);
+
+        now.addAndGet(1_000);
+        call(guard, answering(HttpStatus.OK)).block();
+        call(guard, answering(HttpStatus.OK)).block();
+        assertThat(guard.stats().getState()).isEqualTo("CLOSED");
+        assertThat(guard.stats().getBufferedCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("guard: past max-concurrent exchanges a call is rejected at once; a cancelled call frees its slot")
+    void bulkheadRejectsAndReleasesOnCancel() {
+        DownstreamGuard guard = guard(1);
+        Sinks.One<ClientResponse> slow = Sinks.one();
+
+        Disposable first = call(guard, req -> slow.asMono()).subscribe();
+        assertThat(guard.stats().getInFlight()).isEqualTo(1);
+
+        assertThatThrownBy(() -> call(guard, answering(HttpStatus.OK)).block())
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("bulkhead is full");
+
+        first.dispose();
+        assertThat(guard.stats().getInFlight()).isZero();
+        assertThat(call(guard, answering(HttpStatus.OK)).block().statusCode()).isEqualTo(HttpStatus.OK);
+
+        DownstreamGuardStats stats = guard.stats();
+        assertThat(stats.getRejectedByBulkhead()).isEqualTo(1);
+        assertThat(stats.getFailures()).isZero();
+        assertThat(stats.getRejectionRatio()).isEqualTo(1.0 / 3);
+    }
+}
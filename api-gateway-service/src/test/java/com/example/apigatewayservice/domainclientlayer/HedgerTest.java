@@ -0,0 +1,120 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+import com.example.apigatewayservice.utils.DownstreamUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HedgerTest {
+
+    private final AtomicInteger sent = new AtomicInteger();
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    // p95 of the last 10 answers once 5 are in, never sooner than 20 ms
+    private Hedger hedger(HedgeBudget budget) {
+        return new Hedger("product-services", true, 10, 95, 5, 20, budget);
+    }
+
+    private void warmUp(Hedger hedger) {
+        for (int i = 0; i < 5; i++) {
+            hedger.call("getCatalogWatchByID", Mono.just("fast")).block();
+        }
+    }
+
+    // the first subscription stalls, any later one answers at once
+    private Mono<String> slowThenFast() {
+        return Mono.defer(() -> sent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("primary").doOnCancel(cancelled::countDown)
+                : Mono.just("hedge"));
+    }
+
+    @Test
+    @DisplayName("hedging: an exchange slower than p95 gets a second one, the first answer wins, the loser is cancelled")
+    void slowCallIsHedged() throws InterruptedException {
+        Hedger hedger = hedger(new HedgeBudget(10, 5));
+        warmUp(hedger);
+
+        String result = hedger.call("getCatalogWatchByID", slowThenFast()).block(Duration.ofSeconds(1));
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(sent.get()).isEqualTo(2);
+        // the merge cancels the loser once it is done emitting, which may be just after block() returns
+        assertThat(cancelled.await(1, TimeUnit.SECONDS)).isTrue();
+
+        HedgingStats stats = hedger.stats();
+        assertThat(stats.getHedged()).isEqualTo(1);
+        assertThat(stats.getHedgeWins()).isEqualTo(1);
+        assertThat(stats.getHedgeWinRate()).isEqualTo(1.0);
+        assertThat(stats.getHedgeAfterMillis()).containsKey("getCatalogWatchByID");
+    }
+
+    @Test
+    @DisplayName("hedging: nothing is hedged before an endpoint has enough samples")
+    void noHedgeWithoutSamples() {
+        Hedger hedger = hedger(new HedgeBudget(10, 5));
+
+        Mono<String> slow = Mono.defer(() -> {
+            sent.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).thenReturn("only");
+        });
+
+        assertThat(hedger.call("getCatalogWatchByID", slow).block()).isEqualTo("only");
+        assertThat(sent.get()).isEqualTo(1);
+        assertThat(hedger.stats().getHedged()).isZero();
+    }
+
+    @Test
+    @DisplayName("hedging: with the budget spent the slow exchange is simply waited for")
+    void emptyBudgetWaitsForPrimary() {
+        Hedger hedger = hedger(new HedgeBudget(0, 0));
+        warmUp(hedger);
+
+        Mono<String> slow = Mono.defer(() -> {
+            sent.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).thenReturn("primary");
+        });
+
+        assertThat(hedger.call("getCatalogWatchByID", slow).block()).isEqualTo("primary");
+        assertThat(sent.get()).isEqualTo(1);
+        assertThat(hedger.stats().getBudgetExhausted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("hedging: a 4xx is an answer, a failure before the hedge fires is passed on at once")
+    void errorsBeforeTheHedge() {
+        Hedger hedger = hedger(new HedgeBudget(10, 5));
+        warmUp(hedger);
+
+        assertThatThrownBy(() -> hedger.call("getCatalogWatchByID", Mono.<String>error(
+                WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null))).block())
+                .isInstanceOf(WebClientResponseException.NotFound.class);
+        assertThatThrownBy(() -> hedger.call("getCatalogWatchByID", Mono.<String>error(
+                new DownstreamUnavailableException("product-services circuit breaker is open"))).block(Duration.ofMillis(10)))
+                .isInstanceOf(DownstreamUnavailableException.class);
+        assertThat(hedger.stats().getHedged()).isZero();
+    }
+
+    @Test
+    @DisplayName("hedging: a failed first attempt waits for the hedge that is still out")
+    void failedPrimaryWaitsForHedge() {
+        Hedger hedger = hedger(new HedgeBudget(10, 5));
+        warmUp(hedger);
+
+        Mono<String> failsLate = Mono.defer(() -> sent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(40)).then(Mono.<String>error(
+                        WebClientResponseException.create(HttpStatus.BAD_GATEWAY.value(), "Bad Gateway", null, null, null)))
+                : Mono.delay(Duration.ofMillis(60)).thenReturn("hedge"));
+
+        assertThat(hedger.call("getCatalogWatchByID", failsLate).block(Duration.ofSeconds(1))).isEqualTo("hedge");
+        assertThat(hedger.stats().getHedgeWins()).isEqualTo(1);
+    }
+}
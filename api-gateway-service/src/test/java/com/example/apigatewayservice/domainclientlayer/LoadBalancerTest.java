@@ -0,0 +1,154 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoadBalancerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final Map<String, Integer> sentTo = new HashMap<>();
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET,
+            URI.create("http://product-services:8080/api/v1/watches?brand=Omega%20SA")).build();
+
+    // ejected after 2 failures in a row for 1 s, at most half of the replicas at once
+    private LoadBalancer balancer(String... replicas) {
+        return new LoadBalancer("product-services", true, "product-services:8080", List.of(replicas),
+                2, 1_000, 50, now::get);
+    }
+
+    // answers with the status configured for the replica the request was pointed at
+    private ExchangeFunction replicas(Map<String, HttpStatus> statuses) {
+        return req -> {
+            String address = req.url().getAuthority();
+            sentTo.merge(address, 1, Integer::sum);
+            assertThat(req.url().getRawPath()).isEqualTo("/api/v1/watches");
+            assertThat(req.url().getRawQuery()).isEqualTo("brand=Omega%20SA");
+            return Mono.just(ClientResponse.create(statuses.getOrDefault(address, HttpStatus.OK)).build());
+        };
+    }
+
+    private void send(LoadBalancer balancer, ExchangeFunction next, int times) {
+        for (int i = 0; i < times; i++) {
+            balancer.filter().filter(request, next).block();
+        }
+    }
+
+    @Test
+    @DisplayName("load balancing: requests are spread over the replicas, path and query untouched")
+    void spreadsOverReplicas() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092");
+
+        send(balancer, replicas(Map.of()), 100);
+
+        assertThat(sentTo).containsOnlyKeys("localhost:8082", "localhost:8092");
+        assertThat(balancer.stats().getReplicas())
+                .extracting(LoadBalancerStats.ReplicaStats::getOutstanding)
+                .containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("load balancing: a replica answering 5xx in a row is ejected, and back once its time is up")
+    void outlierEjection() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092", "localhost:8102");
+        ExchangeFunction next = replicas(Map.of("localhost:8082", HttpStatus.SERVICE_UNAVAILABLE));
+
+        send(balancer, next, 100);
+        int failedOnes = sentTo.getOrDefault("localhost:8082", 0);
+        assertThat(failedOnes).isEqualTo(2);
+        assertThat(balancer.stats().getReplicas().get(0).isEjected()).isTrue();
+
+        now.addAndGet(1_001);
+        send(balancer, replicas(Map.of()), 100);
+        assertThat(sentTo.get("localhost:8082")).isGreaterThan(failedOnes);
+    }
+
+    @Test
+    @DisplayName("load balancing: a request cancelled before its answer gives its slot back without an outcome")
+    void cancelledRequestIsReleased() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092");
+
+        Disposable pending = balancer.filter().filter(request, req -> Mono.never()).subscribe();
+        assertThat(balancer.stats().getReplicas())
+                .extracting(LoadBalancerStats.ReplicaStats::getOutstanding)
+                .containsExactlyInAnyOrder(1, 0);
+
+        pending.dispose();
+        assertThat(balancer.stats().getReplicas())
+                .allSatisfy(r -> {
+                    assertThat(r.getOutstanding()).isZero();
+                    assertThat(r.getFailures()).isZero();
+                });
+    }
+
+    @Test
+    @DisplayName("load balancing: failed health checks take a replica out; with none left all are tried")
+    void healthChecks() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092");
+        LoadBalancer.Replica down = balancer.getReplicas().get(1);
+
+        down.onHealthCheck(false, 1);
+        send(balancer, replicas(Map.of()), 50);
+        assertThat(sentTo).containsOnlyKeys("localhost:8082");
+
+        balancer.getReplicas().get(0).onHealthCheck(false, 1);
+        send(balancer, replicas(Map.of()), 50);
+        assertThat(sentTo).containsKeys("localhost:8082", "localhost:8092");
+    }
+
+    @Test
+    @DisplayName("load balancing: a single replica is not balanced at all")
+    void singleReplicaPassesThrough() {
+        LoadBalancer balancer = balancer("product-services:8080");
+
+        send(balancer, replicas(Map.of()), 3);
+
+        assertThat(balancer.isBalancing()).isFalse();
+        assertThat(sentTo).containsExactly(Map.entry("product-services:8080", 3));
+    }
+
+    @Test
+    @DisplayName("health checks: only a 2xx from the health path passes, a 404 takes the replica out")
+    void healthCheckNeedsA2xx() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().equals("/api/v1/orders") ? 200 : 404, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String replicas = "localhost:" + server.getAddress().getPort() + ",127.0.0.1:" + server.getAddress().getPort();
+            LoadBalancerRegistry registry = new LoadBalancerRegistry(new MockEnvironment()
+                    .withProperty("app.order-services.replicas", replicas)
+                    .withProperty("app.customer-services.replicas", replicas), WebClient.builder());
+            LoadBalancer orders = registry.register("order-services", "order-services", "8080", "/api/v1/orders?limit=1");
+            LoadBalancer customers = registry.register("customer-services", "customer-services", "8080", "/actuator/health");
+
+            registry.checkHealth().block();
+            registry.checkHealth().block();
+
+            assertThat(orders.stats().getReplicas()).allMatch(LoadBalancerStats.ReplicaStats::isHealthy);
+            assertThat(customers.stats().getReplicas()).noneMatch(LoadBalancerStats.ReplicaStats::isHealthy);
+        } finally {
+            server.stop(0);
+        }
+    }
+}
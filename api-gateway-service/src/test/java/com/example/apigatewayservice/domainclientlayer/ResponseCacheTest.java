@@ -0,0 +1,153 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+import com.example.apigatewayservice.utils.DownstreamUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final List<String> sentTags = new ArrayList<>();
+
+    private ResponseCache cache() {
+        return new ResponseCache("product-services", true, 100, 1_000, 10_000, 10,
+                new SingleFlight("product-services", true), now::get);
+    }
+
+    // records the If-None-Match it was called with and answers with the given response
+    private Function<String, Mono<ConditionalResponse>> origin(ConditionalResponse response) {
+        return etag -> {
+            sentTags.add(etag);
+            return Mono.just(response);
+        };
+    }
+
+    private static byte[] body(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("response cache: a fresh copy is served without asking the origin")
+    void freshCopyIsAHit() {
+        ResponseCache cache = cache();
+
+        assertThat(text(cache.get("catalogs/C1", origin(ConditionalResponse.of("\"1\"", body("v1")))).block())).isEqualTo("v1");
+        now.addAndGet(50);
+        assertThat(text(cache.get("catalogs/C1", origin(ConditionalResponse.of("\"2\"", body("v2")))).block())).isEqualTo("v1");
+
+        assertThat(sentTags).containsExactly((String) null);
+        ResponseCacheStats stats = cache.stats();
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("response cache: a stale copy is served at once and revalidated in the background with If-None-Match")
+    void staleCopyIsRevalidatedInBackground() {
+        ResponseCache cache = cache();
+        cache.get("plans", origin(ConditionalResponse.of("\"abc\"", body("plans")))).block();
+
+        now.addAndGet(500);
+        assertThat(text(cache.get("plans", origin(ConditionalResponse.notModified())).block())).isEqualTo("plans");
+        assertThat(sentTags).containsExactly(null, "\"abc\"");
+
+        // the 304 renewed the copy: fresh again, no further request
+        assertThat(text(cache.get("plans", origin(ConditionalResponse.notModified())).block())).isEqualTo("plans");
+        assertThat(sentTags).hasSize(2);
+
+        ResponseCacheStats stats = cache.stats();
+        assertThat(stats.getStaleHits()).isEqualTo(1);
+        assertThat(stats.getRevalidations()).isEqualTo(1);
+        assertThat(stats.getNotModified()).isEqualTo(1);
+        assertThat(stats.getNotModifiedRatio()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("response cache: past the stale window the caller waits for the conditional request")
+    void expiredCopyWaitsForOrigin() {
+        ResponseCache cache = cache();
+        cache.get("watches/W1", origin(ConditionalResponse.of("\"1\"", body("v1")))).block();
+
+        now.addAndGet(5_000);
+        assertThat(text(cache.get("watches/W1", origin(ConditionalResponse.of("\"2\"", body("v2")))).block())).isEqualTo("v2");
+        assertThat(sentTags).containsExactly(null, "\"1\"");
+        assertThat(cache.stats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("response cache: a fetch in flight during an invalidation does not store its older result")
+    void invalidationWinsOverFetchInFlight() {
+        ResponseCache cache = cache();
+        Sinks.One<ConditionalResponse> slow = Sinks.one();
+
+        List<String> results = new ArrayList<>();
+        cache.get("catalogs", etag -> slow.asMono()).subscribe(b -> results.add(text(b)));
+        cache.invalidate("catalogs");
+        slow.tryEmitValue(ConditionalResponse.of("\"old\"", body("old")));
+
+        assertThat(results).containsExactly("old");
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("response cache: an origin error drops the stored copy; bodies without an ETag are not stored")
+    void errorsAndUntaggedBodiesAreNotKept() {
+        ResponseCache cache = cache();
+        cache.get("watches/W1", origin(ConditionalResponse.of("\"1\"", body("v1")))).block();
+
+        now.addAndGet(5_000);
+        assertThatThrownBy(() -> cache.get("watches/W1", etag -> Mono.error(new IllegalStateException("down"))).block())
+                .hasMessageContaining("down");
+        assertThat(cache.stats().getSize()).isZero();
+
+        cache.get("watches/W2", origin(ConditionalResponse.of(null, body("untagged")))).block();
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("response cache: while the origin is unavailable the stored copy is served, up to stale-if-error")
+    void staleIfError() {
+        ResponseCache cache = cache();
+        cache.get("catalogs/C1", origin(ConditionalResponse.of("\"1\"", body("v1")))).block();
+        Function<String, Mono<ConditionalResponse>> down =
+                etag -> Mono.error(new DownstreamUnavailableException("product-services circuit breaker is open"));
+
+        now.addAndGet(5_000);
+        assertThat(text(cache.get("catalogs/C1", down).block())).isEqualTo("v1");
+        assertThat(cache.stats().getStaleIfErrorHits()).isEqualTo(1);
+        assertThat(cache.stats().getSize()).isEqualTo(1);
+
+        now.addAndGet(10_000);
+        assertThatThrownBy(() -> cache.get("catalogs/C1", down).block())
+                .isInstanceOf(DownstreamUnavailableException.class);
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("response cache: invalidatePrefix drops every key under the prefix")
+    void invalidatePrefix() {
+        ResponseCache cache = cache();
+        cache.get("catalogs", origin(ConditionalResponse.of("\"a\"", body("all")))).block();
+        cache.get("catalogs/C1", origin(ConditionalResponse.of("\"1\"", body("one")))).block();
+        cache.get("watches/W1", origin(ConditionalResponse.of("\"1\"", body("watch")))).block();
+
+        cache.invalidatePrefix("catalogs");
+
+        assertThat(cache.stats().getSize()).isEqualTo(1);
+    }
+}
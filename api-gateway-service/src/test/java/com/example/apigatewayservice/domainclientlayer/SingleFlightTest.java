@@ -0,0 +1,91 @@
+package com.example.apigatewayservice.domainclientlayer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("single-flight: concurrent identical calls share one downstream call")
+    void concurrentCallsCollapse() {
+        SingleFlight singleFlight = new SingleFlight("product-services", true);
+        Sinks.One<String> downstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            singleFlight.execute("watches/W1", () -> {
+                calls.incrementAndGet();
+                return downstream.asMono();
+            }).subscribe(results::add);
+        }
+        assertThat(singleFlight.stats().getInFlight()).isEqualTo(1);
+
+        downstream.tryEmitValue("body");
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(results).containsExactly("body", "body", "body", "body", "body");
+
+        SingleFlightStats stats = singleFlight.stats();
+        assertThat(stats.getInFlight()).isZero();
+        assertThat(stats.getRequests()).isEqualTo(5);
+        assertThat(stats.getDownstreamCalls()).isEqualTo(1);
+        assertThat(stats.getCollapsed()).isEqualTo(4);
+        assertThat(stats.getCollapseRatio()).isEqualTo(0.8);
+    }
+
+    @Test
+    @DisplayName("single-flight: different keys and calls after completion go downstream")
+    void nothingKeptAfterCompletion() {
+        SingleFlight singleFlight = new SingleFlight("product-services", true);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(singleFlight.execute("watches/W1", () -> Mono.just("v" + calls.incrementAndGet())).block()).isEqualTo("v1");
+        assertThat(singleFlight.execute("watches/W1", () -> Mono.just("v" + calls.incrementAndGet())).block()).isEqualTo("v2");
+        assertThat(singleFlight.execute("watches/W2", () -> Mono.just("v" + calls.incrementAndGet())).block()).isEqualTo("v3");
+
+        assertThat(singleFlight.stats().getCollapsed()).isZero();
+    }
+
+    @Test
+    @DisplayName("single-flight: a failed call fails every waiting caller, then the key is free again")
+    void errorIsSharedThenCleared() {
+        SingleFlight singleFlight = new SingleFlight("service-plan-services", true);
+        Sinks.One<String> downstream = Sinks.one();
+
+        List<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            singleFlight.execute("plans/P1", downstream::asMono).subscribe(v -> {}, errors::add);
+        }
+        downstream.tryEmitError(new IllegalStateException("down"));
+
+        assertThat(errors).hasSize(3).allMatch(e -> e.getMessage().equals("down"));
+        assertThat(singleFlight.execute("plans/P1", () -> Mono.just("ok")).block()).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("single-flight: switched off, every call goes downstream")
+    void disabled() {
+        SingleFlight singleFlight = new SingleFlight("product-services", false);
+        Sinks.One<String> downstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            singleFlight.execute("watches/W1", () -> {
+                calls.incrementAndGet();
+                return downstream.asMono();
+            }).subscribe();
+        }
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(singleFlight.stats().getRequests()).isZero();
+    }
+}
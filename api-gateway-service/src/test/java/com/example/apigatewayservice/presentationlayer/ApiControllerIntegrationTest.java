@@ -10,12 +10,15 @@ import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerReq
 import com.example.apigatewayservice.presentationlayer.customersdtos.CustomerResponseModel;
 import com.example.apigatewayservice.presentationlayer.customersdtos.PhoneNumber;
 import com.example.apigatewayservice.presentationlayer.customersdtos.PhoneType;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderPageResponseModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderRequestModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderResponseModel;
+import com.example.apigatewayservice.presentationlayer.orderdtos.OrderSearchRequestModel;
 import com.example.apigatewayservice.presentationlayer.orderdtos.OrderStatus;
 import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanRequestModel;
 import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanResponseModel;
 import com.example.apigatewayservice.presentationlayer.watchdtos.*;
+import com.example.apigatewayservice.utils.DownstreamUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,6 +40,7 @@ import java.util.Objects;
 
 
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -44,6 +48,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -95,20 +100,21 @@ public class ApiControllerIntegrationTest {
                 .phoneNumbers(List.of())
                 .build();
 
-        given(customerClient.getCustomers()).willReturn(List.of(cust));
-        given(customerClient.getCustomerbyCustomerId(customerId)).willReturn(cust);
-        given(customerClient.getCustomerbyCustomerId("X")).willReturn(null);
+        given(customerClient.getCustomers()).willReturn(Flux.just(cust));
+        given(customerClient.getCustomerbyCustomerId(customerId)).willReturn(Mono.just(cust));
+        given(customerClient.getCustomerbyCustomerId("X")).willReturn(Mono.empty());
 
         // —— Catalog stub ——
         CatalogResponseModel cat = CatalogResponseModel.builder()
                 .catalogId(catalogId)
                 .type("Standard")
                 .description("Everyday watches")
+                .version(3L)
                 .build();
 
-        given(productClient.getCatalogs()).willReturn(List.of(cat));
-        given(productClient.getCatalogById(catalogId)).willReturn(cat);
-        given(productClient.getCatalogById("X")).willReturn(null);
+        given(productClient.getCatalogs()).willReturn(Flux.just(cat));
+        given(productClient.getCatalogById(catalogId)).willReturn(Mono.just(cat));
+        given(productClient.getCatalogById("X")).willReturn(Mono.empty());
 
         // —— Watch stub ——
         watchSample = WatchResponseModel.builder()
@@ -124,18 +130,18 @@ public class ApiControllerIntegrationTest {
                 .watchBrand(new WatchBrand("Rolex","CH"))
                 .build();
 
-        given(productClient.getCatalogWatchByID(watchId)).willReturn(watchSample);
-        given(productClient.getCatalogWatchByID("X")).willReturn(null);
+        given(productClient.getCatalogWatchByID(watchId)).willReturn(Mono.just(watchSample));
+        given(productClient.getCatalogWatchByID("X")).willReturn(Mono.empty());
 
         given(productClient.getWatchesInCatalogWithFiltering(eq(catalogId), anyMap()))
-                .willReturn(List.of(watchSample));
+                .willReturn(Flux.just(watchSample));
         given(productClient.getWatchesInCatalogWithFiltering(eq(catalogId), argThat(Map::isEmpty)))
-                .willReturn(Collections.emptyList());
+                .willReturn(Flux.empty());
 
         given(productClient.getWatchesWithFilter(anyMap()))
-                .willReturn(List.of(watchSample));
+                .willReturn(Flux.just(watchSample));
         given(productClient.getWatchesWithFilter(argThat(Map::isEmpty)))
-                .willReturn(Collections.emptyList());
+                .willReturn(Flux.empty());
 
         // —— Service Plan stub ——
         ServicePlanResponseModel plan = ServicePlanResponseModel.builder()
@@ -144,9 +150,9 @@ public class ApiControllerIntegrationTest {
                 .expirationDate(expDate)
                 .build();
 
-        given(planClient.getServicePlans()).willReturn(List.of(plan));
-        given(planClient.getServicePlansById(planId)).willReturn(plan);
-        given(planClient.getServicePlansById("X")).willReturn(null);
+        given(planClient.getServicePlans()).willReturn(Flux.just(plan));
+        given(planClient.getServicePlansById(planId)).willReturn(Mono.just(plan));
+        given(planClient.getServicePlansById("X")).willReturn(Mono.empty());
 
         // —— Order stub ——
         ordSample = OrderResponseModel.builder()
@@ -174,17 +180,19 @@ public class ApiControllerIntegrationTest {
                 .orderStatus(OrderStatus.PURCHASE_COMPLETED)
                 .build();
 
-        given(orderClient.getAllOrders()).willReturn(List.of(ordSample));
-        given(orderClient.getOrderById(orderId)).willReturn(ordSample);
+        given(orderClient.getAllOrders(any(OrderSearchRequestModel.class)))
+                .willReturn(Mono.just(OrderPageResponseModel.builder().orders(List.of(ordSample)).build()));
+        given(orderClient.getOrderById(orderId)).willReturn(Mono.just(ordSample));
         given(orderClient.getOrderById("X")).willThrow(new RuntimeException("not found"));
 
-        given(orderClient.createOrder(any(OrderRequestModel.class)))
-                .willReturn(ordSample);
+        given(orderClient.createOrder(any(OrderRequestModel.class), anyString()))
+                .willReturn(Mono.just(ordSample));
 
         given(orderClient.updateOrder(eq(orderId), any(OrderRequestModel.class)))
-                .willReturn(ordSample);
+                .willReturn(Mono.just(ordSample));
         given(orderClient.updateOrder(eq("X"), any(OrderRequestModel.class)))
                 .willThrow(new RuntimeException("not found"));
+        given(orderClient.deleteOrder(orderId)).willReturn(Mono.just("Order deleted successfully."));
 
         doThrow(new RuntimeException("not found"))
                 .when(orderClient).deleteOrder("X");
@@ -212,7 +220,7 @@ public class ApiControllerIntegrationTest {
     @DisplayName("GET /api/v1/catalogs → 200 + empty list when none")
     void getAllCatalogs_empty() {
         // override the stub for this test
-        given(productClient.getCatalogs()).willReturn(List.of());
+        given(productClient.getCatalogs()).willReturn(Flux.empty());
 
         client.get().uri("/api/v1/catalogs")
                 .exchange()
@@ -235,6 +243,42 @@ public class ApiControllerIntegrationTest {
                 });
     }
 
+    @Test
+    @DisplayName("GET /api/v1/catalogs/{id} → ETag from the version, 304 when If-None-Match matches")
+    void getCatalogById_conditional() {
+        client.get().uri("/api/v1/catalogs/{id}", "CAT1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"3\"");
+
+        client.get().uri("/api/v1/catalogs/{id}", "CAT1")
+                .ifNoneMatch("\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        client.get().uri("/api/v1/catalogs/{id}", "CAT1")
+                .ifNoneMatch("\"2\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/catalogs → list ETag, 304 when If-None-Match matches")
+    void getAllCatalogs_conditional() {
+        String etag = client.get().uri("/api/v1/catalogs")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .returnResult(CatalogResponseModel.class)
+                .getResponseHeaders().getETag();
+
+        client.get().uri("/api/v1/catalogs")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
     @Test
     @DisplayName("GET /api/v1/catalogs/{id} → 404 when not found")
     void getCatalogById_negative() {
@@ -258,7 +302,7 @@ public class ApiControllerIntegrationTest {
 
         // stub downstream productClient.addCatalog(...)
         given(productClient.addCatalog(any(CatalogRequestModel.class)))
-                .willReturn(created);
+                .willReturn(Mono.just(created));
 
         client.post().uri("/api/v1/catalogs")
                 .bodyValue(req)
@@ -297,7 +341,7 @@ public class ApiControllerIntegrationTest {
         given(productClient.updateCatalog(
                 any(CatalogRequestModel.class),
                 eq("CAT1")
-        )).willReturn(updated);
+        )).willReturn(Mono.just(updated));
 
         client.put().uri("/api/v1/catalogs/{id}", "CAT1")
                 .bodyValue(req)
@@ -336,7 +380,7 @@ public class ApiControllerIntegrationTest {
     void deleteCatalog_positive() {
         // stub deleteCatalog(...) to return null
         given(productClient.deleteCatalog("CAT1"))
-                .willReturn(null);
+                .willReturn(Mono.empty());
 
         client.delete()
                 .uri("/api/v1/catalogs/{id}", "CAT1")
@@ -399,9 +443,9 @@ public class ApiControllerIntegrationTest {
     @Test
     @DisplayName("CatalogResponseModel: core-field equality & hashCode")
     void catalogResponseModelEqualsHashCodeCoreFields() {
-        CatalogResponseModel s1 = new CatalogResponseModel("CAT1", "Type", "Desc");
-        CatalogResponseModel s2 = new CatalogResponseModel("CAT1", "Type", "Desc");
-        CatalogResponseModel s3 = new CatalogResponseModel("CAT2", "Type", "Desc");
+        CatalogResponseModel s1 = new CatalogResponseModel("CAT1", "Type", "Desc", 1L);
+        CatalogResponseModel s2 = new CatalogResponseModel("CAT1", "Type", "Desc", 1L);
+        CatalogResponseModel s3 = new CatalogResponseModel("CAT2", "Type", "Desc", 1L);
 
         // check core fields manually
         assertThat(s1.getCatalogId()).isEqualTo(s2.getCatalogId());
@@ -425,9 +469,9 @@ public class ApiControllerIntegrationTest {
     @Test
     @DisplayName("CatalogResponseModel: equals & hashCode ignoring links")
     void catalogResponseModelEqualsHashCodeIgnoringLinks() {
-        CatalogResponseModel s1 = new CatalogResponseModel("CAT1", "Type", "Desc");
-        CatalogResponseModel s2 = new CatalogResponseModel("CAT1", "Type", "Desc");
-        CatalogResponseModel s3 = new CatalogResponseModel("CAT2", "Type", "Desc");
+        CatalogResponseModel s1 = new CatalogResponseModel("CAT1", "Type", "Desc", 1L);
+        CatalogResponseModel s2 = new CatalogResponseModel("CAT1", "Type", "Desc", 1L);
+        CatalogResponseModel s3 = new CatalogResponseModel("CAT2", "Type", "Desc", 1L);
 
         // positive: ignore the links property
         assertThat(s1)
@@ -464,11 +508,11 @@ public class ApiControllerIntegrationTest {
         // negative
         client.get().uri("/api/v1/customers/{id}", "X")
                 .exchange()
-                .expectStatus().is5xxServerError();
+                .expectStatus().isNotFound();
     }
 
     @Test
-    @DisplayName("GET /api/v1/customers?email= → 200 when found, 500 when missing")
+    @DisplayName("GET /api/v1/customers?email= → 200 when found, 404 when missing")
     void getByEmail() {
         // construct the same CustomerResponseModel your stubDownstream would have made
         CustomerResponseModel alice = CustomerResponseModel.builder()
@@ -485,9 +529,9 @@ public class ApiControllerIntegrationTest {
 
         // 1) stub the email lookup
         given(customerClient.getCustomerbyEmail("alice@example.com"))
-                .willReturn(alice);
+                .willReturn(Mono.just(alice));
         given(customerClient.getCustomerbyEmail("unknown@example.com"))
-                .willReturn(null);
+                .willReturn(Mono.empty());
 
         // 2) positive: we get 200 + the body
         client.get().uri("/api/v1/customers?email={e}", "alice@example.com")
@@ -496,10 +540,10 @@ public class ApiControllerIntegrationTest {
                 .expectBody(CustomerResponseModel.class)
                 .value(c -> assertThat(c.getCustomerId()).isEqualTo("C1"));
 
-        // 3) negative: controller currently NPEs on null -> returns 500
+        // 3) negative: client answers empty -> 404
         client.get().uri("/api/v1/customers?email={e}", "unknown@example.com")
                 .exchange()
-                .expectStatus().is5xxServerError();
+                .expectStatus().isNotFound();
     }
 
 
@@ -527,7 +571,7 @@ public class ApiControllerIntegrationTest {
 
             // Synchronous stub (no Mono)
             given(customerClient.addCustomer(any(CustomerRequestModel.class)))
-                    .willReturn(created);
+                    .willReturn(Mono.just(created));
 
             // act + assert happy path
         client.post().uri("/api/v1/customers")
@@ -575,7 +619,7 @@ public class ApiControllerIntegrationTest {
 
         // happy-path stub
         given(customerClient.updateCustomer(eq("C1"), any(CustomerRequestModel.class)))
-                .willReturn(updated);
+                .willReturn(Mono.just(updated));
 
         // act + assert happy path
         client.put().uri("/api/v1/customers/{id}", "C1")
@@ -610,7 +654,7 @@ public class ApiControllerIntegrationTest {
     void deleteCustomer() {
         // stub successful deletion (your client returns something, but controller ignores it)
         given(customerClient.deleteCustomerbyCustomerId("C1"))
-                .willReturn(null);
+                .willReturn(Mono.empty());
 
         client.delete().uri("/api/v1/customers/{id}", "C1")
                 .exchange()
@@ -681,7 +725,7 @@ public class ApiControllerIntegrationTest {
                 .build();
         // stub downstream client
         given(planClient.addServicePlan(any(ServicePlanRequestModel.class)))
-                .willReturn(created);
+                .willReturn(Mono.just(created));
 
         client.post().uri("/api/v1/plans")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -707,7 +751,7 @@ public class ApiControllerIntegrationTest {
                 .build();
 
         given(planClient.updateServicePlan(eq("P1"), any(ServicePlanRequestModel.class)))
-                .willReturn(updated);
+                .willReturn(Mono.just(updated));
 
         client.put().uri("/api/v1/plans/{id}", "P1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -739,7 +783,7 @@ public class ApiControllerIntegrationTest {
     void deleteServicePlan_positive() {
         // stub the downstream call (return value is ignored by controller)
         given(planClient.deleteServicePlanById("P1"))
-                .willReturn("Service plan deleted successfully.");
+                .willReturn(Mono.just("Service plan deleted successfully."));
 
         client.delete().uri("/api/v1/plans/{id}", "P1")
                 .exchange()
@@ -803,7 +847,7 @@ public class ApiControllerIntegrationTest {
 
         // use any() for the request body
         given(productClient.addWatches(any(WatchRequestModel.class), eq("CAT1")))
-                .willReturn(created);
+                .willReturn(Mono.just(created));
 
         client.post()
                 .uri("/api/v1/catalogs/{cid}/watches", "CAT1")
@@ -864,7 +908,7 @@ public class ApiControllerIntegrationTest {
         // match any deserialized instance
         given(productClient.updateWatchInInventory(
                 eq("CAT1"), eq("W1"), any(WatchRequestModel.class)))
-                .willReturn(updated);
+                .willReturn(Mono.just(updated));
 
         client.put()
                 .uri("/api/v1/catalogs/{cid}/watches/{wid}", "CAT1", "W1")
@@ -901,7 +945,7 @@ public class ApiControllerIntegrationTest {
     void deleteWatch_positive() {
         // stub downstream to return the exact confirmation string
         given(productClient.removeWatchInCatalog("CAT1", "W1"))
-                .willReturn("Watch with Id: W1 deleted successfully.");
+                .willReturn(Mono.just("Watch with Id: W1 deleted successfully."));
 
         client.delete()
                 .uri("/api/v1/catalogs/{cid}/watches/{wid}", "CAT1", "W1")
@@ -936,17 +980,17 @@ public class ApiControllerIntegrationTest {
                 .jsonPath("$._links.self.href").exists();
     }
 
-    @Test @DisplayName("GET /api/v1/watches/{id} → 5xx when not found")
+    @Test @DisplayName("GET /api/v1/watches/{id} → 404 when not found")
     void getWatchById_negative() {
         given(productClient.getWatchesWithFilter(anyMap()))
-                .willReturn(List.of());  // no change to the by‐ID stub
+                .willReturn(Flux.empty());  // no change to the by‐ID stub
         // override the single‐watch stub:
-        given(productClient.getCatalogWatchByID("X")).willReturn(null);
+        given(productClient.getCatalogWatchByID("X")).willReturn(Mono.empty());
 
         client.get()
                 .uri("/api/v1/watches/{wid}", "X")
                 .exchange()
-                .expectStatus().is5xxServerError();
+                .expectStatus().isNotFound();
     }
 
 
@@ -1000,7 +1044,7 @@ public class ApiControllerIntegrationTest {
     void getWatchInCatalogByWatchId_notFoundReturnsEmpty() {
         // override stub for missing ID
         given(productClient.getCatalogWatchByID("X"))
-                .willReturn(null);
+                .willReturn(Mono.empty());
 
         client.get()
                 .uri("/api/v1/catalogs/{cid}/watches/{wid}", CATALOG, "X")
@@ -1030,6 +1074,69 @@ public class ApiControllerIntegrationTest {
                 });
     }
 
+    @Test
+    @DisplayName("GET /api/v1/orders?filters → forwarded, next cursor relayed as header + Link")
+    void getAllOrders_filteredPage() {
+        given(orderClient.getAllOrders(argThat(s -> s != null && "C1".equals(s.getCustomerId()))))
+                .willReturn(Mono.just(OrderPageResponseModel.builder().orders(List.of(ordSample)).nextCursor("abc").build()));
+
+        client.get().uri("/api/v1/orders?customerId=C1&status=PURCHASE_COMPLETED&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "abc")
+                .expectHeader().valueMatches("Link", ".*cursor=abc.*rel=\"next\".*")
+                .expectBodyList(OrderResponseModel.class)
+                .hasSize(1);
+
+        verify(orderClient).getAllOrders(argThat(s -> s != null
+                && "C1".equals(s.getCustomerId())
+                && s.getStatus() == OrderStatus.PURCHASE_COMPLETED
+                && Integer.valueOf(1).equals(s.getLimit())
+                && s.getCursor() == null));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/export → NDJSON relayed with links")
+    void exportOrders_positive() {
+        given(orderClient.exportOrders()).willReturn(Flux.just(ordSample));
+
+        client.get().uri("/api/v1/orders/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(OrderResponseModel.class)
+                .hasSize(1)
+                .value(list -> assertThat(list.get(0).getLink("self")).isPresent());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders with X-Omit-Links → orders without any links")
+    void getAllOrders_omitLinks() {
+        client.get().uri("/api/v1/orders")
+                .header("X-Omit-Links", "true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].orderId").isEqualTo("O1")
+                .jsonPath("$[0].links").doesNotExist()
+                .jsonPath("$[0]._links").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/watches?links=none → no links, and the switch is not forwarded as a filter")
+    void getWatches_linksNone() {
+        client.get().uri("/api/v1/watches?foo=bar&links=none")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].watchId").isEqualTo(WATCH)
+                .jsonPath("$[0].links").doesNotExist()
+                .jsonPath("$[0]._links").doesNotExist();
+
+        verify(productClient).getWatchesWithFilter(argThat(m -> m.size() == 1 && "bar".equals(m.get("foo"))));
+    }
+
     @Test
     @DisplayName("GET /api/v1/orders/{id} → 200 + single")
     void getOrderById_positive() {
@@ -1051,6 +1158,60 @@ public class ApiControllerIntegrationTest {
                 .expectStatus().is5xxServerError();
     }
 
+    @Test
+    @DisplayName("GET /api/v1/orders/{id}/detail → order with every relation embedded")
+    void getOrderDetail_all() {
+        client.get().uri("/api/v1/orders/{id}/detail", "O1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.order.orderId").isEqualTo("O1")
+                .jsonPath("$.customer.emailAddress").isEqualTo("alice@example.com")
+                .jsonPath("$.catalog.catalogId").isEqualTo("CAT1")
+                .jsonPath("$.watch.quantity").isEqualTo(5)
+                .jsonPath("$.servicePlan.coverageDetails").isEqualTo("2-year")
+                .jsonPath("$.unavailable").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/{id}/detail?expand=customer,servicePlan → only those are fetched")
+    void getOrderDetail_expand() {
+        client.get().uri("/api/v1/orders/{id}/detail?expand=customer,servicePlan", "O1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.customer.customerId").isEqualTo("C1")
+                .jsonPath("$.servicePlan.planId").isEqualTo("P1")
+                .jsonPath("$.catalog").doesNotExist()
+                .jsonPath("$.watch").doesNotExist();
+
+        verify(productClient, never()).getCatalogById(anyString());
+        verify(productClient, never()).getCatalogWatchByID(anyString());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/{id}/detail → a relation whose service is down is listed as unavailable")
+    void getOrderDetail_partial() {
+        given(productClient.getCatalogWatchByID("W1"))
+                .willReturn(Mono.error(new DownstreamUnavailableException("product-services circuit breaker is open")));
+
+        client.get().uri("/api/v1/orders/{id}/detail", "O1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.catalog.catalogId").isEqualTo("CAT1")
+                .jsonPath("$.watch").doesNotExist()
+                .jsonPath("$.unavailable[0]").isEqualTo("WATCH");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/{id}/detail?expand=owner → 422")
+    void getOrderDetail_unknownExpand() {
+        client.get().uri("/api/v1/orders/{id}/detail?expand=owner", "O1")
+                .exchange()
+                .expectStatus().isEqualTo(422);
+    }
+
     @Test
     @DisplayName("POST /api/v1/orders → 201 + Location header + body")
     void createOrder_positive() {
@@ -1073,6 +1234,25 @@ public class ApiControllerIntegrationTest {
                 });
     }
 
+    @Test
+    @DisplayName("POST /api/v1/orders → Idempotency-Key forwarded to order-services")
+    void createOrder_forwardsIdempotencyKey() {
+        OrderRequestModel req = OrderRequestModel.builder()
+                .customerId("C1").catalogId("CAT1").watchId("W1").servicePlanId("P1")
+                .orderName("TestOrder").salePrice(100.0)
+                .currency("USD").paymentCurrency("EUR")
+                .orderDate(now).orderStatus(OrderStatus.PURCHASE_COMPLETED)
+                .build();
+
+        client.post().uri("/api/v1/orders")
+                .header("Idempotency-Key", "retry-me-1")
+                .bodyValue(req)
+                .exchange()
+                .expectStatus().isCreated();
+
+        verify(orderClient).createOrder(any(OrderRequestModel.class), eq("retry-me-1"));
+    }
+
     @Test
     @DisplayName("PUT /api/v1/orders/{id} → 200 + updated")
     void updateOrder_positive() {
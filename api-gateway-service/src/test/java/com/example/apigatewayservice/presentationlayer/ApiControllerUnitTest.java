@@ -630,7 +630,7 @@ public class ApiControllerUnitTest {
                 "W1", "X123", "Steel",
                 "P1", "2-year", exp.toLocalDate(),
                 "Test", 55.5, "USD", "EUR",
-                now, OrderStatus.PURCHASE_COMPLETED
+                now, OrderStatus.PURCHASE_COMPLETED, null
         );
 
         // exercise setters
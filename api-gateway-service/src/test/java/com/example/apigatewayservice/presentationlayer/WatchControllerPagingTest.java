@@ -0,0 +1,73 @@
+package com.example.apigatewayservice.presentationlayer;
+
+import com.example.apigatewayservice.businesslayer.productservicesBusinessLayer.CatalogWatchService;
+import com.example.apigatewayservice.presentationlayer.watchdtos.WatchResponseModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WatchControllerPagingTest {
+
+    private final CatalogWatchService catalogWatchService = mock(CatalogWatchService.class);
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToController(new WatchController(catalogWatchService)).build();
+    }
+
+    private static WatchResponseModel watch(String watchId) {
+        return WatchResponseModel.builder().watchId(watchId).build();
+    }
+
+    @Test
+    @DisplayName("watch list: a full page links to the next one through the gateway, the last page has no link")
+    void pagesThroughTheGateway() {
+        when(catalogWatchService.getWatchesWithFilter(argThat(q -> q != null && !q.containsKey("after"))))
+                .thenReturn(Flux.just(watch("W1"), watch("W2")));
+        when(catalogWatchService.getWatchesWithFilter(argThat(q -> q != null && "W2".equals(q.get("after")))))
+                .thenReturn(Flux.just(watch("W3")));
+
+        String next = client.get().uri("/api/v1/watches?brandName=Omega&limit=2&links=none")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(WatchResponseModel.class).hasSize(2)
+                .returnResult()
+                .getResponseHeaders().getFirst(HttpHeaders.LINK);
+
+        assertThat(next).startsWith("<").endsWith(">; rel=\"next\"");
+        String href = next.substring(1, next.indexOf('>'));
+        assertThat(href).contains("/api/v1/watches?").contains("brandName=Omega").contains("limit=2").contains("after=W2");
+
+        List<WatchResponseModel> second = client.get().uri(href)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LINK)
+                .expectBodyList(WatchResponseModel.class)
+                .returnResult().getResponseBody();
+
+        assertThat(second).extracting(WatchResponseModel::getWatchId).containsExactly("W3");
+    }
+
+    @Test
+    @DisplayName("watch list: fewer watches than the default page size → no next link")
+    void shortPage_hasNoLink() {
+        when(catalogWatchService.getWatchesWithFilter(Map.of())).thenReturn(Flux.just(watch("W1")));
+
+        client.get().uri("/api/v1/watches")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LINK);
+    }
+}
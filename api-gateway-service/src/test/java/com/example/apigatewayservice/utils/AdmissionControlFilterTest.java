@@ -0,0 +1,40 @@
+package com.example.apigatewayservice.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AdmissionControlFilterTest {
+
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(
+            mock(RateLimiter.class), mock(LoadShedder.class), new ObjectMapper(), "X-Client-Id", Set.of("10.0.0.1"));
+
+    private static MockServerHttpRequest from(String address, String clientId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/catalogs")
+                .remoteAddress(new InetSocketAddress(address, 40000));
+        if (clientId != null) {
+            request.header("X-Client-Id", clientId);
+        }
+        return request.build();
+    }
+
+    @Test
+    @DisplayName("admission control: a client id header from an untrusted address is ignored")
+    void untrustedHeader_isIgnored() {
+        assertThat(filter.clientId(from("203.0.113.7", "someone-else"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("admission control: a trusted proxy names the client, without the header it is the proxy itself")
+    void trustedProxy_namesTheClient() {
+        assertThat(filter.clientId(from("10.0.0.1", "mobile-app"))).isEqualTo("mobile-app");
+        assertThat(filter.clientId(from("10.0.0.1", null))).isEqualTo("10.0.0.1");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.apigatewayservice.utils;
+
+import com.example.apigatewayservice.businesslayer.productservicesBusinessLayer.CatalogService;
+import com.example.apigatewayservice.presentationlayer.CatalogController;
+import com.example.apigatewayservice.presentationlayer.catalogdtos.CatalogResponseModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ETagsTest {
+
+    @Test
+    @DisplayName("etags: with and without links, JSON and Smile are four different tags")
+    void representationsGetTheirOwnTags() {
+        MockServerHttpRequest json = MockServerHttpRequest.get("/api/v1/catalogs/CAT1").build();
+        MockServerHttpRequest anything = MockServerHttpRequest.get("/api/v1/catalogs/CAT1")
+                .accept(MediaType.ALL).build();
+        MockServerHttpRequest noLinks = MockServerHttpRequest.get("/api/v1/catalogs/CAT1")
+                .header(LinkTemplate.OMIT_LINKS_HEADER, "true").build();
+        MockServerHttpRequest smile = MockServerHttpRequest.get("/api/v1/catalogs/CAT1")
+                .accept(SmileCodec.APPLICATION_SMILE, MediaType.APPLICATION_JSON).build();
+        MockServerHttpRequest noLinksSmile = MockServerHttpRequest.get("/api/v1/catalogs/CAT1?links=none")
+                .accept(SmileCodec.APPLICATION_SMILE).build();
+
+        assertThat(ETags.of(3L, json)).isEqualTo("\"3\"");
+        assertThat(ETags.of(3L, anything)).isEqualTo("\"3\"");
+        assertThat(ETags.of(3L, noLinks)).isEqualTo("\"3-nolinks\"");
+        assertThat(ETags.of(3L, smile)).isEqualTo("\"3-smile\"");
+        assertThat(ETags.of(3L, noLinksSmile)).isEqualTo("\"3-nolinks-smile\"");
+        assertThat(ETags.of(null, json)).isNull();
+    }
+
+    @Test
+    @DisplayName("etags: the tag of the linked body does not validate the one without links, and responses vary on both headers")
+    void linkedTag_doesNotValidateTheBodyWithoutLinks() {
+        CatalogService catalogService = mock(CatalogService.class);
+        when(catalogService.getCatalogById("CAT1"))
+                .thenAnswer(inv -> Mono.just(CatalogResponseModel.builder().catalogId("CAT1").version(3L).build()));
+        WebTestClient client = WebTestClient.bindToController(new CatalogController(catalogService))
+                .webFilter(new VaryFilter())
+                .build();
+
+        client.get().uri("/api/v1/catalogs/CAT1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT, LinkTemplate.OMIT_LINKS_HEADER);
+
+        client.get().uri("/api/v1/catalogs/CAT1")
+                .header(LinkTemplate.OMIT_LINKS_HEADER, "true")
+                .ifNoneMatch("\"3\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3-nolinks\"");
+    }
+}
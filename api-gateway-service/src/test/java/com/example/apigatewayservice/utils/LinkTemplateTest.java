@@ -0,0 +1,74 @@
+package com.example.apigatewayservice.utils;
+
+import com.example.apigatewayservice.presentationlayer.CatalogController;
+import com.example.apigatewayservice.presentationlayer.CatalogWatchController;
+import com.example.apigatewayservice.presentationlayer.CustomerController;
+import com.example.apigatewayservice.presentationlayer.OrderController;
+import com.example.apigatewayservice.presentationlayer.ServicePlanController;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LinkTemplateTest {
+
+    @Test
+    @DisplayName("link template: resolves class and method mappings into the same hrefs methodOn gave")
+    void resolvesControllerMappings() {
+        assertThat(LinkTemplate.of(CatalogController.class, "getCatalogs").expand()).isEqualTo("/api/v1/catalogs");
+        assertThat(LinkTemplate.of(CatalogController.class, "getCatalogById").expand("CAT1"))
+                .isEqualTo("/api/v1/catalogs/CAT1");
+        assertThat(LinkTemplate.of(ServicePlanController.class, "getServicePlanById").expand("P1"))
+                .isEqualTo("/api/v1/plans/P1");
+        assertThat(LinkTemplate.of(CatalogWatchController.class, "getWatchInCatalogByWatchId").expand("CAT1", "W1"))
+                .isEqualTo("/api/v1/catalogs/CAT1/watches/W1");
+        // the filter map is not part of the link
+        assertThat(LinkTemplate.of(CatalogWatchController.class, "getWatchesInCatalogWithFiltering").expand("CAT1"))
+                .isEqualTo("/api/v1/catalogs/CAT1/watches");
+    }
+
+    @Test
+    @DisplayName("link template: request params become the query, null ones are left out")
+    void requestParamsBecomeTheQuery() {
+        LinkTemplate detail = LinkTemplate.of(OrderController.class, "getOrderDetail");
+
+        assertThat(detail.expand("O1", "customer,watch")).isEqualTo("/api/v1/orders/O1/detail?expand=customer,watch");
+        assertThat(detail.expand("O1", null)).isEqualTo("/api/v1/orders/O1/detail");
+        assertThat(LinkTemplate.of(CustomerController.class, "getCustomerByEmail").expand("a b@example.com"))
+                .isEqualTo("/api/v1/customers?email=a%20b@example.com");
+    }
+
+    @Test
+    @DisplayName("link template: values are encoded, links carry the relation, wrong arity fails")
+    void encodesAndBuildsLinks() {
+        LinkTemplate catalog = LinkTemplate.of(CatalogController.class, "getCatalogById");
+
+        assertThat(catalog.expand("a/b c")).isEqualTo("/api/v1/catalogs/a%2Fb%20c");
+
+        Link self = catalog.self("CAT1");
+        assertThat(self.getRel()).isEqualTo(IanaLinkRelations.SELF);
+        assertThat(self.getHref()).isEqualTo("/api/v1/catalogs/CAT1");
+        assertThat(catalog.link("catalog", "CAT1").getRel().value()).isEqualTo("catalog");
+
+        assertThatIllegalArgumentException().isThrownBy(catalog::expand);
+        assertThatIllegalArgumentException().isThrownBy(() -> LinkTemplate.of(CatalogController.class, "nope"));
+    }
+
+    @Test
+    @DisplayName("link template: X-Omit-Links or ?links=none turn links off, and the switch is not a filter")
+    void omitLinks() {
+        assertThat(LinkTemplate.linksWanted(MockServerHttpRequest.get("/api/v1/catalogs").build())).isTrue();
+        assertThat(LinkTemplate.linksWanted(MockServerHttpRequest.get("/api/v1/catalogs")
+                .header(LinkTemplate.OMIT_LINKS_HEADER, "true").build())).isFalse();
+        assertThat(LinkTemplate.linksWanted(MockServerHttpRequest.get("/api/v1/catalogs?links=none").build())).isFalse();
+        assertThat(LinkTemplate.linksWanted(MockServerHttpRequest.get("/api/v1/catalogs?links=false").build())).isFalse();
+
+        assertThat(LinkTemplate.withoutLinksParam(Map.of("brand", "Rolex", "links", "none")))
+                .containsExactly(entry("brand", "Rolex"));
+    }
+}
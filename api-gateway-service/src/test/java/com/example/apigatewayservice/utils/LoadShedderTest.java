@@ -0,0 +1,78 @@
+package com.example.apigatewayservice.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.apigatewayservice.utils.LoadShedder.Priority.*;
+import static org.assertj.core.api.Assertions.*;
+
+class LoadShedderTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong nanos = new AtomicLong(0);
+
+    // 4 requests in flight or 100 ms average latency is full load
+    private LoadShedder shedder() {
+        return new LoadShedder(true, 4, 100, 1_000, 2,
+                List.of("/api/v1/catalogs", "/api/v1/watches"), List.of("/api/v1/orders"), nanos::get);
+    }
+
+    @Test
+    @DisplayName("load shedding: catalog reads are high priority, order writes low, the rest normal")
+    void classify() {
+        LoadShedder shedder = shedder();
+
+        assertThat(shedder.classify(HttpMethod.GET, "/api/v1/catalogs/CAT1/watches")).isEqualTo(HIGH);
+        assertThat(shedder.classify(HttpMethod.POST, "/api/v1/orders")).isEqualTo(LOW);
+        assertThat(shedder.classify(HttpMethod.GET, "/api/v1/orders/O1")).isEqualTo(NORMAL);
+        assertThat(shedder.classify(HttpMethod.PUT, "/api/v1/catalogs/CAT1")).isEqualTo(NORMAL);
+    }
+
+    @Test
+    @DisplayName("load shedding: as requests pile up LOW goes first, then NORMAL, HIGH last")
+    void shedsByPriorityAsQueueGrows() {
+        LoadShedder shedder = shedder();
+        for (int i = 0; i < 4; i++) {
+            shedder.enter();
+        }
+        assertThat(shedder.shouldShed(LOW)).isTrue();
+        assertThat(shedder.shouldShed(NORMAL)).isFalse();
+
+        for (int i = 0; i < 2; i++) {
+            shedder.enter();
+        }
+        assertThat(shedder.shouldShed(NORMAL)).isTrue();
+        assertThat(shedder.shouldShed(HIGH)).isFalse();
+
+        for (int i = 0; i < 6; i++) {
+            shedder.exit(-1);
+        }
+        assertThat(shedder.shouldShed(LOW)).isFalse();
+
+        LoadSheddingStats stats = shedder.stats();
+        assertThat(stats.getShedLow()).isEqualTo(1);
+        assertThat(stats.getShedNormal()).isEqualTo(1);
+        assertThat(stats.getShedHigh()).isZero();
+        assertThat(stats.getAdmitted()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("load shedding: slow responses shed LOW priority, and stop counting after a quiet window")
+    void slowResponsesShedUntilTheyAge() {
+        LoadShedder shedder = shedder();
+        shedder.enter();
+        shedder.exit(120 * MS);
+
+        assertThat(shedder.shouldShed(LOW)).isTrue();
+        assertThat(shedder.shouldShed(NORMAL)).isFalse();
+        assertThat(shedder.stats().getLatencyAverageMillis()).isEqualTo(120.0);
+
+        nanos.addAndGet(1_001 * MS);
+        assertThat(shedder.shouldShed(LOW)).isFalse();
+    }
+}
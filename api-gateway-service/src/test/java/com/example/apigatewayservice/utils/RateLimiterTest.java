@@ -0,0 +1,49 @@
+package com.example.apigatewayservice.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("app.rate-limit.client.rate-per-second", "0.001")
+            .withProperty("app.rate-limit.client.burst", "100")
+            .withProperty("app.rate-limit.route.rate-per-second", "0.001")
+            .withProperty("app.rate-limit.route.burst", "2");
+
+    @Test
+    @DisplayName("rate limiter: unknown path segments share one route bucket instead of each getting their own")
+    void unknownRoutes_shareOneBucket() {
+        RateLimiter limiter = new RateLimiter(environment);
+
+        assertThat(limiter.tryAcquire("c1", "made-up-1")).isZero();
+        assertThat(limiter.tryAcquire("c1", "made-up-2")).isZero();
+        assertThat(limiter.tryAcquire("c1", "made-up-3")).isPositive();
+        // a known route keeps its own bucket
+        assertThat(limiter.tryAcquire("c1", "catalogs")).isZero();
+
+        assertThat(limiter.stats().getRoutes()).isEqualTo(5);
+        assertThat(limiter.stats().getLimitedByRoute()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rate limiter: a request the route turns away does not use up the client's own budget")
+    void routeRejection_refundsClientToken() {
+        RateLimiter limiter = new RateLimiter(new MockEnvironment()
+                .withProperty("app.rate-limit.client.rate-per-second", "0.001")
+                .withProperty("app.rate-limit.client.burst", "2")
+                .withProperty("app.rate-limit.route.orders.rate-per-second", "0.001")
+                .withProperty("app.rate-limit.route.orders.burst", "1"));
+
+        assertThat(limiter.tryAcquire("c1", "orders")).isZero();
+        assertThat(limiter.tryAcquire("c1", "orders")).isPositive();
+        assertThat(limiter.tryAcquire("c1", "orders")).isPositive();
+        // two tokens taken from the client bucket, but only one request went through
+        assertThat(limiter.tryAcquire("c1", "catalogs")).isZero();
+        assertThat(limiter.tryAcquire("c1", "catalogs")).isPositive();
+        assertThat(limiter.stats().getLimitedByClient()).isEqualTo(1);
+    }
+}
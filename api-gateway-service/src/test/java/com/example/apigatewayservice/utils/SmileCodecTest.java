@@ -0,0 +1,38 @@
+package com.example.apigatewayservice.utils;
+
+import com.example.apigatewayservice.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SmileCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SmileCodec codec = new SmileCodec(objectMapper);
+
+    @Test
+    @DisplayName("smile codec: cached bodies decode whichever format the service answered in")
+    void decodesSmileAndJson() throws Exception {
+        ServicePlanResponseModel plan = ServicePlanResponseModel.builder()
+                .planId("P1")
+                .coverageDetails("Full coverage")
+                .build();
+        JavaType type = objectMapper.constructType(ServicePlanResponseModel.class);
+
+        byte[] smile = codec.getSmileMapper().writeValueAsBytes(plan);
+        byte[] json = objectMapper.writeValueAsBytes(plan);
+
+        assertThat(SmileCodec.isSmile(smile)).isTrue();
+        assertThat(SmileCodec.isSmile(json)).isFalse();
+        assertThat(smile.length).isLessThan(json.length);
+
+        ServicePlanResponseModel fromSmile = codec.readValue(smile, type);
+        ServicePlanResponseModel fromJson = codec.readValue(json, type);
+        assertThat(fromSmile.getPlanId()).isEqualTo("P1");
+        assertThat(fromSmile.getCoverageDetails()).isEqualTo(fromJson.getCoverageDetails());
+    }
+}
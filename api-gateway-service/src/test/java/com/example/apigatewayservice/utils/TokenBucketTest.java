@@ -0,0 +1,75 @@
+package com.example.apigatewayservice.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong nanos = new AtomicLong(0);
+
+    @Test
+    @DisplayName("token bucket: a full bucket allows one burst, then says how long to wait")
+    void burstThenWait() {
+        TokenBucket bucket = new TokenBucket(10, 3, nanos::get);   // one token every 100 ms
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isEqualTo(100_000_000L);
+        assertThat(bucket.isFull()).isFalse();
+
+        nanos.addAndGet(100_000_000L);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+
+        nanos.addAndGet(1_000_000_000L);
+        assertThat(bucket.isFull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("token bucket: concurrent callers never take more than the burst")
+    void concurrentCallersShareTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(0.001, 50, nanos::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 100; j++) {
+                        if (bucket.tryAcquire() == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(granted.get()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("token bucket: a refunded token can be taken again")
+    void refund_givesTheTokenBack() {
+        TokenBucket bucket = new TokenBucket(10, 1, nanos::get);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+        bucket.refund();
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+}
@@ -14,6 +14,8 @@ public interface CustomerService {
     List<CustomerResponseModel> getCustomers();
     CustomerResponseModel getCustomerbyCustomerId(String customer_id);
 
+    List<CustomerResponseModel> getCustomersByCustomerIds(List<String> customerIds);
+
     CustomerResponseModel addCustomer(CustomerRequestModel newCustomerData);
 
     CustomerResponseModel updateCustomer(String customerId, CustomerRequestModel newCustomerData);
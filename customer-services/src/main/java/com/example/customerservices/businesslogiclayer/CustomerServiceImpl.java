@@ -8,6 +8,7 @@ import com.example.customerservices.dataaccesslayer.CustomerIdentifier;
 import com.example.customerservices.dataaccesslayer.CustomerRepository;
 import com.example.customerservices.datamapperlayer.CustomerRequestMapper;
 import com.example.customerservices.datamapperlayer.CustomerResponseMapper;
+import com.example.customerservices.domainclientlayer.OrderServiceClient;
 import com.example.customerservices.presentationlayer.CustomerRequestModel;
 import com.example.customerservices.presentationlayer.CustomerResponseModel;
 import com.example.customerservices.utils.exceptions.DuplicateCustomerEmailException;
@@ -16,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @Service
@@ -24,14 +26,17 @@ public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerResponseMapper customerResponseMapper;
     private final CustomerRequestMapper customerRequestMapper;
+    private final OrderServiceClient orderServiceClient;
 
     @Autowired
     public CustomerServiceImpl(CustomerRepository customerRepository,
                                CustomerResponseMapper customerResponseMapper,
-                               CustomerRequestMapper customerRequestMapper) {
+                               CustomerRequestMapper customerRequestMapper,
+                               OrderServiceClient orderServiceClient) {
         this.customerRepository = customerRepository;
         this.customerResponseMapper = customerResponseMapper;
         this.customerRequestMapper = customerRequestMapper;
+        this.orderServiceClient = orderServiceClient;
     }
 
     @Override
@@ -50,6 +55,18 @@ public class CustomerServiceImpl implements CustomerService {
         return this.customerResponseMapper.entityToResponseModel(customer);
     }
 
+    @Override
+    public List<CustomerResponseModel> getCustomersByCustomerIds(List<String> customerIds) {
+        if (customerIds == null || customerIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // unknown ids are simply absent from the result, callers diff against what they asked for
+        List<Customer> customers = this.customerRepository
+                .findAllByCustomerIdentifier_CustomerIdIn(new LinkedHashSet<>(customerIds));
+        return this.customerResponseMapper.entityListToResponseModelList(customers);
+    }
+
 
 
     @Override
@@ -120,9 +137,11 @@ public class CustomerServiceImpl implements CustomerService {
         updatedCustomer.setId(foundCustomer.getId());
         updatedCustomer.setCustomerIdentifier(foundCustomer.getCustomerIdentifier());
         updatedCustomer.setPassword(newCustomerData.getPassword1());
+        updatedCustomer.setVersion(foundCustomer.getVersion());
 
 
         Customer savedCustomer = this.customerRepository.save(updatedCustomer);
+        orderServiceClient.customerUpdated(customerId);
 
 
         return this.customerResponseMapper.entityToResponseModel(savedCustomer);
@@ -135,6 +154,7 @@ public class CustomerServiceImpl implements CustomerService {
             throw new NotFoundException("Customer with id: " + customerId + " not found in repository.");
         }
         this.customerRepository.delete(foundCustomer);
+        orderServiceClient.customerDeleted(customerId);
         return "Customer with id: " + customerId + " deleted successfully.";
     }
 
@@ -37,6 +37,9 @@ public class Customer {
     )
     private List<PhoneNumber> phoneNumbers;
 
+    @Version
+    private Long version;
+
 
 
 }
@@ -2,6 +2,9 @@ package com.example.customerservices.dataaccesslayer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CustomerRepository extends
         JpaRepository<Customer, Integer> {
     Customer findCustomerByCustomerIdentifier_CustomerId(String customerId);
@@ -9,4 +12,6 @@ public interface CustomerRepository extends
     Customer findCustomerByEmailAddress(String emailAddress);
 
     boolean existsByCustomerIdentifier_CustomerId(String customerId);
+
+    List<Customer> findAllByCustomerIdentifier_CustomerIdIn(Collection<String> customerIds);
 }
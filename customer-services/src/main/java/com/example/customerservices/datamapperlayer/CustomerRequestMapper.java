@@ -13,6 +13,7 @@ public interface CustomerRequestMapper {
 
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "customerAddress.streetAddress", source = "streetAddress")
     @Mapping(target = "customerAddress.postalCode", source = "postalCode")
     @Mapping(target = "customerAddress.city", source = "city")
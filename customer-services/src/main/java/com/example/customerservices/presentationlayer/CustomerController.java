@@ -3,6 +3,7 @@ package com.example.customerservices.presentationlayer;
 
 
 import com.example.customerservices.businesslogiclayer.CustomerService;
+import com.example.customerservices.utils.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,18 +23,28 @@ public class CustomerController {
 
     @GetMapping()
     public ResponseEntity<List<CustomerResponseModel>> getCustomers() {
-        return ResponseEntity.ok(this.customerService.getCustomers());
+        List<CustomerResponseModel> customers = this.customerService.getCustomers();
+        return ResponseEntity.ok()
+                .eTag(ETags.of(customers, CustomerResponseModel::getCustomerId, CustomerResponseModel::getVersion))
+                .body(customers);
     }
 
     @GetMapping("/{customer_id}")
     public ResponseEntity<CustomerResponseModel> getCustomerById(@PathVariable String customer_id) {
-        return ResponseEntity.ok(this.customerService.getCustomerbyCustomerId(customer_id));
+        CustomerResponseModel customer = this.customerService.getCustomerbyCustomerId(customer_id);
+        return ResponseEntity.ok().eTag(ETags.of(customer.getVersion())).body(customer);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerResponseModel>> getCustomersByIds(@RequestBody List<String> customerIds) {
+        return ResponseEntity.ok(this.customerService.getCustomersByCustomerIds(customerIds));
     }
 
     @GetMapping(params = "email")
     public ResponseEntity<CustomerResponseModel> getCustomerByEmail(@RequestParam String email) {
 
-        return ResponseEntity.ok(this.customerService.getCustomerbyEmail(email));
+        CustomerResponseModel customer = this.customerService.getCustomerbyEmail(email);
+        return ResponseEntity.ok().eTag(ETags.of(customer.getVersion())).body(customer);
     }
 
     @PostMapping()
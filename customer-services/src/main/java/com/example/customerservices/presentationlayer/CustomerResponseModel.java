@@ -22,6 +22,7 @@ public class CustomerResponseModel   {
     private String city;
     private String province;
     private List<PhoneNumber> phoneNumbers;
+    private Long version;
 //    private String phoneType;
 //    private String phoneNumber;
 
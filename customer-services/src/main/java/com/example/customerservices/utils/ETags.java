@@ -0,0 +1,80 @@
+package com.example.customerservices.utils;
+
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Entity tags derived from the JPA {@code @Version} column, so they change exactly when a
+ * row is written. A single resource is tagged with its version; a collection with a digest
+ * of every member's id and version, in order, which also changes when a member is added,
+ * removed or reordered. Spring answers a matching {@code If-None-Match} with a 304.
+ * <p>
+ * The Smile body is a different representation from the JSON one, so it gets its own tag
+ * ({@code "3"} and {@code "3-smile"}), picked by the {@code Accept} header of the current
+ * request the way the message converters pick; {@link SmileConfig} adds {@code Vary: Accept}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return tag(String.valueOf(version == null ? 0 : version));
+    }
+
+    public static <T> String of(List<T> items, Function<T, String> id, Function<T, Long> version) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (T item : items) {
+                digest.update((id.apply(item) + ":" + version.apply(item) + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            return tag(HexFormat.of().formatHex(digest.digest(), 0, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static String tag(String value) {
+        return "\"" + value + (smileRequested() ? "-smile" : "") + "\"";
+    }
+
+    // the JSON converter is registered first, so it wins wherever both would do
+    private static boolean smileRequested() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        String accept = attributes.getRequest().getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.isCompatibleWith(SmileConfig.APPLICATION_SMILE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
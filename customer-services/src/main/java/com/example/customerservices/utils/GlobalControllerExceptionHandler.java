@@ -8,48 +8,48 @@ import com.example.customerservices.utils.exceptions.InvalidInputException;
 import com.example.customerservices.utils.exceptions.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
 import static org.springframework.http.HttpStatus.*;
 
+// error bodies are JSON even for callers that prefer Smile, so every client can read them
 @RestControllerAdvice
 @Slf4j
 public class GlobalControllerExceptionHandler {
 
-    @ResponseStatus(NOT_FOUND)
     @ExceptionHandler(NotFoundException.class)
-    public HttpErrorInfo handleNotFoundException(WebRequest request, NotFoundException ex) {
-        return createHttpErrorInfo(NOT_FOUND, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleNotFoundException(WebRequest request, NotFoundException ex) {
+        return createResponse(NOT_FOUND, request, ex.getMessage());
     }
 
-    @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(InvalidInputException.class)
-    public HttpErrorInfo handleInvalidInputException(WebRequest request, InvalidInputException ex) {
-        return createHttpErrorInfo(UNPROCESSABLE_ENTITY, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleInvalidInputException(WebRequest request, InvalidInputException ex) {
+        return createResponse(UNPROCESSABLE_ENTITY, request, ex.getMessage());
     }
 
-    @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(DuplicateCustomerEmailException.class)
-    public HttpErrorInfo handleDuplicateCustomerEmailException(WebRequest request,
-                                                               DuplicateCustomerEmailException ex) {
-        return createHttpErrorInfo(UNPROCESSABLE_ENTITY, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleDuplicateCustomerEmailException(WebRequest request,
+                                                                               DuplicateCustomerEmailException ex) {
+        return createResponse(UNPROCESSABLE_ENTITY, request, ex.getMessage());
     }
 
-    @ResponseStatus(BAD_REQUEST)
     @ExceptionHandler(IllegalArgumentException.class)
-    public HttpErrorInfo handleIllegalArgumentException(WebRequest request, IllegalArgumentException ex) {
-        return createHttpErrorInfo(BAD_REQUEST, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleIllegalArgumentException(WebRequest request, IllegalArgumentException ex) {
+        return createResponse(BAD_REQUEST, request, ex.getMessage());
     }
 
-    private HttpErrorInfo createHttpErrorInfo(HttpStatus status,
-                                              WebRequest request,
-                                              String message) {
+    private ResponseEntity<HttpErrorInfo> createResponse(HttpStatus status,
+                                                         WebRequest request,
+                                                         String message) {
 
         String path = request.getDescription(false);
         log.debug("Returning HTTP {} for {}: {}", status, path, message);
-        return new HttpErrorInfo(status, path, message);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new HttpErrorInfo(status, path, message));
     }
 }
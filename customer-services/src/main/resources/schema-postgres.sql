@@ -13,7 +13,8 @@ CREATE TABLE IF NOT EXISTS customers (
     city VARCHAR(50),
     province VARCHAR(50),
     username VARCHAR(50),
-    password VARCHAR(50)
+    password VARCHAR(50),
+    version BIGINT NOT NULL DEFAULT 0
     );
 
 
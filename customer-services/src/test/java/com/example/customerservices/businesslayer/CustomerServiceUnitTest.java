@@ -4,6 +4,7 @@ import com.example.customerservices.businesslogiclayer.CustomerServiceImpl;
 import com.example.customerservices.dataaccesslayer.*;
 import com.example.customerservices.datamapperlayer.CustomerRequestMapper;
 import com.example.customerservices.datamapperlayer.CustomerResponseMapper;
+import com.example.customerservices.domainclientlayer.OrderServiceClient;
 import com.example.customerservices.presentationlayer.CustomerRequestModel;
 import com.example.customerservices.presentationlayer.CustomerResponseModel;
 import com.example.customerservices.utils.exceptions.DuplicateCustomerEmailException;
@@ -38,6 +39,9 @@ public class CustomerServiceUnitTest {
     @Spy
     private CustomerResponseMapper resMapper = Mappers.getMapper(CustomerResponseMapper.class);
 
+    @Mock
+    private OrderServiceClient orderServiceClient;
+
     @InjectMocks
     private CustomerServiceImpl service;
 
@@ -109,6 +113,26 @@ public class CustomerServiceUnitTest {
                 () -> service.getCustomerbyCustomerId("ID1"));
     }
 
+    // Testing getCustomersByCustomerIds resolves the whole set with one repository call (positive case)
+    @Test
+    public void getByIds_returnsOnlyKnownCustomers() {
+        when(repo.findAllByCustomerIdentifier_CustomerIdIn(any()))
+                .thenReturn(List.of(makeCustomer("ID1", "a@b.com")));
+
+        List<CustomerResponseModel> list = service.getCustomersByCustomerIds(List.of("ID1", "ID1", "MISSING"));
+
+        assertEquals(1, list.size());
+        assertEquals("ID1", list.get(0).getCustomerId());
+        verify(repo).findAllByCustomerIdentifier_CustomerIdIn(any());
+    }
+
+    // Testing getCustomersByCustomerIds skips the database for an empty request (negative case)
+    @Test
+    public void getByIds_empty_returnsEmpty() {
+        assertTrue(service.getCustomersByCustomerIds(List.of()).isEmpty());
+        verify(repo, Mockito.never()).findAllByCustomerIdentifier_CustomerIdIn(any());
+    }
+
     // Testing addCustomer allows null passwords (positive case)
     @Test
     public void addCustomer_nullPasswords_allowed() {
@@ -231,6 +255,7 @@ public class CustomerServiceUnitTest {
         String msg = service.deleteCustomerbyCustomerId("ID9");
         assertTrue(msg.contains("deleted successfully"));
         verify(repo).delete(stored);
+        verify(orderServiceClient).customerDeleted("ID9");
     }
 
     // Testing getCustomerbyEmail throws if not found (negative case)
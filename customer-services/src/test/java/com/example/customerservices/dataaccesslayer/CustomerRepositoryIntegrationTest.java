@@ -209,7 +209,7 @@ public class CustomerRepositoryIntegrationTest {
         );
         CustomerIdentifier id = new CustomerIdentifier("ID001");
         Customer c1 = new Customer(
-                1, id, "LN", "FN", "e@mail", "user", "pw", addr, phones
+                1, id, "LN", "FN", "e@mail", "user", "pw", addr, phones, 0L
         );
         assertEquals(c1, c1);
         assertNotEquals(c1, null);
@@ -222,20 +222,21 @@ public class CustomerRepositoryIntegrationTest {
                 List.of(
                         new PhoneNumber(PhoneType.HOME,   "111"),
                         new PhoneNumber(PhoneType.MOBILE, "222")
-                )
+                ),
+                0L
         );
         assertEquals(c1, c2);
         assertEquals(c1.hashCode(), c2.hashCode());
-        assertNotEquals(c1, new Customer(2,   id, "LN","FN","e@mail","user","pw", addr, phones));
-        assertNotEquals(c1, new Customer(1, new CustomerIdentifier("DIFF"), "LN","FN","e@mail","user","pw", addr, phones));
-        assertNotEquals(c1, new Customer(1,   id, "XX","FN","e@mail","user","pw", addr, phones));
-        assertNotEquals(c1, new Customer(1,   id, "LN","XX","e@mail","user","pw", addr, phones));
-        assertNotEquals(c1, new Customer(1,   id, "LN","FN","x@mail","user","pw", addr, phones));
-        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","usr2","pw", addr, phones));
-        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw2", addr, phones));
-        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw", new Address("X","B","C","D"), phones));
-        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw", addr, List.of()));
-        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw", addr, List.of(new PhoneNumber(PhoneType.HOME,"111"))));
+        assertNotEquals(c1, new Customer(2,   id, "LN","FN","e@mail","user","pw", addr, phones, 0L));
+        assertNotEquals(c1, new Customer(1, new CustomerIdentifier("DIFF"), "LN","FN","e@mail","user","pw", addr, phones, 0L));
+        assertNotEquals(c1, new Customer(1,   id, "XX","FN","e@mail","user","pw", addr, phones, 0L));
+        assertNotEquals(c1, new Customer(1,   id, "LN","XX","e@mail","user","pw", addr, phones, 0L));
+        assertNotEquals(c1, new Customer(1,   id, "LN","FN","x@mail","user","pw", addr, phones, 0L));
+        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","usr2","pw", addr, phones, 0L));
+        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw2", addr, phones, 0L));
+        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw", new Address("X","B","C","D"), phones, 0L));
+        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw", addr, List.of(), 0L));
+        assertNotEquals(c1, new Customer(1,   id, "LN","FN","e@mail","user","pw", addr, List.of(new PhoneNumber(PhoneType.HOME,"111")), 0L));
         String cts = c1.toString();
         assertTrue(cts.contains("FN"));
         assertTrue(cts.contains("e@mail"));
@@ -187,7 +187,7 @@ public class CustomerControllerIntegrationTest {
         DuplicateCustomerEmailException ex =
                 new DuplicateCustomerEmailException("dup@x.com");
         HttpErrorInfo info =
-                exceptionHandler.handleDuplicateCustomerEmailException(mockWebRequest, ex);
+                exceptionHandler.handleDuplicateCustomerEmailException(mockWebRequest, ex).getBody();
 
         assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, info.getHttpStatus());
         assertTrue(info.getMessage().contains("dup@x.com"));
@@ -221,7 +221,7 @@ public class CustomerControllerIntegrationTest {
     @Test
     public void handleNotFoundException_directly() {
         NotFoundException ex = new NotFoundException("no-id");
-        HttpErrorInfo info  = exceptionHandler.handleNotFoundException(mockWebRequest, ex);
+        HttpErrorInfo info  = exceptionHandler.handleNotFoundException(mockWebRequest, ex).getBody();
 
         assertEquals(HttpStatus.NOT_FOUND, info.getHttpStatus());
         assertEquals("uri=/dummy/path",    info.getPath());
@@ -232,7 +232,7 @@ public class CustomerControllerIntegrationTest {
     @Test
     public void handleInvalidInputException_directly() {
         InvalidInputException ex = new InvalidInputException("bad payload");
-        HttpErrorInfo info       = exceptionHandler.handleInvalidInputException(mockWebRequest, ex);
+        HttpErrorInfo info       = exceptionHandler.handleInvalidInputException(mockWebRequest, ex).getBody();
 
         assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, info.getHttpStatus());
         assertEquals("bad payload",                  info.getMessage());
@@ -243,7 +243,7 @@ public class CustomerControllerIntegrationTest {
     @Test
     public void handleIllegalArgumentException_directly() {
         IllegalArgumentException ex = new IllegalArgumentException("illegal!");
-        HttpErrorInfo info          = exceptionHandler.handleIllegalArgumentException(mockWebRequest, ex);
+        HttpErrorInfo info          = exceptionHandler.handleIllegalArgumentException(mockWebRequest, ex).getBody();
 
         assertEquals(HttpStatus.BAD_REQUEST, info.getHttpStatus());
         assertEquals("illegal!",           info.getMessage());
@@ -480,7 +480,8 @@ public class CustomerControllerIntegrationTest {
                 "jdoe",
                 "secret",
                 addr,
-                phones
+                phones,
+                0L
         );
         Customer c2 = new Customer(
                 42,
@@ -491,7 +492,8 @@ public class CustomerControllerIntegrationTest {
                 "jdoe",
                 "secret",
                 addr,
-                phones
+                phones,
+                0L
         );
 
         // equals/hashCode
@@ -0,0 +1,175 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.utils.DownstreamUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent downstream lookups side by side on virtual threads, so an order
+ * costs max() instead of sum() of the services it depends on.
+ * <p>
+ * Every lookup gets its own deadline ({@code app.lookups.timeout-ms}). The first lookup
+ * that fails or times out cancels its siblings and is rethrown from {@link Scope#join()}.
+ * With {@code app.lookups.parallel=false} lookups run inline, one after the other.
+ */
+@Component
+@Slf4j
+public class DownstreamFanOut {
+
+    private final boolean parallel;
+    private final long callTimeoutMillis;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DownstreamFanOut(@Value("${app.lookups.parallel:true}") boolean parallel,
+                            @Value("${app.lookups.timeout-ms:3000}") long callTimeoutMillis) {
+        this.parallel = parallel;
+        this.callTimeoutMillis = callTimeoutMillis;
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+
+    public final class Scope implements AutoCloseable {
+
+        private final List<Lookup<?>> lookups = new CopyOnWriteArrayList<>();
+        private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+
+        private Scope() {
+        }
+
+        public <T> Lookup<T> fork(String name, Supplier<T> call) {
+            Lookup<T> lookup = new Lookup<>(name);
+            lookups.add(lookup);
+
+            if (!parallel) {
+                // sequential mode: exceptions surface right here, like a plain call would
+                lookup.result.complete(call.get());
+                lookup.done = lookup.result;
+                return lookup;
+            }
+
+            lookup.done = lookup.result
+                    .orTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((value, ex) -> {
+                        if (ex != null) {
+                            fail(lookup, ex);
+                        }
+                    });
+
+            if (firstFailure.get() != null) {
+                lookup.result.cancel(false);
+                return lookup;
+            }
+
+            lookup.task = executor.submit(() -> {
+                try {
+                    lookup.result.complete(call.get());
+                } catch (Throwable t) {
+                    lookup.result.completeExceptionally(t);
+                }
+            });
+            return lookup;
+        }
+
+        /**
+         * Waits for every forked lookup. Rethrows the first failure; siblings have
+         * already been cancelled by then.
+         */
+        public void join() {
+            if (!parallel) {
+                return;
+            }
+            try {
+                CompletableFuture.allOf(lookups.stream()
+                        .map(l -> l.done)
+                        .toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException | CancellationException ignored) {
+                // the translated cause was recorded in firstFailure by fail()
+            }
+
+            RuntimeException failure = firstFailure.get();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void close() {
+            lookups.forEach(Lookup::cancel);
+        }
+
+        private void fail(Lookup<?> lookup, Throwable ex) {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof CancellationException) {
+                return;
+            }
+
+            RuntimeException translated;
+            if (cause instanceof TimeoutException) {
+                translated = new DownstreamUnavailableException(
+                        lookup.name + " lookup timed out after " + callTimeoutMillis + " ms");
+            } else if (cause instanceof RuntimeException re) {
+                translated = re;
+            } else {
+                translated = new DownstreamUnavailableException(lookup.name + " lookup failed", cause);
+            }
+
+            if (firstFailure.compareAndSet(null, translated)) {
+                log.debug("{} lookup failed → cancelling {} sibling(s)", lookup.name, lookups.size() - 1);
+                lookups.forEach(Lookup::cancel);
+            }
+        }
+    }
+
+
+    public static final class Lookup<T> {
+
+        private final String name;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile CompletableFuture<T> done;
+        private volatile Future<?> task;
+
+        private Lookup(String name) {
+            this.name = name;
+        }
+
+        /** Value of a lookup, only meaningful after {@link Scope#join()} returned normally. */
+        public T get() {
+            return result.join();
+        }
+
+        private void cancel() {
+            if (!result.isDone()) {
+                result.cancel(false);
+            }
+            Future<?> running = task;
+            if (running != null && !running.isDone()) {
+                // interrupting the virtual thread aborts its blocking socket read
+                running.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.dataaccesslayer.Order;
+import com.example.orderservices.utils.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in the order listing: the {@code orderDate} and {@code _id} of the last
+ * order served, base64url-encoded so clients pass it back verbatim.
+ */
+final class OrderCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime orderDate;
+    private final String id;
+
+    private OrderCursor(LocalDateTime orderDate, String id) {
+        this.orderDate = orderDate;
+        this.id = id;
+    }
+
+    static String encode(Order last) {
+        String raw = (last.getOrderDate() == null ? "" : last.getOrderDate().toString()) + SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep < 0 || sep == raw.length() - 1) {
+                throw new InvalidInputException("Invalid cursor: " + cursor);
+            }
+            String date = raw.substring(0, sep);
+            return new OrderCursor(date.isEmpty() ? null : LocalDateTime.parse(date), raw.substring(sep + 1));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidInputException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    String getId() {
+        return id;
+    }
+}
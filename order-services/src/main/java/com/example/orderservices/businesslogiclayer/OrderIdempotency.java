@@ -0,0 +1,135 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.dataaccesslayer.IdempotencyRecord;
+import com.example.orderservices.dataaccesslayer.IdempotencyRecordRepository;
+import com.example.orderservices.dataaccesslayer.IdempotencyStatus;
+import com.example.orderservices.presentationlayer.OrderRequestModel;
+import com.example.orderservices.presentationlayer.OrderResponseModel;
+import com.example.orderservices.utils.IdempotencyConflictException;
+import com.example.orderservices.utils.InvalidInputException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs an order creation at most once per {@code Idempotency-Key}.
+ * <p>
+ * The first request claims the key (one insert) and stores its response when done; a
+ * repeat is answered from that record with a single lookup. A repeat that arrives while
+ * the first is still running gets a 409; if the owner died, its claim can be taken over
+ * once it is older than {@code app.idempotency.lease-ms}. A failed attempt releases the
+ * key so the client can simply retry.
+ * <p>
+ * The action is given the attempt id of the claim. A takeover keeps it, so a re-run of a
+ * crashed attempt repeats that attempt's side effects under the same keys; a retry after a
+ * release claims afresh and gets a new one, so an effect the failed attempt undid is applied
+ * again instead of being replayed as done.
+ */
+@Component
+@Slf4j
+public class OrderIdempotency {
+
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final long leaseMillis;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    public OrderIdempotency(IdempotencyRecordRepository idempotencyRecordRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${app.idempotency.lease-ms:30000}") long leaseMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.leaseMillis = leaseMillis;
+    }
+
+    public OrderResponseModel execute(String key, OrderRequestModel request, Function<String, OrderResponseModel> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidInputException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+        LocalDateTime now = LocalDateTime.now();
+        String attemptId = UUID.randomUUID().toString();
+
+        if (!idempotencyRecordRepository.claim(key, requestHash, attemptId, now)) {
+            IdempotencyRecord record = idempotencyRecordRepository.findById(key)
+                    .orElseThrow(() -> new IdempotencyConflictException(
+                            "Request with Idempotency-Key '" + key + "' is still being processed"));
+
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw new InvalidInputException(
+                        "Idempotency-Key '" + key + "' was already used with a different request");
+            }
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                replayed.increment();
+                log.debug("Idempotency-Key {} replayed", key);
+                return read(record.getResponseBody());
+            }
+            if (!idempotencyRecordRepository.takeOver(key, now.minusNanos(leaseMillis * 1_000_000), now)) {
+                throw new IdempotencyConflictException(
+                        "Request with Idempotency-Key '" + key + "' is still being processed");
+            }
+            attemptId = record.getAttemptId();
+            log.info("Idempotency-Key {} taken over after its lease ran out", key);
+        }
+
+        OrderResponseModel response;
+        try {
+            response = action.apply(attemptId);
+        } catch (RuntimeException ex) {
+            idempotencyRecordRepository.deleteById(key);
+            throw ex;
+        }
+        idempotencyRecordRepository.complete(key, write(response));
+        executed.increment();
+        return response;
+    }
+
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    public long getReplayedCount() {
+        return replayed.sum();
+    }
+
+    private String hash(OrderRequestModel request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("cannot fingerprint order request", ex);
+        }
+    }
+
+    private String write(OrderResponseModel response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("cannot store order response", ex);
+        }
+    }
+
+    private OrderResponseModel read(String responseBody) {
+        try {
+            return objectMapper.readValue(responseBody, OrderResponseModel.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("cannot replay stored order response", ex);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.dataaccesslayer.Order;
+import com.example.orderservices.dataaccesslayer.OrderRepository;
+import com.example.orderservices.domainclientlayer.CustomerServiceClient;
+import com.example.orderservices.domainclientlayer.ProductServiceClient;
+import com.example.orderservices.domainclientlayer.ServicePlanServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks that every order still points at an existing customer, catalog, watch and
+ * service plan.
+ * <p>
+ * Orders are walked in {@code _id} order, one batch at a time, with one bulk lookup per
+ * downstream service per batch. Orders with a dangling reference are quarantined (hidden
+ * from listings, kept in the database); quarantined orders whose references came back
+ * are released. If a downstream call fails the run stops without touching anything else,
+ * so a flaky service can never take orders with it.
+ */
+@Component
+@Slf4j
+public class OrderReconciliationSweeper {
+
+    private final OrderRepository orderRepository;
+    private final CustomerServiceClient customerClient;
+    private final ProductServiceClient productClient;
+    private final ServicePlanServiceClient planClient;
+    private final DownstreamFanOut fanOut;
+
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder quarantined = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastCompletedAt;
+    private volatile long lastRunMillis;
+    private volatile long lastRunScanned;
+    private volatile String lastError;
+
+    public OrderReconciliationSweeper(OrderRepository orderRepository,
+                                      CustomerServiceClient customerClient,
+                                      ProductServiceClient productClient,
+                                      ServicePlanServiceClient planClient,
+                                      DownstreamFanOut fanOut,
+                                      @Value("${app.reconciliation.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.customerClient = customerClient;
+        this.productClient = productClient;
+        this.planClient = planClient;
+        this.fanOut = fanOut;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reconciliation.interval-ms:300000}")
+    public void sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        long runScanned = 0;
+        lastRunStartedAt = LocalDateTime.now();
+        try {
+            String afterId = null;
+            List<Order> batch;
+            do {
+                batch = orderRepository.findReconciliationBatch(afterId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                reconcile(batch);
+                runScanned += batch.size();
+                afterId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == batchSize);
+
+            lastCompletedAt = LocalDateTime.now();
+            lastError = null;
+        } catch (RuntimeException ex) {
+            // downstream trouble: nothing past this batch was decided, the next run starts over
+            failedRuns.increment();
+            lastError = ex.getMessage();
+            log.warn("order reconciliation aborted after {} order(s): {}", runScanned, ex.getMessage());
+        } finally {
+            lastRunMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            lastRunScanned = runScanned;
+            running.set(false);
+        }
+    }
+
+    void reconcile(List<Order> batch) {
+        ReferenceBatch refs = ReferenceBatch.fetch(batch, fanOut, customerClient, productClient, planClient);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Order> changed = new ArrayList<>();
+        for (Order o : batch) {
+            List<String> missing = refs.missingFor(o);
+            if (!missing.isEmpty()) {
+                if (o.getQuarantinedAt() == null) {
+                    o.setQuarantinedAt(now);
+                    quarantined.increment();
+                    log.info("order {} quarantined, missing {}", o.getOrderIdentifier().getOrderId(), missing);
+                } else if (Objects.equals(o.getMissingReferences(), missing)) {
+                    continue;
+                }
+                o.setMissingReferences(missing);
+                changed.add(o);
+            } else if (o.getQuarantinedAt() != null || o.getMissingReferences() != null) {
+                if (o.getQuarantinedAt() != null) {
+                    released.increment();
+                    log.info("order {} released from quarantine", o.getOrderIdentifier().getOrderId());
+                }
+                o.setQuarantinedAt(null);
+                o.setMissingReferences(null);
+                changed.add(o);
+            }
+        }
+        orderRepository.saveReferenceStatus(changed);
+
+        scanned.add(batch.size());
+        batches.increment();
+    }
+
+    public ReconciliationStats stats() {
+        long runMillis = lastRunMillis;
+        long runScanned = lastRunScanned;
+        LocalDateTime completed = lastCompletedAt;
+        return ReconciliationStats.builder()
+                .ordersScanned(scanned.sum())
+                .batches(batches.sum())
+                .quarantined(quarantined.sum())
+                .released(released.sum())
+                .failedRuns(failedRuns.sum())
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastCompletedAt(completed)
+                .lastRunMillis(runMillis)
+                .lastRunOrdersPerSecond(runMillis == 0 ? 0.0 : runScanned * 1000.0 / runMillis)
+                .lagMillis(completed == null ? -1 : Duration.between(completed, LocalDateTime.now()).toMillis())
+                .lastError(lastError)
+                .build();
+    }
+}
@@ -1,21 +1,28 @@
 package com.example.orderservices.businesslogiclayer;
 
 
+import com.example.orderservices.presentationlayer.OrderPageResponseModel;
 import com.example.orderservices.presentationlayer.OrderRequestModel;
 import com.example.orderservices.presentationlayer.OrderResponseModel;
+import com.example.orderservices.presentationlayer.OrderSearchRequestModel;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public interface OrderService {
 
-    List<OrderResponseModel> getAllOrders();
+    OrderPageResponseModel getAllOrders(OrderSearchRequestModel search);
+
+    /** Hands every listed order to {@code sink} in {@code _id} order without holding more than one chunk; returns the count. */
+    long exportOrders(Consumer<OrderResponseModel> sink);
 
     OrderResponseModel getOrderById(String orderId);
 
     OrderResponseModel createOrder(OrderRequestModel orderRequestModel);
 
+    OrderResponseModel createOrder(OrderRequestModel orderRequestModel, String idempotencyKey);
+
     OrderResponseModel updateOrder(String orderId, OrderRequestModel orderRequestModel);
 
     String deleteOrder(String orderId);
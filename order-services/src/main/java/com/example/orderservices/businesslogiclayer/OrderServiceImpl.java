@@ -7,36 +7,54 @@ import com.example.orderservices.datamapperlayer.OrderResponseMapper;
 import com.example.orderservices.domainclientlayer.CustomerServiceClient;
 import com.example.orderservices.domainclientlayer.ProductServiceClient;
 import com.example.orderservices.domainclientlayer.ServicePlanServiceClient;
+import com.example.orderservices.presentationlayer.OrderPageResponseModel;
 import com.example.orderservices.presentationlayer.OrderRequestModel;
 import com.example.orderservices.presentationlayer.OrderResponseModel;
+import com.example.orderservices.presentationlayer.OrderSearchRequestModel;
 import com.example.orderservices.presentationlayer.customerdtos.CustomerResponseModel;
 import com.example.orderservices.presentationlayer.productdtos.catalogdtos.CatalogResponseModel;
-import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchRequestModel;
 import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchResponseModel;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
 import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+import com.example.orderservices.utils.DownstreamUnavailableException;
 import com.example.orderservices.utils.DuplicateOrderName;
 import com.example.orderservices.utils.InvalidInputException;
 import com.example.orderservices.utils.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 @Service
+@Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    // orders pulled per cursor batch and enriched together by exportOrders
+    static final int EXPORT_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final OrderRequestMapper orderRequestMapper;
     private final OrderResponseMapper orderResponseMapper;
     private final CustomerServiceClient customerClient;
     private final ProductServiceClient productClient;
     private final ServicePlanServiceClient planClient;
+    private final DownstreamFanOut fanOut;
+    private final OrderIdempotency orderIdempotency;
 
     public OrderServiceImpl(
             OrderRepository orderRepository,
@@ -44,7 +62,9 @@ public class OrderServiceImpl implements OrderService {
             OrderResponseMapper orderResponseMapper,
             CustomerServiceClient customerClient,
             ProductServiceClient productClient,
-            ServicePlanServiceClient planClient
+            ServicePlanServiceClient planClient,
+            DownstreamFanOut fanOut,
+            OrderIdempotency orderIdempotency
     ) {
         this.orderRepository = orderRepository;
         this.orderRequestMapper = orderRequestMapper;
@@ -52,46 +72,89 @@ public class OrderServiceImpl implements OrderService {
         this.customerClient = customerClient;
         this.productClient = productClient;
         this.planClient = planClient;
+        this.fanOut = fanOut;
+        this.orderIdempotency = orderIdempotency;
     }
 
     @Override
-    public List<OrderResponseModel> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        List<OrderResponseModel> results = new ArrayList<>();
+    public OrderPageResponseModel getAllOrders(OrderSearchRequestModel search) {
+        int limit = search.getLimit() == null ? DEFAULT_PAGE_SIZE : search.getLimit();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (search.getFrom() != null && search.getTo() != null && !search.getFrom().isBefore(search.getTo())) {
+            throw new InvalidInputException("from must be before to");
+        }
 
-        for (Order o : orders) {
-            String id = o.getOrderIdentifier().getOrderId();
-
-            CustomerResponseModel    c;
-            CatalogResponseModel     d;
-            WatchResponseModel       w;
-            ServicePlanResponseModel p;
-
-            // 1) do your 4 downstream calls inside a try/catch
-            try {
-                c = customerClient.getCustomerbyCustomerId(o.getCustomerIdentifier().getCustomerId());
-                d = productClient  .getCatalogById   (o.getCatalogIdentifier().getCatalogId());
-                w = productClient  .getCatalogWatchByID(o.getWatchIdentifier().getWatchId());
-                p = planClient     .getServicePlansById(o.getServicePlanIdentifier().getPlanId());
-            } catch (RuntimeException ex) {
-                // upstream threw 404 or 500 → delete stale order + skip
-                orderRepository.delete(o);
-                continue;
+        OrderPageQuery query = OrderPageQuery.builder()
+                .customerId(search.getCustomerId())
+                .watchId(search.getWatchId())
+                .orderStatus(search.getStatus())
+                .from(search.getFrom())
+                .to(search.getTo())
+                // one extra row tells us whether there is a next page
+                .limit(limit + 1)
+                .build();
+        if (search.getCursor() != null) {
+            OrderCursor cursor = OrderCursor.decode(search.getCursor());
+            query.setAfterOrderDate(cursor.getOrderDate());
+            query.setAfterId(cursor.getId());
+        }
+
+        List<Order> orders = orderRepository.findPage(query);
+        String nextCursor = null;
+        if (orders.size() > limit) {
+            orders = orders.subList(0, limit);
+            nextCursor = OrderCursor.encode(orders.get(limit - 1));
+        }
+
+        return OrderPageResponseModel.builder().orders(toResponseModels(orders)).nextCursor(nextCursor).build();
+    }
+
+    @Override
+    public long exportOrders(Consumer<OrderResponseModel> sink) {
+        long exported = 0;
+        List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Order> orders = orderRepository.streamForExport(EXPORT_CHUNK_SIZE)) {
+            Iterator<Order> it = orders.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !it.hasNext()) {
+                    toResponseModels(chunk).forEach(sink);
+                    exported += chunk.size();
+                    chunk.clear();
+                }
             }
+        }
+        return exported;
+    }
 
-            // 2) if any lookup returned null, also cascade-delete
-            if (c == null || d == null || w == null || p == null) {
-                orderRepository.delete(o);
-                continue;
+    private List<OrderResponseModel> toResponseModels(List<Order> orders) {
+        List<OrderResponseModel> results = new ArrayList<>(orders.size());
+        if (orders.isEmpty()) {
+            return results;
+        }
+
+        // 1) orders written before snapshots existed get theirs now, in one bulk pass
+        List<Order> missingSnapshot = new ArrayList<>();
+        for (Order o : orders) {
+            if (o.getSnapshot() == null) {
+                missingSnapshot.add(o);
             }
+        }
+        try {
+            backfillSnapshots(missingSnapshot);
+        } catch (DownstreamUnavailableException ex) {
+            // the orders themselves are in Mongo: serve them bare and backfill on a later read
+            log.warn("snapshot backfill for {} order(s) skipped: {}", missingSnapshot.size(), ex.getMessage());
+        }
 
-            // 3) map the entity → DTO, then enrich it
+        // 2) everything is served straight from the document
+        for (Order o : orders) {
             OrderResponseModel dto = orderResponseMapper.entityToResponseModel(o);
-            enrichResponse(dto);
-
+            OrderSnapshots.applyTo(dto, o);
             results.add(dto);
         }
-
         return results;
     }
 
@@ -103,30 +166,71 @@ public class OrderServiceImpl implements OrderService {
             throw new NotFoundException("Order ID '" + orderId + "' not found");
         }
 
-        try {
-            // reuse your existing enrichResponse inside this try
-            CustomerResponseModel    c = customerClient.getCustomerbyCustomerId(o.getCustomerIdentifier().getCustomerId());
-            CatalogResponseModel     d = productClient  .getCatalogById   (o.getCatalogIdentifier().getCatalogId());
-            WatchResponseModel       w = productClient  .getCatalogWatchByID(o.getWatchIdentifier().getWatchId());
-            ServicePlanResponseModel p = planClient     .getServicePlansById(o.getServicePlanIdentifier().getPlanId());
-
-            if (c == null || d == null || w == null || p == null) {
-                throw new RuntimeException("stale downstream resource");
-            }
-
+        if (o.getSnapshot() != null) {
             OrderResponseModel dto = orderResponseMapper.entityToResponseModel(o);
-            enrichResponse(dto);
+            OrderSnapshots.applyTo(dto, o);
             return dto;
+        }
 
-        } catch (RuntimeException ex) {
-            orderRepository.delete(o);
-            throw new NotFoundException(
-                    "Order ID '" + orderId + "' referred to missing resource and has been removed"
-            );
+        // no snapshot yet (order predates them) → build it once and keep it.
+        // Missing references are only flagged here; OrderReconciliationSweeper decides what happens next.
+        try (DownstreamFanOut.Scope scope = fanOut.open()) {
+            DownstreamFanOut.Lookup<CustomerResponseModel>    c = scope.fork("customer",
+                    () -> nullIfNotFound(() -> customerClient.getCustomerbyCustomerId(o.getCustomerIdentifier().getCustomerId())));
+            DownstreamFanOut.Lookup<CatalogResponseModel>     d = scope.fork("catalog",
+                    () -> nullIfNotFound(() -> productClient.getCatalogById(o.getCatalogIdentifier().getCatalogId())));
+            DownstreamFanOut.Lookup<WatchResponseModel>       w = scope.fork("watch",
+                    () -> nullIfNotFound(() -> productClient.getCatalogWatchMetadataByID(o.getWatchIdentifier().getWatchId())));
+            DownstreamFanOut.Lookup<ServicePlanResponseModel> p = scope.fork("servicePlan",
+                    () -> nullIfNotFound(() -> planClient.getServicePlansById(o.getServicePlanIdentifier().getPlanId())));
+            scope.join();
+
+            List<String> missing = new ArrayList<>();
+            if (c.get() == null) missing.add(ReferenceType.CUSTOMER.name());
+            if (d.get() == null) missing.add(ReferenceType.CATALOG.name());
+            if (w.get() == null) missing.add(ReferenceType.WATCH.name());
+            if (p.get() == null) missing.add(ReferenceType.SERVICE_PLAN.name());
+
+            o.setSnapshot(OrderSnapshots.of(c.get(), d.get(), w.get(), p.get(), LocalDateTime.now()));
+            o.setMissingReferences(missing.isEmpty() ? null : missing);
+            orderRepository.save(o);
+        } catch (DownstreamUnavailableException ex) {
+            // a dependency is down or its breaker is open: the order itself is still readable
+            log.warn("order {} served without snapshot: {}", orderId, ex.getMessage());
         }
+
+        OrderResponseModel dto = orderResponseMapper.entityToResponseModel(o);
+        OrderSnapshots.applyTo(dto, o);
+        return dto;
     }
     @Override
     public OrderResponseModel createOrder(OrderRequestModel req) {
+        String orderId = java.util.UUID.randomUUID().toString();
+        return placeOrder(req, orderId, orderId + ":create");
+    }
+
+    @Override
+    public OrderResponseModel createOrder(OrderRequestModel req, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createOrder(req);
+        }
+
+        // same key → same order id. The stock key also carries the attempt: a crashed attempt
+        // re-run on takeover reuses it, a retry after a failed (and undone) attempt takes stock anew
+        String orderId = java.util.UUID.nameUUIDFromBytes(
+                ("order:" + idempotencyKey).getBytes(StandardCharsets.UTF_8)).toString();
+        return orderIdempotency.execute(idempotencyKey, req, attemptId -> {
+            Order already = orderRepository.findOrderByOrderIdentifier_OrderId(orderId);
+            if (already != null) {
+                OrderResponseModel dto = orderResponseMapper.entityToResponseModel(already);
+                OrderSnapshots.applyTo(dto, already);
+                return dto;
+            }
+            return placeOrder(req, orderId, orderId + ":create:" + attemptId);
+        });
+    }
+
+    private OrderResponseModel placeOrder(OrderRequestModel req, String orderId, String stockKey) {
         // 1) required fields
         if (req.getOrderName() == null) {
             throw new InvalidInputException("orderName is required");
@@ -150,14 +254,33 @@ public class OrderServiceImpl implements OrderService {
             throw new InvalidInputException("currency and paymentCurrency are required");
         }
 
-        // 2) lookup customer
-        CustomerResponseModel customer = customerClient.getCustomerbyCustomerId(req.getCustomerId());
+        // 2) the four lookups are independent → fetch them concurrently, then validate in order
+        CustomerResponseModel    customer;
+        WatchResponseModel       watch;
+        ServicePlanResponseModel plan;
+        CatalogResponseModel     catalog;
+        try (DownstreamFanOut.Scope scope = fanOut.open()) {
+            DownstreamFanOut.Lookup<CustomerResponseModel> c = scope.fork("customer",
+                    () -> customerClient.getCustomerbyCustomerId(req.getCustomerId()));
+            DownstreamFanOut.Lookup<WatchResponseModel> w = scope.fork("watch",
+                    () -> productClient.getCatalogWatchMetadataByID(req.getWatchId()));
+            DownstreamFanOut.Lookup<ServicePlanResponseModel> p = scope.fork("servicePlan",
+                    () -> planClient.getServicePlansById(req.getServicePlanId()));
+            DownstreamFanOut.Lookup<CatalogResponseModel> d = scope.fork("catalog",
+                    () -> req.getCatalogId() == null ? null : productClient.getCatalogById(req.getCatalogId()));
+            scope.join();
+
+            customer = c.get();
+            watch    = w.get();
+            plan     = p.get();
+            catalog  = d.get();
+        }
+
         if (customer == null) {
             throw new NotFoundException("Customer ID '" + req.getCustomerId() + "' not found");
         }
 
-        // 3) lookup watch
-        WatchResponseModel watch = productClient.getCatalogWatchByID(req.getWatchId());
+        // 3) watch
         if (watch == null) {
             throw new NotFoundException("Watch ID '" + req.getWatchId() + "' not found");
         }
@@ -169,19 +292,14 @@ public class OrderServiceImpl implements OrderService {
             );
         }
 
-        if (watch.getQuantity() <= 0 && req.getOrderStatus() != OrderStatus.PURCHASE_CANCELED) {
-            throw new InvalidInputException("Watch '" + req.getWatchId() + "' is out of stock");
-        }
-
 
-        ServicePlanResponseModel plan = planClient.getServicePlansById(req.getServicePlanId());
         if (plan == null) {
             throw new NotFoundException("Service Plan ID '" + req.getServicePlanId() + "' not found");
         }
 
         // 5) build entity
         Order order = orderRequestMapper.requestModelToEntity(req);
-        order.setOrderIdentifier(new OrderIdentifier(java.util.UUID.randomUUID().toString()));
+        order.setOrderIdentifier(new OrderIdentifier(orderId));
         order.setCustomerIdentifier(new CustomerIdentifier(req.getCustomerId()));
         order.setCatalogIdentifier(new CatalogIdentifier(req.getCatalogId()));
         order.setWatchIdentifier(new WatchIdentifier(req.getWatchId()));
@@ -202,29 +320,20 @@ public class OrderServiceImpl implements OrderService {
                 Currency.valueOf(req.getPaymentCurrency().trim())
         ));
 
+        // 6) denormalized copy of what the order is displayed with
+        order.setSnapshot(OrderSnapshots.of(customer, catalog, watch, plan, LocalDateTime.now()));
 
-        Order saved = orderRepository.save(order);
 
-        int delta = saved.getOrderStatus() == OrderStatus.PURCHASE_COMPLETED ? -1 : +1;
-        int newQty = watch.getQuantity() + delta;
-        if (newQty < 0) {
-            throw new InvalidInputException("Stock cannot go below zero");
-        }
-        WatchRequestModel upd = WatchRequestModel.builder()
-                .catalogId(watch.getCatalogId())
-                .quantity(newQty)
-                .usageType(watch.getUsageType())
-                .model(watch.getModel())
-                .material(watch.getMaterial())
-                .accessories(watch.getAccessories())
-                .price(watch.getPrice())
-                .watchBrand(watch.getWatchBrand())
-                .build();
-        productClient.updateWatchInInventory(watch.getCatalogId(), watch.getWatchId(), upd);
+        // 7) stock moves in one conditional update on product-services (its 409 out of stock → our 422);
+        //    stockKey is the idempotency key there, so a re-run attempt can never take two units
+        int delta = status == OrderStatus.PURCHASE_COMPLETED ? -1 : +1;
+        productClient.adjustWatchStock(req.getWatchId(), delta, stockKey);
+
+        Order saved = saveOrUndoStock(order, req.getWatchId(), delta, stockKey);
 
-        // 10) build response
+        // 10) build response from the snapshot we just stored
         OrderResponseModel dto = orderResponseMapper.entityToResponseModel(saved);
-        enrichResponse(dto);
+        OrderSnapshots.applyTo(dto, order);
         return dto;
     }
     @Override
@@ -262,46 +371,32 @@ public class OrderServiceImpl implements OrderService {
         }
 
 
-        Order saved = orderRepository.save(existing);
-
+        // refresh the denormalized copy while we are writing the document anyway
+        refreshSnapshot(existing);
 
         int delta = 0;
         if (origStatus != OrderStatus.PURCHASE_COMPLETED
-                && saved.getOrderStatus() == OrderStatus.PURCHASE_COMPLETED) {
+                && requested == OrderStatus.PURCHASE_COMPLETED) {
             delta = -1;
         } else if (origStatus != OrderStatus.PURCHASE_CANCELED
-                && saved.getOrderStatus() == OrderStatus.PURCHASE_CANCELED) {
+                && requested == OrderStatus.PURCHASE_CANCELED) {
             delta = +1;
         }
 
+        Order saved;
         if (delta != 0) {
-
-            String watchId   = existing.getWatchIdentifier().getWatchId();
-            String catalogId = existing.getCatalogIdentifier().getCatalogId();
-
-            WatchResponseModel watch = productClient.getCatalogWatchByID(watchId);
-            int updatedQty = watch.getQuantity() + delta;
-            if (updatedQty < 0) {
-                throw new InvalidInputException("Stock cannot go below zero");
-            }
-
-            WatchRequestModel upd = WatchRequestModel.builder()
-                    .catalogId(catalogId)
-                    .quantity(updatedQty)
-                    .usageType(watch.getUsageType())
-                    .model(watch.getModel())
-                    .material(watch.getMaterial())
-                    .accessories(watch.getAccessories())
-                    .price(watch.getPrice())
-                    .watchBrand(watch.getWatchBrand())
-                    .build();
-
-            productClient.updateWatchInInventory(catalogId, watchId, upd);
+            // stock first, so an out-of-stock flip never reaches the document
+            String watchId = existing.getWatchIdentifier().getWatchId();
+            String stockKey = orderId + ":update:" + java.util.UUID.randomUUID();
+            productClient.adjustWatchStock(watchId, delta, stockKey);
+            saved = saveOrUndoStock(existing, watchId, delta, stockKey);
+        } else {
+            saved = orderRepository.save(existing);
         }
 
 
         OrderResponseModel dto = orderResponseMapper.entityToResponseModel(saved);
-        enrichResponse(dto);
+        OrderSnapshots.applyTo(dto, existing);
         return dto;
     }
 
@@ -314,21 +409,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         if (order.getOrderStatus() == OrderStatus.PURCHASE_COMPLETED) {
-            WatchResponseModel watch = productClient.getCatalogWatchByID(
-                    order.getWatchIdentifier().getWatchId()
-            );
-            int restoredQty = watch.getQuantity() + 1;
-            WatchRequestModel upd = WatchRequestModel.builder()
-                    .catalogId(watch.getCatalogId())
-                    .quantity(restoredQty)
-                    .usageType(watch.getUsageType())
-                    .model(watch.getModel())
-                    .material(watch.getMaterial())
-                    .accessories(watch.getAccessories())
-                    .price(watch.getPrice())
-                    .watchBrand(watch.getWatchBrand())
-                    .build();
-            productClient.updateWatchInInventory(watch.getCatalogId(), watch.getWatchId(), upd);
+            productClient.adjustWatchStock(order.getWatchIdentifier().getWatchId(), +1, orderId + ":delete");
         }
 
 
@@ -340,22 +421,93 @@ public class OrderServiceImpl implements OrderService {
                 : ".");
     }
 
-    // ────── populate HATEOAS links, names, etc. ──────
-
-    private void enrichResponse(OrderResponseModel r) {
-        CustomerResponseModel    c = customerClient.getCustomerbyCustomerId(r.getCustomerId());
-        CatalogResponseModel     d = productClient.getCatalogById(r.getCatalogId());
-        WatchResponseModel       w = productClient.getCatalogWatchByID(r.getWatchId());
-        ServicePlanResponseModel p = planClient.getServicePlansById(r.getServicePlanId());
-
-        r.setCustomerFirstName(c.getFirstName());
-        r.setCustomerLastName (c.getLastName());
-        r.setCatalogType      (d.getType());
-        r.setCatalogDescription(d.getDescription());
-        r.setWatchModel       (w.getModel());
-        r.setWatchMaterial    (w.getMaterial());
-        r.setServicePlanCoverageDetails(p.getCoverageDetails());
-        r.setServicePlanExpirationDate(p.getExpirationDate());
+    /** Saves the order; if that fails, gives back the stock that was just moved for it. */
+    private Order saveOrUndoStock(Order order, String watchId, int delta, String stockKey) {
+        try {
+            return orderRepository.save(order);
+        } catch (RuntimeException ex) {
+            productClient.adjustWatchStock(watchId, -delta, stockKey + ":undo");
+            if (ex instanceof DuplicateKeyException) {
+                // lost a race on the unique orderName index, see OrderIndexes
+                throw new DuplicateOrderName(order.getOrderName());
+            }
+            throw ex;
+        }
+    }
+
+    // ────── denormalized snapshot helpers ──────
+
+    /**
+     * An update never changes the order's references, so none of them can fail it: the
+     * snapshot is replaced only when all four are found. A reference that is gone is flagged
+     * and the old snapshot kept; a dependency that is down leaves both as they were.
+     * (Stock moves through the watch on its own and still fails if that watch is gone.)
+     */
+    private void refreshSnapshot(Order o) {
+        try (DownstreamFanOut.Scope scope = fanOut.open()) {
+            DownstreamFanOut.Lookup<CustomerResponseModel>    c = scope.fork("customer",
+                    () -> nullIfNotFound(() -> customerClient.getCustomerbyCustomerId(o.getCustomerIdentifier().getCustomerId())));
+            DownstreamFanOut.Lookup<CatalogResponseModel>     d = scope.fork("catalog",
+                    () -> nullIfNotFound(() -> productClient.getCatalogById(o.getCatalogIdentifier().getCatalogId())));
+            DownstreamFanOut.Lookup<WatchResponseModel>       w = scope.fork("watch",
+                    () -> nullIfNotFound(() -> productClient.getCatalogWatchMetadataByID(o.getWatchIdentifier().getWatchId())));
+            DownstreamFanOut.Lookup<ServicePlanResponseModel> p = scope.fork("servicePlan",
+                    () -> nullIfNotFound(() -> planClient.getServicePlansById(o.getServicePlanIdentifier().getPlanId())));
+            scope.join();
+
+            List<String> missing = new ArrayList<>();
+            if (c.get() == null) missing.add(ReferenceType.CUSTOMER.name());
+            if (d.get() == null) missing.add(ReferenceType.CATALOG.name());
+            if (w.get() == null) missing.add(ReferenceType.WATCH.name());
+            if (p.get() == null) missing.add(ReferenceType.SERVICE_PLAN.name());
+
+            if (missing.isEmpty()) {
+                o.setSnapshot(OrderSnapshots.of(c.get(), d.get(), w.get(), p.get(), LocalDateTime.now()));
+                o.setMissingReferences(null);
+            } else {
+                o.setMissingReferences(missing);
+            }
+        } catch (DownstreamUnavailableException ex) {
+            log.warn("order {} updated with its old snapshot: {}", o.getOrderIdentifier().getOrderId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Builds and stores snapshots for orders that have none. Orders with a reference missing
+     * from the bulk answer are flagged and keep no snapshot; they are never deleted.
+     */
+    private void backfillSnapshots(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        ReferenceBatch refs = ReferenceBatch.fetch(orders, fanOut, customerClient, productClient, planClient);
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, OrderSnapshot> snapshots = new HashMap<>();
+        List<Order> flagged = new ArrayList<>();
+        for (Order o : orders) {
+            OrderSnapshot snapshot = refs.snapshotFor(o, now);
+            if (snapshot == null) {
+                // an empty snapshot would read as fresh: leave it missing for a later read or the refresher
+                o.setMissingReferences(refs.missingFor(o));
+                flagged.add(o);
+                continue;
+            }
+            o.setSnapshot(snapshot);
+            if (o.getId() != null) {
+                snapshots.put(o.getId(), snapshot);
+            }
+        }
+        orderRepository.saveSnapshots(snapshots);
+        orderRepository.saveReferenceStatus(flagged);
+    }
+
+    private static <T> T nullIfNotFound(Supplier<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (NotFoundException ex) {
+            return null;
+        }
     }
 
 }
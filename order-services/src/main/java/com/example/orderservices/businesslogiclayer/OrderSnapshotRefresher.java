@@ -0,0 +1,143 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.dataaccesslayer.Order;
+import com.example.orderservices.dataaccesslayer.OrderRepository;
+import com.example.orderservices.dataaccesslayer.OrderSnapshot;
+import com.example.orderservices.domainclientlayer.CustomerServiceClient;
+import com.example.orderservices.domainclientlayer.ProductServiceClient;
+import com.example.orderservices.domainclientlayer.ServicePlanServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the denormalized {@link OrderSnapshot}s fresh.
+ * <p>
+ * A {@link ReferenceChangedEvent} only flags the affected snapshots as stale (one
+ * {@code updateMulti}); this job then walks stale, missing and expired snapshots in
+ * {@code _id} order, refreshing each batch with one bulk lookup per downstream service
+ * and one bulk write.
+ * <p>
+ * Orders whose references are gone keep their last known snapshot, or stay without one
+ * (and are retried every run) if they never had one; they are never deleted here.
+ */
+@Component
+@Slf4j
+public class OrderSnapshotRefresher {
+
+    private final OrderRepository orderRepository;
+    private final CustomerServiceClient customerClient;
+    private final ProductServiceClient productClient;
+    private final ServicePlanServiceClient planClient;
+    private final DownstreamFanOut fanOut;
+
+    private final int batchSize;
+    private final long maxAgeMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder unresolved = new LongAdder();
+    private final LongAdder markedStale = new LongAdder();
+
+    public OrderSnapshotRefresher(OrderRepository orderRepository,
+                                  CustomerServiceClient customerClient,
+                                  ProductServiceClient productClient,
+                                  ServicePlanServiceClient planClient,
+                                  DownstreamFanOut fanOut,
+                                  @Value("${app.snapshots.batch-size:500}") int batchSize,
+                                  @Value("${app.snapshots.max-age-ms:3600000}") long maxAgeMillis) {
+        this.orderRepository = orderRepository;
+        this.customerClient = customerClient;
+        this.productClient = productClient;
+        this.planClient = planClient;
+        this.fanOut = fanOut;
+        this.batchSize = batchSize;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @EventListener
+    public void onReferenceChanged(ReferenceChangedEvent event) {
+        String path = switch (event.getType()) {
+            case CUSTOMER     -> "customerIdentifier.customerId";
+            case CATALOG      -> "catalogIdentifier.catalogId";
+            case WATCH        -> "watchIdentifier.watchId";
+            case SERVICE_PLAN -> "servicePlanIdentifier.planId";
+        };
+        long count = orderRepository.markSnapshotsStale(path, event.getId());
+        markedStale.add(count);
+        log.debug("{} → {} order snapshot(s) marked stale", event, count);
+    }
+
+    @Scheduled(fixedDelayString = "${app.snapshots.refresh-interval-ms:10000}")
+    public void refreshSnapshots() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime refreshedBefore = LocalDateTime.now().minus(Duration.ofMillis(maxAgeMillis));
+            String afterId = null;
+            List<Order> batch;
+            do {
+                batch = orderRepository.findSnapshotsToRefresh(refreshedBefore, afterId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                refresh(batch);
+                afterId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException ex) {
+            // downstream trouble: leave the rest flagged, the next run picks it up
+            log.warn("snapshot refresh aborted: {}", ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    void refresh(List<Order> batch) {
+        ReferenceBatch refs = ReferenceBatch.fetch(batch, fanOut, customerClient, productClient, planClient);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, OrderSnapshot> snapshots = new HashMap<>();
+        for (Order o : batch) {
+            OrderSnapshot snapshot = refs.snapshotFor(o, now);
+            if (snapshot == null) {
+                unresolved.increment();
+                if (o.getSnapshot() == null) {
+                    // nothing known yet: an empty snapshot would read as fresh, so leave it missing
+                    continue;
+                }
+                // keep what we last knew; just stop re-checking it until the next max-age pass
+                snapshot = o.getSnapshot();
+                snapshot.setRefreshedAt(now);
+                snapshot.setStale(false);
+            } else {
+                refreshed.increment();
+            }
+            snapshots.put(o.getId(), snapshot);
+        }
+        orderRepository.saveSnapshots(snapshots);
+    }
+
+    public long getRefreshedCount() {
+        return refreshed.sum();
+    }
+
+    public long getUnresolvedCount() {
+        return unresolved.sum();
+    }
+
+    public long getMarkedStaleCount() {
+        return markedStale.sum();
+    }
+}
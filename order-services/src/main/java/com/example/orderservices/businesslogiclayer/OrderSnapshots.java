@@ -0,0 +1,65 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.dataaccesslayer.Order;
+import com.example.orderservices.dataaccesslayer.OrderSnapshot;
+import com.example.orderservices.presentationlayer.OrderResponseModel;
+import com.example.orderservices.presentationlayer.customerdtos.CustomerResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.catalogdtos.CatalogResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchResponseModel;
+import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+
+import java.time.LocalDateTime;
+
+/** Building order snapshots from downstream models, and copying them (plus reference flags) onto responses. */
+final class OrderSnapshots {
+
+    private OrderSnapshots() {
+    }
+
+    static OrderSnapshot of(CustomerResponseModel c,
+                            CatalogResponseModel d,
+                            WatchResponseModel w,
+                            ServicePlanResponseModel p,
+                            LocalDateTime refreshedAt) {
+        OrderSnapshot s = new OrderSnapshot();
+        if (c != null) {
+            s.setCustomerFirstName(c.getFirstName());
+            s.setCustomerLastName (c.getLastName());
+        }
+        if (d != null) {
+            s.setCatalogType       (d.getType());
+            s.setCatalogDescription(d.getDescription());
+        }
+        if (w != null) {
+            s.setWatchModel   (w.getModel());
+            s.setWatchMaterial(w.getMaterial());
+        }
+        if (p != null) {
+            s.setServicePlanCoverageDetails(p.getCoverageDetails());
+            s.setServicePlanExpirationDate (p.getExpirationDate());
+        }
+        s.setRefreshedAt(refreshedAt);
+        s.setStale(false);
+        return s;
+    }
+
+    static void applyTo(OrderResponseModel r, Order o) {
+        r.setMissingReferences(o.getMissingReferences() == null || o.getMissingReferences().isEmpty()
+                ? null
+                : o.getMissingReferences());
+
+        OrderSnapshot s = o.getSnapshot();
+        if (s == null) {
+            return;
+        }
+        r.setCustomerFirstName(s.getCustomerFirstName());
+        r.setCustomerLastName (s.getCustomerLastName());
+        r.setCatalogType      (s.getCatalogType());
+        r.setCatalogDescription(s.getCatalogDescription());
+        r.setWatchModel       (s.getWatchModel());
+        r.setWatchMaterial    (s.getWatchMaterial());
+        r.setServicePlanCoverageDetails(s.getServicePlanCoverageDetails());
+        r.setServicePlanExpirationDate(s.getServicePlanExpirationDate());
+    }
+}
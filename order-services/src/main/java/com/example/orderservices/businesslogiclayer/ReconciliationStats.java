@@ -0,0 +1,27 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ReconciliationStats {
+
+    private long ordersScanned;
+    private long batches;
+    private long quarantined;
+    private long released;
+    private long failedRuns;
+    private LocalDateTime lastRunStartedAt;
+    private LocalDateTime lastCompletedAt;
+    private long lastRunMillis;
+    private double lastRunOrdersPerSecond;
+    // time since the last complete pass; -1 until one has finished
+    private long lagMillis;
+    private String lastError;
+}
@@ -0,0 +1,121 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.dataaccesslayer.Order;
+import com.example.orderservices.dataaccesslayer.OrderSnapshot;
+import com.example.orderservices.domainclientlayer.CustomerServiceClient;
+import com.example.orderservices.domainclientlayer.ProductServiceClient;
+import com.example.orderservices.domainclientlayer.ServicePlanServiceClient;
+import com.example.orderservices.presentationlayer.customerdtos.CustomerResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.catalogdtos.CatalogResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchResponseModel;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
+import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Everything a batch of orders points to, fetched with one bulk call per downstream
+ * service (all four in flight at once) instead of four calls per order.
+ */
+final class ReferenceBatch {
+
+    private final Map<String, CustomerResponseModel>    customers;
+    private final Map<String, CatalogResponseModel>     catalogs;
+    private final Map<String, WatchResponseModel>       watches;
+    private final Map<String, ServicePlanResponseModel> plans;
+
+    private ReferenceBatch(Map<String, CustomerResponseModel> customers,
+                           Map<String, CatalogResponseModel> catalogs,
+                           Map<String, WatchResponseModel> watches,
+                           Map<String, ServicePlanResponseModel> plans) {
+        this.customers = customers;
+        this.catalogs = catalogs;
+        this.watches = watches;
+        this.plans = plans;
+    }
+
+    static ReferenceBatch fetch(Collection<Order> orders,
+                                DownstreamFanOut fanOut,
+                                CustomerServiceClient customerClient,
+                                ProductServiceClient productClient,
+                                ServicePlanServiceClient planClient) {
+        // 1) collect the distinct references across the whole batch
+        Set<String> customerIds = new HashSet<>();
+        Set<String> catalogIds  = new HashSet<>();
+        Set<String> watchIds    = new HashSet<>();
+        Set<String> planIds     = new HashSet<>();
+        for (Order o : orders) {
+            customerIds.add(o.getCustomerIdentifier().getCustomerId());
+            catalogIds .add(o.getCatalogIdentifier().getCatalogId());
+            watchIds   .add(o.getWatchIdentifier().getWatchId());
+            planIds    .add(o.getServicePlanIdentifier().getPlanId());
+        }
+
+        // 2) one bulk call per downstream service
+        try (DownstreamFanOut.Scope scope = fanOut.open()) {
+            DownstreamFanOut.Lookup<List<CustomerResponseModel>> cs =
+                    scope.fork("customers", () -> customerClient.getCustomersByCustomerIds(customerIds));
+            DownstreamFanOut.Lookup<List<CatalogResponseModel>> ds =
+                    scope.fork("catalogs", () -> productClient.getCatalogsByIds(catalogIds));
+            DownstreamFanOut.Lookup<List<WatchResponseModel>> ws =
+                    scope.fork("watches", () -> productClient.getCatalogWatchesByIds(watchIds));
+            DownstreamFanOut.Lookup<List<ServicePlanResponseModel>> ps =
+                    scope.fork("plans", () -> planClient.getServicePlansByIds(planIds));
+            scope.join();
+
+            return new ReferenceBatch(
+                    indexBy(cs.get(), CustomerResponseModel::getCustomerId),
+                    indexBy(ds.get(), CatalogResponseModel::getCatalogId),
+                    indexBy(ws.get(), WatchResponseModel::getWatchId),
+                    indexBy(ps.get(), ServicePlanResponseModel::getPlanId));
+        }
+    }
+
+    /** Fresh snapshot for {@code o}, or {@code null} when any of its references is missing. */
+    OrderSnapshot snapshotFor(Order o, LocalDateTime now) {
+        CustomerResponseModel    c = customers.get(o.getCustomerIdentifier().getCustomerId());
+        CatalogResponseModel     d = catalogs .get(o.getCatalogIdentifier().getCatalogId());
+        WatchResponseModel       w = watches  .get(o.getWatchIdentifier().getWatchId());
+        ServicePlanResponseModel p = plans    .get(o.getServicePlanIdentifier().getPlanId());
+
+        if (c == null || d == null || w == null || p == null) {
+            return null;
+        }
+        return OrderSnapshots.of(c, d, w, p, now);
+    }
+
+    /** Names of the references of {@code o} this batch could not resolve; empty when all are there. */
+    List<String> missingFor(Order o) {
+        List<String> missing = new ArrayList<>();
+        if (!customers.containsKey(o.getCustomerIdentifier().getCustomerId())) {
+            missing.add(ReferenceType.CUSTOMER.name());
+        }
+        if (!catalogs.containsKey(o.getCatalogIdentifier().getCatalogId())) {
+            missing.add(ReferenceType.CATALOG.name());
+        }
+        if (!watches.containsKey(o.getWatchIdentifier().getWatchId())) {
+            missing.add(ReferenceType.WATCH.name());
+        }
+        if (!plans.containsKey(o.getServicePlanIdentifier().getPlanId())) {
+            missing.add(ReferenceType.SERVICE_PLAN.name());
+        }
+        return missing;
+    }
+
+    private static <T> Map<String, T> indexBy(List<T> items, Function<T, String> key) {
+        Map<String, T> index = new HashMap<>();
+        for (T item : items) {
+            index.putIfAbsent(key.apply(item), item);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.domainclientlayer.NearCacheStats;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceChangeRequestModel;
+
+import java.util.List;
+
+public interface ReferenceChangeService {
+
+    void referenceChanged(ReferenceChangeRequestModel referenceChangeRequestModel);
+
+    List<NearCacheStats> getCacheStats();
+
+    ReconciliationStats getReconciliationStats();
+}
@@ -0,0 +1,54 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.domainclientlayer.NearCacheRegistry;
+import com.example.orderservices.domainclientlayer.NearCacheStats;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceChangeRequestModel;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceChangeType;
+import com.example.orderservices.utils.InvalidInputException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+public class ReferenceChangeServiceImpl implements ReferenceChangeService {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final NearCacheRegistry nearCacheRegistry;
+    private final OrderReconciliationSweeper reconciliationSweeper;
+
+    public ReferenceChangeServiceImpl(ApplicationEventPublisher eventPublisher,
+                                      NearCacheRegistry nearCacheRegistry,
+                                      OrderReconciliationSweeper reconciliationSweeper) {
+        this.eventPublisher = eventPublisher;
+        this.nearCacheRegistry = nearCacheRegistry;
+        this.reconciliationSweeper = reconciliationSweeper;
+    }
+
+    @Override
+    public void referenceChanged(ReferenceChangeRequestModel req) {
+        if (req == null || req.getType() == null) {
+            throw new InvalidInputException("type is required");
+        }
+        if (req.getId() == null || req.getId().isBlank()) {
+            throw new InvalidInputException("id is required");
+        }
+
+        ReferenceChangeType change = req.getChange() != null ? req.getChange() : ReferenceChangeType.UPDATED;
+        log.debug("{} {} was {}", req.getType(), req.getId(), change);
+        eventPublisher.publishEvent(new ReferenceChangedEvent(req.getType(), req.getId(), change));
+    }
+
+    @Override
+    public List<NearCacheStats> getCacheStats() {
+        return nearCacheRegistry.stats();
+    }
+
+    @Override
+    public ReconciliationStats getReconciliationStats() {
+        return reconciliationSweeper.stats();
+    }
+}
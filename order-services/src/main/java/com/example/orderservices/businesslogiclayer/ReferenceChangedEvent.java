@@ -0,0 +1,22 @@
+package com.example.orderservices.businesslogiclayer;
+
+
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceChangeType;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published in-process whenever customer-, product- or servicePlan-services report that
+ * one of the entities an order points to was updated or deleted.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ReferenceChangedEvent {
+
+    private final ReferenceType type;
+    private final String id;
+    private final ReferenceChangeType change;
+}
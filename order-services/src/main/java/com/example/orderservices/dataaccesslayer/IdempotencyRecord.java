@@ -0,0 +1,38 @@
+package com.example.orderservices.dataaccesslayer;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a request sent with an {@code Idempotency-Key}. Documents expire through a
+ * TTL index on {@code createdAt} (see {@link IdempotencyRecordRepositoryCustomImpl}).
+ */
+@Data
+@Builder
+@Document(collection = "idempotency_records")
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    private String key;
+
+    // SHA-256 of the request body; the same key with another body is rejected
+    private String requestHash;
+
+    private IdempotencyStatus status;
+
+    // the response exactly as first returned, replayed as-is
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+
+    // when the current IN_PROGRESS owner claimed the key
+    private LocalDateTime lockedAt;
+
+    // new on every claim, kept by a takeover; the order's stock key is derived from it
+    private String attemptId;
+}
@@ -0,0 +1,14 @@
+package com.example.orderservices.dataaccesslayer;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepositoryCustom {
+
+    /** Inserts an IN_PROGRESS record; {@code false} if the key is already taken. */
+    boolean claim(String key, String requestHash, String attemptId, LocalDateTime now);
+
+    /** Takes over an IN_PROGRESS record whose owner locked it before {@code lockedBefore}. */
+    boolean takeOver(String key, LocalDateTime lockedBefore, LocalDateTime now);
+
+    void complete(String key, String responseBody);
+}
@@ -0,0 +1,63 @@
+package com.example.orderservices.dataaccesslayer;
+
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class IdempotencyRecordRepositoryCustomImpl implements IdempotencyRecordRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public IdempotencyRecordRepositoryCustomImpl(MongoTemplate mongoTemplate,
+                                                 @Value("${app.idempotency.ttl-hours:24}") long ttlHours) {
+        this.mongoTemplate = mongoTemplate;
+        // Mongo drops records on its own once they are older than the TTL
+        mongoTemplate.indexOps(IdempotencyRecord.class).ensureIndex(
+                new Index().on("createdAt", Sort.Direction.ASC).expire(Duration.ofHours(ttlHours)));
+    }
+
+    @Override
+    public boolean claim(String key, String requestHash, String attemptId, LocalDateTime now) {
+        try {
+            mongoTemplate.insert(IdempotencyRecord.builder()
+                    .key(key)
+                    .requestHash(requestHash)
+                    .status(IdempotencyStatus.IN_PROGRESS)
+                    .createdAt(now)
+                    .lockedAt(now)
+                    .attemptId(attemptId)
+                    .build());
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean takeOver(String key, LocalDateTime lockedBefore, LocalDateTime now) {
+        Query query = Query.query(where("_id").is(key)
+                .and("status").is(IdempotencyStatus.IN_PROGRESS)
+                .and("lockedAt").lt(lockedBefore));
+        return mongoTemplate.updateFirst(query, Update.update("lockedAt", now), IdempotencyRecord.class)
+                .getModifiedCount() == 1;
+    }
+
+    @Override
+    public void complete(String key, String responseBody) {
+        mongoTemplate.updateFirst(Query.query(where("_id").is(key)),
+                new Update()
+                        .set("status", IdempotencyStatus.COMPLETED)
+                        .set("responseBody", responseBody),
+                IdempotencyRecord.class);
+    }
+}
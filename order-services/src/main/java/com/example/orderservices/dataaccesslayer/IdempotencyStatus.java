@@ -0,0 +1,7 @@
+package com.example.orderservices.dataaccesslayer;
+
+public enum IdempotencyStatus {
+
+    IN_PROGRESS,
+    COMPLETED
+}
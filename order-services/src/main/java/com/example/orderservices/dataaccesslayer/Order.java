@@ -2,15 +2,32 @@ package com.example.orderservices.dataaccesslayer;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 
 @Data
 @Builder
 @Document(collection = "orders")
+// created at startup and checked against every finder by OrderIndexes.
+// Listing indexes end in the keyset sort (orderDate desc, _id desc), see findPage.
+@CompoundIndexes({
+        @CompoundIndex(name = "orderId_unique", def = "{'orderIdentifier.orderId': 1}", unique = true),
+        @CompoundIndex(name = "watch_status", def = "{'watchIdentifier.watchId': 1, 'orderStatus': 1}"),
+        @CompoundIndex(name = "orderDate_id", def = "{'orderDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "customer_orderDate_id", def = "{'customerIdentifier.customerId': 1, 'orderDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "watch_orderDate_id", def = "{'watchIdentifier.watchId': 1, 'orderDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_orderDate_id", def = "{'orderStatus': 1, 'orderDate': -1, '_id': -1}"),
+        // markSnapshotsStale; customer and watch changes are served by the indexes above
+        @CompoundIndex(name = "catalogId", def = "{'catalogIdentifier.catalogId': 1}"),
+        @CompoundIndex(name = "planId", def = "{'servicePlanIdentifier.planId': 1}")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
@@ -23,6 +40,7 @@ public class Order {
 
     private OrderIdentifier orderIdentifier;
 
+    @Indexed(name = "orderName_unique", unique = true, sparse = true)
     private String orderName;
 
 
@@ -49,4 +67,14 @@ public class Order {
 
     private LocalDateTime orderDate;
 
+
+    private OrderSnapshot snapshot;
+
+
+    // flagged by reads and by the reconciliation sweeper, see OrderReconciliationSweeper
+    private List<String> missingReferences;
+
+    // set once the sweeper confirmed a dangling reference; quarantined orders are left out of listings
+    private LocalDateTime quarantinedAt;
+
 }
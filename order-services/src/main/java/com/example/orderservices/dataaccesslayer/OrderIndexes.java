@@ -0,0 +1,150 @@
+package com.example.orderservices.dataaccesslayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on {@link Order} at startup and then asks Mongo, through
+ * {@code explain}, how it would run the query behind each {@link OrderRepository} finder.
+ * A finder whose winning plan is a collection scan means an index is missing or was not
+ * built; with {@code app.mongo.fail-on-collscan} (the default) startup stops right there
+ * instead of degrading silently as the collection grows.
+ */
+@Component
+@Slf4j
+public class OrderIndexes {
+
+    // same shape as the query each finder sends; the values themselves do not matter to the planner
+    private static final List<QueryShape> FINDERS = List.of(
+            new QueryShape("findOrderByOrderIdentifier_OrderId / existsByOrderIdentifier_OrderId",
+                    new Document("orderIdentifier.orderId", "x"), null),
+            new QueryShape("existsByOrderName",
+                    new Document("orderName", "x"), null),
+            new QueryShape("existsByWatchIdentifier_WatchId",
+                    new Document("watchIdentifier.watchId", "x"), null),
+            new QueryShape("existsByWatchIdentifier_WatchIdAndOrderStatus",
+                    new Document("watchIdentifier.watchId", "x").append("orderStatus", OrderStatus.PURCHASE_COMPLETED.name()), null),
+            new QueryShape("findPage",
+                    new Document("quarantinedAt", null), QueryShape.KEYSET_SORT),
+            new QueryShape("findPage(customerId)",
+                    new Document("quarantinedAt", null).append("customerIdentifier.customerId", "x"), QueryShape.KEYSET_SORT),
+            new QueryShape("findPage(watchId)",
+                    new Document("quarantinedAt", null).append("watchIdentifier.watchId", "x"), QueryShape.KEYSET_SORT),
+            new QueryShape("findPage(status)",
+                    new Document("quarantinedAt", null).append("orderStatus", OrderStatus.PURCHASE_COMPLETED.name()), QueryShape.KEYSET_SORT),
+            new QueryShape("markSnapshotsStale(customer)",
+                    staleSnapshots("customerIdentifier.customerId"), null),
+            new QueryShape("markSnapshotsStale(catalog)",
+                    staleSnapshots("catalogIdentifier.catalogId"), null),
+            new QueryShape("markSnapshotsStale(watch)",
+                    staleSnapshots("watchIdentifier.watchId"), null),
+            new QueryShape("markSnapshotsStale(servicePlan)",
+                    staleSnapshots("servicePlanIdentifier.planId"), null)
+    );
+
+    private static Document staleSnapshots(String referencePath) {
+        return new Document(referencePath, "x").append("snapshot", new Document("$ne", null));
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean failOnCollectionScan;
+
+    public OrderIndexes(MongoTemplate mongoTemplate,
+                        @Value("${app.mongo.fail-on-collscan:true}") boolean failOnCollectionScan) {
+        this.mongoTemplate = mongoTemplate;
+        this.failOnCollectionScan = failOnCollectionScan;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        ensureIndexes();
+
+        List<String> scans = findCollectionScans();
+        if (scans.isEmpty()) {
+            log.info("order indexes in place, no finder needs a collection scan");
+            return;
+        }
+        if (failOnCollectionScan) {
+            throw new IllegalStateException("orders finders would run a COLLSCAN: " + scans);
+        }
+        log.warn("orders finders would run a COLLSCAN: {}", scans);
+    }
+
+    /** Creates every index declared on {@link Order} that does not exist yet. */
+    public void ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations indexOps = mongoTemplate.indexOps(Order.class);
+        for (IndexDefinition index : resolver.resolveIndexFor(Order.class)) {
+            try {
+                indexOps.ensureIndex(index);
+            } catch (DataAccessException ex) {
+                // e.g. duplicates already stored under a unique key; the plan check reports what is missing
+                log.error("could not create index {} on orders: {}", index.getIndexKeys(), ex.getMessage());
+            }
+        }
+    }
+
+    /** Finders whose winning plan contains a {@code COLLSCAN} stage. */
+    public List<String> findCollectionScans() {
+        List<String> scans = new ArrayList<>();
+        for (QueryShape finder : FINDERS) {
+            Document find = new Document("find", mongoTemplate.getCollectionName(Order.class))
+                    .append("filter", finder.filter)
+                    .append("limit", 1);
+            if (finder.sort != null) {
+                find.append("sort", finder.sort);
+            }
+            Document explain = mongoTemplate.executeCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+
+            Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+            if (containsCollectionScan(winningPlan)) {
+                scans.add(finder.finder);
+            }
+        }
+        return scans;
+    }
+
+    // plans nest their stages (inputStage, inputStages, queryPlan, ...), so look everywhere
+    private static boolean containsCollectionScan(Object node) {
+        if (node instanceof Document doc) {
+            if ("COLLSCAN".equals(doc.get("stage"))) {
+                return true;
+            }
+            return doc.values().stream().anyMatch(OrderIndexes::containsCollectionScan);
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(OrderIndexes::containsCollectionScan);
+        }
+        return false;
+    }
+
+    private static final class QueryShape {
+
+        private static final Document KEYSET_SORT = new Document("orderDate", -1).append("_id", -1);
+
+        private final String finder;
+        private final Document filter;
+        private final Document sort;
+
+        private QueryShape(String finder, Document filter, Document sort) {
+            this.finder = finder;
+            this.filter = filter;
+            this.sort = sort;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.orderservices.dataaccesslayer;
+
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One page of the order listing: optional filters plus the keyset position of the last
+ * order of the previous page ({@code afterId} null on the first page).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class OrderPageQuery {
+
+    private String customerId;
+    private String watchId;
+    private OrderStatus orderStatus;
+    // inclusive lower / exclusive upper bound on orderDate
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    private LocalDateTime afterOrderDate;
+    private String afterId;
+
+    private int limit;
+}
@@ -3,7 +3,7 @@ package com.example.orderservices.dataaccesslayer;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface OrderRepository extends MongoRepository<Order, Integer> {
+public interface OrderRepository extends MongoRepository<Order, Integer>, OrderRepositoryCustom {
 
     Order findOrderByOrderIdentifier_OrderId(String orderId);
 
@@ -0,0 +1,43 @@
+package com.example.orderservices.dataaccesslayer;
+
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Flags the snapshot of every order whose {@code referencePath} (e.g.
+     * {@code "customerIdentifier.customerId"}) equals {@code referenceId} as stale.
+     */
+    long markSnapshotsStale(String referencePath, String referenceId);
+
+    /**
+     * Next batch of orders whose snapshot is missing, stale or refreshed before
+     * {@code refreshedBefore}, in {@code _id} order starting after {@code afterId}.
+     */
+    List<Order> findSnapshotsToRefresh(LocalDateTime refreshedBefore, String afterId, int limit);
+
+    /** Writes the given snapshots, keyed by order document id, in one bulk round trip. */
+    void saveSnapshots(Map<String, OrderSnapshot> snapshotsById);
+
+    /** Next batch of all orders (quarantined ones included) in {@code _id} order starting after {@code afterId}. */
+    List<Order> findReconciliationBatch(String afterId, int limit);
+
+    /** Writes {@code missingReferences} and {@code quarantinedAt} of the given orders in one bulk round trip. */
+    void saveReferenceStatus(List<Order> orders);
+
+    /**
+     * One page of non-quarantined orders matching {@code query}, newest first
+     * ({@code orderDate} desc, then {@code _id} desc), starting right after the query's keyset position.
+     */
+    List<Order> findPage(OrderPageQuery query);
+
+    /**
+     * All non-quarantined orders in {@code _id} order, read lazily from one server-side
+     * cursor {@code batchSize} documents at a time. The stream must be closed.
+     */
+    Stream<Order> streamForExport(int batchSize);
+}
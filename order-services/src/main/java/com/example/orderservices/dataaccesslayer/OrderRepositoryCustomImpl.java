@@ -0,0 +1,131 @@
+package com.example.orderservices.dataaccesslayer;
+
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public OrderRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long markSnapshotsStale(String referencePath, String referenceId) {
+        Query query = Query.query(where(referencePath).is(referenceId).and("snapshot").ne(null));
+        return mongoTemplate.updateMulti(query, Update.update("snapshot.stale", true), Order.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public List<Order> findSnapshotsToRefresh(LocalDateTime refreshedBefore, String afterId, int limit) {
+        Criteria due = new Criteria().orOperator(
+                where("snapshot").is(null),
+                where("snapshot.stale").is(true),
+                where("snapshot.refreshedAt").lt(refreshedBefore)
+        );
+        Criteria criteria = afterId == null
+                ? due
+                : new Criteria().andOperator(where("_id").gt(afterId), due);
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public void saveSnapshots(Map<String, OrderSnapshot> snapshotsById) {
+        if (snapshotsById.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        snapshotsById.forEach((id, snapshot) ->
+                bulk.updateOne(Query.query(where("_id").is(id)), Update.update("snapshot", snapshot)));
+        bulk.execute();
+    }
+
+    @Override
+    public List<Order> findReconciliationBatch(String afterId, int limit) {
+        Query query = afterId == null ? new Query() : Query.query(where("_id").gt(afterId));
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public void saveReferenceStatus(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        for (Order o : orders) {
+            bulk.updateOne(Query.query(where("_id").is(o.getId())), new Update()
+                    .set("missingReferences", o.getMissingReferences())
+                    .set("quarantinedAt", o.getQuarantinedAt()));
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public List<Order> findPage(OrderPageQuery query) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(where("quarantinedAt").is(null));
+        if (query.getCustomerId() != null) {
+            criteria.add(where("customerIdentifier.customerId").is(query.getCustomerId()));
+        }
+        if (query.getWatchId() != null) {
+            criteria.add(where("watchIdentifier.watchId").is(query.getWatchId()));
+        }
+        if (query.getOrderStatus() != null) {
+            criteria.add(where("orderStatus").is(query.getOrderStatus()));
+        }
+        if (query.getFrom() != null) {
+            criteria.add(where("orderDate").gte(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            criteria.add(where("orderDate").lt(query.getTo()));
+        }
+        if (query.getAfterId() != null) {
+            criteria.add(after(query.getAfterOrderDate(), query.getAfterId()));
+        }
+
+        Query q = Query.query(new Criteria().andOperator(criteria))
+                .with(Sort.by(Sort.Direction.DESC, "orderDate", "_id"))
+                .limit(query.getLimit());
+        return mongoTemplate.find(q, Order.class);
+    }
+
+    // everything that sorts after (orderDate, id) in orderDate desc, _id desc order; orders without a date come last
+    private static Criteria after(LocalDateTime orderDate, String id) {
+        if (orderDate == null) {
+            return new Criteria().andOperator(where("orderDate").is(null), where("_id").lt(id));
+        }
+        return new Criteria().orOperator(
+                where("orderDate").lt(orderDate),
+                new Criteria().andOperator(where("orderDate").is(orderDate), where("_id").lt(id)),
+                where("orderDate").is(null)
+        );
+    }
+
+    @Override
+    public Stream<Order> streamForExport(int batchSize) {
+        Query query = Query.query(where("quarantinedAt").is(null))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Order.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.orderservices.dataaccesslayer;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copy of the customer, catalog, watch and service-plan fields an order is displayed with,
+ * stored on the order itself so reads do not have to call the owning services.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSnapshot {
+
+    private String customerFirstName;
+    private String customerLastName;
+
+    private String catalogType;
+    private String catalogDescription;
+
+    private String watchModel;
+    private String watchMaterial;
+
+    private String servicePlanCoverageDetails;
+    private LocalDate servicePlanExpirationDate;
+
+    private LocalDateTime refreshedAt;
+
+    // set when one of the referenced entities reported a change, cleared on refresh
+    private boolean stale;
+}
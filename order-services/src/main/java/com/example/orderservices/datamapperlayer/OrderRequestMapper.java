@@ -29,5 +29,6 @@ public interface OrderRequestMapper {
     @Mapping(target = "orderDate",    ignore = true)
     @Mapping(target = "price",        ignore = true)
     @Mapping(target = "currency",     ignore = true)
+    @Mapping(target = "snapshot",     ignore = true)
     Order requestModelToEntity(OrderRequestModel dto);
 }
@@ -54,6 +54,7 @@ public interface OrderResponseMapper {
     @Mapping(target = "watchMaterial",            ignore = true)
     @Mapping(target = "servicePlanCoverageDetails", ignore = true)
     @Mapping(target = "servicePlanExpirationDate",  ignore = true)
+    @Mapping(target = "missingReferences",          ignore = true)
 
     OrderResponseModel entityToResponseModel(Order order);
 
@@ -2,6 +2,7 @@ package com.example.orderservices.domainclientlayer;
 
 
 import com.example.orderservices.presentationlayer.customerdtos.CustomerResponseModel;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
 import com.example.orderservices.utils.HttpErrorInfo;
 import com.example.orderservices.utils.InvalidInputException;
 import com.example.orderservices.utils.NotFoundException;
@@ -9,6 +10,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -16,6 +18,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Component
@@ -29,8 +33,17 @@ public class CustomerServiceClient {
 
     private final String CUSTOMER_SERVICE_BASE_URL;
 
+    // names change rarely and customer-services tells us when they do
+    private final NearCache<String, CustomerResponseModel> customerCache;
+    private final DownstreamGuard guard;
+    private final Hedger hedger;
+
     private CustomerServiceClient(RestTemplate restTemplate,
                                   ObjectMapper objectMapper,
+                                  NearCacheRegistry nearCacheRegistry,
+                                  DownstreamGuardRegistry downstreamGuardRegistry,
+                                  HedgingRegistry hedgingRegistry,
+                                  LoadBalancerRegistry loadBalancerRegistry,
                                   @Value("${app.customer-services.host}") String customerServicesHost,
                                   @Value("${app.customer-services.port}") String customerServicesPort) {
 
@@ -38,6 +51,10 @@ public class CustomerServiceClient {
         this.objectMapper = objectMapper;
         this.CUSTOMER_SERVICE_BASE_URL = "http://" +
                 customerServicesHost+":"+customerServicesPort+"/api/v1/customers";
+        this.customerCache = nearCacheRegistry.register(ReferenceType.CUSTOMER, 10_000, 60_000);
+        this.guard = downstreamGuardRegistry.register("customer-services");
+        this.hedger = hedgingRegistry.register("customer-services");
+        loadBalancerRegistry.register("customer-services", customerServicesHost, customerServicesPort, "/api/v1/customers");
     }
 
 
@@ -55,11 +72,22 @@ public class CustomerServiceClient {
 //    }
 
     public CustomerResponseModel getCustomerbyCustomerId(String customerId) {
+        return customerCache.get(customerId, this::fetchCustomer);
+    }
+
+    public List<CustomerResponseModel> getCustomersByCustomerIds(Collection<String> customerIds) {
+        if (customerIds == null || customerIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return customerCache.getAll(customerIds, this::fetchCustomers, CustomerResponseModel::getCustomerId);
+    }
+
+    private CustomerResponseModel fetchCustomer(String customerId) {
         try {
-            return restTemplate.getForObject(
+            return hedger.call("getCustomerbyCustomerId", () -> guard.call(() -> restTemplate.getForObject(
                     CUSTOMER_SERVICE_BASE_URL + "/" + customerId,
                     CustomerResponseModel.class
-            );
+            )));
         } catch (HttpClientErrorException.NotFound nf) {
             log.debug("Customer {} not found → returning null", customerId);
             return null;
@@ -68,6 +96,20 @@ public class CustomerServiceClient {
         }
     }
 
+    private List<CustomerResponseModel> fetchCustomers(Collection<String> customerIds) {
+        try {
+            List<CustomerResponseModel> customers = guard.call(() -> restTemplate.exchange(
+                    CUSTOMER_SERVICE_BASE_URL + "/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new ArrayList<>(customerIds)),
+                    new ParameterizedTypeReference<List<CustomerResponseModel>>() {}
+            ).getBody());
+            return customers != null ? customers : new ArrayList<>();
+        } catch (HttpClientErrorException e) {
+            throw handleHttpClientException(e);
+        }
+    }
+
 //    public CustomerResponseModel addCustomer(CustomerRequestModel newCustomerData) {
 //
 ////        if(newCustomerData == null || newCustomerData == isEM) {
@@ -0,0 +1,113 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import com.example.orderservices.utils.DownstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker plus bulkhead in front of one downstream service.
+ * <p>
+ * At most {@code maxConcurrent} calls are on the wire at once; a caller that cannot get a slot
+ * within {@code maxWaitMillis} is turned away instead of queueing behind a slow dependency.
+ * Connection errors, timeouts and 5xx answers count as failures for the {@link CircuitBreaker}
+ * and come out as {@link DownstreamUnavailableException} (503), as do both kinds of rejection.
+ * 4xx answers are the caller's problem, not the service's, and count as successes.
+ */
+@Slf4j
+public class DownstreamGuard {
+
+    private final String name;
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejectedByBreaker = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+
+    public DownstreamGuard(String name, boolean enabled, int maxConcurrent, long maxWaitMillis, CircuitBreaker breaker) {
+        this.name = name;
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = maxWaitMillis;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.breaker = breaker;
+    }
+
+    public <T> T call(Supplier<T> downstreamCall) {
+        if (!enabled) {
+            return downstreamCall.get();
+        }
+
+        if (!breaker.tryAcquirePermission()) {
+            rejectedByBreaker.increment();
+            throw new DownstreamUnavailableException(name + " circuit breaker is open");
+        }
+        if (!acquireSlot()) {
+            breaker.releasePermission();
+            rejectedByBulkhead.increment();
+            throw new DownstreamUnavailableException(name + " bulkhead is full (" + maxConcurrent + " calls in flight)");
+        }
+
+        calls.increment();
+        try {
+            T result = downstreamCall.get();
+            breaker.onSuccess();
+            return result;
+        } catch (ResourceAccessException | HttpServerErrorException ex) {
+            if (Thread.currentThread().isInterrupted()) {
+                // cancelled by DownstreamFanOut, says nothing about the service
+                breaker.releasePermission();
+                throw ex;
+            }
+            failures.increment();
+            breaker.onFailure();
+            log.debug("{} call failed: {}", name, ex.toString());
+            throw new DownstreamUnavailableException(name + " is unavailable", ex);
+        } catch (RuntimeException ex) {
+            breaker.onSuccess();
+            throw ex;
+        } catch (Error err) {
+            breaker.releasePermission();
+            throw err;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public DownstreamGuardStats stats() {
+        return DownstreamGuardStats.builder()
+                .name(name)
+                .enabled(enabled)
+                .state(breaker.getState().name())
+                .failureRate(breaker.getFailureRate())
+                .bufferedCalls(breaker.getBufferedCalls())
+                .inFlight(maxConcurrent - bulkhead.availablePermits())
+                .maxConcurrent(maxConcurrent)
+                .calls(calls.sum())
+                .failures(failures.sum())
+                .rejectedByBreaker(rejectedByBreaker.sum())
+                .rejectedByBulkhead(rejectedByBulkhead.sum())
+                .timesOpened(breaker.getTimesOpened())
+                .build();
+    }
+}
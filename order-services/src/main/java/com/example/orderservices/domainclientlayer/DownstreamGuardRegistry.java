@@ -0,0 +1,61 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns one {@link DownstreamGuard} per downstream service. {@code app.downstream.enabled}
+ * switches breakers and bulkheads off everywhere, {@code app.downstream.<service>.enabled}
+ * for one service. {@code max-concurrent}, {@code max-wait-ms}, {@code window-size},
+ * {@code minimum-calls}, {@code failure-rate-threshold}, {@code open-ms} and
+ * {@code half-open-probes} are read under {@code app.downstream.<service>.} first and
+ * {@code app.downstream.} after that.
+ */
+@Component
+@Slf4j
+public class DownstreamGuardRegistry {
+
+    private final Environment environment;
+    private final Map<String, DownstreamGuard> guards = new LinkedHashMap<>();
+
+    public DownstreamGuardRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    public synchronized DownstreamGuard register(String service) {
+        boolean enabled = environment.getProperty("app.downstream.enabled", Boolean.class, true)
+                && environment.getProperty("app.downstream." + service + ".enabled", Boolean.class, true);
+        int maxConcurrent = setting(service, "max-concurrent", Integer.class, 32);
+        long maxWaitMillis = setting(service, "max-wait-ms", Long.class, 100L);
+        int windowSize = setting(service, "window-size", Integer.class, 20);
+        int minimumCalls = setting(service, "minimum-calls", Integer.class, 10);
+        int failureRateThreshold = setting(service, "failure-rate-threshold", Integer.class, 50);
+        long openMillis = setting(service, "open-ms", Long.class, 10_000L);
+        int halfOpenProbes = setting(service, "half-open-probes", Integer.class, 3);
+
+        DownstreamGuard guard = new DownstreamGuard(service, enabled, maxConcurrent, maxWaitMillis,
+                new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openMillis, halfOpenProbes));
+        guards.put(service, guard);
+        log.info("downstream guard {}: {} ({} concurrent, opens at {}% of {} calls for {} ms)",
+                service, enabled ? "on" : "off", maxConcurrent, failureRateThreshold, windowSize, openMillis);
+        return guard;
+    }
+
+    public synchronized List<DownstreamGuardStats> stats() {
+        List<DownstreamGuardStats> stats = new ArrayList<>();
+        guards.values().forEach(g -> stats.add(g.stats()));
+        return stats;
+    }
+
+    private <T> T setting(String service, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("app.downstream." + service + "." + key, type);
+        return value != null ? value : environment.getProperty("app.downstream." + key, type, defaultValue);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import com.example.orderservices.utils.DownstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedged reads against one downstream service. A call that has not answered after the
+ * observed {@code percentile} latency of its endpoint gets a second, identical request,
+ * which the service's load balancer sends to a replica the first one did not go to (see
+ * {@link TriedReplicas}); whichever answers first is returned and the other is cancelled.
+ * Only for idempotent reads.
+ * <p>
+ * Hedges are paid for from the shared {@link HedgeBudget}. Until an endpoint has seen
+ * {@code minSamples} calls its percentile is unknown and calls go out unhedged, on the
+ * caller's thread.
+ */
+@Slf4j
+public class Hedger {
+
+    private final String name;
+    private final boolean enabled;
+    private final int windowSize;
+    private final double percentile;
+    private final int minSamples;
+    private final long minDelayNanos;
+    private final HedgeBudget budget;
+    private final ExecutorService executor;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    public Hedger(String name, boolean enabled, int windowSize, double percentile, int minSamples,
+                  long minDelayMillis, HedgeBudget budget, ExecutorService executor) {
+        this.name = name;
+        this.enabled = enabled;
+        this.windowSize = windowSize;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.budget = budget;
+        this.executor = executor;
+    }
+
+    public <T> T call(String endpoint, Supplier<T> attempt) {
+        if (!enabled) {
+            return attempt.get();
+        }
+
+        LatencyTracker tracker = trackers.computeIfAbsent(endpoint,
+                e -> new LatencyTracker(windowSize, percentile, minSamples));
+        calls.increment();
+        budget.onCall();
+
+        long hedgeAfterNanos = tracker.percentileNanos();
+        if (hedgeAfterNanos < 0) {
+            long start = System.nanoTime();
+            T result = attempt.get();
+            tracker.record(System.nanoTime() - start);
+            return result;
+        }
+
+        ExecutorCompletionService<T> attempts = new ExecutorCompletionService<>(executor);
+        Set<String> tried = TriedReplicas.open();
+        Future<T> primary = attempts.submit(() -> timed(tracker, TriedReplicas.bind(tried, attempt)));
+        Future<T> hedge = null;
+        try {
+            Future<T> first = attempts.poll(Math.max(hedgeAfterNanos, minDelayNanos), TimeUnit.NANOSECONDS);
+            if (first != null) {
+                return result(first);
+            }
+
+            if (!budget.tryWithdraw()) {
+                budgetExhausted.increment();
+                return result(primary);
+            }
+            hedged.increment();
+            log.debug("{} {} slower than p{} ({} ms), hedging", name, endpoint, percentile,
+                    TimeUnit.NANOSECONDS.toMillis(hedgeAfterNanos));
+            hedge = attempts.submit(() -> timed(tracker, TriedReplicas.bind(tried, attempt)));
+
+            first = attempts.take();
+            if (failedWithoutAnswer(first)) {
+                // no answer from this one: the other may still get one
+                first = attempts.take();
+            }
+            if (first == hedge) {
+                hedgeWins.increment();
+            }
+            return result(first);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DownstreamUnavailableException(name + " call was interrupted");
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private static <T> T timed(LatencyTracker tracker, Supplier<T> attempt) {
+        long start = System.nanoTime();
+        T result = attempt.get();
+        tracker.record(System.nanoTime() - start);
+        return result;
+    }
+
+    // a 4xx is an answer and wins like a value; a connection error or an open breaker is not
+    private static boolean failedWithoutAnswer(Future<?> attempt) {
+        try {
+            attempt.get();
+            return false;
+        } catch (ExecutionException ex) {
+            return !(ex.getCause() instanceof HttpClientErrorException);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static <T> T result(Future<T> attempt) throws InterruptedException {
+        try {
+            return attempt.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (ex.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw new DownstreamUnavailableException("downstream call failed", ex.getCause());
+        }
+    }
+
+    public HedgingStats stats() {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        trackers.forEach((endpoint, tracker) -> percentiles.put(endpoint,
+                tracker.percentileNanos() < 0 ? null : tracker.percentileNanos() / 1_000_000.0));
+        return HedgingStats.builder()
+                .name(name)
+                .enabled(enabled)
+                .percentile(percentile)
+                .calls(calls.sum())
+                .hedged(hedged.sum())
+                .hedgeWins(hedgeWins.sum())
+                .budgetExhausted(budgetExhausted.sum())
+                .budgetAvailable(budget.getAvailable())
+                .hedgeAfterMillis(percentiles)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Owns one {@link Hedger} per downstream service and the {@link HedgeBudget} they share.
+ * {@code app.hedging.enabled} switches hedging off everywhere, {@code app.hedging.<service>.enabled}
+ * for one service. {@code percentile}, {@code window-size}, {@code min-samples} and
+ * {@code min-delay-ms} are read under {@code app.hedging.<service>.} first and
+ * {@code app.hedging.} after that; the budget is {@code app.hedging.budget-percent} of all
+ * calls with at most {@code app.hedging.budget-burst} hedges saved up.
+ */
+@Component
+@Slf4j
+public class HedgingRegistry {
+
+    private final Environment environment;
+    private final HedgeBudget budget;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Hedger> hedgers = new LinkedHashMap<>();
+
+    public HedgingRegistry(Environment environment) {
+        this.environment = environment;
+        this.budget = new HedgeBudget(
+                environment.getProperty("app.hedging.budget-percent", Double.class, 10.0),
+                environment.getProperty("app.hedging.budget-burst", Integer.class, 20));
+    }
+
+    public synchronized Hedger register(String service) {
+        boolean enabled = environment.getProperty("app.hedging.enabled", Boolean.class, true)
+                && environment.getProperty("app.hedging." + service + ".enabled", Boolean.class, true);
+        double percentile = setting(service, "percentile", Double.class, 95.0);
+        int windowSize = setting(service, "window-size", Integer.class, 200);
+        int minSamples = setting(service, "min-samples", Integer.class, 20);
+        long minDelayMillis = setting(service, "min-delay-ms", Long.class, 5L);
+
+        Hedger hedger = new Hedger(service, enabled, windowSize, percentile, minSamples, minDelayMillis, budget, executor);
+        hedgers.put(service, hedger);
+        log.info("hedging {}: {} (after p{} of the last {} calls, at least {} ms)",
+                service, enabled ? "on" : "off", percentile, windowSize, minDelayMillis);
+        return hedger;
+    }
+
+    public synchronized List<HedgingStats> stats() {
+        List<HedgingStats> stats = new ArrayList<>();
+        hedgers.values().forEach(h -> stats.add(h.stats()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T setting(String service, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("app.hedging." + service + "." + key, type);
+        return value != null ? value : environment.getProperty("app.hedging." + key, type, defaultValue);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import java.util.Arrays;
+
+/**
+ * The last {@code windowSize} successful latencies of one endpoint and a percentile of them.
+ * The percentile is recomputed every {@code windowSize / 8} samples rather than on every read,
+ * so asking for it costs nothing on the request path.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeEvery;
+
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int windowSize, double percentile, int minSamples) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.recomputeEvery = Math.max(1, windowSize / 8);
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+
+        if (count >= minSamples && (++sinceRecompute >= recomputeEvery || percentileNanos < 0)) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            percentileNanos = sorted[Math.max(0, Math.min(rank, count - 1))];
+            sinceRecompute = 0;
+        }
+    }
+
+    /** The percentile in nanoseconds, or -1 while fewer than {@code minSamples} calls were seen. */
+    public long percentileNanos() {
+        return percentileNanos;
+    }
+
+    public synchronized int getSamples() {
+        return count;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spreads the calls to one downstream service over its replicas. Each call picks two
+ * replicas at random and goes to the one with fewer calls outstanding, which keeps a slow
+ * replica from piling up work without the herding of always picking the least loaded one.
+ * <p>
+ * Replicas that fail the active health check, or that fail {@code ejectAfterFailures}
+ * calls in a row (5xx or no answer), are left out of the choice. An ejected replica comes
+ * back after {@code ejectMillis}, doubled for every ejection in a row, and at most
+ * {@code maxEjectionPercent} of the replicas are ever ejected at once. When no replica is
+ * left to choose from, all of them are: sending to a doubtful replica beats failing the call.
+ */
+@Slf4j
+public class LoadBalancer {
+
+    private static final int MAX_EJECTION_DOUBLINGS = 5;
+
+    private final String name;
+    private final boolean enabled;
+    private final String authority;
+    private final List<Replica> replicas;
+    private final int ejectAfterFailures;
+    private final long ejectMillis;
+    private final int maxEjectionPercent;
+    private final Clock clock;
+
+    public LoadBalancer(String name, boolean enabled, String authority, List<String> replicas,
+                        int ejectAfterFailures, long ejectMillis, int maxEjectionPercent) {
+        this(name, enabled, authority, replicas, ejectAfterFailures, ejectMillis, maxEjectionPercent, Clock.systemUTC());
+    }
+
+    LoadBalancer(String name, boolean enabled, String authority, List<String> replicas,
+                 int ejectAfterFailures, long ejectMillis, int maxEjectionPercent, Clock clock) {
+        this.name = name;
+        this.enabled = enabled;
+        this.authority = authority;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.ejectAfterFailures = Math.max(1, ejectAfterFailures);
+        this.ejectMillis = ejectMillis;
+        this.maxEjectionPercent = maxEjectionPercent;
+        this.clock = clock;
+    }
+
+    /** The {@code host:port} the clients address this service by. */
+    public String getAuthority() {
+        return authority;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isBalancing() {
+        return enabled && replicas.size() > 1;
+    }
+
+    /** The replica for the next call; the caller owes it exactly one {@link #onSuccess}, {@link #onFailure} or {@link #release}. */
+    public Replica choose() {
+        return choose(Set.of());
+    }
+
+    /**
+     * Like {@link #choose()}, but leaves the replicas at the addresses in {@code tried} out
+     * while any other one is available.
+     */
+    public Replica choose(Set<String> tried) {
+        Replica chosen = replicas.size() == 1 || !enabled ? replicas.get(0) : pickOfTwo(tried);
+        chosen.outstanding.incrementAndGet();
+        chosen.calls.increment();
+        return chosen;
+    }
+
+    private Replica pickOfTwo(Set<String> tried) {
+        long now = clock.millis();
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isAvailable(now)) {
+                candidates.add(replica);
+            }
+        }
+        if (!tried.isEmpty()) {
+            List<Replica> untried = candidates.stream().filter(r -> !tried.contains(r.address)).toList();
+            if (!untried.isEmpty()) {
+                candidates = untried;
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = replicas;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Replica a = candidates.get(first);
+        Replica b = candidates.get(second);
+        return b.outstanding.get() < a.outstanding.get() ? b : a;
+    }
+
+    public void onSuccess(Replica replica) {
+        replica.outstanding.decrementAndGet();
+        replica.consecutiveFailures.set(0);
+        replica.consecutiveEjections = 0;
+    }
+
+    public void onFailure(Replica replica) {
+        replica.outstanding.decrementAndGet();
+        replica.failures.increment();
+        if (replica.consecutiveFailures.incrementAndGet() >= ejectAfterFailures) {
+            eject(replica);
+        }
+    }
+
+    /** The call was abandoned before it had an outcome. */
+    public void release(Replica replica) {
+        replica.outstanding.decrementAndGet();
+    }
+
+    private synchronized void eject(Replica replica) {
+        long now = clock.millis();
+        if (replica.ejectedUntil > now) {
+            return;
+        }
+        long ejected = replicas.stream().filter(r -> r.ejectedUntil > now).count();
+        if ((ejected + 1) * 100 > (long) maxEjectionPercent * replicas.size()) {
+            return;
+        }
+        long duration = ejectMillis << Math.min(replica.consecutiveEjections, MAX_EJECTION_DOUBLINGS);
+        replica.ejectedUntil = now + duration;
+        replica.consecutiveEjections++;
+        replica.consecutiveFailures.set(0);
+        replica.ejections.increment();
+        log.warn("{}: replica {} ejected for {} ms after {} failures in a row",
+                name, replica.address, duration, ejectAfterFailures);
+    }
+
+    /** {@code uri} pointed at {@code replica} when it addresses this service, unchanged otherwise. */
+    public URI rewrite(URI uri, Replica replica) {
+        if (replica.address.equals(authority)) {
+            return uri;
+        }
+        return URI.create(uri.getScheme() + "://" + replica.address + uri.getRawPath()
+                + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+    }
+
+    public LoadBalancerStats stats() {
+        long now = clock.millis();
+        return LoadBalancerStats.builder()
+                .name(name)
+                .enabled(enabled)
+                .replicas(replicas.stream()
+                        .map(r -> LoadBalancerStats.ReplicaStats.builder()
+                                .address(r.address)
+                                .healthy(r.healthy)
+                                .ejected(r.ejectedUntil > now)
+                                .outstanding(r.outstanding.get())
+                                .calls(r.calls.sum())
+                                .failures(r.failures.sum())
+                                .ejections(r.ejections.sum())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    public static class Replica {
+
+        private final String address;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder ejections = new LongAdder();
+        private volatile long ejectedUntil;
+        private volatile int consecutiveEjections;
+        private volatile boolean healthy = true;
+        private int failedChecks;
+
+        Replica(String address) {
+            this.address = address;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        /** Result of one active health check; {@code unhealthyAfter} failed checks in a row take the replica out. */
+        public synchronized void onHealthCheck(boolean passed, int unhealthyAfter) {
+            failedChecks = passed ? 0 : failedChecks + 1;
+            healthy = failedChecks < unhealthyAfter;
+        }
+
+        boolean isAvailable(long now) {
+            return healthy && ejectedUntil <= now;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns one {@link LoadBalancer} per downstream service, keyed by the {@code host:port} its
+ * client addresses it by. The replicas are {@code app.<service>.replicas}, a list of
+ * {@code host:port}; without it the service is its single {@code app.<service>.host} and
+ * {@code .port}, and calls go out untouched.
+ * <p>
+ * {@code app.load-balancing.enabled} switches balancing off everywhere,
+ * {@code app.load-balancing.<service>.enabled} for one service. {@code eject-after-failures},
+ * {@code eject-ms}, {@code max-ejection-percent}, {@code health-path} and
+ * {@code unhealthy-after} are read under {@code app.load-balancing.<service>.} first and
+ * {@code app.load-balancing.} after that. Every replica of a balanced service gets a GET on
+ * its {@code health-path} each {@code app.load-balancing.health-check-interval-ms}, and only
+ * a 2xx passes. The services have no actuator, so the default path is a cheap real read
+ * that the client names when it registers the service.
+ */
+@Component
+@Slf4j
+public class LoadBalancerRegistry {
+
+    private final Environment environment;
+    private final Map<String, LoadBalancer> balancers = new ConcurrentHashMap<>();
+    private final Map<String, String> healthPaths = new ConcurrentHashMap<>();
+    private final Map<String, Integer> unhealthyAfter = new ConcurrentHashMap<>();
+    private final Duration healthTimeout;
+    private final HttpClient healthClient;
+
+    public LoadBalancerRegistry(Environment environment) {
+        this.environment = environment;
+        this.healthTimeout = Duration.ofMillis(
+                environment.getProperty("app.load-balancing.health-timeout-ms", Long.class, 1_000L));
+        this.healthClient = HttpClient.newBuilder().connectTimeout(healthTimeout).build();
+    }
+
+    public LoadBalancer register(String service, String host, String port, String healthPath) {
+        String authority = host + ":" + port;
+        boolean enabled = environment.getProperty("app.load-balancing.enabled", Boolean.class, true)
+                && environment.getProperty("app.load-balancing." + service + ".enabled", Boolean.class, true);
+        List<String> replicas = Binder.get(environment)
+                .bind("app." + service + ".replicas", Bindable.listOf(String.class))
+                .orElse(List.of());
+        if (!enabled || replicas.isEmpty()) {
+            replicas = List.of(authority);
+        }
+        int ejectAfterFailures = setting(service, "eject-after-failures", Integer.class, 5);
+        long ejectMillis = setting(service, "eject-ms", Long.class, 30_000L);
+        int maxEjectionPercent = setting(service, "max-ejection-percent", Integer.class, 50);
+
+        LoadBalancer balancer = new LoadBalancer(service, enabled, authority, replicas,
+                ejectAfterFailures, ejectMillis, maxEjectionPercent);
+        balancers.put(authority, balancer);
+        healthPaths.put(authority, setting(service, "health-path", String.class, healthPath));
+        unhealthyAfter.put(authority, setting(service, "unhealthy-after", Integer.class, 2));
+        log.info("load balancing {}: {} over {} (eject for {} ms after {} failures in a row)",
+                service, balancer.isBalancing() ? "on" : "off", replicas, ejectMillis, ejectAfterFailures);
+        return balancer;
+    }
+
+    /** Points each call at a replica of the service it addresses and records how it went. */
+    public ClientHttpRequestInterceptor interceptor() {
+        return (request, body, execution) -> {
+            LoadBalancer balancer = balancers.get(request.getURI().getRawAuthority());
+            if (balancer == null || !balancer.isBalancing()) {
+                return execution.execute(request, body);
+            }
+
+            // a hedge leaves out the replica the attempt it races went to
+            LoadBalancer.Replica replica = balancer.choose(TriedReplicas.current());
+            TriedReplicas.add(replica.getAddress());
+            URI uri = balancer.rewrite(request.getURI(), replica);
+            HttpRequest routed = new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return uri;
+                }
+            };
+            boolean failed = true;
+            try {
+                ClientHttpResponse response = execution.execute(routed, body);
+                failed = response.getStatusCode().is5xxServerError();
+                return response;
+            } finally {
+                if (!failed) {
+                    balancer.onSuccess(replica);
+                } else if (Thread.currentThread().isInterrupted()) {
+                    // a cancelled hedge or fan-out lookup, not the replica's fault
+                    balancer.release(replica);
+                } else {
+                    balancer.onFailure(replica);
+                }
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${app.load-balancing.health-check-interval-ms:5000}",
+            initialDelayString = "${app.load-balancing.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        List<CompletableFuture<?>> checks = new ArrayList<>();
+        balancers.forEach((authority, balancer) -> {
+            if (!balancer.isBalancing()) {
+                return;
+            }
+            int threshold = unhealthyAfter.get(authority);
+            for (LoadBalancer.Replica replica : balancer.getReplicas()) {
+                java.net.http.HttpRequest check = java.net.http.HttpRequest
+                        .newBuilder(URI.create("http://" + replica.getAddress() + healthPaths.get(authority)))
+                        .timeout(healthTimeout)
+                        .GET()
+                        .build();
+                checks.add(healthClient.sendAsync(check, BodyHandlers.discarding())
+                        .handle((response, ex) -> {
+                            boolean passed = ex == null && response.statusCode() / 100 == 2;
+                            if (!passed) {
+                                log.debug("health check of {} failed: {}", replica.getAddress(),
+                                        ex != null ? ex.toString() : response.statusCode());
+                            }
+                            replica.onHealthCheck(passed, threshold);
+                            return null;
+                        }));
+            }
+        });
+        CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    public List<LoadBalancerStats> stats() {
+        List<LoadBalancerStats> stats = new ArrayList<>();
+        balancers.values().forEach(b -> stats.add(b.stats()));
+        return stats;
+    }
+
+    private <T> T setting(String service, String key, Class<T> type, T defaultValue) {
+        T value = environment.getProperty("app.load-balancing." + service + "." + key, type);
+        return value != null ? value : environment.getProperty("app.load-balancing." + key, type, defaultValue);
+    }
+}
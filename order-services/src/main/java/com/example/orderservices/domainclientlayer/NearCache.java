@@ -0,0 +1,197 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small bounded LRU cache with a per-entry time-to-live, kept in front of a
+ * downstream client so rarely-changing reference data is not refetched for every order.
+ * <p>
+ * Misses ({@code null} from the loader) are never cached: a reference that does not
+ * exist yet must be visible the moment it is created.
+ * <p>
+ * Every invalidation bumps an epoch. A load that was already running when the epoch moved
+ * still answers its caller but is not stored, so it cannot put back what was just invalidated.
+ */
+public class NearCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // guarded by entries
+    private long epoch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public NearCache(String name, int maxEntries, long ttlMillis) {
+        this(name, maxEntries, ttlMillis, Clock.systemUTC());
+    }
+
+    NearCache(String name, int maxEntries, long ttlMillis, Clock clock) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        // access-ordered → the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > NearCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        if (!enabled() || key == null) {
+            return loader.apply(key);
+        }
+
+        V cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long started = epoch();
+        V loaded = loader.apply(key);
+        put(key, loaded, started);
+        return loaded;
+    }
+
+    /**
+     * Bulk variant: only the keys that are not cached (or expired) go to the loader,
+     * in a single call.
+     */
+    public List<V> getAll(Collection<K> keys, Function<Collection<K>, List<V>> loader, Function<V, K> keyOf) {
+        if (!enabled()) {
+            return loader.apply(keys);
+        }
+
+        List<V> found = new ArrayList<>();
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : new LinkedHashSet<>(keys)) {
+            V cached = lookup(key);
+            if (cached != null) {
+                found.add(cached);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long started = epoch();
+            List<V> loaded = loader.apply(missing);
+            for (V value : loaded) {
+                put(keyOf.apply(value), value, started);
+                found.add(value);
+            }
+        }
+        return found;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            // bumped even when nothing is cached yet: the key may be loading right now
+            epoch++;
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            epoch++;
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public NearCacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return NearCacheStats.builder()
+                .name(name)
+                .size(size)
+                .maxEntries(maxEntries)
+                .ttlMillis(ttlMillis)
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+
+    private boolean enabled() {
+        return maxEntries > 0 && ttlMillis > 0;
+    }
+
+    private V lookup(K key) {
+        long now = clock.millis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private long epoch() {
+        synchronized (entries) {
+            return epoch;
+        }
+    }
+
+    private void put(K key, V value, long startedAt) {
+        if (key == null || value == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (epoch != startedAt) {
+                return;   // invalidated while loading → the value may already be stale
+            }
+            entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import com.example.orderservices.businesslogiclayer.ReferenceChangedEvent;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceChangeType;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the per-type near-caches used by the domain clients.
+ * <p>
+ * Size and TTL come from {@code app.near-cache.<type>.max-entries} / {@code .ttl-ms}
+ * (e.g. {@code app.near-cache.service-plan.ttl-ms}); a value of 0 switches that cache off.
+ * Entries are dropped as soon as a {@link ReferenceChangedEvent} for them arrives.
+ */
+@Component
+@Slf4j
+public class NearCacheRegistry {
+
+    private final Environment environment;
+    private final Map<ReferenceType, NearCache<String, ?>> caches = new EnumMap<>(ReferenceType.class);
+
+    public NearCacheRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    public synchronized <V> NearCache<String, V> register(ReferenceType type, int defaultMaxEntries, long defaultTtlMillis) {
+        String prefix = "app.near-cache." + type.name().toLowerCase().replace('_', '-');
+        int maxEntries = environment.getProperty(prefix + ".max-entries", Integer.class, defaultMaxEntries);
+        long ttlMillis = environment.getProperty(prefix + ".ttl-ms", Long.class, defaultTtlMillis);
+
+        NearCache<String, V> cache = new NearCache<>(type.name(), maxEntries, ttlMillis);
+        caches.put(type, cache);
+        log.info("near-cache {}: max {} entries, ttl {} ms", type, maxEntries, ttlMillis);
+        return cache;
+    }
+
+    public synchronized List<NearCacheStats> stats() {
+        List<NearCacheStats> stats = new ArrayList<>();
+        caches.values().forEach(c -> stats.add(c.stats()));
+        return stats;
+    }
+
+    @EventListener
+    public void onReferenceChanged(ReferenceChangedEvent event) {
+        invalidate(event.getType(), event.getId());
+
+        // watches hang off their catalog: dropping a catalog takes its watches with it
+        if (event.getType() == ReferenceType.CATALOG && event.getChange() == ReferenceChangeType.DELETED) {
+            NearCache<String, ?> watches = cache(ReferenceType.WATCH);
+            if (watches != null) {
+                watches.invalidateAll();
+            }
+        }
+    }
+
+    public void invalidate(ReferenceType type, String id) {
+        NearCache<String, ?> cache = cache(type);
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    private synchronized NearCache<String, ?> cache(ReferenceType type) {
+        return caches.get(type);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class NearCacheStats {
+
+    private String name;
+    private int size;
+    private int maxEntries;
+    private long ttlMillis;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -3,8 +3,12 @@ package com.example.orderservices.domainclientlayer;
 
 
 import com.example.orderservices.presentationlayer.productdtos.catalogdtos.CatalogResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.watchdtos.StockAdjustmentRequestModel;
+import com.example.orderservices.presentationlayer.productdtos.watchdtos.StockAdjustmentResponseModel;
 import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchRequestModel;
 import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchResponseModel;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
+import com.example.orderservices.utils.DownstreamConflictException;
 import com.example.orderservices.utils.HttpErrorInfo;
 import com.example.orderservices.utils.InvalidInputException;
 import com.example.orderservices.utils.NotFoundException;
@@ -12,6 +16,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +26,8 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -35,8 +42,18 @@ public class ProductServiceClient {
     private final String WATCH_BASE_URL;
     private final String CATALOG_WATCHES_BASE_URL;
 
+    private final NearCache<String, CatalogResponseModel> catalogCache;
+    // display data only (model, material, ...); stock is always read fresh through getCatalogWatchByID
+    private final NearCache<String, WatchResponseModel> watchCache;
+    private final DownstreamGuard guard;
+    private final Hedger hedger;
+
     public ProductServiceClient(RestTemplate restTemplate,
                                 ObjectMapper objectMapper,
+                                NearCacheRegistry nearCacheRegistry,
+                                DownstreamGuardRegistry downstreamGuardRegistry,
+                                HedgingRegistry hedgingRegistry,
+                                LoadBalancerRegistry loadBalancerRegistry,
                                 @Value("${app.product-services.host}") String productServicesHost,
                                 @Value("${app.product-services.port}") String productServicesPort) {
         this.restTemplate = restTemplate;
@@ -46,6 +63,12 @@ public class ProductServiceClient {
         this.CATALOG_BASE_URL        = baseUrl + "/api/v1/catalogs";
         this.WATCH_BASE_URL          = baseUrl + "/api/v1/watches";
         this.CATALOG_WATCHES_BASE_URL= baseUrl + "/api/v1/catalogs/{catalogId}/watches";
+
+        this.catalogCache = nearCacheRegistry.register(ReferenceType.CATALOG, 1_000, 600_000);
+        this.watchCache   = nearCacheRegistry.register(ReferenceType.WATCH, 10_000, 120_000);
+        this.guard = downstreamGuardRegistry.register("product-services");
+        this.hedger = hedgingRegistry.register("product-services");
+        loadBalancerRegistry.register("product-services", productServicesHost, productServicesPort, "/api/v1/watches?limit=1");
 }
 
 //CatalogServiceImpl ///////////////
@@ -66,11 +89,22 @@ public class ProductServiceClient {
 //    }
 
     public CatalogResponseModel getCatalogById(String catalogId) {
+        return catalogCache.get(catalogId, this::fetchCatalog);
+    }
+
+    public List<CatalogResponseModel> getCatalogsByIds(Collection<String> catalogIds) {
+        if (catalogIds == null || catalogIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return catalogCache.getAll(catalogIds, this::fetchCatalogs, CatalogResponseModel::getCatalogId);
+    }
+
+    private CatalogResponseModel fetchCatalog(String catalogId) {
         try {
-            return restTemplate.getForObject(
+            return hedger.call("getCatalogById", () -> guard.call(() -> restTemplate.getForObject(
                     CATALOG_BASE_URL + "/" + catalogId,
                     CatalogResponseModel.class
-            );
+            )));
         } catch (HttpClientErrorException.NotFound nf) {
             log.debug("Catalog {} not found → returning null", catalogId);
             return null;
@@ -79,6 +113,20 @@ public class ProductServiceClient {
         }
     }
 
+    private List<CatalogResponseModel> fetchCatalogs(Collection<String> catalogIds) {
+        try {
+            List<CatalogResponseModel> catalogs = guard.call(() -> restTemplate.exchange(
+                    CATALOG_BASE_URL + "/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new ArrayList<>(catalogIds)),
+                    new ParameterizedTypeReference<List<CatalogResponseModel>>() {}
+            ).getBody());
+            return catalogs != null ? catalogs : new ArrayList<>();
+        } catch (HttpClientErrorException e) {
+            throw handleHttpClientException(e);
+        }
+    }
+
 //    public CatalogResponseModel addCatalog(CatalogRequestModel catalogRequestModel) {
 //
 //        try {
@@ -135,10 +183,37 @@ public class ProductServiceClient {
 //
     public WatchResponseModel getCatalogWatchByID(String watchId) {
         try {
-            return restTemplate.getForObject(
+            return hedger.call("getCatalogWatchByID", () -> guard.call(() -> restTemplate.getForObject(
                     WATCH_BASE_URL + "/" + watchId,
                     WatchResponseModel.class
-            );
+            )));
+        } catch (HttpClientErrorException ex) {
+            throw handleHttpClientException(ex);
+        }
+    }
+
+    /** Cached read for display purposes; never use the quantity of the result to adjust stock. */
+    public WatchResponseModel getCatalogWatchMetadataByID(String watchId) {
+        return watchCache.get(watchId, this::getCatalogWatchByID);
+    }
+
+    /** Cached bulk read for display purposes, see {@link #getCatalogWatchMetadataByID(String)}. */
+    public List<WatchResponseModel> getCatalogWatchesByIds(Collection<String> watchIds) {
+        if (watchIds == null || watchIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return watchCache.getAll(watchIds, this::fetchCatalogWatches, WatchResponseModel::getWatchId);
+    }
+
+    private List<WatchResponseModel> fetchCatalogWatches(Collection<String> watchIds) {
+        try {
+            List<WatchResponseModel> watches = guard.call(() -> restTemplate.exchange(
+                    WATCH_BASE_URL + "/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new ArrayList<>(watchIds)),
+                    new ParameterizedTypeReference<List<WatchResponseModel>>() {}
+            ).getBody());
+            return watches != null ? watches : new ArrayList<>();
         } catch (HttpClientErrorException ex) {
             throw handleHttpClientException(ex);
         }
@@ -185,12 +260,37 @@ public class ProductServiceClient {
 
         try {
             String url = CATALOG_WATCHES_BASE_URL.replace("{catalogId}", catalogId) + "/" + watchId;
-            restTemplate.put(url, watchRequestModel);
+            guard.call(() -> {
+                restTemplate.put(url, watchRequestModel);
+                return null;
+            });
+            watchCache.invalidate(watchId);
             return getCatalogWatchByID(watchId);
         } catch (HttpClientErrorException ex) {
             throw handleHttpClientException(ex);
         }
     }
+
+    /**
+     * Moves stock by {@code delta} in one conditional update on product-services.
+     * Retrying with the same {@code idempotencyKey} is safe: the first result is replayed.
+     * Out of stock comes back as a 409; here that is the only 409, so it becomes an
+     * {@link InvalidInputException} (422 to our callers) rather than a retryable conflict.
+     */
+    public StockAdjustmentResponseModel adjustWatchStock(String watchId, int delta, String idempotencyKey) {
+        try {
+            return guard.call(() -> restTemplate.postForObject(
+                    WATCH_BASE_URL + "/" + watchId + "/stock:adjust",
+                    new StockAdjustmentRequestModel(delta, idempotencyKey),
+                    StockAdjustmentResponseModel.class
+            ));
+        } catch (HttpClientErrorException ex) {
+            if (ex.getStatusCode() == HttpStatus.CONFLICT) {
+                throw new InvalidInputException(getErrorMessage(ex));
+            }
+            throw handleHttpClientException(ex);
+        }
+    }
 //
 //    public String removeWatchInCatalog(String catalogId, String watchId) {
 //
@@ -221,8 +321,10 @@ public class ProductServiceClient {
             return new InvalidInputException(errorMessage);
         } else if (statusCode == HttpStatus.NOT_FOUND) {
             return new NotFoundException(errorMessage);
-        } else if (statusCode == HttpStatus.BAD_REQUEST ||
-                statusCode == HttpStatus.CONFLICT) {
+        } else if (statusCode == HttpStatus.CONFLICT) {
+            // product-services lost an optimistic-lock race: nothing wrong with the request, re-read and retry
+            return new DownstreamConflictException(errorMessage);
+        } else if (statusCode == HttpStatus.BAD_REQUEST) {
             // Handle DuplicateCustomerEmailException or other validation errors
             return new InvalidInputException(errorMessage);
         }
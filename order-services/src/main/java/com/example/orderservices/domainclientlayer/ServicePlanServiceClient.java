@@ -2,6 +2,7 @@ package com.example.orderservices.domainclientlayer;
 
 
 
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
 import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
 import com.example.orderservices.utils.HttpErrorInfo;
 import com.example.orderservices.utils.InvalidInputException;
@@ -9,12 +10,18 @@ import com.example.orderservices.utils.NotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 @Component
 @Slf4j
@@ -26,8 +33,16 @@ public class ServicePlanServiceClient {
 
     private final String PLAN_BASE_URL;
 
+    private final NearCache<String, ServicePlanResponseModel> planCache;
+    private final DownstreamGuard guard;
+    private final Hedger hedger;
+
 
     public ServicePlanServiceClient(RestTemplate restTemplate, ObjectMapper objectMapper,
+                                    NearCacheRegistry nearCacheRegistry,
+                                    DownstreamGuardRegistry downstreamGuardRegistry,
+                                    HedgingRegistry hedgingRegistry,
+                                    LoadBalancerRegistry loadBalancerRegistry,
                                     @Value("${app.service-plan-services.host}") String servicePlanServicesHost,
                                     @Value("${app.service-plan-services.port}") String servicePlanServicesPort) {
 
@@ -35,6 +50,10 @@ public class ServicePlanServiceClient {
         this.objectMapper = objectMapper;
 
         this.PLAN_BASE_URL = "http://" + servicePlanServicesHost + ":" + servicePlanServicesPort + "/api/v1/plans";
+        this.planCache = nearCacheRegistry.register(ReferenceType.SERVICE_PLAN, 1_000, 600_000);
+        this.guard = downstreamGuardRegistry.register("service-plan-services");
+        this.hedger = hedgingRegistry.register("service-plan-services");
+        loadBalancerRegistry.register("service-plan-services", servicePlanServicesHost, servicePlanServicesPort, "/api/v1/plans");
     }
 
 
@@ -57,11 +76,22 @@ public class ServicePlanServiceClient {
 
 
     public ServicePlanResponseModel getServicePlansById(String planId) {
+        return planCache.get(planId, this::fetchServicePlan);
+    }
+
+    public List<ServicePlanResponseModel> getServicePlansByIds(Collection<String> planIds) {
+        if (planIds == null || planIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return planCache.getAll(planIds, this::fetchServicePlans, ServicePlanResponseModel::getPlanId);
+    }
+
+    private ServicePlanResponseModel fetchServicePlan(String planId) {
         try {
-            return restTemplate.getForObject(
+            return hedger.call("getServicePlansById", () -> guard.call(() -> restTemplate.getForObject(
                     PLAN_BASE_URL + "/" + planId,
                     ServicePlanResponseModel.class
-            );
+            )));
         } catch (HttpClientErrorException.NotFound nf) {
             log.debug("Plan {} not found → returning null", planId);
             return null;
@@ -70,6 +100,20 @@ public class ServicePlanServiceClient {
         }
     }
 
+    private List<ServicePlanResponseModel> fetchServicePlans(Collection<String> planIds) {
+        try {
+            List<ServicePlanResponseModel> plans = guard.call(() -> restTemplate.exchange(
+                    PLAN_BASE_URL + "/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new ArrayList<>(planIds)),
+                    new ParameterizedTypeReference<List<ServicePlanResponseModel>>() {}
+            ).getBody());
+            return plans != null ? plans : new ArrayList<>();
+        } catch (HttpClientErrorException e) {
+            throw handleHttpClientException(e);
+        }
+    }
+
 //    public ServicePlanResponseModel addServicePlan(ServicePlanRequestModel servicePlanRequestModel) {
 //
 //        try {
@@ -0,0 +1,55 @@
+package com.example.orderservices.domainclientlayer;
+
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The replicas the attempts of one hedged call have gone to. {@link Hedger} runs every
+ * attempt of a call with the same set bound to its thread; the load-balancing interceptor
+ * adds the replica it picks and leaves the ones already in there out of the choice, so the
+ * hedge goes to a different replica than the attempt it is racing.
+ */
+final class TriedReplicas {
+
+    private static final ThreadLocal<Set<String>> CURRENT = new ThreadLocal<>();
+
+    private TriedReplicas() {
+    }
+
+    static Set<String> open() {
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    /** {@code attempt}, run with {@code tried} as the current set. */
+    static <T> Supplier<T> bind(Set<String> tried, Supplier<T> attempt) {
+        return () -> {
+            Set<String> outer = CURRENT.get();
+            CURRENT.set(tried);
+            try {
+                return attempt.get();
+            } finally {
+                if (outer == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(outer);
+                }
+            }
+        };
+    }
+
+    /** The replicas tried so far by the call running on this thread; empty outside a hedged call. */
+    static Set<String> current() {
+        Set<String> tried = CURRENT.get();
+        return tried != null ? Set.copyOf(tried) : Set.of();
+    }
+
+    /** Records {@code address} for the call running on this thread, if it is a hedged one. */
+    static void add(String address) {
+        Set<String> tried = CURRENT.get();
+        if (tried != null) {
+            tried.add(address);
+        }
+    }
+}
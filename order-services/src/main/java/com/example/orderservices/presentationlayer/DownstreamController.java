@@ -0,0 +1,53 @@
+package com.example.orderservices.presentationlayer;
+
+
+import com.example.orderservices.domainclientlayer.DownstreamGuardRegistry;
+import com.example.orderservices.domainclientlayer.DownstreamGuardStats;
+import com.example.orderservices.domainclientlayer.HedgingRegistry;
+import com.example.orderservices.domainclientlayer.HedgingStats;
+import com.example.orderservices.domainclientlayer.LoadBalancerRegistry;
+import com.example.orderservices.domainclientlayer.LoadBalancerStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Breaker state and rejection counters of the guards in front of customer-, product- and
+ * servicePlan-services, how often hedged reads were sent and won, and how calls spread over
+ * the replicas of each service.
+ */
+@Slf4j
+@RestController
+@RequestMapping("api/v1/downstream")
+public class DownstreamController {
+
+    private final DownstreamGuardRegistry downstreamGuardRegistry;
+    private final HedgingRegistry hedgingRegistry;
+    private final LoadBalancerRegistry loadBalancerRegistry;
+
+    public DownstreamController(DownstreamGuardRegistry downstreamGuardRegistry, HedgingRegistry hedgingRegistry,
+                                LoadBalancerRegistry loadBalancerRegistry) {
+        this.downstreamGuardRegistry = downstreamGuardRegistry;
+        this.hedgingRegistry = hedgingRegistry;
+        this.loadBalancerRegistry = loadBalancerRegistry;
+    }
+
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<List<DownstreamGuardStats>> getCircuitBreakerStats() {
+        return ResponseEntity.ok(downstreamGuardRegistry.stats());
+    }
+
+    @GetMapping("/hedging")
+    public ResponseEntity<List<HedgingStats>> getHedgingStats() {
+        return ResponseEntity.ok(hedgingRegistry.stats());
+    }
+
+    @GetMapping("/load-balancing")
+    public ResponseEntity<List<LoadBalancerStats>> getLoadBalancingStats() {
+        return ResponseEntity.ok(loadBalancerRegistry.stats());
+    }
+}
@@ -2,12 +2,22 @@ package com.example.orderservices.presentationlayer;
 
 
 import com.example.orderservices.businesslogiclayer.OrderService;
+import com.example.orderservices.dataaccesslayer.OrderStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -15,16 +25,65 @@ import java.util.List;
 @RequestMapping("api/v1/orders")
 public class OrderController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final ObjectWriter orderWriter;
 
-    public OrderController(final OrderService orderService) {
+    public OrderController(final OrderService orderService, final ObjectMapper objectMapper) {
         this.orderService = orderService;
+        // the servlet stream is shared by every line, so the writer must not close it
+        this.orderWriter = objectMapper.writerFor(OrderResponseModel.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
+    // newest first; the cursor for the next page (if any) comes back in X-Next-Cursor
     @GetMapping()
-    public ResponseEntity<List<OrderResponseModel>> getAllOrders() {
+    public ResponseEntity<List<OrderResponseModel>> getAllOrders(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String watchId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        OrderPageResponseModel page = orderService.getAllOrders(OrderSearchRequestModel.builder()
+                .customerId(customerId)
+                .watchId(watchId)
+                .status(status)
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .limit(limit)
+                .build());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getOrders());
+    }
 
-        return ResponseEntity.ok(orderService.getAllOrders());
+    // one JSON document per line, written as each chunk is enriched; nothing is collected in memory
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = out -> {
+            try {
+                long exported = orderService.exportOrders(order -> {
+                    try {
+                        orderWriter.writeValue(out, order);
+                        out.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                log.info("exported {} order(s)", exported);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{orderId}")
@@ -34,8 +93,9 @@ public class OrderController {
 
 
     @PostMapping()
-    public ResponseEntity<OrderResponseModel> createOrder(@RequestBody OrderRequestModel orderRequestModel) {
-        OrderResponseModel createdOrder = orderService.createOrder(orderRequestModel);
+    public ResponseEntity<OrderResponseModel> createOrder(@RequestBody OrderRequestModel orderRequestModel,
+                                                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderResponseModel createdOrder = orderService.createOrder(orderRequestModel, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
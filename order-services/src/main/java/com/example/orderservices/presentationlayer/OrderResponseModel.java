@@ -7,6 +7,7 @@ import org.springframework.hateoas.RepresentationModel;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 
 @Data
@@ -47,4 +48,8 @@ public class OrderResponseModel extends RepresentationModel<OrderResponseModel>
     private LocalDateTime orderDate;
     private OrderStatus   orderStatus;
 
+    /* ─────────────── reference health ─────────────── */
+    // references (CUSTOMER, CATALOG, WATCH, SERVICE_PLAN) that could not be resolved; null when all are fine
+    private List<String> missingReferences;
+
 }
@@ -0,0 +1,23 @@
+package com.example.orderservices.presentationlayer;
+
+import com.example.orderservices.dataaccesslayer.OrderStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+public class OrderSearchRequestModel {
+
+    private String customerId;
+    private String watchId;
+    private OrderStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    // opaque, taken from X-Next-Cursor of the previous page
+    private String cursor;
+    private Integer limit;
+}
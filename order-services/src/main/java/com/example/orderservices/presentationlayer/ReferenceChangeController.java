@@ -0,0 +1,44 @@
+package com.example.orderservices.presentationlayer;
+
+
+import com.example.orderservices.businesslogiclayer.ReconciliationStats;
+import com.example.orderservices.businesslogiclayer.ReferenceChangeService;
+import com.example.orderservices.domainclientlayer.NearCacheStats;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceChangeRequestModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Callback used by customer-, product- and servicePlan-services to tell us that an
+ * entity orders refer to was updated or deleted.
+ */
+@Slf4j
+@RestController
+@RequestMapping("api/v1/references")
+public class ReferenceChangeController {
+
+    private final ReferenceChangeService referenceChangeService;
+
+    public ReferenceChangeController(final ReferenceChangeService referenceChangeService) {
+        this.referenceChangeService = referenceChangeService;
+    }
+
+    @PostMapping("/changes")
+    public ResponseEntity<Void> referenceChanged(@RequestBody ReferenceChangeRequestModel referenceChangeRequestModel) {
+        referenceChangeService.referenceChanged(referenceChangeRequestModel);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<List<NearCacheStats>> getCacheStats() {
+        return ResponseEntity.ok(referenceChangeService.getCacheStats());
+    }
+
+    @GetMapping("/reconciliation")
+    public ResponseEntity<ReconciliationStats> getReconciliationStats() {
+        return ResponseEntity.ok(referenceChangeService.getReconciliationStats());
+    }
+}
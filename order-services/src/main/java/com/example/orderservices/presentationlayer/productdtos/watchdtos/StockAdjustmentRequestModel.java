@@ -0,0 +1,15 @@
+package com.example.orderservices.presentationlayer.productdtos.watchdtos;
+
+
+import lombok.*;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequestModel {
+
+    private Integer delta;
+    private String idempotencyKey;
+}
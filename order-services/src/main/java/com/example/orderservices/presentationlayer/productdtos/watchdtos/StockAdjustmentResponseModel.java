@@ -0,0 +1,18 @@
+package com.example.orderservices.presentationlayer.productdtos.watchdtos;
+
+
+import lombok.*;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResponseModel {
+
+    private String watchId;
+    private Integer delta;
+    private Integer quantity;
+    private String idempotencyKey;
+    private boolean replayed;
+}
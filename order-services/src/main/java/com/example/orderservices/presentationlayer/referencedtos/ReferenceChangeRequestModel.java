@@ -0,0 +1,16 @@
+package com.example.orderservices.presentationlayer.referencedtos;
+
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ReferenceChangeRequestModel {
+
+    private ReferenceType type;
+    private String id;
+    private ReferenceChangeType change;
+}
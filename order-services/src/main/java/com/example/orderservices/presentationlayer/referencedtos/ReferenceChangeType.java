@@ -0,0 +1,7 @@
+package com.example.orderservices.presentationlayer.referencedtos;
+
+
+public enum ReferenceChangeType {
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package com.example.orderservices.presentationlayer.referencedtos;
+
+
+public enum ReferenceType {
+    CUSTOMER,
+    CATALOG,
+    WATCH,
+    SERVICE_PLAN
+}
@@ -0,0 +1,11 @@
+package com.example.orderservices.utils;
+
+public class DownstreamConflictException extends RuntimeException {
+  public DownstreamConflictException() {}
+
+  public DownstreamConflictException(String message) { super(message); }
+
+  public DownstreamConflictException(Throwable cause) { super(cause); }
+
+  public DownstreamConflictException(String message, Throwable cause) { super(message, cause); }
+}
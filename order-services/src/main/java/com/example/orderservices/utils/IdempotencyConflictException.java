@@ -0,0 +1,11 @@
+package com.example.orderservices.utils;
+
+public class IdempotencyConflictException extends RuntimeException {
+  public IdempotencyConflictException() {}
+
+  public IdempotencyConflictException(String message) { super(message); }
+
+  public IdempotencyConflictException(Throwable cause) { super(cause); }
+
+  public IdempotencyConflictException(String message, Throwable cause) { super(message, cause); }
+}
@@ -0,0 +1,72 @@
+package com.example.orderservices.utils;
+
+
+import com.example.orderservices.domainclientlayer.LoadBalancerRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connect and read deadlines for every RestTemplate built from the Boot builder. Without them
+ * a downstream service that accepts the connection and then stalls holds the calling
+ * thread (and its bulkhead slot) forever.
+ * <p>
+ * Responses are asked for as Smile, with JSON as the fallback, when the
+ * {@code app.http-client.smile} switch is on: the services answer in binary JSON and the
+ * bodies are smaller and cheaper to parse. Request bodies stay JSON.
+ * <p>
+ * Calls to a service with several replicas are spread over them by the
+ * {@link LoadBalancerRegistry}.
+ */
+@Configuration
+@Slf4j
+public class RestTemplateConfig {
+
+    @Bean
+    public RestTemplateCustomizer downstreamRestTemplateCustomizer(
+            @Value("${app.http-client.connect-timeout-ms:2000}") int connectTimeoutMillis,
+            @Value("${app.http-client.read-timeout-ms:5000}") int readTimeoutMillis,
+            @Value("${app.http-client.smile:true}") boolean smile,
+            ObjectMapper objectMapper,
+            LoadBalancerRegistry loadBalancerRegistry) {
+
+        log.info("downstream http client: connect timeout {} ms, read timeout {} ms, smile {}",
+                connectTimeoutMillis, readTimeoutMillis, smile);
+        return restTemplate -> {
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(connectTimeoutMillis);
+            requestFactory.setReadTimeout(readTimeoutMillis);
+            restTemplate.setRequestFactory(requestFactory);
+
+            if (smile) {
+                restTemplate.getMessageConverters().removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+                restTemplate.getMessageConverters().add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+                restTemplate.getInterceptors().add(preferSmile());
+            }
+            restTemplate.getInterceptors().add(loadBalancerRegistry.interceptor());
+        };
+    }
+
+    // RestTemplate lists every type it can read with the same weight, and the services pick JSON from such a list
+    private static ClientHttpRequestInterceptor preferSmile() {
+        List<MediaType> accept = List.of(SmileConfig.APPLICATION_SMILE,
+                new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9")));
+        return (request, body, execution) -> {
+            if (request.getHeaders().getAccept().contains(SmileConfig.APPLICATION_SMILE)) {
+                request.getHeaders().setAccept(accept);
+            }
+            return execution.execute(request, body);
+        };
+    }
+}
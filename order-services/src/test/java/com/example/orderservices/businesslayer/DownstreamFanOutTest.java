@@ -0,0 +1,116 @@
+package com.example.orderservices.businesslayer;
+
+import com.example.orderservices.businesslogiclayer.DownstreamFanOut;
+import com.example.orderservices.utils.DownstreamUnavailableException;
+import com.example.orderservices.utils.InvalidInputException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DownstreamFanOutTest {
+
+    private final DownstreamFanOut fanOut = new DownstreamFanOut(true, 500);
+
+    @AfterEach
+    void tearDown() {
+        fanOut.shutdown();
+    }
+
+    // returns only once every lookup sharing the latch is running at the same time
+    private static <T> T together(CountDownLatch started, T value) {
+        started.countDown();
+        try {
+            if (!started.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("lookups did not overlap");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted");
+        }
+        return value;
+    }
+
+    @Test
+    @DisplayName("fan-out: lookups overlap → every lookup is in flight at once")
+    void lookupsRunConcurrently() {
+        // generous deadline: this is about overlap, not latency
+        DownstreamFanOut unhurried = new DownstreamFanOut(true, 10_000);
+        CountDownLatch started = new CountDownLatch(4);
+        try (DownstreamFanOut.Scope scope = unhurried.open()) {
+            DownstreamFanOut.Lookup<String> a = scope.fork("a", () -> together(started, "A"));
+            DownstreamFanOut.Lookup<String> b = scope.fork("b", () -> together(started, "B"));
+            DownstreamFanOut.Lookup<String> c = scope.fork("c", () -> together(started, "C"));
+            DownstreamFanOut.Lookup<String> d = scope.fork("d", () -> together(started, "D"));
+            scope.join();
+
+            assertThat(a.get() + b.get() + c.get() + d.get()).isEqualTo("ABCD");
+        } finally {
+            unhurried.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("fan-out: lookup past its deadline → DownstreamUnavailableException, slow call interrupted")
+    void slowLookupTimesOut() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (DownstreamFanOut.Scope scope = fanOut.open()) {
+            scope.fork("customer", () -> {
+                try {
+                    Thread.sleep(30_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "late";
+            });
+            scope.fork("watch", () -> "W1");
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(DownstreamUnavailableException.class)
+                    .hasMessageContaining("customer lookup timed out after 500 ms");
+        }
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("fan-out: first failure is rethrown and cancels the siblings")
+    void firstFailureCancelsSiblings() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (DownstreamFanOut.Scope scope = fanOut.open()) {
+            scope.fork("watch", () -> {
+                try {
+                    Thread.sleep(30_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "W1";
+            });
+            scope.fork("customer", () -> {
+                throw new InvalidInputException("customer-services unavailable");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(InvalidInputException.class)
+                    .hasMessage("customer-services unavailable");
+        }
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("fan-out: sequential mode runs lookups inline")
+    void sequentialModeRunsInline() {
+        DownstreamFanOut sequential = new DownstreamFanOut(false, 500);
+        Thread caller = Thread.currentThread();
+        try (DownstreamFanOut.Scope scope = sequential.open()) {
+            DownstreamFanOut.Lookup<Thread> t = scope.fork("thread", Thread::currentThread);
+            scope.join();
+            assertThat(t.get()).isSameAs(caller);
+        } finally {
+            sequential.shutdown();
+        }
+    }
+}
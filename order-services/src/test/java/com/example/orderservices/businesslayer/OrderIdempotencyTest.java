@@ -0,0 +1,168 @@
+package com.example.orderservices.businesslayer;
+
+import com.example.orderservices.businesslogiclayer.OrderIdempotency;
+import com.example.orderservices.dataaccesslayer.IdempotencyRecord;
+import com.example.orderservices.dataaccesslayer.IdempotencyRecordRepository;
+import com.example.orderservices.dataaccesslayer.IdempotencyStatus;
+import com.example.orderservices.presentationlayer.OrderRequestModel;
+import com.example.orderservices.presentationlayer.OrderResponseModel;
+import com.example.orderservices.utils.IdempotencyConflictException;
+import com.example.orderservices.utils.InvalidInputException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyTest {
+
+    @Mock
+    IdempotencyRecordRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private OrderIdempotency idempotency;
+
+    private final OrderRequestModel request = OrderRequestModel.builder().orderName("O1").watchId("W1").build();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotency = new OrderIdempotency(repository, objectMapper, 30_000);
+    }
+
+    private OrderResponseModel create(String attemptId) {
+        runs.incrementAndGet();
+        return OrderResponseModel.builder().orderId("ORD-1").orderName("O1").build();
+    }
+
+    @Test
+    @DisplayName("first request: claims the key, runs once and stores the response")
+    void firstRequest_runsAndStores() {
+        when(repository.claim(eq("k1"), anyString(), anyString(), any())).thenReturn(true);
+
+        OrderResponseModel out = idempotency.execute("k1", request, this::create);
+
+        assertThat(out.getOrderId()).isEqualTo("ORD-1");
+        assertThat(runs.get()).isEqualTo(1);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(repository).complete(eq("k1"), body.capture());
+        assertThat(body.getValue()).contains("ORD-1");
+    }
+
+    @Test
+    @DisplayName("repeat of a completed request: stored response replayed, nothing re-run")
+    void completedRequest_isReplayed() throws Exception {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        when(repository.claim(eq("k2"), hash.capture(), anyString(), any())).thenReturn(false);
+        when(repository.findById("k2")).thenAnswer(inv -> Optional.of(IdempotencyRecord.builder()
+                .key("k2")
+                .requestHash(hash.getValue())
+                .status(IdempotencyStatus.COMPLETED)
+                .responseBody(objectMapper.writeValueAsString(OrderResponseModel.builder().orderId("ORD-1").build()))
+                .build()));
+
+        OrderResponseModel out = idempotency.execute("k2", request, this::create);
+
+        assertThat(out.getOrderId()).isEqualTo("ORD-1");
+        assertThat(runs.get()).isZero();
+        assertThat(idempotency.getReplayedCount()).isEqualTo(1);
+        verify(repository, never()).complete(any(), any());
+    }
+
+    @Test
+    @DisplayName("same key, different body → InvalidInputException")
+    void differentBody_isRejected() {
+        when(repository.claim(eq("k3"), anyString(), anyString(), any())).thenReturn(false);
+        when(repository.findById("k3")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .key("k3").requestHash("something-else").status(IdempotencyStatus.COMPLETED).build()));
+
+        assertThatThrownBy(() -> idempotency.execute("k3", request, this::create))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("different request");
+        assertThat(runs.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("repeat while the first is still running → 409 conflict")
+    void inProgress_isConflict() {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        when(repository.claim(eq("k4"), hash.capture(), anyString(), any())).thenReturn(false);
+        when(repository.findById("k4")).thenAnswer(inv -> Optional.of(IdempotencyRecord.builder()
+                .key("k4").requestHash(hash.getValue()).status(IdempotencyStatus.IN_PROGRESS)
+                .lockedAt(LocalDateTime.now()).build()));
+        when(repository.takeOver(eq("k4"), any(), any())).thenReturn(false);
+
+        assertThatThrownBy(() -> idempotency.execute("k4", request, this::create))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(runs.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("failed attempt releases the key so the client can retry")
+    void failure_releasesKey() {
+        when(repository.claim(eq("k5"), anyString(), anyString(), any())).thenReturn(true);
+
+        assertThatThrownBy(() -> idempotency.execute("k5", request, attemptId -> {
+            throw new InvalidInputException("Watch 'W1' is out of stock");
+        })).isInstanceOf(InvalidInputException.class);
+
+        verify(repository).deleteById("k5");
+        verify(repository, never()).complete(any(), any());
+    }
+
+    @Test
+    @DisplayName("retry after a failed attempt runs under a new attempt id")
+    void retryAfterFailure_getsNewAttemptId() {
+        ArgumentCaptor<String> claimed = ArgumentCaptor.forClass(String.class);
+        when(repository.claim(eq("k6"), anyString(), claimed.capture(), any())).thenReturn(true);
+        List<String> seen = new ArrayList<>();
+
+        assertThatThrownBy(() -> idempotency.execute("k6", request, attemptId -> {
+            seen.add(attemptId);
+            throw new IllegalStateException("mongo down");
+        })).isInstanceOf(IllegalStateException.class);
+        idempotency.execute("k6", request, attemptId -> {
+            seen.add(attemptId);
+            return create(attemptId);
+        });
+
+        assertThat(seen).containsExactlyElementsOf(claimed.getAllValues());
+        assertThat(seen.get(0)).isNotEqualTo(seen.get(1));
+        verify(repository).deleteById("k6");
+        verify(repository).complete(eq("k6"), anyString());
+    }
+
+    @Test
+    @DisplayName("takeover of a stalled attempt re-runs it under the same attempt id")
+    void takeOver_keepsAttemptId() {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        when(repository.claim(eq("k7"), hash.capture(), anyString(), any())).thenReturn(false);
+        when(repository.findById("k7")).thenAnswer(inv -> Optional.of(IdempotencyRecord.builder()
+                .key("k7").requestHash(hash.getValue()).status(IdempotencyStatus.IN_PROGRESS)
+                .lockedAt(LocalDateTime.now().minusMinutes(5)).attemptId("attempt-1").build()));
+        when(repository.takeOver(eq("k7"), any(), any())).thenReturn(true);
+        List<String> seen = new ArrayList<>();
+
+        idempotency.execute("k7", request, attemptId -> {
+            seen.add(attemptId);
+            return create(attemptId);
+        });
+
+        assertThat(seen).containsExactly("attempt-1");
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.orderservices.businesslayer;
+
+import com.example.orderservices.businesslogiclayer.DownstreamFanOut;
+import com.example.orderservices.businesslogiclayer.OrderReconciliationSweeper;
+import com.example.orderservices.businesslogiclayer.ReconciliationStats;
+import com.example.orderservices.dataaccesslayer.*;
+import com.example.orderservices.domainclientlayer.CustomerServiceClient;
+import com.example.orderservices.domainclientlayer.ProductServiceClient;
+import com.example.orderservices.domainclientlayer.ServicePlanServiceClient;
+import com.example.orderservices.presentationlayer.customerdtos.CustomerResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.catalogdtos.CatalogResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchResponseModel;
+import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+import com.example.orderservices.utils.InvalidInputException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderReconciliationSweeperTest {
+
+    @Mock
+    OrderRepository orderRepository;
+    @Mock
+    CustomerServiceClient customerClient;
+    @Mock
+    ProductServiceClient productClient;
+    @Mock
+    ServicePlanServiceClient planClient;
+
+    OrderReconciliationSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new OrderReconciliationSweeper(orderRepository, customerClient, productClient, planClient,
+                new DownstreamFanOut(false, 1000), 2);
+    }
+
+    private Order makeOrder(String id, String customerId) {
+        Order o = new Order();
+        o.setId(id);
+        o.setOrderIdentifier(new OrderIdentifier("OID-" + id));
+        o.setCustomerIdentifier(new CustomerIdentifier(customerId));
+        o.setCatalogIdentifier(new CatalogIdentifier("CAT1"));
+        o.setWatchIdentifier(new WatchIdentifier("W1"));
+        o.setServicePlanIdentifier(new ServicePlanIdentifier("P1"));
+        return o;
+    }
+
+    private void stubOtherReferences() {
+        when(productClient.getCatalogsByIds(any()))
+                .thenReturn(List.of(new CatalogResponseModel("CAT1", "T", "D")));
+        when(productClient.getCatalogWatchesByIds(any()))
+                .thenReturn(List.of(WatchResponseModel.builder().watchId("W1").build()));
+        when(planClient.getServicePlansByIds(any()))
+                .thenReturn(List.of(new ServicePlanResponseModel("P1", "Cov", LocalDate.now())));
+    }
+
+    @Test
+    @DisplayName("sweep: dangling order quarantined, recovered order released, healthy order untouched")
+    void sweep_quarantinesAndReleases() {
+        Order healthy = makeOrder("a", "C1");
+        Order dangling = makeOrder("b", "GONE");
+        Order recovered = makeOrder("c", "C1");
+        recovered.setQuarantinedAt(LocalDateTime.now().minusDays(1));
+        recovered.setMissingReferences(List.of("CUSTOMER"));
+
+        when(orderRepository.findReconciliationBatch(isNull(), eq(2))).thenReturn(List.of(healthy, dangling));
+        when(orderRepository.findReconciliationBatch(eq("b"), eq(2))).thenReturn(List.of(recovered));
+        when(customerClient.getCustomersByCustomerIds(any()))
+                .thenReturn(List.of(new CustomerResponseModel("C1", "L", "F")));
+        stubOtherReferences();
+
+        sweeper.sweep();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Order>> written = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository, times(2)).saveReferenceStatus(written.capture());
+        assertThat(written.getAllValues().get(0)).containsExactly(dangling);
+        assertThat(written.getAllValues().get(1)).containsExactly(recovered);
+
+        assertThat(dangling.getQuarantinedAt()).isNotNull();
+        assertThat(dangling.getMissingReferences()).containsExactly("CUSTOMER");
+        assertThat(recovered.getQuarantinedAt()).isNull();
+        assertThat(recovered.getMissingReferences()).isNull();
+
+        ReconciliationStats stats = sweeper.stats();
+        assertThat(stats.getOrdersScanned()).isEqualTo(3);
+        assertThat(stats.getBatches()).isEqualTo(2);
+        assertThat(stats.getQuarantined()).isEqualTo(1);
+        assertThat(stats.getReleased()).isEqualTo(1);
+        assertThat(stats.getLastCompletedAt()).isNotNull();
+        assertThat(stats.getLagMillis()).isGreaterThanOrEqualTo(0);
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("sweep: downstream failure → run aborted, nothing quarantined")
+    void sweep_downstreamFailure() {
+        when(orderRepository.findReconciliationBatch(isNull(), eq(2))).thenReturn(List.of(makeOrder("a", "C1")));
+        when(customerClient.getCustomersByCustomerIds(any()))
+                .thenThrow(new InvalidInputException("customer-services unavailable"));
+
+        sweeper.sweep();
+
+        verify(orderRepository, never()).saveReferenceStatus(any());
+        ReconciliationStats stats = sweeper.stats();
+        assertThat(stats.getFailedRuns()).isEqualTo(1);
+        assertThat(stats.getLastError()).isEqualTo("customer-services unavailable");
+        assertThat(stats.getLastCompletedAt()).isNull();
+        assertThat(stats.getLagMillis()).isEqualTo(-1);
+    }
+}
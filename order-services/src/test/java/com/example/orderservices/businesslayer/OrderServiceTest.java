@@ -1,5 +1,7 @@
 package com.example.orderservices.businesslayer;
 
+import com.example.orderservices.businesslogiclayer.DownstreamFanOut;
+import com.example.orderservices.businesslogiclayer.OrderIdempotency;
 import com.example.orderservices.businesslogiclayer.OrderServiceImpl;
 import com.example.orderservices.dataaccesslayer.*;
 import com.example.orderservices.dataaccesslayer.Currency;
@@ -8,12 +10,13 @@ import com.example.orderservices.datamapperlayer.OrderResponseMapper;
 import com.example.orderservices.domainclientlayer.CustomerServiceClient;
 import com.example.orderservices.domainclientlayer.ProductServiceClient;
 import com.example.orderservices.domainclientlayer.ServicePlanServiceClient;
+import com.example.orderservices.presentationlayer.OrderPageResponseModel;
 import com.example.orderservices.presentationlayer.OrderRequestModel;
 import com.example.orderservices.presentationlayer.OrderResponseModel;
+import com.example.orderservices.presentationlayer.OrderSearchRequestModel;
 import com.example.orderservices.presentationlayer.customerdtos.CustomerResponseModel;
 import com.example.orderservices.presentationlayer.productdtos.catalogdtos.CatalogResponseModel;
 import com.example.orderservices.presentationlayer.productdtos.watchdtos.UsageType;
-import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchRequestModel;
 import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchResponseModel;
 import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
 import com.example.orderservices.dataaccesslayer.Price;
@@ -26,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
 
@@ -33,6 +37,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -53,6 +59,10 @@ class OrderServiceTest {
     ProductServiceClient productClient;
     @Mock
     ServicePlanServiceClient planClient;
+    @Spy
+    DownstreamFanOut fanOut = new DownstreamFanOut(true, 500);
+    @Mock
+    OrderIdempotency orderIdempotency;
 
     @InjectMocks
     OrderServiceImpl service;
@@ -98,7 +108,7 @@ class OrderServiceTest {
         when(productClient.getCatalogById("CAT1"))
                 .thenReturn(new CatalogResponseModel("CAT1", "T", "D"));
 
-        when(productClient.getCatalogWatchByID("W1"))
+        when(productClient.getCatalogWatchMetadataByID("W1"))
                 .thenReturn(WatchResponseModel.builder()
                         .catalogId("CAT1")
                         .watchId("W1")
@@ -128,7 +138,7 @@ class OrderServiceTest {
                         "P1", "Cov", LocalDate.now(),
                         "O1", 200.0, "USD", "EUR",
                         LocalDateTime.now(),
-                        OrderStatus.PURCHASE_COMPLETED
+                        OrderStatus.PURCHASE_COMPLETED, null
                 ));
 
         // Act
@@ -140,16 +150,168 @@ class OrderServiceTest {
         assertThat(dto.getCustomerLastName()).isEqualTo("B");
     }
     @Test
-    @DisplayName("getAllOrders: downstream client throws → order deleted & skipped")
+    @DisplayName("getAllOrders: one bulk call per downstream for the whole page")
+    void getAllOrders_bulkEnrichment() {
+        Order o1 = makeOrder("X1");
+        Order o2 = makeOrder("X2");
+        when(orderRepository.findPage(any())).thenReturn(List.of(o1, o2));
+
+        when(customerClient.getCustomersByCustomerIds(Set.of("C1")))
+                .thenReturn(List.of(new CustomerResponseModel("C1", "L", "F")));
+        when(productClient.getCatalogsByIds(Set.of("CAT1")))
+                .thenReturn(List.of(new CatalogResponseModel("CAT1", "T", "D")));
+        when(productClient.getCatalogWatchesByIds(Set.of("W1")))
+                .thenReturn(List.of(WatchResponseModel.builder()
+                        .watchId("W1").catalogId("CAT1").model("M").material("Mat").build()));
+        when(planClient.getServicePlansByIds(Set.of("P1")))
+                .thenReturn(List.of(new ServicePlanResponseModel("P1", "Cov", LocalDate.now())));
+
+        when(responseMapper.entityToResponseModel(any(Order.class)))
+                .thenAnswer(inv -> OrderResponseModel.builder()
+                        .orderId(((Order) inv.getArgument(0)).getOrderIdentifier().getOrderId())
+                        .customerId("C1").catalogId("CAT1").watchId("W1").servicePlanId("P1")
+                        .build());
+
+        List<OrderResponseModel> all = service.getAllOrders(new OrderSearchRequestModel()).getOrders();
+
+        assertThat(all).extracting(OrderResponseModel::getOrderId).containsExactly("X1", "X2");
+        assertThat(all).allSatisfy(dto -> {
+            assertThat(dto.getCustomerFirstName()).isEqualTo("F");
+            assertThat(dto.getCatalogType()).isEqualTo("T");
+            assertThat(dto.getWatchModel()).isEqualTo("M");
+            assertThat(dto.getServicePlanCoverageDetails()).isEqualTo("Cov");
+        });
+        assertThat(o1.getSnapshot().getCatalogType()).isEqualTo("T");   // backfilled for next time
+        verify(orderRepository).saveSnapshots(any());
+        verify(customerClient, times(1)).getCustomersByCustomerIds(any());
+        verify(customerClient, never()).getCustomerbyCustomerId(any());
+        verify(productClient, never()).getCatalogWatchByID(any());
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("getAllOrders: reference missing from bulk answer → order flagged, kept, not deleted")
+    void getAllOrders_referenceMissing() {
+        Order o = makeOrder("X2");
+        when(orderRepository.findPage(any())).thenReturn(List.of(o));
+        when(customerClient.getCustomersByCustomerIds(any())).thenReturn(List.of());
+        when(productClient.getCatalogsByIds(any()))
+                .thenReturn(List.of(new CatalogResponseModel("CAT1", "T", "D")));
+        when(productClient.getCatalogWatchesByIds(any())).thenReturn(List.of(WatchResponseModel.builder()
+                .watchId("W1").catalogId("CAT1").model("M").build()));
+        when(planClient.getServicePlansByIds(any()))
+                .thenReturn(List.of(new ServicePlanResponseModel("P1", "Cov", LocalDate.now())));
+        when(responseMapper.entityToResponseModel(o))
+                .thenReturn(OrderResponseModel.builder().orderId("X2").build());
+
+        List<OrderResponseModel> all = service.getAllOrders(new OrderSearchRequestModel()).getOrders();
+
+        assertThat(all).hasSize(1);
+        assertThat(all.get(0).getMissingReferences()).containsExactly("CUSTOMER");
+        assertThat(o.getQuarantinedAt()).isNull();   // quarantine is the sweeper's call
+        assertThat(o.getSnapshot()).isNull();         // nothing stored that would read as fresh
+        verify(orderRepository).saveSnapshots(Map.of());
+        verify(orderRepository).saveReferenceStatus(List.of(o));
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("getAllOrders: bulk call throws → propagated, nothing deleted")
     void getAllOrders_clientThrows() {
         Order o = makeOrder("X2");
-        when(orderRepository.findAll()).thenReturn(List.of(o));
-        when(customerClient.getCustomerbyCustomerId(any()))
-                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        when(orderRepository.findPage(any())).thenReturn(List.of(o));
+        when(customerClient.getCustomersByCustomerIds(any()))
+                .thenThrow(new InvalidInputException("customer-services unavailable"));
 
-        List<OrderResponseModel> all = service.getAllOrders();
-        assertThat(all).isEmpty();
-        verify(orderRepository).delete(o);
+        assertThatThrownBy(() -> service.getAllOrders(new OrderSearchRequestModel()).getOrders())
+                .isInstanceOf(InvalidInputException.class);
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("getAllOrders: filters and limit+1 passed down, extra row turned into a cursor that resumes after it")
+    void getAllOrders_keysetPage() {
+        Order o1 = makeOrder("X1");
+        o1.setId("id1");
+        Order o2 = makeOrder("X2");
+        o2.setId("id2");
+        Order o3 = makeOrder("X3");
+        o3.setId("id3");
+        for (Order o : List.of(o1, o2, o3)) {
+            o.setSnapshot(OrderSnapshot.builder().refreshedAt(LocalDateTime.now()).build());
+        }
+        ArgumentCaptor<OrderPageQuery> query = ArgumentCaptor.forClass(OrderPageQuery.class);
+        when(orderRepository.findPage(query.capture()))
+                .thenReturn(new ArrayList<>(List.of(o1, o2, o3)))
+                .thenReturn(new ArrayList<>(List.of(o3)));
+        when(responseMapper.entityToResponseModel(any(Order.class)))
+                .thenAnswer(inv -> OrderResponseModel.builder()
+                        .orderId(((Order) inv.getArgument(0)).getOrderIdentifier().getOrderId()).build());
+
+        OrderPageResponseModel first = service.getAllOrders(OrderSearchRequestModel.builder()
+                .customerId("C1").status(OrderStatus.PURCHASE_COMPLETED).limit(2).build());
+
+        assertThat(first.getOrders()).extracting(OrderResponseModel::getOrderId).containsExactly("X1", "X2");
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+        assertThat(query.getValue().getCustomerId()).isEqualTo("C1");
+        assertThat(query.getValue().getOrderStatus()).isEqualTo(OrderStatus.PURCHASE_COMPLETED);
+        assertThat(query.getValue().getAfterId()).isNull();
+
+        OrderPageResponseModel second = service.getAllOrders(OrderSearchRequestModel.builder()
+                .customerId("C1").status(OrderStatus.PURCHASE_COMPLETED).limit(2).cursor(first.getNextCursor()).build());
+
+        assertThat(second.getOrders()).extracting(OrderResponseModel::getOrderId).containsExactly("X3");
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(query.getValue().getAfterId()).isEqualTo("id2");
+        assertThat(query.getValue().getAfterOrderDate()).isEqualTo(o2.getOrderDate());
+        verifyNoInteractions(customerClient, productClient, planClient);
+    }
+
+    @Test
+    @DisplayName("getAllOrders: garbage cursor → InvalidInputException, no query")
+    void getAllOrders_invalidCursor() {
+        assertThatThrownBy(() -> service.getAllOrders(OrderSearchRequestModel.builder().cursor("%%%").build()))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("cursor");
+        verify(orderRepository, never()).findPage(any());
+    }
+
+    @Test
+    @DisplayName("getAllOrders: limit out of range or empty date range → InvalidInputException")
+    void getAllOrders_invalidBounds() {
+        assertThatThrownBy(() -> service.getAllOrders(OrderSearchRequestModel.builder().limit(0).build()))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> service.getAllOrders(OrderSearchRequestModel.builder().limit(501).build()))
+                .isInstanceOf(InvalidInputException.class);
+        LocalDateTime now = LocalDateTime.now();
+        assertThatThrownBy(() -> service.getAllOrders(OrderSearchRequestModel.builder().from(now).to(now).build()))
+                .isInstanceOf(InvalidInputException.class);
+        verify(orderRepository, never()).findPage(any());
+    }
+
+    @Test
+    @DisplayName("exportOrders: streams every order to the sink in cursor order and closes the cursor")
+    void exportOrders_streamsAndCloses() {
+        Order o1 = makeOrder("E1");
+        Order o2 = makeOrder("E2");
+        for (Order o : List.of(o1, o2)) {
+            o.setSnapshot(OrderSnapshot.builder().refreshedAt(LocalDateTime.now()).build());
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        when(orderRepository.streamForExport(anyInt()))
+                .thenReturn(Stream.of(o1, o2).onClose(() -> closed.set(true)));
+        when(responseMapper.entityToResponseModel(any(Order.class)))
+                .thenAnswer(inv -> OrderResponseModel.builder()
+                        .orderId(((Order) inv.getArgument(0)).getOrderIdentifier().getOrderId()).build());
+
+        List<String> seen = new ArrayList<>();
+        long exported = service.exportOrders(dto -> seen.add(dto.getOrderId()));
+
+        assertThat(exported).isEqualTo(2);
+        assertThat(seen).containsExactly("E1", "E2");
+        assertThat(closed).isTrue();
+        verifyNoInteractions(customerClient, productClient, planClient);
     }
 
 //────────────────────────────────────────────────────────────────
@@ -167,14 +329,95 @@ class OrderServiceTest {
     }
 
     @Test
-    @DisplayName("getOrderById: downstream null → delete + NotFoundException")
+    @DisplayName("getOrderById: snapshot present → single Mongo read, no downstream calls")
+    void getOrderById_fromSnapshot() {
+        Order o = makeOrder("S1");
+        o.setSnapshot(OrderSnapshot.builder()
+                .customerFirstName("F").customerLastName("L")
+                .catalogType("T").watchModel("M").servicePlanCoverageDetails("Cov")
+                .refreshedAt(LocalDateTime.now())
+                .build());
+        when(orderRepository.findOrderByOrderIdentifier_OrderId("S1")).thenReturn(o);
+        when(responseMapper.entityToResponseModel(o))
+                .thenReturn(OrderResponseModel.builder().orderId("S1").build());
+
+        OrderResponseModel dto = service.getOrderById("S1");
+
+        assertThat(dto.getCustomerFirstName()).isEqualTo("F");
+        assertThat(dto.getWatchModel()).isEqualTo("M");
+        verifyNoInteractions(customerClient, productClient, planClient);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("getAllOrders: snapshots present → no downstream calls")
+    void getAllOrders_fromSnapshots() {
+        Order o = makeOrder("S2");
+        o.setSnapshot(OrderSnapshot.builder().catalogType("T").refreshedAt(LocalDateTime.now()).build());
+        when(orderRepository.findPage(any())).thenReturn(List.of(o));
+        when(responseMapper.entityToResponseModel(o))
+                .thenReturn(OrderResponseModel.builder().orderId("S2").build());
+
+        List<OrderResponseModel> all = service.getAllOrders(new OrderSearchRequestModel()).getOrders();
+
+        assertThat(all).extracting(OrderResponseModel::getCatalogType).containsExactly("T");
+        verifyNoInteractions(customerClient, productClient, planClient);
+    }
+
+    @Test
+    @DisplayName("getOrderById: reference gone downstream → flagged response, no delete")
     void getOrderById_downstreamNull() {
         Order o = makeOrder("Z2");
         when(orderRepository.findOrderByOrderIdentifier_OrderId("Z2")).thenReturn(o);
-        when(customerClient.getCustomerbyCustomerId("C1")).thenReturn(null);
-        assertThatThrownBy(() -> service.getOrderById("Z2"))
-                .isInstanceOf(NotFoundException.class);
-        verify(orderRepository).delete(o);
+        when(customerClient.getCustomerbyCustomerId("C1"))
+                .thenThrow(new NotFoundException("Customer not found: C1"));
+        when(productClient.getCatalogById("CAT1")).thenReturn(new CatalogResponseModel("CAT1", "T", "D"));
+        when(productClient.getCatalogWatchMetadataByID("W1"))
+                .thenReturn(WatchResponseModel.builder().watchId("W1").model("M").build());
+        when(planClient.getServicePlansById("P1")).thenReturn(null);
+        when(responseMapper.entityToResponseModel(o))
+                .thenReturn(OrderResponseModel.builder().orderId("Z2").build());
+
+        OrderResponseModel dto = service.getOrderById("Z2");
+
+        assertThat(dto.getMissingReferences()).containsExactly("CUSTOMER", "SERVICE_PLAN");
+        assertThat(dto.getCatalogType()).isEqualTo("T");
+        verify(orderRepository).save(o);
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("getOrderById: lookup times out → order served from Mongo without a snapshot, nothing saved")
+    void getOrderById_downstreamTimeout() {
+        Order o = makeOrder("Z3");
+        when(orderRepository.findOrderByOrderIdentifier_OrderId("Z3")).thenReturn(o);
+        when(customerClient.getCustomerbyCustomerId("C1")).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return new CustomerResponseModel("C1", "F", "L");
+        });
+        when(responseMapper.entityToResponseModel(o))
+                .thenReturn(OrderResponseModel.builder().orderId("Z3").build());
+
+        OrderResponseModel dto = service.getOrderById("Z3");
+
+        assertThat(dto.getOrderId()).isEqualTo("Z3");
+        assertThat(o.getSnapshot()).isNull();
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("getOrderById: breaker open → order served without a snapshot")
+    void getOrderById_breakerOpen() {
+        Order o = makeOrder("Z4");
+        when(orderRepository.findOrderByOrderIdentifier_OrderId("Z4")).thenReturn(o);
+        when(productClient.getCatalogById("CAT1"))
+                .thenThrow(new DownstreamUnavailableException("product-services circuit breaker is open"));
+        when(responseMapper.entityToResponseModel(o))
+                .thenReturn(OrderResponseModel.builder().orderId("Z4").build());
+
+        assertThat(service.getOrderById("Z4").getOrderId()).isEqualTo("Z4");
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
 //────────────────────────────────────────────────────────────────
@@ -204,7 +447,7 @@ class OrderServiceTest {
         when(customerClient.getCustomerbyCustomerId("CC"))
                 .thenReturn(new CustomerResponseModel("CC", "F", "L"));
 
-        when(productClient.getCatalogWatchByID("WX"))
+        when(productClient.getCatalogWatchMetadataByID("WX"))
                 .thenReturn(WatchResponseModel.builder()
                         .watchId("WX").catalogId("CATX").quantity(5).usageType(UsageType.NEW)
                         .model("M").material("Mat").accessories(List.of())
@@ -242,14 +485,143 @@ class OrderServiceTest {
         // assertions
         assertThat(out.getOrderId()).isEqualTo("R1");
 
-        // verify inventory update with matchers for all args
-        verify(productClient).updateWatchInInventory(
-                eq("CATX"),
-                eq("WX"),
-                any(WatchRequestModel.class)
-        );
+        // one atomic stock call, keyed by the new order id
+        verify(productClient).adjustWatchStock(eq("WX"), eq(-1), endsWith(":create"));
+        verify(productClient, never()).getCatalogWatchByID(any());
     }
 
+    @Test
+    @DisplayName("createOrder: out of stock → InvalidInputException, order never written")
+    void createOrder_outOfStock() {
+        OrderRequestModel req = OrderRequestModel.builder()
+                .orderName("Late").customerId("CC").catalogId("CATX").watchId("WX").servicePlanId("PX")
+                .salePrice(50.0).currency("USD").paymentCurrency("EUR").build();
+        when(orderRepository.existsByOrderName("Late")).thenReturn(false);
+        when(customerClient.getCustomerbyCustomerId("CC")).thenReturn(new CustomerResponseModel("CC", "F", "L"));
+        when(productClient.getCatalogWatchMetadataByID("WX"))
+                .thenReturn(WatchResponseModel.builder().watchId("WX").catalogId("CATX").quantity(1).build());
+        when(productClient.getCatalogById("CATX")).thenReturn(new CatalogResponseModel("CATX", "T", "D"));
+        when(planClient.getServicePlansById("PX")).thenReturn(new ServicePlanResponseModel("PX", "Cov", LocalDate.now()));
+        when(requestMapper.requestModelToEntity(req)).thenReturn(makeOrder("R2"));
+        when(productClient.adjustWatchStock(eq("WX"), eq(-1), anyString()))
+                .thenThrow(new InvalidInputException("Watch 'WX' is out of stock"));
+
+        assertThatThrownBy(() -> service.createOrder(req))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("out of stock");
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("createOrder: save fails → reserved stock given back")
+    void createOrder_saveFails_undoesStock() {
+        OrderRequestModel req = OrderRequestModel.builder()
+                .orderName("Boom").customerId("CC").catalogId("CATX").watchId("WX").servicePlanId("PX")
+                .salePrice(50.0).currency("USD").paymentCurrency("EUR").build();
+        when(orderRepository.existsByOrderName("Boom")).thenReturn(false);
+        when(customerClient.getCustomerbyCustomerId("CC")).thenReturn(new CustomerResponseModel("CC", "F", "L"));
+        when(productClient.getCatalogWatchMetadataByID("WX"))
+                .thenReturn(WatchResponseModel.builder().watchId("WX").catalogId("CATX").build());
+        when(productClient.getCatalogById("CATX")).thenReturn(new CatalogResponseModel("CATX", "T", "D"));
+        when(planClient.getServicePlansById("PX")).thenReturn(new ServicePlanResponseModel("PX", "Cov", LocalDate.now()));
+        Order built = makeOrder("R3");
+        when(requestMapper.requestModelToEntity(req)).thenReturn(built);
+        when(orderRepository.save(built)).thenThrow(new IllegalStateException("mongo down"));
+
+        assertThatThrownBy(() -> service.createOrder(req)).isInstanceOf(IllegalStateException.class);
+
+        verify(productClient).adjustWatchStock(eq("WX"), eq(-1), endsWith(":create"));
+        verify(productClient).adjustWatchStock(eq("WX"), eq(1), endsWith(":create:undo"));
+    }
+
+    @Test
+    @DisplayName("createOrder: concurrent create wins the unique orderName index → DuplicateOrderName, stock given back")
+    void createOrder_duplicateKeyOnSave_isDuplicateOrderName() {
+        OrderRequestModel req = OrderRequestModel.builder()
+                .orderName("Race").customerId("CC").catalogId("CATX").watchId("WX").servicePlanId("PX")
+                .salePrice(50.0).currency("USD").paymentCurrency("EUR").build();
+        when(orderRepository.existsByOrderName("Race")).thenReturn(false);
+        when(customerClient.getCustomerbyCustomerId("CC")).thenReturn(new CustomerResponseModel("CC", "F", "L"));
+        when(productClient.getCatalogWatchMetadataByID("WX"))
+                .thenReturn(WatchResponseModel.builder().watchId("WX").catalogId("CATX").build());
+        when(productClient.getCatalogById("CATX")).thenReturn(new CatalogResponseModel("CATX", "T", "D"));
+        when(planClient.getServicePlansById("PX")).thenReturn(new ServicePlanResponseModel("PX", "Cov", LocalDate.now()));
+        Order built = makeOrder("R4");
+        built.setOrderName("Race");
+        when(requestMapper.requestModelToEntity(req)).thenReturn(built);
+        when(orderRepository.save(built)).thenThrow(new DuplicateKeyException("E11000 orderName_unique"));
+
+        assertThatThrownBy(() -> service.createOrder(req))
+                .isInstanceOf(DuplicateOrderName.class)
+                .hasMessageContaining("Race");
+        verify(productClient).adjustWatchStock(eq("WX"), eq(1), endsWith(":create:undo"));
+    }
+
+
+    @Test
+    @DisplayName("createOrder: with Idempotency-Key → runs through the store, order id derived from the key")
+    void createOrder_idempotencyKey() {
+        OrderRequestModel req = OrderRequestModel.builder().orderName("K").build();
+        OrderResponseModel stored = OrderResponseModel.builder().orderId("from-store").build();
+        when(orderIdempotency.execute(eq("key-1"), eq(req), any())).thenReturn(stored);
+
+        assertThat(service.createOrder(req, "key-1")).isSameAs(stored);
+        verifyNoInteractions(customerClient, productClient, planClient);
+    }
+
+    @Test
+    @DisplayName("createOrder: earlier attempt already wrote the order → it is returned, nothing re-run")
+    void createOrder_idempotencyKey_orderAlreadyWritten() {
+        OrderRequestModel req = OrderRequestModel.builder().orderName("K").build();
+        Order already = makeOrder("derived");
+        already.setSnapshot(OrderSnapshot.builder().catalogType("T").build());
+        when(orderIdempotency.execute(eq("key-2"), eq(req), any()))
+                .thenAnswer(inv -> ((java.util.function.Function<String, ?>) inv.getArgument(2)).apply("a1"));
+        when(orderRepository.findOrderByOrderIdentifier_OrderId(anyString())).thenReturn(already);
+        when(responseMapper.entityToResponseModel(already))
+                .thenReturn(OrderResponseModel.builder().orderId("derived").build());
+
+        OrderResponseModel out = service.createOrder(req, "key-2");
+
+        assertThat(out.getOrderId()).isEqualTo("derived");
+        assertThat(out.getCatalogType()).isEqualTo("T");
+        verify(productClient, never()).adjustWatchStock(any(), anyInt(), any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("createOrder: save fails, same Idempotency-Key retried → stock taken again under the new attempt")
+    void createOrder_idempotencyKey_retryAfterFailedSave_takesStockAgain() {
+        OrderRequestModel req = OrderRequestModel.builder()
+                .orderName("Retry").customerId("CC").catalogId("CATX").watchId("WX").servicePlanId("PX")
+                .salePrice(50.0).currency("USD").paymentCurrency("EUR").build();
+        when(orderRepository.existsByOrderName("Retry")).thenReturn(false);
+        when(customerClient.getCustomerbyCustomerId("CC")).thenReturn(new CustomerResponseModel("CC", "F", "L"));
+        when(productClient.getCatalogWatchMetadataByID("WX"))
+                .thenReturn(WatchResponseModel.builder().watchId("WX").catalogId("CATX").build());
+        when(productClient.getCatalogById("CATX")).thenReturn(new CatalogResponseModel("CATX", "T", "D"));
+        when(planClient.getServicePlansById("PX")).thenReturn(new ServicePlanResponseModel("PX", "Cov", LocalDate.now()));
+        Order built = makeOrder("R5");
+        when(requestMapper.requestModelToEntity(req)).thenReturn(built);
+        when(orderRepository.save(built))
+                .thenThrow(new IllegalStateException("mongo down"))
+                .thenReturn(built);
+        when(responseMapper.entityToResponseModel(built))
+                .thenReturn(OrderResponseModel.builder().orderId("R5").build());
+        // the store hands out a new attempt id for each claim after a release
+        java.util.Iterator<String> attempts = List.of("a1", "a2").iterator();
+        when(orderIdempotency.execute(eq("key-3"), eq(req), any()))
+                .thenAnswer(inv -> ((java.util.function.Function<String, ?>) inv.getArgument(2)).apply(attempts.next()));
+
+        assertThatThrownBy(() -> service.createOrder(req, "key-3")).isInstanceOf(IllegalStateException.class);
+        OrderResponseModel out = service.createOrder(req, "key-3");
+
+        assertThat(out.getOrderId()).isEqualTo("R5");
+        org.mockito.InOrder stock = inOrder(productClient);
+        stock.verify(productClient).adjustWatchStock(eq("WX"), eq(-1), endsWith(":create:a1"));
+        stock.verify(productClient).adjustWatchStock(eq("WX"), eq(1), endsWith(":create:a1:undo"));
+        stock.verify(productClient).adjustWatchStock(eq("WX"), eq(-1), endsWith(":create:a2"));
+    }
 
 @Test @DisplayName("createOrder: missing orderName → InvalidInputException")
 void createOrder_missingRequired() {
@@ -333,7 +705,7 @@ void updateOrder_notFound() {
                 ))
                 .watchBrand(new WatchBrand("B", "C"))
                 .build();
-        when(productClient.getCatalogWatchByID("W1")).thenReturn(watch);
+        when(productClient.getCatalogWatchMetadataByID("W1")).thenReturn(watch);
 
         // stub the final mapper
         when(responseMapper.entityToResponseModel(existing))
@@ -344,7 +716,7 @@ void updateOrder_notFound() {
                         "P1", "Cov", LocalDate.now(),
                         "O1", 100.0, "USD", "EUR",
                         LocalDateTime.now(),
-                        OrderStatus.PURCHASE_CANCELED
+                        OrderStatus.PURCHASE_CANCELED, null
                 ));
 
         // call under test
@@ -354,12 +726,59 @@ void updateOrder_notFound() {
         assertThat(out.getOrderStatus())
                 .isEqualTo(OrderStatus.PURCHASE_CANCELED);
 
-        // verify we called updateWatchInInventory once, matcher’ed for all params
-        verify(productClient).updateWatchInInventory(
-                eq("CAT1"),
-                eq("W1"),
-                any(WatchRequestModel.class)
-        );
+        // cancel gives the unit back in one atomic call
+        verify(productClient).adjustWatchStock(eq("W1"), eq(1), startsWith("U1:update:"));
+    }
+
+    @Test
+    @DisplayName("updateOrder: a reference gone from its service → update goes through, old snapshot kept, reference flagged")
+    void updateOrder_referenceMissing_keepsSnapshot() {
+        Order existing = makeOrder("U2");
+        OrderSnapshot old = OrderSnapshot.builder().customerFirstName("F").servicePlanCoverageDetails("Cov").build();
+        existing.setSnapshot(old);
+        when(orderRepository.findOrderByOrderIdentifier_OrderId("U2")).thenReturn(existing);
+        when(customerClient.getCustomerbyCustomerId("C1")).thenReturn(new CustomerResponseModel("C1", "F", "L"));
+        when(productClient.getCatalogById("CAT1")).thenReturn(new CatalogResponseModel("CAT1", "T", "D"));
+        when(productClient.getCatalogWatchMetadataByID("W1"))
+                .thenReturn(WatchResponseModel.builder().watchId("W1").model("M").material("Mat").build());
+        when(planClient.getServicePlansById("P1")).thenThrow(new NotFoundException("plan P1 not found"));
+        when(orderRepository.save(existing)).thenReturn(existing);
+        when(responseMapper.entityToResponseModel(existing)).thenReturn(new OrderResponseModel());
+
+        OrderRequestModel req = OrderRequestModel.builder()
+                .orderName("O1").orderStatus(OrderStatus.PURCHASE_COMPLETED).build();
+        OrderResponseModel out = service.updateOrder("U2", req);
+
+        assertThat(existing.getSnapshot()).isSameAs(old);
+        assertThat(out.getMissingReferences()).containsExactly("SERVICE_PLAN");
+        assertThat(out.getServicePlanCoverageDetails()).isEqualTo("Cov");
+        verify(productClient, never()).adjustWatchStock(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("updateOrder: a dependency down → update goes through with the old snapshot")
+    void updateOrder_downstreamUnavailable_keepsSnapshot() {
+        Order existing = makeOrder("U3");
+        OrderSnapshot old = OrderSnapshot.builder().customerFirstName("F").build();
+        existing.setSnapshot(old);
+        when(orderRepository.findOrderByOrderIdentifier_OrderId("U3")).thenReturn(existing);
+        lenient().when(customerClient.getCustomerbyCustomerId("C1"))
+                .thenThrow(new DownstreamUnavailableException("customer-services unavailable"));
+        lenient().when(productClient.getCatalogById("CAT1")).thenReturn(new CatalogResponseModel("CAT1", "T", "D"));
+        lenient().when(productClient.getCatalogWatchMetadataByID("W1"))
+                .thenReturn(WatchResponseModel.builder().watchId("W1").build());
+        lenient().when(planClient.getServicePlansById("P1"))
+                .thenReturn(new ServicePlanResponseModel("P1", "Cov", LocalDate.now()));
+        when(orderRepository.save(existing)).thenReturn(existing);
+        when(responseMapper.entityToResponseModel(existing)).thenReturn(new OrderResponseModel());
+
+        OrderRequestModel req = OrderRequestModel.builder()
+                .orderName("O1").orderStatus(OrderStatus.PURCHASE_COMPLETED).build();
+        service.updateOrder("U3", req);
+
+        assertThat(existing.getSnapshot()).isSameAs(old);
+        assertThat(existing.getMissingReferences()).isNull();
+        verify(orderRepository).save(existing);
     }
 
 //────────────────────────────────────────────────────────────────
@@ -374,18 +793,6 @@ void updateOrder_notFound() {
         when(orderRepository.findOrderByOrderIdentifier_OrderId("D1"))
                 .thenReturn(o);
 
-        WatchResponseModel watch = WatchResponseModel.builder()
-                .watchId("W1").catalogId("CAT1").quantity(3)
-                .usageType(UsageType.NEW).model("M").material("Mat")
-                .accessories(List.of())
-                .price(new com.example.orderservices.presentationlayer.productdtos.watchdtos.Price(
-                        new BigDecimal("100"),
-                        new BigDecimal("80"),
-                        new BigDecimal("20")))
-                .watchBrand(new WatchBrand("B","C"))
-                .build();
-        when(productClient.getCatalogWatchByID("W1")).thenReturn(watch);
-
         String msg = service.deleteOrder("D1");
 
         // match the actual phrasing:
@@ -393,9 +800,7 @@ void updateOrder_notFound() {
                 .contains("Order 'D1' deleted")
                 .contains("stock restored");
 
-        verify(productClient).updateWatchInInventory(
-                eq("CAT1"), eq("W1"), any(WatchRequestModel.class)
-        );
+        verify(productClient).adjustWatchStock("W1", 1, "D1:delete");
         verify(orderRepository).delete(o);
     }
 
@@ -0,0 +1,139 @@
+package com.example.orderservices.businesslayer;
+
+import com.example.orderservices.businesslogiclayer.DownstreamFanOut;
+import com.example.orderservices.businesslogiclayer.OrderSnapshotRefresher;
+import com.example.orderservices.businesslogiclayer.ReferenceChangedEvent;
+import com.example.orderservices.dataaccesslayer.*;
+import com.example.orderservices.domainclientlayer.CustomerServiceClient;
+import com.example.orderservices.domainclientlayer.ProductServiceClient;
+import com.example.orderservices.domainclientlayer.ServicePlanServiceClient;
+import com.example.orderservices.presentationlayer.customerdtos.CustomerResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.catalogdtos.CatalogResponseModel;
+import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchResponseModel;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceChangeType;
+import com.example.orderservices.presentationlayer.referencedtos.ReferenceType;
+import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSnapshotRefresherTest {
+
+    @Mock
+    OrderRepository orderRepository;
+    @Mock
+    CustomerServiceClient customerClient;
+    @Mock
+    ProductServiceClient productClient;
+    @Mock
+    ServicePlanServiceClient planClient;
+
+    OrderSnapshotRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        refresher = new OrderSnapshotRefresher(orderRepository, customerClient, productClient, planClient,
+                new DownstreamFanOut(false, 1000), 2, 3_600_000);
+    }
+
+    private Order makeOrder(String id, String customerId) {
+        Order o = new Order();
+        o.setId(id);
+        o.setOrderIdentifier(new OrderIdentifier("OID-" + id));
+        o.setCustomerIdentifier(new CustomerIdentifier(customerId));
+        o.setCatalogIdentifier(new CatalogIdentifier("CAT1"));
+        o.setWatchIdentifier(new WatchIdentifier("W1"));
+        o.setServicePlanIdentifier(new ServicePlanIdentifier("P1"));
+        return o;
+    }
+
+    @Test
+    @DisplayName("reference change → affected snapshots flagged stale by path")
+    void referenceChanged_marksStale() {
+        when(orderRepository.markSnapshotsStale("servicePlanIdentifier.planId", "P1")).thenReturn(3L);
+
+        refresher.onReferenceChanged(new ReferenceChangedEvent(ReferenceType.SERVICE_PLAN, "P1", ReferenceChangeType.UPDATED));
+
+        assertThat(refresher.getMarkedStaleCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("refresh: batches in _id order, missing reference keeps old snapshot and is never deleted")
+    void refreshSnapshots_batchesAndKeepsUnresolved() {
+        Order a = makeOrder("a", "C1");
+        Order b = makeOrder("b", "GONE");
+        b.setSnapshot(OrderSnapshot.builder().customerFirstName("Old").stale(true).build());
+        Order c = makeOrder("c", "C1");
+
+        when(orderRepository.findSnapshotsToRefresh(any(), isNull(), eq(2))).thenReturn(List.of(a, b));
+        when(orderRepository.findSnapshotsToRefresh(any(), eq("b"), eq(2))).thenReturn(List.of(c));
+
+        when(customerClient.getCustomersByCustomerIds(any()))
+                .thenReturn(List.of(new CustomerResponseModel("C1", "L", "F")));
+        when(productClient.getCatalogsByIds(any()))
+                .thenReturn(List.of(new CatalogResponseModel("CAT1", "T", "D")));
+        when(productClient.getCatalogWatchesByIds(any()))
+                .thenReturn(List.of(WatchResponseModel.builder().watchId("W1").model("M").material("Mat").build()));
+        when(planClient.getServicePlansByIds(any()))
+                .thenReturn(List.of(new ServicePlanResponseModel("P1", "Cov", LocalDate.now())));
+
+        refresher.refreshSnapshots();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, OrderSnapshot>> written = ArgumentCaptor.forClass(Map.class);
+        verify(orderRepository, times(2)).saveSnapshots(written.capture());
+
+        Map<String, OrderSnapshot> first = written.getAllValues().get(0);
+        assertThat(first.get("a").getCustomerFirstName()).isEqualTo("F");
+        assertThat(first.get("b").getCustomerFirstName()).isEqualTo("Old");
+        assertThat(first.get("b").isStale()).isFalse();
+        assertThat(first.get("b").getRefreshedAt()).isBeforeOrEqualTo(LocalDateTime.now());
+        assertThat(written.getAllValues().get(1)).containsOnlyKeys("c");
+
+        assertThat(refresher.getRefreshedCount()).isEqualTo(2);
+        assertThat(refresher.getUnresolvedCount()).isEqualTo(1);
+        verify(orderRepository, never()).delete(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("refresh: unresolved order without a snapshot is left without one, not given an empty one")
+    void refresh_unresolvedWithoutSnapshot_staysMissing() {
+        Order a = makeOrder("a", "C1");
+        Order b = makeOrder("b", "GONE");
+
+        when(customerClient.getCustomersByCustomerIds(any()))
+                .thenReturn(List.of(new CustomerResponseModel("C1", "L", "F")));
+        when(productClient.getCatalogsByIds(any()))
+                .thenReturn(List.of(new CatalogResponseModel("CAT1", "T", "D")));
+        when(productClient.getCatalogWatchesByIds(any()))
+                .thenReturn(List.of(WatchResponseModel.builder().watchId("W1").model("M").material("Mat").build()));
+        when(planClient.getServicePlansByIds(any()))
+                .thenReturn(List.of(new ServicePlanResponseModel("P1", "Cov", LocalDate.now())));
+
+        when(orderRepository.findSnapshotsToRefresh(any(), isNull(), eq(2))).thenReturn(List.of(a, b));
+        when(orderRepository.findSnapshotsToRefresh(any(), eq("b"), eq(2))).thenReturn(List.of());
+
+        refresher.refreshSnapshots();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, OrderSnapshot>> written = ArgumentCaptor.forClass(Map.class);
+        verify(orderRepository).saveSnapshots(written.capture());
+        assertThat(written.getValue()).containsOnlyKeys("a");
+        assertThat(b.getSnapshot()).isNull();
+        assertThat(refresher.getUnresolvedCount()).isEqualTo(1);
+    }
+}
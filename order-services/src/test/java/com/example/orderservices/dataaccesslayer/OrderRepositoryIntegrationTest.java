@@ -5,6 +5,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
@@ -12,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
@@ -23,11 +26,15 @@ import static org.assertj.core.api.Assertions.*;
         "de.flapdoodle.mongodb.embedded.version=5.0.5"
 })
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(OrderIndexes.class)
 public class OrderRepositoryIntegrationTest {
 
     @Autowired
     private OrderRepository repository;
 
+    @Autowired
+    private OrderIndexes orderIndexes;
+
     private Order completedOrder;
     private Order canceledOrder;
 
@@ -66,6 +73,28 @@ public class OrderRepositoryIntegrationTest {
         repository.saveAll(List.of(completedOrder, canceledOrder));
     }
 
+    @Test
+    @DisplayName("Indexes: no finder's winning plan is a collection scan")
+    void finders_useIndexes() {
+        assertThat(orderIndexes.findCollectionScans()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Indexes: second order with the same orderName or orderId is rejected by Mongo")
+    void uniqueIndexes_rejectDuplicates() {
+        Order sameName = Order.builder()
+                .orderIdentifier(new OrderIdentifier("OID-3"))
+                .orderName("TestOrder1")
+                .build();
+        Order sameOrderId = Order.builder()
+                .orderIdentifier(new OrderIdentifier("OID-1"))
+                .orderName("TestOrder3")
+                .build();
+
+        assertThatThrownBy(() -> repository.save(sameName)).isInstanceOf(DuplicateKeyException.class);
+        assertThatThrownBy(() -> repository.save(sameOrderId)).isInstanceOf(DuplicateKeyException.class);
+    }
+
     @Test
     @DisplayName("Positive: existsByOrderIdentifier returns true for existing orderId")
     void existsByOrderIdentifier_existing_returnsTrue() {
@@ -140,6 +169,26 @@ public class OrderRepositoryIntegrationTest {
         )).isFalse();
     }
 
+    @Test
+    @DisplayName("Positive: snapshots without refresh, then stale-marked, are picked up for refresh")
+    void snapshots_markStaleAndFindToRefresh() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(1);
+
+        // neither order has a snapshot yet → both due
+        assertThat(repository.findSnapshotsToRefresh(cutoff, null, 10))
+                .extracting(Order::getId).containsExactly("1", "2");
+
+        OrderSnapshot fresh = OrderSnapshot.builder()
+                .customerFirstName("F").refreshedAt(LocalDateTime.now()).build();
+        repository.saveSnapshots(Map.of("1", fresh, "2", fresh));
+        assertThat(repository.findSnapshotsToRefresh(cutoff, null, 10)).isEmpty();
+
+        assertThat(repository.markSnapshotsStale("customerIdentifier.customerId", "CUST-2")).isEqualTo(1);
+        assertThat(repository.findSnapshotsToRefresh(cutoff, null, 10))
+                .extracting(Order::getId).containsExactly("2");
+        assertThat(repository.findSnapshotsToRefresh(cutoff, "2", 10)).isEmpty();
+    }
+
     @Test
     @DisplayName("Positive: OrderIdentifier no-arg ctor generates non-null, unique IDs")
     void orderIdentifierNoArgCtor_generatesUniqueNonNull() {
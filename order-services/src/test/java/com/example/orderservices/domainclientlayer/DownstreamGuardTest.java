@@ -0,0 +1,134 @@
+package com.example.orderservices.domainclientlayer;
+
+import com.example.orderservices.utils.DownstreamUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DownstreamGuardTest {
+
+    /** Clock the test can move forward by hand. */
+    private static class TestClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    private final TestClock clock = new TestClock();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    // window of 4, opens at 50% once 4 calls are in, stays open 1 s, closes after 2 good probes
+    private DownstreamGuard guard(int maxConcurrent) {
+        return new DownstreamGuard("product-services", true, maxConcurrent, 50,
+                new CircuitBreaker(4, 4, 50, 1_000, 2, clock));
+    }
+
+    private String ok() {
+        sent.incrementAndGet();
+        return "ok";
+    }
+
+    private String fail(RuntimeException ex) {
+        sent.incrementAndGet();
+        throw ex;
+    }
+
+    @Test
+    @DisplayName("guard: timeouts and 5xx open the breaker, then calls fail fast with DownstreamUnavailableException")
+    void failuresOpenTheBreaker() {
+        DownstreamGuard guard = guard(10);
+        guard.call(this::ok);
+        assertThatThrownBy(() -> guard.call(() -> fail(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "nf", null, null, null))))
+                .isInstanceOf(HttpClientErrorException.class);   // a 4xx is not an outage
+        assertThatThrownBy(() -> guard.call(() -> fail(new ResourceAccessException("Read timed out"))))
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("product-services is unavailable");
+        assertThatThrownBy(() -> guard.call(() -> fail(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "bg", null, null, null))))
+                .isInstanceOf(DownstreamUnavailableException.class);
+
+        assertThatThrownBy(() -> guard.call(this::ok))
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("circuit breaker is open");
+        assertThat(sent.get()).isEqualTo(4);
+
+        DownstreamGuardStats stats = guard.stats();
+        assertThat(stats.getState()).isEqualTo("OPEN");
+        assertThat(stats.getFailures()).isEqualTo(2);
+        assertThat(stats.getRejectedByBreaker()).isEqualTo(1);
+        assertThat(stats.getFailureRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("guard: after the open period successful probes close the breaker, a failed probe reopens it")
+    void halfOpenProbes() {
+        DownstreamGuard guard = guard(10);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.call(() -> fail(new ResourceAccessException("Connection refused"))));
+        }
+        assertThat(guard.stats().getState()).isEqualTo("OPEN");
+
+        clock.advance(Duration.ofMillis(1_000));
+        assertThat(guard.stats().getState()).isEqualTo("HALF_OPEN");
+        assertThatThrownBy(() -> guard.call(() -> fail(new ResourceAccessException("Connection refused"))));
+        assertThat(guard.stats().getState()).isEqualTo("OPEN");
+        assertThat(guard.stats().getTimesOpened()).isEqualTo(2);
+
+        clock.advance(Duration.ofMillis(1_000));
+        assertThat(guard.call(this::ok)).isEqualTo("ok");
+        assertThat(guard.call(this::ok)).isEqualTo("ok");
+        assertThat(guard.stats().getState()).isEqualTo("CLOSED");
+        assertThat(guard.stats().getBufferedCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("guard: past max-concurrent calls a caller is turned away after max-wait instead of queueing")
+    void bulkheadRejects() throws Exception {
+        DownstreamGuard guard = guard(1);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread slow = Thread.ofVirtual().start(() -> guard.call(() -> {
+            inside.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        }));
+        assertThat(inside.await(2, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> guard.call(this::ok))
+                .isInstanceOf(DownstreamUnavailableException.class)
+                .hasMessageContaining("bulkhead is full");
+
+        release.countDown();
+        slow.join(2_000);
+        assertThat(guard.call(this::ok)).isEqualTo("ok");
+
+        DownstreamGuardStats stats = guard.stats();
+        assertThat(stats.getInFlight()).isZero();
+        assertThat(stats.getRejectedByBulkhead()).isEqualTo(1);
+        assertThat(stats.getRejectionRatio()).isEqualTo(1.0 / 3);
+    }
+}
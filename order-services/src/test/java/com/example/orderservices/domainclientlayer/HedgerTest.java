@@ -0,0 +1,195 @@
+package com.example.orderservices.domainclientlayer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HedgerTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // p95 of the last 10 calls once 5 are in, never sooner than 20 ms
+    private Hedger hedger(HedgeBudget budget) {
+        return new Hedger("product-services", true, 10, 95, 5, 20, budget, executor);
+    }
+
+    private void warmUp(Hedger hedger) {
+        for (int i = 0; i < 5; i++) {
+            hedger.call("getCatalogWatchByID", () -> "fast");
+        }
+    }
+
+    // the first attempt stalls until cancelled, any later one answers at once
+    private String slowThenFast(AtomicBoolean interrupted) {
+        if (sent.incrementAndGet() == 1) {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+                throw new IllegalStateException("cancelled");
+            }
+            return "primary";
+        }
+        return "hedge";
+    }
+
+    @Test
+    @DisplayName("hedging: a call slower than p95 gets a second request, the first answer wins, the loser is cancelled")
+    void slowCallIsHedged() throws Exception {
+        Hedger hedger = hedger(new HedgeBudget(10, 5));
+        warmUp(hedger);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        String result = hedger.call("getCatalogWatchByID", () -> slowThenFast(interrupted));
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(sent.get()).isEqualTo(2);
+        Thread.sleep(100);
+        assertThat(interrupted).isTrue();
+
+        HedgingStats stats = hedger.stats();
+        assertThat(stats.getHedged()).isEqualTo(1);
+        assertThat(stats.getHedgeWins()).isEqualTo(1);
+        assertThat(stats.getHedgeWinRate()).isEqualTo(1.0);
+        assertThat(stats.getHedgeAfterMillis()).containsKey("getCatalogWatchByID");
+    }
+
+    // through the load-balancing interceptor; the first attempt of a call stalls until cancelled
+    private String send(ClientHttpRequestInterceptor interceptor, List<String> replicas) {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+                URI.create("http://product-services:8080/api/v1/watches/W1"));
+        try (ClientHttpResponse response = interceptor.intercept(request, new byte[0], (routed, body) -> {
+            replicas.add(routed.getURI().getRawAuthority());
+            if (replicas.size() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("cancelled");
+                }
+            }
+            return new MockClientHttpResponse(routed.getURI().getRawAuthority().getBytes(), HttpStatus.OK);
+        })) {
+            return new String(response.getBody().readAllBytes());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Test
+    @DisplayName("hedging: the hedge goes to another replica than the attempt it races")
+    void hedgeAvoidsTheFirstAttemptsReplica() {
+        LoadBalancerRegistry registry = new LoadBalancerRegistry(new MockEnvironment()
+                .withProperty("app.product-services.replicas[0]", "localhost:8082")
+                .withProperty("app.product-services.replicas[1]", "localhost:8092"));
+        LoadBalancer balancer = registry.register("product-services", "product-services", "8080", "/api/v1/watches?limit=1");
+        ClientHttpRequestInterceptor interceptor = registry.interceptor();
+        // hedge after 200 ms at the soonest, so the first attempt has surely picked its replica
+        Hedger hedger = new Hedger("product-services", true, 10, 95, 5, 200, new HedgeBudget(100, 20), executor);
+        warmUp(hedger);
+
+        // three calls stuck on 8082: going by load alone, both attempts would pick 8092
+        for (int i = 0; i < 3; i++) {
+            balancer.choose(Set.of("localhost:8092"));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            List<String> replicas = new CopyOnWriteArrayList<>();
+            String answeredBy = hedger.call("getCatalogWatchByID", () -> send(interceptor, replicas));
+
+            assertThat(replicas).containsExactly("localhost:8092", "localhost:8082");
+            assertThat(answeredBy).isEqualTo("localhost:8082");
+        }
+    }
+
+    @Test
+    @DisplayName("hedging: nothing is hedged before an endpoint has enough samples")
+    void noHedgeWithoutSamples() {
+        Hedger hedger = hedger(new HedgeBudget(10, 5));
+
+        assertThat(hedger.call("getCatalogWatchByID", () -> {
+            sent.incrementAndGet();
+            return "only";
+        })).isEqualTo("only");
+        assertThat(sent.get()).isEqualTo(1);
+        assertThat(hedger.stats().getHedged()).isZero();
+    }
+
+    @Test
+    @DisplayName("hedging: with the budget spent the slow call is simply waited for")
+    void emptyBudgetWaitsForPrimary() {
+        Hedger hedger = hedger(new HedgeBudget(0, 0));
+        warmUp(hedger);
+
+        String result = hedger.call("getCatalogWatchByID", () -> {
+            sent.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return "primary";
+        });
+
+        assertThat(result).isEqualTo("primary");
+        assertThat(sent.get()).isEqualTo(1);
+        assertThat(hedger.stats().getBudgetExhausted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("hedging: a 4xx is an answer and is thrown as is")
+    void clientErrorPropagates() {
+        Hedger hedger = hedger(new HedgeBudget(10, 5));
+        warmUp(hedger);
+
+        assertThatThrownBy(() -> hedger.call("getCatalogWatchByID", () -> {
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+        })).isInstanceOf(HttpClientErrorException.NotFound.class);
+    }
+
+    @Test
+    @DisplayName("hedge budget: earns a share of a hedge per call, never more than the burst")
+    void budget() {
+        HedgeBudget budget = new HedgeBudget(50, 1);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.onCall();
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.onCall();
+        assertThat(budget.tryWithdraw()).isTrue();
+
+        for (int i = 0; i < 10; i++) {
+            budget.onCall();
+        }
+        assertThat(budget.getAvailable()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.orderservices.domainclientlayer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoadBalancerTest {
+
+    /** Clock the test can move forward by hand. */
+    private static class TestClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    private final TestClock clock = new TestClock();
+
+    // ejected after 2 failures in a row for 1 s, at most half of the replicas at once
+    private LoadBalancer balancer(String... replicas) {
+        return new LoadBalancer("product-services", true, "product-services:8080", List.of(replicas),
+                2, 1_000, 50, clock);
+    }
+
+    private LoadBalancer.Replica replica(LoadBalancer balancer, String address) {
+        return balancer.getReplicas().stream().filter(r -> r.getAddress().equals(address)).findFirst().orElseThrow();
+    }
+
+    // calls until one goes to the replica, which then fails
+    private void fail(LoadBalancer balancer, LoadBalancer.Replica replica) {
+        LoadBalancer.Replica chosen;
+        do {
+            chosen = balancer.choose();
+            if (chosen != replica) {
+                balancer.onSuccess(chosen);
+            }
+        } while (chosen != replica);
+        balancer.onFailure(replica);
+    }
+
+    private Map<String, Integer> spread(LoadBalancer balancer, int calls) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < calls; i++) {
+            LoadBalancer.Replica chosen = balancer.choose();
+            counts.merge(chosen.getAddress(), 1, Integer::sum);
+            balancer.onSuccess(chosen);
+        }
+        return counts;
+    }
+
+    @Test
+    @DisplayName("load balancing: of two replicas the one with fewer calls outstanding gets the call")
+    void leastOutstandingOfTwo() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092");
+        LoadBalancer.Replica busy = balancer.choose();
+
+        for (int i = 0; i < 20; i++) {
+            LoadBalancer.Replica chosen = balancer.choose();
+            assertThat(chosen).isNotSameAs(busy);
+            balancer.onSuccess(chosen);
+        }
+        assertThat(balancer.stats().getReplicas())
+                .extracting(LoadBalancerStats.ReplicaStats::getOutstanding)
+                .containsExactlyInAnyOrder(1, 0);
+    }
+
+    @Test
+    @DisplayName("load balancing: replicas already tried are left out while another one is available")
+    void triedReplicasLeftOut() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092", "localhost:8102");
+
+        for (int i = 0; i < 20; i++) {
+            LoadBalancer.Replica chosen = balancer.choose(Set.of("localhost:8082", "localhost:8092"));
+            assertThat(chosen.getAddress()).isEqualTo("localhost:8102");
+            balancer.onSuccess(chosen);
+        }
+
+        // every replica tried → any of them rather than none
+        LoadBalancer.Replica chosen = balancer.choose(Set.of("localhost:8082", "localhost:8092", "localhost:8102"));
+        assertThat(chosen).isNotNull();
+        balancer.onSuccess(chosen);
+    }
+
+    @Test
+    @DisplayName("load balancing: a replica failing in a row is ejected for a while, then comes back")
+    void outlierEjection() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092", "localhost:8102", "localhost:8112");
+        LoadBalancer.Replica bad = replica(balancer, "localhost:8082");
+        fail(balancer, bad);
+        fail(balancer, bad);
+
+        assertThat(spread(balancer, 200)).doesNotContainKey("localhost:8082");
+        assertThat(balancer.stats().getReplicas().get(0).isEjected()).isTrue();
+        assertThat(balancer.stats().getReplicas().get(0).getEjections()).isEqualTo(1);
+
+        clock.advance(Duration.ofMillis(1_001));
+        assertThat(spread(balancer, 200)).containsKey("localhost:8082");
+    }
+
+    @Test
+    @DisplayName("load balancing: no more than max-ejection-percent of the replicas are ejected at once")
+    void ejectionIsCapped() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092");
+        for (LoadBalancer.Replica replica : balancer.getReplicas()) {
+            fail(balancer, replica);
+            fail(balancer, replica);
+        }
+
+        assertThat(balancer.stats().getReplicas())
+                .filteredOn(LoadBalancerStats.ReplicaStats::isEjected)
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("load balancing: failed health checks take a replica out; with none left all are tried")
+    void healthChecks() {
+        LoadBalancer balancer = balancer("localhost:8082", "localhost:8092");
+        LoadBalancer.Replica down = replica(balancer, "localhost:8092");
+
+        down.onHealthCheck(false, 2);
+        assertThat(spread(balancer, 100)).containsKey("localhost:8092");
+        down.onHealthCheck(false, 2);
+        assertThat(spread(balancer, 100)).containsOnlyKeys("localhost:8082");
+
+        replica(balancer, "localhost:8082").onHealthCheck(false, 1);
+        assertThat(spread(balancer, 100)).containsKeys("localhost:8082", "localhost:8092");
+
+        down.onHealthCheck(true, 2);
+        assertThat(spread(balancer, 100)).containsKey("localhost:8092");
+    }
+
+    @Test
+    @DisplayName("load balancing: the call is pointed at the replica, path and query untouched")
+    void rewrite() {
+        LoadBalancer balancer = balancer("product-services:8080", "product-services-2:8080");
+        URI uri = URI.create("http://product-services:8080/api/v1/watches?brand=Omega%20SA&page=2");
+
+        assertThat(balancer.rewrite(uri, replica(balancer, "product-services-2:8080")))
+                .hasToString("http://product-services-2:8080/api/v1/watches?brand=Omega%20SA&page=2");
+        assertThat(balancer.rewrite(uri, replica(balancer, "product-services:8080"))).isSameAs(uri);
+    }
+
+    @Test
+    @DisplayName("health checks: only a 2xx from the health path passes, a 404 takes the replica out")
+    void healthCheckNeedsA2xx() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().equals("/api/v1/watches") ? 200 : 404, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String replicas = "localhost:" + server.getAddress().getPort() + ",127.0.0.1:" + server.getAddress().getPort();
+            LoadBalancerRegistry registry = new LoadBalancerRegistry(new MockEnvironment()
+                    .withProperty("app.product-services.replicas", replicas)
+                    .withProperty("app.customer-services.replicas", replicas));
+            LoadBalancer product = registry.register("product-services", "product-services", "8080", "/api/v1/watches?limit=1");
+            LoadBalancer customer = registry.register("customer-services", "customer-services", "8080", "/actuator/health");
+
+            registry.checkHealth();
+            registry.checkHealth();
+
+            assertThat(product.stats().getReplicas()).allMatch(LoadBalancerStats.ReplicaStats::isHealthy);
+            assertThat(customer.stats().getReplicas()).noneMatch(LoadBalancerStats.ReplicaStats::isHealthy);
+        } finally {
+            server.stop(0);
+        }
+    }
+}
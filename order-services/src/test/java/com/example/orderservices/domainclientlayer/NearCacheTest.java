@@ -0,0 +1,139 @@
+package com.example.orderservices.domainclientlayer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NearCacheTest {
+
+    /** Clock the test can move forward by hand. */
+    private static class TestClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    private final TestClock clock = new TestClock();
+
+    @Test
+    @DisplayName("near-cache: second read is a hit, expired entry is reloaded")
+    void hitThenExpire() {
+        NearCache<String, String> cache = new NearCache<>("CATALOG", 10, 1_000, clock);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("CAT1", k -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("CAT1", k -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+
+        clock.advance(Duration.ofMillis(1_001));
+        assertThat(cache.get("CAT1", k -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+
+        NearCacheStats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("near-cache: least recently used entry is evicted past max size")
+    void evictsLeastRecentlyUsed() {
+        NearCache<String, String> cache = new NearCache<>("WATCH", 2, 60_000, clock);
+        cache.get("A", k -> "a");
+        cache.get("B", k -> "b");
+        cache.get("A", k -> "a");   // A is now the most recently used
+        cache.get("C", k -> "c");   // evicts B
+
+        assertThat(cache.get("A", k -> "reloaded")).isEqualTo("a");
+        assertThat(cache.get("B", k -> "reloaded")).isEqualTo("reloaded");
+        assertThat(cache.stats().getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("near-cache: invalidate forces a reload, null results are not cached")
+    void invalidateAndNullsNotCached() {
+        NearCache<String, String> cache = new NearCache<>("CUSTOMER", 10, 60_000, clock);
+        cache.get("C1", k -> "old");
+        cache.invalidate("C1");
+        assertThat(cache.get("C1", k -> "new")).isEqualTo("new");
+
+        assertThat(cache.get("C2", k -> null)).isNull();
+        assertThat(cache.get("C2", k -> "created")).isEqualTo("created");
+        assertThat(cache.stats().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("near-cache: bulk read only loads the missing keys")
+    void getAllLoadsOnlyMissing() {
+        NearCache<String, String> cache = new NearCache<>("SERVICE_PLAN", 10, 60_000, clock);
+        cache.get("P1", k -> k);
+
+        List<Collection<String>> requested = new ArrayList<>();
+        List<String> out = cache.getAll(List.of("P1", "P2", "P3"), keys -> {
+            requested.add(keys);
+            return new ArrayList<>(keys);
+        }, v -> v);
+
+        assertThat(out).containsExactlyInAnyOrder("P1", "P2", "P3");
+        assertThat(requested).hasSize(1);
+        assertThat(requested.get(0)).containsExactly("P2", "P3");
+    }
+
+    @Test
+    @DisplayName("near-cache: a load that overlaps an invalidate answers its caller but is not cached")
+    void invalidateDuringSlowLoadIsNotOverwritten() throws Exception {
+        NearCache<String, String> cache = new NearCache<>("WATCH", 10, 60_000, clock);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        // read the old value, then stall until the update has invalidated the key
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> cache.get("W1", k -> {
+            loading.countDown();
+            try {
+                assertThat(invalidated.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "stale";
+        }));
+
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.invalidate("W1");
+        invalidated.countDown();
+
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        assertThat(cache.get("W1", k -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get("W1", k -> "reloaded")).isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("near-cache: a bulk load that overlaps invalidateAll is not cached")
+    void invalidateAllDuringBulkLoadIsNotOverwritten() {
+        NearCache<String, String> cache = new NearCache<>("CATALOG", 10, 60_000, clock);
+
+        List<String> out = cache.getAll(List.of("C1", "C2"), keys -> {
+            cache.invalidateAll();   // lands while the batch is in flight
+            return new ArrayList<>(keys);
+        }, v -> v);
+
+        assertThat(out).containsExactlyInAnyOrder("C1", "C2");
+        assertThat(cache.stats().getSize()).isZero();
+    }
+}
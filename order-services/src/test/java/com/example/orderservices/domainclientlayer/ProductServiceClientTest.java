@@ -0,0 +1,77 @@
+package com.example.orderservices.domainclientlayer;
+
+import com.example.orderservices.presentationlayer.productdtos.watchdtos.WatchRequestModel;
+import com.example.orderservices.utils.DownstreamConflictException;
+import com.example.orderservices.utils.InvalidInputException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class ProductServiceClientTest {
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final ProductServiceClient client;
+
+    ProductServiceClientTest() {
+        MockEnvironment env = new MockEnvironment();
+        client = new ProductServiceClient(restTemplate, new ObjectMapper(),
+                new NearCacheRegistry(env), new DownstreamGuardRegistry(env),
+                new HedgingRegistry(env), new LoadBalancerRegistry(env),
+                "product-services", "8080");
+    }
+
+    private static String error(String message) {
+        return "{\"message\":\"" + message + "\"}";
+    }
+
+    @Test
+    @DisplayName("adjustWatchStock: 409 is out of stock → InvalidInputException")
+    void adjustWatchStock_conflict_isOutOfStock() {
+        server.expect(requestTo("http://product-services:8080/api/v1/watches/WX/stock:adjust"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON)
+                        .body(error("Watch 'WX' is out of stock")));
+
+        assertThatThrownBy(() -> client.adjustWatchStock("WX", -1, "order-1"))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessageContaining("out of stock");
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("updateWatchInInventory: 409 is a concurrent change → DownstreamConflictException")
+    void updateWatchInInventory_conflict_isRetryable() {
+        server.expect(requestTo("http://product-services:8080/api/v1/catalogs/CATX/watches/WX"))
+                .andExpect(method(HttpMethod.PUT))
+                .andRespond(withStatus(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON)
+                        .body(error("The resource was changed by another request; read it again and retry")));
+
+        assertThatThrownBy(() -> client.updateWatchInInventory("CATX", "WX", new WatchRequestModel()))
+                .isInstanceOf(DownstreamConflictException.class)
+                .hasMessageContaining("retry");
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("updateWatchInInventory: 400 stays a bad request → InvalidInputException")
+    void updateWatchInInventory_badRequest_isInvalidInput() {
+        server.expect(requestTo("http://product-services:8080/api/v1/catalogs/CATX/watches/WX"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                        .body(error("bad watch")));
+
+        assertThatThrownBy(() -> client.updateWatchInInventory("CATX", "WX", new WatchRequestModel()))
+                .isInstanceOf(InvalidInputException.class);
+    }
+}
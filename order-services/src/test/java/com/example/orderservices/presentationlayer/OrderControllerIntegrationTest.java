@@ -6,6 +6,10 @@ import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
@@ -25,6 +29,7 @@ import com.example.orderservices.presentationlayer.productdtos.watchdtos.*;
 import com.example.orderservices.presentationlayer.servicePlandtos.ServicePlanResponseModel;
 import com.example.orderservices.utils.DuplicateOrderName;
 import com.example.orderservices.utils.HttpErrorInfo;
+import com.example.orderservices.utils.SmileConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -137,6 +142,20 @@ public class OrderControllerIntegrationTest {
                         .coverageDetails("2-year full coverage")
                         .expirationDate(now.toLocalDate().plusYears(2))
                         .build());
+
+        // --- cached (display-only) watch read reuses the stub above ---
+        given(productServiceClient.getCatalogWatchMetadataByID(watchId))
+                .willAnswer(inv -> productServiceClient.getCatalogWatchByID(watchId));
+
+        // --- bulk lookups used by GET /api/v1/orders reuse the single stubs above ---
+        given(customerServiceClient.getCustomersByCustomerIds(any()))
+                .willAnswer(inv -> List.of(customerServiceClient.getCustomerbyCustomerId(customerId)));
+        given(productServiceClient.getCatalogsByIds(any()))
+                .willAnswer(inv -> List.of(productServiceClient.getCatalogById(catalogId)));
+        given(productServiceClient.getCatalogWatchesByIds(any()))
+                .willAnswer(inv -> List.of(productServiceClient.getCatalogWatchByID(watchId)));
+        given(servicePlanServiceClient.getServicePlansByIds(any()))
+                .willAnswer(inv -> List.of(servicePlanServiceClient.getServicePlansById(planId)));
     }
 
     private static final ObjectMapper MAPPER = new ObjectMapper()
@@ -163,6 +182,57 @@ public class OrderControllerIntegrationTest {
                 .expectStatus().isNotFound();
     }
 
+    @Test
+    @DisplayName("GET /api/v1/orders?limit=0 / bad cursor → 422")
+    void getAllOrders_invalidPaging() {
+        webTestClient.get()
+                .uri("/api/v1/orders?limit=0")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        webTestClient.get()
+                .uri("/api/v1/orders?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders → Smile for callers asking for it first, JSON otherwise and for errors")
+    void getAllOrders_smileNegotiated() {
+        byte[] body = webTestClient.get()
+                .uri("/api/v1/orders")
+                .accept(SmileConfig.APPLICATION_SMILE, MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(SmileConfig.APPLICATION_SMILE)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(body).startsWith((byte) ':', (byte) ')', (byte) '\n');
+
+        webTestClient.get()
+                .uri("/api/v1/orders")
+                .exchange()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+
+        webTestClient.get()
+                .uri("/api/v1/orders?limit=0")
+                .accept(SmileConfig.APPLICATION_SMILE, MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/export → 200 application/x-ndjson")
+    void exportOrders_streamsNdjson() {
+        webTestClient.get()
+                .uri("/api/v1/orders/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+    }
+
     @Test
     @DisplayName("POST /api/v1/orders → 201 when valid")
     void createOrder_positive() {
@@ -256,6 +326,81 @@ public class OrderControllerIntegrationTest {
                 .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @Test
+    @DisplayName("POST /api/v1/orders twice with the same Idempotency-Key → one order, stock moved once")
+    void createOrder_idempotencyKey_replayed() {
+        String customerId = "C123", catalogId = "CAT9", watchId = "W42", planId = "P7";
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        stubDownstream(customerId, catalogId, watchId, planId, now);
+
+        OrderRequestModel req = OrderRequestModel.builder()
+                .customerId(customerId)
+                .catalogId(catalogId)
+                .watchId(watchId)
+                .servicePlanId(planId)
+                .orderName("RetryMe")
+                .salePrice(75.0)
+                .currency("EUR")
+                .paymentCurrency("USD")
+                .orderDate(now)
+                .orderStatus(OrderStatus.PURCHASE_COMPLETED)
+                .build();
+        String key = UUID.randomUUID().toString();
+
+        OrderResponseModel first = webTestClient.post()
+                .uri("/api/v1/orders")
+                .header("Idempotency-Key", key)
+                .bodyValue(req)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(OrderResponseModel.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.post()
+                .uri("/api/v1/orders")
+                .header("Idempotency-Key", key)
+                .bodyValue(req)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(OrderResponseModel.class)
+                .value(again -> assertThat(again.getOrderId()).isEqualTo(first.getOrderId()));
+
+        verify(productServiceClient, times(1)).adjustWatchStock(eq(watchId), eq(-1), anyString());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/orders reusing an Idempotency-Key for another body → 422")
+    void createOrder_idempotencyKey_differentBody() {
+        String customerId = "C123", catalogId = "CAT9", watchId = "W42", planId = "P7";
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        stubDownstream(customerId, catalogId, watchId, planId, now);
+
+        OrderRequestModel.OrderRequestModelBuilder req = OrderRequestModel.builder()
+                .customerId(customerId)
+                .catalogId(catalogId)
+                .watchId(watchId)
+                .servicePlanId(planId)
+                .salePrice(75.0)
+                .currency("EUR")
+                .paymentCurrency("USD")
+                .orderStatus(OrderStatus.PURCHASE_COMPLETED);
+        String key = UUID.randomUUID().toString();
+
+        webTestClient.post()
+                .uri("/api/v1/orders")
+                .header("Idempotency-Key", key)
+                .bodyValue(req.orderName("KeyOne").build())
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.post()
+                .uri("/api/v1/orders")
+                .header("Idempotency-Key", key)
+                .bodyValue(req.orderName("KeyTwo").build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     // ---------------------
     // GET BY ID
     // ---------------------
@@ -630,7 +775,7 @@ public class OrderControllerIntegrationTest {
                 req.getCurrency(),
                 req.getPaymentCurrency(),
                 req.getOrderDate(),
-                req.getOrderStatus()
+                req.getOrderStatus(), null
         );
         assertThat(resp.getOrderId()).isEqualTo("O1");
         assertThat(resp.getCustomerFirstName()).isEqualTo("Bob");
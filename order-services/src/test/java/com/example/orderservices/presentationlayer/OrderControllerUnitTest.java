@@ -303,17 +303,17 @@ public class OrderControllerUnitTest {
         OrderResponseModel s1 = new OrderResponseModel(
                 "O1","C1","F","L","CAT1","T","D",
                 "W1","M","Mat","P1","Cov",expDate,
-                "O1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_OFFER
+                "O1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_OFFER, null
         );
         OrderResponseModel s2 = new OrderResponseModel(
                 "O1","C1","F","L","CAT1","T","D",
                 "W1","M","Mat","P1","Cov",expDate,
-                "O1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_OFFER
+                "O1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_OFFER, null
         );
         OrderResponseModel s3 = new OrderResponseModel(
                 "O2","C2","X","Y","CAT2","T2","D2",
                 "W2","M2","Mat2","P2","Cov2",expDate,
-                "O2",200.0,"CAD","GBP",ordDate,OrderStatus.PURCHASE_CANCELED
+                "O2",200.0,"CAD","GBP",ordDate,OrderStatus.PURCHASE_CANCELED, null
         );
         assertThat(s1).isEqualTo(s2).hasSameHashCodeAs(s2);
         assertThat(s1).isNotEqualTo(s3);
@@ -336,12 +336,12 @@ public class OrderControllerUnitTest {
         OrderResponseModel s1 = new OrderResponseModel(
                 "O1","C1","First","Last","CAT1","Type","Desc",
                 "W1","Model","Mat","P1","Cov",expDate,
-                "Order1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_COMPLETED
+                "Order1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_COMPLETED, null
         );
         OrderResponseModel s2 = new OrderResponseModel(
                 "O1","C1","First","Last","CAT1","Type","Desc",
                 "W1","Model","Mat","P1","Cov",expDate,
-                "Order1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_COMPLETED
+                "Order1",100.0,"USD","EUR",ordDate,OrderStatus.PURCHASE_COMPLETED, null
         );
         assertThat(s1).isEqualTo(s2).hasSameHashCodeAs(s2);
     }
@@ -422,7 +422,7 @@ public class OrderControllerUnitTest {
                 "USD",
                 "EUR",
                 ord,
-                OrderStatus.PURCHASE_COMPLETED
+                OrderStatus.PURCHASE_COMPLETED, null
         );
 
         // getters
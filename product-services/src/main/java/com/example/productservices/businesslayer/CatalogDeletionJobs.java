@@ -0,0 +1,169 @@
+package com.example.productservices.businesslayer;
+
+
+import com.example.productservices.dataccesslayer.catalog.CatalogRepository;
+import com.example.productservices.dataccesslayer.watch.WatchRepository;
+import com.example.productservices.domainclientlayer.OrderServiceClient;
+import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogDeletionResponseModel;
+import com.example.productservices.utils.Transactions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes very large catalogs in the background. The watches go in batches of
+ * {@code app.catalog-deletion.batch-size}, each batch its own short transaction, so no lock is
+ * held for longer than one batch takes and the rest of the inventory stays writable. The last
+ * transaction deletes what was added meanwhile and the catalog itself; order-services hears
+ * of it once that has committed.
+ * <p>
+ * One job runs at a time. Jobs are kept in memory, finished ones for
+ * {@code app.catalog-deletion.keep-finished-ms}, so progress can only be followed on the
+ * replica that started the job.
+ */
+@Component
+@Slf4j
+public class CatalogDeletionJobs {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final WatchRepository watchRepository;
+    private final CatalogRepository catalogRepository;
+    private final WatchSearchIndex watchSearchIndex;
+    private final OrderServiceClient orderServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration keepFinished;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class Job {
+        final String jobId = UUID.randomUUID().toString();
+        final String catalogId;
+        final long totalWatches;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong deletedWatches = new AtomicLong();
+        volatile Status status = Status.RUNNING;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(String catalogId, long totalWatches) {
+            this.catalogId = catalogId;
+            this.totalWatches = totalWatches;
+        }
+    }
+
+    public CatalogDeletionJobs(WatchRepository watchRepository, CatalogRepository catalogRepository,
+                               WatchSearchIndex watchSearchIndex, OrderServiceClient orderServiceClient,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.catalog-deletion.batch-size:1000}") int batchSize,
+                               @Value("${app.catalog-deletion.keep-finished-ms:3600000}") long keepFinishedMillis) {
+        this.watchRepository = watchRepository;
+        this.catalogRepository = catalogRepository;
+        this.watchSearchIndex = watchSearchIndex;
+        this.orderServiceClient = orderServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.keepFinished = Duration.ofMillis(keepFinishedMillis);
+    }
+
+    /** Starts deleting {@code catalogId}, or returns the job already deleting it. */
+    public synchronized CatalogDeletionResponseModel start(String catalogId) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(keepFinished);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+
+        for (Job job : jobs.values()) {
+            if (job.catalogId.equals(catalogId) && job.status == Status.RUNNING) {
+                return toResponse(job);
+            }
+        }
+        Job job = new Job(catalogId, watchRepository.countByCatalogIdentifier_CatalogId(catalogId));
+        jobs.put(job.jobId, job);
+        executor.execute(() -> run(job));
+        log.info("catalog deletion {}: deleting {} with {} watches", job.jobId, catalogId, job.totalWatches);
+        return toResponse(job);
+    }
+
+    /** @return null for an unknown or forgotten job */
+    public CatalogDeletionResponseModel get(String jobId) {
+        Job job = jobs.get(jobId);
+        return job == null ? null : toResponse(job);
+    }
+
+    void run(Job job) {
+        try {
+            List<Integer> batch;
+            do {
+                batch = transactionTemplate.execute(tx -> {
+                    List<Integer> ids = watchRepository.findIdsInCatalog(job.catalogId, batchSize);
+                    if (!ids.isEmpty()) {
+                        watchRepository.deleteAccessoriesOfIds(ids);
+                        watchRepository.deleteAllByIds(ids);
+                        Transactions.afterCommit(() -> watchSearchIndex.removeAll(ids));
+                    }
+                    return ids;
+                });
+                job.deletedWatches.addAndGet(batch.size());
+            } while (batch.size() == batchSize);
+
+            transactionTemplate.executeWithoutResult(tx -> {
+                watchRepository.deleteAccessoriesInCatalog(job.catalogId);
+                job.deletedWatches.addAndGet(watchRepository.deleteAllInCatalog(job.catalogId));
+                catalogRepository.deleteByCatalogId(job.catalogId);
+                Transactions.afterCommit(() -> watchSearchIndex.removeCatalog(job.catalogId));
+            });
+            orderServiceClient.catalogDeleted(job.catalogId);
+
+            job.finishedAt = LocalDateTime.now();
+            job.status = Status.COMPLETED;
+            log.info("catalog deletion {}: {} deleted with {} watches", job.jobId, job.catalogId, job.deletedWatches.get());
+        } catch (RuntimeException ex) {
+            log.warn("catalog deletion {} of {} failed after {} watches: {}",
+                    job.jobId, job.catalogId, job.deletedWatches.get(), ex.toString());
+            job.error = ex.getMessage();
+            job.finishedAt = LocalDateTime.now();
+            job.status = Status.FAILED;
+        }
+    }
+
+    private static CatalogDeletionResponseModel toResponse(Job job) {
+        Status status = job.status;
+        long deleted = job.deletedWatches.get();
+        int percent = status == Status.COMPLETED ? 100
+                : job.totalWatches == 0 ? 0
+                : (int) Math.min(99, deleted * 100 / job.totalWatches);
+        return CatalogDeletionResponseModel.builder()
+                .jobId(job.jobId)
+                .catalogId(job.catalogId)
+                .status(status.name())
+                .totalWatches(job.totalWatches)
+                .deletedWatches(deleted)
+                .percentDone(percent)
+                .startedAt(job.startedAt)
+                .finishedAt(job.finishedAt)
+                .error(job.error)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.productservices.businesslayer;
 
 
 
+import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogDeletionResponseModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogRequestModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogResponseModel;
 import org.springframework.stereotype.Service;
@@ -16,9 +17,15 @@ public interface CatalogService {
 
     CatalogResponseModel getCatalogById(String catalogId);
 
+    List<CatalogResponseModel> getCatalogsByIds(List<String> catalogIds);
+
     CatalogResponseModel addCatalog(CatalogRequestModel catalogRequestModel);
 
     CatalogResponseModel updateCatalog(CatalogRequestModel catalogRequestModel, String catalogId);
 
     String deleteCatalog(String catalogId);
+
+    CatalogDeletionResponseModel startCatalogDeletion(String catalogId);
+
+    CatalogDeletionResponseModel getCatalogDeletion(String jobId);
 }
@@ -4,17 +4,22 @@ package com.example.productservices.businesslayer;
 import com.example.productservices.dataccesslayer.catalog.Catalog;
 import com.example.productservices.dataccesslayer.catalog.CatalogIdentifier;
 import com.example.productservices.dataccesslayer.catalog.CatalogRepository;
-import com.example.productservices.dataccesslayer.watch.Watch;
 import com.example.productservices.dataccesslayer.watch.WatchRepository;
 import com.example.productservices.datamapperlayer.CatalogMapper.CatalogRequestMapper;
 import com.example.productservices.datamapperlayer.CatalogMapper.CatalogResponseMapper;
+import com.example.productservices.domainclientlayer.OrderServiceClient;
+import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogDeletionResponseModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogRequestModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogResponseModel;
+import com.example.productservices.utils.Transactions;
 import com.example.productservices.utils.exceptions.DuplicateCatalogTypeException;
 import com.example.productservices.utils.exceptions.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @Service
@@ -24,13 +29,19 @@ public class CatalogServiceImpl implements CatalogService {
     private final CatalogRequestMapper catalogRequestMapper;
     private final CatalogResponseMapper catalogResponseMapper;
     private final WatchRepository watchRepository;
+    private final OrderServiceClient orderServiceClient;
+    private final WatchSearchIndex watchSearchIndex;
+    private final CatalogDeletionJobs catalogDeletionJobs;
 
     @Autowired
-    public CatalogServiceImpl(CatalogRepository catalogRepository, CatalogRequestMapper catalogRequestMapper, CatalogResponseMapper catalogResponseMapper, WatchRepository watchRepository) {
+    public CatalogServiceImpl(CatalogRepository catalogRepository, CatalogRequestMapper catalogRequestMapper, CatalogResponseMapper catalogResponseMapper, WatchRepository watchRepository, OrderServiceClient orderServiceClient, WatchSearchIndex watchSearchIndex, CatalogDeletionJobs catalogDeletionJobs) {
         this.catalogRepository = catalogRepository;
         this.catalogRequestMapper = catalogRequestMapper;
         this.catalogResponseMapper = catalogResponseMapper;
         this.watchRepository = watchRepository;
+        this.orderServiceClient = orderServiceClient;
+        this.watchSearchIndex = watchSearchIndex;
+        this.catalogDeletionJobs = catalogDeletionJobs;
     }
 
 
@@ -53,6 +64,17 @@ public class CatalogServiceImpl implements CatalogService {
         }
     }
 
+    @Override
+    public List<CatalogResponseModel> getCatalogsByIds(List<String> catalogIds) {
+
+        if (catalogIds == null || catalogIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Catalog> catalogs = catalogRepository.findAllByCatalogIdentifier_CatalogIdIn(new LinkedHashSet<>(catalogIds));
+        return this.catalogResponseMapper.entityListToResponseModelList(catalogs);
+    }
+
 
     @Override
     public CatalogResponseModel addCatalog(CatalogRequestModel catalogRequestModel) {
@@ -102,12 +124,15 @@ public class CatalogServiceImpl implements CatalogService {
         foundCatalog.setDescription(catalogRequestModel.getDescription());
 
         Catalog updatedCatalog = this.catalogRepository.save(foundCatalog);
+        orderServiceClient.catalogUpdated(catalogId);
 
         return this.catalogResponseMapper.entityToResponseModel(updatedCatalog);
 
     }
+    // set-based statements in one transaction (accessories, watches, catalog), no watch is loaded
     @Override
-     public String deleteCatalog(String catalogId){
+    @Transactional
+    public String deleteCatalog(String catalogId){
 
         Catalog existingCatalog = catalogRepository.findByCatalogIdentifier_CatalogId(catalogId);
         if(existingCatalog == null) {
@@ -115,14 +140,35 @@ public class CatalogServiceImpl implements CatalogService {
             throw new NotFoundException("This catalog does not exist");
         }
 
-        List<Watch> watches = watchRepository.findAllByCatalogIdentifier_CatalogId(catalogId);
-        watches.forEach(watch -> watchRepository.delete(watch));
-
-        catalogRepository.delete(existingCatalog);
+        watchRepository.deleteAccessoriesInCatalog(catalogId);
+        watchRepository.deleteAllInCatalog(catalogId);
+        catalogRepository.deleteByCatalogId(catalogId);
+        Transactions.afterCommit(() -> {
+            watchSearchIndex.removeCatalog(catalogId);
+            orderServiceClient.catalogDeleted(catalogId);
+        });
 
         return "Catalog with id: " + catalogId + " was deleted";
+    }
 
+    // for catalogs too large to delete in one transaction: batches in the background
+    @Override
+    public CatalogDeletionResponseModel startCatalogDeletion(String catalogId) {
+
+        if (catalogRepository.findByCatalogIdentifier_CatalogId(catalogId) == null) {
+            throw new NotFoundException("This catalog does not exist");
+        }
+        return catalogDeletionJobs.start(catalogId);
+    }
+
+    @Override
+    public CatalogDeletionResponseModel getCatalogDeletion(String jobId) {
 
+        CatalogDeletionResponseModel job = catalogDeletionJobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("Unknown catalog deletion job: " + jobId);
+        }
+        return job;
     }
 
 }
@@ -1,8 +1,14 @@
 package com.example.productservices.businesslayer;
 
 
+import com.example.productservices.presentationlayer.WatchPresentationLayer.AccessoryRequestModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.StockAdjustmentRequestModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.StockAdjustmentResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchPageResponseModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSearchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSummaryResponseModel;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,15 +18,27 @@ import java.util.Map;
 public interface CatalogWatchService {
     
     
-    List<WatchResponseModel> getWatchesWithFilter(Map<String, String> queryParams);
+    WatchPageResponseModel getWatchesWithFilter(Map<String, String> queryParams);
+
+    WatchSearchResponseModel searchWatches(Map<String, List<String>> queryParams);
 
     WatchResponseModel getCatalogWatchByID(String watchId);
 
+    List<WatchResponseModel> getWatchesByIds(List<String> watchIds);
+
     List<WatchResponseModel> getWatchesInCatalogWithFiltering(String catalogId, Map<String, String> queryParams);
 
+    List<WatchSummaryResponseModel> getWatchSummariesInCatalog(String catalogId);
+
     WatchResponseModel addWatches(WatchRequestModel watchRequestModel, String catalogId);
 
     WatchResponseModel updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel);
 
     String removeWatchInCatalog(String catalogId, String watchId);
+
+    WatchResponseModel addAccessory(String catalogId, String watchId, String accessoryName, AccessoryRequestModel accessoryRequestModel);
+
+    WatchResponseModel removeAccessory(String catalogId, String watchId, String accessoryName);
+
+    StockAdjustmentResponseModel adjustStock(String watchId, StockAdjustmentRequestModel stockAdjustmentRequestModel);
 }
@@ -7,22 +7,42 @@ import com.example.productservices.dataccesslayer.catalog.CatalogRepository;
 import com.example.productservices.dataccesslayer.watch.*;
 import com.example.productservices.datamapperlayer.WatchMapper.WatchRequestMapper;
 import com.example.productservices.datamapperlayer.WatchMapper.WatchResponseMapper;
+import com.example.productservices.domainclientlayer.OrderServiceClient;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.AccessoryRequestModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.StockAdjustmentRequestModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.StockAdjustmentResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchPageResponseModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSearchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSummaryResponseModel;
+import com.example.productservices.utils.Transactions;
 import com.example.productservices.utils.exceptions.DuplicateWatchModelException;
+import com.example.productservices.utils.exceptions.InsufficientStockException;
 import com.example.productservices.utils.exceptions.InvalidInputException;
 import com.example.productservices.utils.exceptions.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CatalogWatchServiceImpl implements CatalogWatchService {
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+
     private final CatalogRepository catalogRepository;
 
     private final WatchRepository watchRepository;
@@ -31,15 +51,24 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
 
     private final WatchRequestMapper watchRequestMapper;
 
+    private final OrderServiceClient orderServiceClient;
+
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+
+    private final WatchSearchIndex watchSearchIndex;
+
    // public final OrderRepository orderRepository;
 
 
     @Autowired
-    public CatalogWatchServiceImpl(CatalogRepository catalogRepository, WatchRepository watchRepository, WatchResponseMapper watchResponseMapper, WatchRequestMapper watchRequestMapper /*, OrderRepository orderRepository*/) {
+    public CatalogWatchServiceImpl(CatalogRepository catalogRepository, WatchRepository watchRepository, WatchResponseMapper watchResponseMapper, WatchRequestMapper watchRequestMapper, OrderServiceClient orderServiceClient, StockAdjustmentRepository stockAdjustmentRepository, WatchSearchIndex watchSearchIndex /*, OrderRepository orderRepository*/) {
         this.catalogRepository = catalogRepository;
         this.watchRepository = watchRepository;
         this.watchResponseMapper = watchResponseMapper;
         this.watchRequestMapper = watchRequestMapper;
+        this.orderServiceClient = orderServiceClient;
+        this.stockAdjustmentRepository = stockAdjustmentRepository;
+        this.watchSearchIndex = watchSearchIndex;
 //        this.orderRepository = orderRepository;
     }
 
@@ -103,10 +132,152 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
                 watchRepository.findAllByCatalogIdentifier_CatalogId(catalogId));
     }
 
+    // for listings that show no accessories: one projection query instead of entities
+    @Override
+    public List<WatchSummaryResponseModel> getWatchSummariesInCatalog(String catalogId) {
+
+        if (!catalogRepository.existsByCatalogIdentifier_CatalogId(catalogId)) {
+            throw new InvalidInputException("Catalog does not exist");
+        }
+        return watchResponseMapper.summaryListToResponseModelList(watchRepository.findSummariesByCatalogId(catalogId));
+    }
+
+    // filtered, sorted and cut in SQL; one row more than the page is read to know whether another page follows
     @Override
-    public List<WatchResponseModel> getWatchesWithFilter(Map<String, String> queryParams) {
+    public WatchPageResponseModel getWatchesWithFilter(Map<String, String> queryParams) {
+
+        List<Specification<Watch>> filters = new ArrayList<>();
+        if (queryParams.get("brandName") != null) {
+            filters.add(WatchSpecifications.brandName(queryParams.get("brandName")));
+        }
+        if (queryParams.get("brandCountry") != null) {
+            filters.add(WatchSpecifications.brandCountry(queryParams.get("brandCountry")));
+        }
+        if (queryParams.get("material") != null) {
+            filters.add(WatchSpecifications.material(queryParams.get("material")));
+        }
+        if (queryParams.get("usage") != null) {
+            filters.add(WatchSpecifications.usageType(usageType(queryParams.get("usage"))));
+        }
+        if (queryParams.get("minPrice") != null) {
+            filters.add(WatchSpecifications.msrpAtLeast(decimal("minPrice", queryParams.get("minPrice"))));
+        }
+        if (queryParams.get("maxPrice") != null) {
+            filters.add(WatchSpecifications.msrpAtMost(decimal("maxPrice", queryParams.get("maxPrice"))));
+        }
+        if (Boolean.parseBoolean(queryParams.get("inStock"))) {
+            filters.add(WatchSpecifications.inStock());
+        }
 
-        return watchResponseMapper.entityListToResponseModelList(watchRepository.findAll());
+        WatchSort sort = WatchSort.parse(queryParams.get("sort"));
+        if (sort == null) {
+            throw new InvalidInputException("sort must be one of price, model, brand, optionally prefixed with '-'");
+        }
+        String after = queryParams.get("after");
+        if (after != null) {
+            try {
+                filters.add(sort.after(after));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidInputException("after must be the cursor from the previous page's Link header, with the same sort");
+            }
+        }
+        int limit = pageSize(queryParams.get("limit"));
+        filters.add(sort.orderBy());
+
+        List<Watch> rows = watchRepository.findBy(Specification.allOf(filters),
+                query -> query.limit(limit + 1).all());
+        boolean more = rows.size() > limit;
+        List<Watch> page = more ? rows.subList(0, limit) : rows;
+
+        return WatchPageResponseModel.builder()
+                .watches(watchResponseMapper.entityListToResponseModelList(page))
+                .nextCursor(more ? sort.cursorOf(page.get(page.size() - 1)) : null)
+                .build();
+    }
+
+    // brand, brandCountry, material, usage, price (bucket), accessory may each repeat;
+    // plus minPrice, maxPrice, inStock, sort (price or -price), offset, limit
+    @Override
+    public WatchSearchResponseModel searchWatches(Map<String, List<String>> queryParams) {
+
+        Map<String, Set<String>> facets = new LinkedHashMap<>();
+        for (String facet : WatchSearchIndex.FACETS) {
+            List<String> values = queryParams.get(facet);
+            if (values != null && !values.isEmpty()) {
+                facets.put(facet, new LinkedHashSet<>(facet.equals(WatchSearchIndex.USAGE)
+                        ? values.stream().map(String::toLowerCase).toList()
+                        : values));
+            }
+        }
+
+        String minPrice = first(queryParams, "minPrice");
+        String maxPrice = first(queryParams, "maxPrice");
+        String sort = first(queryParams, "sort");
+        if (sort != null && !sort.equalsIgnoreCase("price") && !sort.equalsIgnoreCase("-price")) {
+            throw new InvalidInputException("sort must be price or -price");
+        }
+        int offset = offset(first(queryParams, "offset"));
+
+        return watchSearchIndex.search(new WatchSearchIndex.Query(
+                facets,
+                minPrice != null ? decimal("minPrice", minPrice) : null,
+                maxPrice != null ? decimal("maxPrice", maxPrice) : null,
+                Boolean.parseBoolean(first(queryParams, "inStock")),
+                sort != null,
+                sort != null && sort.startsWith("-"),
+                offset,
+                pageSize(first(queryParams, "limit"))));
+    }
+
+    private static String first(Map<String, List<String>> queryParams, String name) {
+        List<String> values = queryParams.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static int offset(String offset) {
+        if (offset == null) {
+            return 0;
+        }
+        try {
+            int skip = Integer.parseInt(offset);
+            if (skip >= 0) {
+                return skip;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new InvalidInputException("offset must be zero or a positive whole number");
+    }
+
+    private static UsageType usageType(String usage) {
+        try {
+            return UsageType.valueOf(usage.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidInputException("usage must be new or used");
+        }
+    }
+
+    private static BigDecimal decimal(String name, String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidInputException(name + " must be a number");
+        }
+    }
+
+    private static int pageSize(String limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            int size = Integer.parseInt(limit);
+            if (size > 0) {
+                return Math.min(size, MAX_PAGE_SIZE);
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new InvalidInputException("limit must be a positive whole number");
     }
 
     @Override
@@ -120,6 +291,17 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
         return watchResponseMapper.entityToResponseModel(watch);
     }
 
+    @Override
+    public List<WatchResponseModel> getWatchesByIds(List<String> watchIds) {
+
+        if (watchIds == null || watchIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return watchResponseMapper.entityListToResponseModelList(
+                watchRepository.findAllByWatchIdentifier_WatchIdIn(new LinkedHashSet<>(watchIds)));
+    }
+
     @Override
     public WatchResponseModel addWatches(WatchRequestModel watchRequestModel, String catalogId) {
 
@@ -157,12 +339,16 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
         w.setQuantity(watchRequestModel.getQuantity());
 
         watchRepository.save(w);
+        Transactions.afterCommit(() -> watchSearchIndex.put(w));
 
         return watchResponseMapper.entityToResponseModel(w);
     }
 
 
+    // the stored watch is changed in place, so Hibernate writes only the columns that changed;
+    // watch_accessories is rewritten only when the request brings a different set of accessories
     @Override
+    @Transactional
     public WatchResponseModel updateWatchInInventory(String catalogId, String watchId, WatchRequestModel watchRequestModel) {
 
 
@@ -176,16 +362,6 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
             throw new NotFoundException("Unknown watch Id provided : " + watchId);
         }
 
-        BigDecimal totalAccessoryCost = watchRequestModel.getAccessories().stream()
-                .map(Accessory::getAccessoryCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Price price = new Price(
-                watchRequestModel.getPrice().getMsrp(),
-                watchRequestModel.getPrice().getCost(),
-                totalAccessoryCost
-        );
-
         String newModel = watchRequestModel.getModel();
 
         if (!existingWatch.getModel().equals(newModel)
@@ -193,30 +369,91 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
             throw new DuplicateWatchModelException(newModel);
         }
 
-        Watch updated = watchRequestMapper.requestModelToEntity(watchRequestModel);
-
-        // preserve identity & embeddables
-        updated.setId(existingWatch.getId());
-        updated.setWatchIdentifier(existingWatch.getWatchIdentifier());
-        updated.setCatalogIdentifier(existingWatch.getCatalogIdentifier());
-        updated.setPrice(price);
-        updated.setWatchBrand(watchRequestModel.getWatchBrand());
-
-        // explicitly handle quantity
-        if (watchRequestModel.getQuantity() != null) {
-            updated.setQuantity(watchRequestModel.getQuantity());
-        } else {
-            updated.setQuantity(existingWatch.getQuantity());
+        BigDecimal totalAccessoryCost = existingWatch.getPrice().getTotalOptionsCost();
+        List<Accessory> accessories = watchRequestModel.getAccessories();
+        if (accessories != null && !sameAccessories(existingWatch.getAccessories(), accessories)) {
+            existingWatch.setAccessories(new ArrayList<>(accessories));
+            totalAccessoryCost = accessories.stream()
+                    .map(Accessory::getAccessoryCost)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
         }
 
-        Watch saved = watchRepository.save(updated);
+        // model, material, usageType and quantity; a missing quantity keeps the stored one
+        watchRequestMapper.updateEntityFromRequestModel(watchRequestModel, existingWatch);
+        existingWatch.setPrice(new Price(
+                watchRequestModel.getPrice().getMsrp(),
+                watchRequestModel.getPrice().getCost(),
+                totalAccessoryCost
+        ));
+        existingWatch.setWatchBrand(watchRequestModel.getWatchBrand());
+
+        Watch saved = watchRepository.save(existingWatch);
+        Transactions.afterCommit(() -> {
+            watchSearchIndex.put(saved);
+            orderServiceClient.watchUpdated(watchId);
+        });
         return watchResponseMapper.entityToResponseModel(saved);
+    }
 
+    // same names and costs, in any order
+    private static boolean sameAccessories(List<Accessory> stored, List<Accessory> requested) {
+        List<Accessory> current = stored != null ? stored : List.of();
+        if (current.size() != requested.size()) {
+            return false;
         }
+        Map<String, BigDecimal> costs = new HashMap<>();
+        current.forEach(a -> costs.put(a.getAccessoryName(), a.getAccessoryCost()));
+        return requested.stream().allMatch(a -> a.getAccessoryCost() != null
+                && costs.containsKey(a.getAccessoryName())
+                && costs.get(a.getAccessoryName()).compareTo(a.getAccessoryCost()) == 0);
+    }
 
+    @Override
+    @Transactional
+    public WatchResponseModel addAccessory(String catalogId, String watchId, String accessoryName, AccessoryRequestModel accessoryRequestModel) {
 
+        BigDecimal cost = accessoryRequestModel == null ? null : accessoryRequestModel.getAccessoryCost();
+        if (cost == null || cost.signum() < 0) {
+            throw new InvalidInputException("accessoryCost must be zero or more");
+        }
+        if (accessoryName.isBlank() || accessoryName.length() > 100) {
+            throw new InvalidInputException("accessory name must be 1 to 100 characters");
+        }
 
+        if (watchRepository.addToOptionsCost(catalogId, watchId, cost) == 0) {
+            throw new NotFoundException("Unknown watch Id provided : " + watchId);
+        }
+        try {
+            watchRepository.insertAccessory(watchId, accessoryName, cost);
+        } catch (DataIntegrityViolationException ex) {
+            // rolling back undoes the cost we just added
+            throw new InvalidInputException("Watch " + watchId + " already has an accessory named '" + accessoryName + "'");
+        }
+        return accessoriesChanged(watchId);
+    }
+
+    @Override
+    @Transactional
+    public WatchResponseModel removeAccessory(String catalogId, String watchId, String accessoryName) {
+
+        if (watchRepository.subtractAccessoryFromOptionsCost(catalogId, watchId, accessoryName) == 0) {
+            if (watchRepository.findByWatchIdentifier_WatchId(watchId) == null) {
+                throw new NotFoundException("Unknown watch Id provided : " + watchId);
+            }
+            throw new NotFoundException("Watch " + watchId + " has no accessory named '" + accessoryName + "'");
+        }
+        watchRepository.deleteAccessory(watchId, accessoryName);
+        return accessoriesChanged(watchId);
+    }
 
+    private WatchResponseModel accessoriesChanged(String watchId) {
+        Watch watch = watchRepository.findByWatchIdentifier_WatchId(watchId);
+        Transactions.afterCommit(() -> {
+            watchSearchIndex.put(watch);
+            orderServiceClient.watchUpdated(watchId);
+        });
+        return watchResponseMapper.entityToResponseModel(watch);
+    }
 
     @Override
     public  String removeWatchInCatalog(String catalogId, String watchId){
@@ -231,7 +468,63 @@ public class CatalogWatchServiceImpl implements CatalogWatchService {
 
         }
         watchRepository.delete(existingWatch);
+        Transactions.afterCommit(() -> {
+            watchSearchIndex.remove(existingWatch);
+            orderServiceClient.watchDeleted(watchId);
+        });
         return "Watch with ID" + watchId + " was successfully removed";
     }
 
+    @Override
+    @Transactional
+    public StockAdjustmentResponseModel adjustStock(String watchId, StockAdjustmentRequestModel req) {
+
+        if (req == null || req.getDelta() == null || req.getDelta() == 0) {
+            throw new InvalidInputException("delta must be a non-zero integer");
+        }
+        String key = req.getIdempotencyKey();
+        if (key == null || key.isBlank() || key.length() > 100) {
+            throw new InvalidInputException("idempotencyKey is required (max 100 characters)");
+        }
+
+        // a retry of something we already applied → same answer, stock untouched
+        StockAdjustment previous = stockAdjustmentRepository.findByIdempotencyKey(key);
+        if (previous != null) {
+            if (!previous.getWatchId().equals(watchId) || !previous.getDelta().equals(req.getDelta())) {
+                throw new InvalidInputException("idempotencyKey '" + key + "' was already used for a different adjustment");
+            }
+            return toResponse(previous, true);
+        }
+
+        // check-and-set in one statement, so concurrent orders can never oversell
+        if (watchRepository.adjustQuantity(watchId, req.getDelta()) == 0) {
+            if (watchRepository.findByWatchIdentifier_WatchId(watchId) == null) {
+                throw new NotFoundException("Unknown watch Id provided : " + watchId);
+            }
+            throw new InsufficientStockException(watchId);
+        }
+
+        WatchStock stock = watchRepository.findStockByWatchId(watchId);
+        StockAdjustment applied = new StockAdjustment(null, key, watchId, req.getDelta(),
+                stock.quantity(), LocalDateTime.now());
+        try {
+            stockAdjustmentRepository.saveAndFlush(applied);
+        } catch (DataIntegrityViolationException ex) {
+            // same key applied concurrently; rolling back undoes our UPDATE, the caller retries and gets the replay
+            throw new InvalidInputException("idempotencyKey '" + key + "' is already being applied");
+        }
+        Transactions.afterCommit(() -> watchSearchIndex.stockAdjusted(watchId, stock.quantity(), stock.version()));
+        return toResponse(applied, false);
+    }
+
+    private static StockAdjustmentResponseModel toResponse(StockAdjustment adjustment, boolean replayed) {
+        return StockAdjustmentResponseModel.builder()
+                .watchId(adjustment.getWatchId())
+                .delta(adjustment.getDelta())
+                .quantity(adjustment.getResultingQuantity())
+                .idempotencyKey(adjustment.getIdempotencyKey())
+                .replayed(replayed)
+                .build();
+    }
+
 }
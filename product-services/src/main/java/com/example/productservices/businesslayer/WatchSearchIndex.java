@@ -0,0 +1,476 @@
+package com.example.productservices.businesslayer;
+
+
+import com.example.productservices.dataccesslayer.watch.Accessory;
+import com.example.productservices.dataccesslayer.watch.Watch;
+import com.example.productservices.dataccesslayer.watch.WatchRepository;
+import com.example.productservices.datamapperlayer.WatchMapper.WatchResponseMapper;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSearchResponseModel;
+import com.example.productservices.utils.Transactions;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over the watch inventory behind {@code GET /api/v1/watches/search}.
+ * Every facet value (brand, brand country, material, usage, price bucket, accessory) has a
+ * compressed bitmap of the watches carrying it, keyed by their primary key, and the prices sit
+ * in one sorted array so a price range is two binary searches. A search is a handful of bitmap
+ * ANDs and ORs and never touches the database.
+ * <p>
+ * The index is read from the database on the first search, then kept current by the service
+ * on every add, update, removal and stock adjustment. The service makes these calls from
+ * {@link Transactions#afterCommit}, so a rolled-back change never reaches the index. It is
+ * read again every {@code app.search.rebuild-interval-ms}, which also picks up what another
+ * replica of this service wrote. Changes arriving while it is being read are replayed onto the
+ * new copy, so a rebuild never loses one.
+ * <p>
+ * Facet counts are computed with the filters of every other facet applied but not the facet's
+ * own, so ticking one brand still shows how many watches the other brands have.
+ */
+@Component
+@Slf4j
+public class WatchSearchIndex {
+
+    public static final String BRAND = "brand";
+    public static final String BRAND_COUNTRY = "brandCountry";
+    public static final String MATERIAL = "material";
+    public static final String USAGE = "usage";
+    public static final String PRICE = "price";
+    public static final String ACCESSORY = "accessory";
+    public static final List<String> FACETS = List.of(BRAND, BRAND_COUNTRY, MATERIAL, USAGE, PRICE, ACCESSORY);
+
+    private final WatchRepository watchRepository;
+    private final WatchResponseMapper watchResponseMapper;
+    // upper bounds of the price buckets, in cents, ascending
+    private final long[] bucketBounds;
+    private final List<String> bucketLabels;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private volatile State state;
+    // changes made while a rebuild reads the database, replayed onto its result
+    private List<Consumer<State>> missed;
+
+    /**
+     * A search. Within a facet the values are alternatives, across facets they all have to
+     * hold. {@code minPrice}/{@code maxPrice} are inclusive and may be null.
+     */
+    public record Query(Map<String, Set<String>> facets, BigDecimal minPrice, BigDecimal maxPrice,
+                        boolean inStock, boolean byPrice, boolean descending, int offset, int limit) {}
+
+    public WatchSearchIndex(WatchRepository watchRepository, WatchResponseMapper watchResponseMapper,
+                            @Value("${app.search.price-buckets:500,1000,2500,5000,10000}") List<BigDecimal> priceBuckets) {
+        this.watchRepository = watchRepository;
+        this.watchResponseMapper = watchResponseMapper;
+        this.bucketBounds = priceBuckets.stream().sorted().mapToLong(WatchSearchIndex::cents).toArray();
+        this.bucketLabels = new ArrayList<>();
+        String lower = "0";
+        for (BigDecimal bound : priceBuckets.stream().sorted().toList()) {
+            bucketLabels.add(lower + "-" + bound.stripTrailingZeros().toPlainString());
+            lower = bound.stripTrailingZeros().toPlainString();
+        }
+        bucketLabels.add(lower + "+");
+    }
+
+    public WatchSearchResponseModel search(Query query) {
+        if (state == null) {
+            synchronized (rebuildLock) {
+                if (state == null) {
+                    rebuild();
+                }
+            }
+        }
+        lock.readLock().lock();
+        try {
+            return state.search(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Adds or replaces {@code watch}. */
+    public void put(Watch watch) {
+        if (watch.getId() == null) {
+            return;
+        }
+        Doc doc = doc(watch);
+        apply(s -> s.put(doc));
+    }
+
+    public void remove(Watch watch) {
+        Integer id = watch.getId();
+        if (id == null) {
+            return;
+        }
+        apply(s -> s.remove(id));
+    }
+
+    /** Drops the watches with these primary keys, deleted in SQL without loading them. */
+    public void removeAll(Collection<Integer> ids) {
+        List<Integer> copy = List.copyOf(ids);
+        apply(s -> copy.forEach(s::remove));
+    }
+
+    public void removeCatalog(String catalogId) {
+        apply(s -> s.docs.values().stream()
+                .filter(doc -> catalogId.equals(doc.watch().getCatalogId()))
+                .map(Doc::id)
+                .toList()
+                .forEach(s::remove));
+    }
+
+    /**
+     * Sets the stock of {@code watchId} after an adjustment made in SQL, to what the adjusting
+     * transaction read back, without reading the watch again. A copy already at {@code version}
+     * or later (a rebuild that saw the commit, or a later adjustment applied first) is left alone.
+     */
+    public void stockAdjusted(String watchId, int quantity, long version) {
+        apply(s -> s.stockAdjusted(watchId, quantity, version));
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.search.rebuild-interval-ms:300000}")
+    public void rebuildIfLoaded() {
+        if (state != null) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                missed = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            State fresh = new State();
+            try {
+                long started = System.nanoTime();
+                fresh.load(watchRepository.findAll().stream().map(this::doc).toList());
+                log.debug("search index: read {} watches in {} ms", fresh.docs.size(),
+                        (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException ex) {
+                lock.writeLock().lock();
+                try {
+                    missed = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw ex;
+            }
+
+            lock.writeLock().lock();
+            try {
+                missed.forEach(change -> change.accept(fresh));
+                missed = null;
+                state = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void apply(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            if (missed != null) {
+                missed.add(change);
+            }
+            if (state != null) {
+                change.accept(state);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ─── documents ───────────────────────────────────────────────────────────────────────
+
+    private record Doc(int id, WatchResponseModel watch, long price, boolean inStock, Map<String, Set<String>> values) {}
+
+    private Doc doc(Watch watch) {
+        long price = watch.getPrice() != null ? cents(watch.getPrice().getMsrp()) : 0;
+        Map<String, Set<String>> values = new HashMap<>();
+        if (watch.getWatchBrand() != null) {
+            value(values, BRAND, watch.getWatchBrand().getBrandName());
+            value(values, BRAND_COUNTRY, watch.getWatchBrand().getBrandCountry());
+        }
+        value(values, MATERIAL, watch.getMaterial());
+        value(values, USAGE, watch.getUsageType() != null ? watch.getUsageType().name().toLowerCase() : null);
+        value(values, PRICE, bucketLabels.get(bucket(price)));
+        if (watch.getAccessories() != null) {
+            for (Accessory accessory : watch.getAccessories()) {
+                value(values, ACCESSORY, accessory.getAccessoryName());
+            }
+        }
+        boolean inStock = watch.getQuantity() != null && watch.getQuantity() > 0;
+        return new Doc(watch.getId(), watchResponseMapper.entityToResponseModel(watch), price, inStock, values);
+    }
+
+    private static void value(Map<String, Set<String>> values, String facet, String value) {
+        if (value != null) {
+            values.computeIfAbsent(facet, f -> new HashSet<>()).add(value);
+        }
+    }
+
+    private int bucket(long price) {
+        int i = 0;
+        while (i < bucketBounds.length && price >= bucketBounds[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // ─── the index proper, guarded by lock ───────────────────────────────────────────────
+
+    private final class State {
+
+        final Map<Integer, Doc> docs = new HashMap<>();
+        final Map<String, Integer> idsByWatchId = new HashMap<>();
+        final RoaringBitmap all = new RoaringBitmap();
+        final RoaringBitmap inStock = new RoaringBitmap();
+        // facet -> value -> watches with that value
+        final Map<String, Map<String, RoaringBitmap>> postings = new HashMap<>();
+        // ascending by (price, id); prices[i] belongs to priceIds[i]
+        long[] prices = new long[64];
+        int[] priceIds = new int[64];
+        int size;
+
+        // a whole inventory at once: the price array is sorted once instead of shifted per watch
+        void load(List<Doc> batch) {
+            batch.forEach(this::index);
+            Doc[] byPrice = docs.values().stream()
+                    .sorted(Comparator.comparingLong(Doc::price).thenComparingInt(Doc::id))
+                    .toArray(Doc[]::new);
+            size = byPrice.length;
+            prices = new long[Math.max(64, size)];
+            priceIds = new int[prices.length];
+            for (int i = 0; i < size; i++) {
+                prices[i] = byPrice[i].price();
+                priceIds[i] = byPrice[i].id();
+            }
+            postings.values().forEach(byValue -> byValue.values().forEach(RoaringBitmap::runOptimize));
+        }
+
+        void put(Doc doc) {
+            remove(doc.id());
+            index(doc);
+
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                priceIds = Arrays.copyOf(priceIds, size * 2);
+            }
+            int at = position(doc.price(), doc.id());
+            System.arraycopy(prices, at, prices, at + 1, size - at);
+            System.arraycopy(priceIds, at, priceIds, at + 1, size - at);
+            prices[at] = doc.price();
+            priceIds[at] = doc.id();
+            size++;
+        }
+
+        void index(Doc doc) {
+            docs.put(doc.id(), doc);
+            idsByWatchId.put(doc.watch().getWatchId(), doc.id());
+            all.add(doc.id());
+            if (doc.inStock()) {
+                inStock.add(doc.id());
+            }
+            doc.values().forEach((facet, values) -> values.forEach(value -> postings
+                    .computeIfAbsent(facet, f -> new HashMap<>())
+                    .computeIfAbsent(value, v -> new RoaringBitmap())
+                    .add(doc.id())));
+        }
+
+        void remove(int id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            idsByWatchId.remove(doc.watch().getWatchId(), id);
+            all.remove(id);
+            inStock.remove(id);
+            doc.values().forEach((facet, values) -> values.forEach(value -> {
+                Map<String, RoaringBitmap> byValue = postings.get(facet);
+                RoaringBitmap ids = byValue.get(value);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    byValue.remove(value);
+                }
+            }));
+
+            int at = position(doc.price(), id);
+            System.arraycopy(prices, at + 1, prices, at, size - at - 1);
+            System.arraycopy(priceIds, at + 1, priceIds, at, size - at - 1);
+            size--;
+        }
+
+        // only the stock changes: the postings and the price slot stay where they are
+        void stockAdjusted(String watchId, int quantity, long version) {
+            Integer id = idsByWatchId.get(watchId);
+            Doc doc = id == null ? null : docs.get(id);
+            if (doc == null || (doc.watch().getVersion() != null && doc.watch().getVersion() >= version)) {
+                return;
+            }
+            WatchResponseModel old = doc.watch();
+            // a new model rather than a setter: searches hand the old one out after the lock is released
+            WatchResponseModel watch = new WatchResponseModel(old.getWatchId(), old.getCatalogId(), quantity,
+                    old.getUsageType(), old.getModel(), old.getMaterial(), old.getAccessories(), old.getPrice(),
+                    old.getWatchBrand(), version);
+            docs.put(id, new Doc(id, watch, doc.price(), quantity > 0, doc.values()));
+            if (quantity > 0) {
+                inStock.add(id);
+            } else {
+                inStock.remove(id);
+            }
+        }
+
+        // first slot not below (price, id)
+        int position(long price, int id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < price || (prices[mid] == price && priceIds[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        RoaringBitmap priceRange(BigDecimal min, BigDecimal max) {
+            int from = min == null ? 0 : position(cents(min), Integer.MIN_VALUE);
+            int to = max == null ? size : position(cents(max), Integer.MAX_VALUE);
+            RoaringBitmap range = new RoaringBitmap();
+            if (to > from) {
+                range.addN(priceIds, from, to - from);
+            }
+            return range;
+        }
+
+        WatchSearchResponseModel search(Query query) {
+            RoaringBitmap base = query.inStock() ? inStock.clone() : all.clone();
+            if (query.minPrice() != null || query.maxPrice() != null) {
+                base.and(priceRange(query.minPrice(), query.maxPrice()));
+            }
+
+            Map<String, RoaringBitmap> selected = new LinkedHashMap<>();
+            query.facets().forEach((facet, values) -> {
+                Map<String, RoaringBitmap> byValue = postings.getOrDefault(facet, Map.of());
+                RoaringBitmap any = new RoaringBitmap();
+                values.forEach(value -> {
+                    RoaringBitmap ids = byValue.get(value);
+                    if (ids != null) {
+                        any.or(ids);
+                    }
+                });
+                selected.put(facet, any);
+            });
+
+            RoaringBitmap hits = base.clone();
+            selected.values().forEach(hits::and);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                RoaringBitmap others = base.clone();
+                selected.forEach((name, ids) -> {
+                    if (!name.equals(facet)) {
+                        others.and(ids);
+                    }
+                });
+                facets.put(facet, counts(facet, others));
+            }
+
+            return WatchSearchResponseModel.builder()
+                    .total(hits.getCardinality())
+                    .hits(page(hits, query))
+                    .facets(facets)
+                    .build();
+        }
+
+        // most watches first; price buckets in price order
+        Map<String, Integer> counts(String facet, RoaringBitmap within) {
+            List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+            postings.getOrDefault(facet, Map.of()).forEach((value, ids) -> {
+                int count = RoaringBitmap.andCardinality(within, ids);
+                if (count > 0) {
+                    counts.add(Map.entry(value, count));
+                }
+            });
+            counts.sort(facet.equals(PRICE)
+                    ? Comparator.<Map.Entry<String, Integer>>comparingInt(e -> bucketLabels.indexOf(e.getKey()))
+                    : Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> ordered = new LinkedHashMap<>();
+            counts.forEach(e -> ordered.put(e.getKey(), e.getValue()));
+            return ordered;
+        }
+
+        List<WatchResponseModel> page(RoaringBitmap hits, Query query) {
+            List<WatchResponseModel> page = new ArrayList<>();
+            int skip = query.offset();
+            if (query.byPrice()) {
+                // with at least a quarter of the slots hits, walking the price order finds
+                // offset + limit of them within about four times as many slots
+                if ((long) hits.getCardinality() * 4 >= size) {
+                    for (int i = 0; i < size && page.size() < query.limit(); i++) {
+                        int id = priceIds[query.descending() ? size - 1 - i : i];
+                        if (hits.contains(id) && skip-- <= 0) {
+                            page.add(docs.get(id).watch());
+                        }
+                    }
+                    return page;
+                }
+                // fewer hits: keep the best offset + limit of them while going through the hits once
+                Comparator<Doc> order = Comparator.comparingLong(Doc::price).thenComparingInt(Doc::id);
+                if (query.descending()) {
+                    order = order.reversed();
+                }
+                int wanted = (int) Math.min((long) query.offset() + query.limit(), hits.getCardinality());
+                PriorityQueue<Doc> best = new PriorityQueue<>(Math.max(1, wanted), order.reversed());
+                IntIterator ids = hits.getIntIterator();
+                while (ids.hasNext() && wanted > 0) {
+                    Doc doc = docs.get(ids.next());
+                    if (best.size() < wanted) {
+                        best.add(doc);
+                    } else if (order.compare(doc, best.peek()) < 0) {
+                        best.poll();
+                        best.add(doc);
+                    }
+                }
+                List<Doc> sorted = new ArrayList<>(best);
+                sorted.sort(order);
+                for (int i = skip; i < sorted.size(); i++) {
+                    page.add(sorted.get(i).watch());
+                }
+                return page;
+            }
+            IntIterator ids = query.descending() ? hits.getReverseIntIterator() : hits.getIntIterator();
+            while (ids.hasNext() && page.size() < query.limit()) {
+                int id = ids.next();
+                if (skip-- <= 0) {
+                    page.add(docs.get(id).watch());
+                }
+            }
+            return page;
+        }
+    }
+}
@@ -26,5 +26,8 @@ public class Catalog {
 
     private String description;
 
+    @Version
+    private Long version;
+
 
 }
@@ -1,6 +1,12 @@
 package com.example.productservices.dataccesslayer.catalog;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CatalogRepository extends JpaRepository<Catalog, Integer> {
 
@@ -10,4 +16,10 @@ boolean existsByCatalogIdentifier_CatalogId(String catalogId);
 
 boolean existsByType(String type);
 
+List<Catalog> findAllByCatalogIdentifier_CatalogIdIn(Collection<String> catalogIds);
+
+@Modifying(flushAutomatically = true, clearAutomatically = true)
+@Query(value = "DELETE FROM catalogs WHERE catalog_id = :catalogId", nativeQuery = true)
+int deleteByCatalogId(@Param("catalogId") String catalogId);
+
 }
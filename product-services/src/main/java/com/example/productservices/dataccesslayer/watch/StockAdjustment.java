@@ -0,0 +1,39 @@
+package com.example.productservices.dataccesslayer.watch;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One applied stock change, keyed by the caller's idempotency key so a retried
+ * request is answered from here instead of moving stock twice.
+ */
+@Entity
+@Table(name = "stock_adjustments")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class StockAdjustment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "watch_id", nullable = false)
+    private String watchId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(name = "resulting_quantity", nullable = false)
+    private Integer resultingQuantity;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
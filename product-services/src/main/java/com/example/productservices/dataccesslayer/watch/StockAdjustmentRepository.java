@@ -0,0 +1,8 @@
+package com.example.productservices.dataccesslayer.watch;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockAdjustmentRepository extends JpaRepository<StockAdjustment, Integer> {
+
+    StockAdjustment findByIdempotencyKey(String idempotencyKey);
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 
 import java.util.List;
@@ -39,7 +40,10 @@ public class Watch {
     private String model;
     private String material;
 
+    // lists load the accessories through an entity graph (WatchRepository); where a query cannot
+    // join them, such as a LIMITed page, they come for up to a page of watches in one IN query
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @CollectionTable(name = "watch_accessories",joinColumns =
     @JoinColumn(name = "watch_id",referencedColumnName = "watch_id"))
     private List<Accessory> accessories;
@@ -50,5 +54,8 @@ public class Watch {
     @Embedded
     private Price price;
 
+    @Version
+    private Long version;
+
 
 }
@@ -1,20 +1,107 @@
 package com.example.productservices.dataccesslayer.watch;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
-public interface WatchRepository extends JpaRepository<Watch, Integer> {
+// the list queries fetch the accessories in the same statement; without the graph every
+// watch read costs one more SELECT on watch_accessories
+public interface WatchRepository extends JpaRepository<Watch, Integer>, JpaSpecificationExecutor<Watch> {
 
+    @Override
+    @EntityGraph(attributePaths = "accessories")
+    List<Watch> findAll();
+
+    @EntityGraph(attributePaths = "accessories")
     List<Watch> findAllByCatalogIdentifier_CatalogId(String catalogId);
 
 //    List<Watch> findAllByCatalogIdentifier_CatalogIdAndWatchStatusEqualsAndUsageTypeEquals(String catalogId, WatchStatus status, UsageType usageType);
 //
 //    List<Watch> findAllByCatalogIdentifier_CatalogIdAndWatchStatusEquals(String catalogId, WatchStatus status);
 
+    @EntityGraph(attributePaths = "accessories")
     List<Watch> findAllByCatalogIdentifier_CatalogIdAndUsageTypeEquals(String catalogId, UsageType usageType);
 
+    // one statement, no entities and no accessories
+    @Query("SELECT new com.example.productservices.dataccesslayer.watch.WatchSummary(" +
+            "w.watchIdentifier.watchId, w.catalogIdentifier.catalogId, w.model, w.watchBrand.brandName, " +
+            "w.watchBrand.brandCountry, w.material, w.usageType, w.price.msrp, w.quantity, w.version) " +
+            "FROM Watch w WHERE w.catalogIdentifier.catalogId = :catalogId ORDER BY w.id")
+    List<WatchSummary> findSummariesByCatalogId(@Param("catalogId") String catalogId);
+
     Watch findByWatchIdentifier_WatchId(String watchId);
 
+    @EntityGraph(attributePaths = "accessories")
+    List<Watch> findAllByWatchIdentifier_WatchIdIn(Collection<String> watchIds);
+
     boolean existsByModelAndCatalogIdentifier_CatalogId(String model, String catalogId);
+
+    long countByCatalogIdentifier_CatalogId(String catalogId);
+
+    // set-based catalog deletion; the accessories are deleted first rather than left to an
+    // ON DELETE CASCADE, which a schema generated by ddl-auto does not have
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM watch_accessories WHERE watch_id IN " +
+            "(SELECT watch_id FROM watches WHERE catalog_id = :catalogId)", nativeQuery = true)
+    int deleteAccessoriesInCatalog(@Param("catalogId") String catalogId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM watches WHERE catalog_id = :catalogId", nativeQuery = true)
+    int deleteAllInCatalog(@Param("catalogId") String catalogId);
+
+    @Query(value = "SELECT id FROM watches WHERE catalog_id = :catalogId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Integer> findIdsInCatalog(@Param("catalogId") String catalogId, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM watch_accessories WHERE watch_id IN " +
+            "(SELECT watch_id FROM watches WHERE id IN (:ids))", nativeQuery = true)
+    int deleteAccessoriesOfIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM watches WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIds(@Param("ids") Collection<Integer> ids);
+
+    // single conditional UPDATE: 0 rows means unknown watch or not enough stock
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE watches SET quantity = quantity + :delta, version = version + 1 " +
+            "WHERE watch_id = :watchId AND quantity + :delta >= 0", nativeQuery = true)
+    int adjustQuantity(@Param("watchId") String watchId, @Param("delta") int delta);
+
+    @Query("SELECT new com.example.productservices.dataccesslayer.watch.WatchStock(w.quantity, w.version) " +
+            "FROM Watch w WHERE w.watchIdentifier.watchId = :watchId")
+    WatchStock findStockByWatchId(@Param("watchId") String watchId);
+
+    // one accessory at a time, instead of rewriting the whole collection through the entity;
+    // the UPDATE runs first so it holds the watch's row lock while the accessory row changes
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE watches SET total_options_cost = total_options_cost + :cost, version = version + 1 " +
+            "WHERE watch_id = :watchId AND catalog_id = :catalogId", nativeQuery = true)
+    int addToOptionsCost(@Param("catalogId") String catalogId, @Param("watchId") String watchId, @Param("cost") BigDecimal cost);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO watch_accessories (watch_id, accessory_name, accessory_cost) " +
+            "VALUES (:watchId, :name, :cost)", nativeQuery = true)
+    int insertAccessory(@Param("watchId") String watchId, @Param("name") String name, @Param("cost") BigDecimal cost);
+
+    // 0 rows means unknown watch or no such accessory on it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE watches SET total_options_cost = total_options_cost - " +
+            "(SELECT a.accessory_cost FROM watch_accessories a WHERE a.watch_id = :watchId AND a.accessory_name = :name), " +
+            "version = version + 1 " +
+            "WHERE watch_id = :watchId AND catalog_id = :catalogId AND EXISTS " +
+            "(SELECT 1 FROM watch_accessories a WHERE a.watch_id = :watchId AND a.accessory_name = :name)", nativeQuery = true)
+    int subtractAccessoryFromOptionsCost(@Param("catalogId") String catalogId, @Param("watchId") String watchId, @Param("name") String name);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM watch_accessories WHERE watch_id = :watchId AND accessory_name = :name", nativeQuery = true)
+    int deleteAccessory(@Param("watchId") String watchId, @Param("name") String name);
 }
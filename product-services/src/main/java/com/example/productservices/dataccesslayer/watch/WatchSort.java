@@ -0,0 +1,155 @@
+package com.example.productservices.dataccesslayer.watch;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Order of a watch listing and the keyset condition for the page after a cursor.
+ * The primary key breaks ties, so the order is total and a page boundary never splits or
+ * repeats rows, however many watches share a price or a brand.
+ * <p>
+ * {@code sort} is {@code price}, {@code model} or {@code brand}, with a leading {@code -}
+ * for descending; without it watches come in the order they were added. A watch without a
+ * value for the sort key sorts below every value: NULLS FIRST going up and NULLS LAST going
+ * down, spelled out in the ORDER BY rather than left to the database.
+ * <p>
+ * The cursor carries the sort value and id of the last watch on the page, so the next page
+ * does not depend on that watch still being there or unchanged.
+ */
+public record WatchSort(Key key, boolean descending) {
+
+    public enum Key {
+        ID("id", Watch::getId, null),
+        PRICE("price.msrp", w -> w.getPrice() == null ? null : w.getPrice().getMsrp(), BigDecimal::new),
+        MODEL("model", Watch::getModel, s -> s),
+        BRAND("watchBrand.brandName", w -> w.getWatchBrand() == null ? null : w.getWatchBrand().getBrandName(),
+                s -> s);
+
+        private final String property;
+        private final Function<Watch, Comparable<?>> value;
+        private final Function<String, Comparable<?>> parse;
+
+        Key(String property, Function<Watch, Comparable<?>> value, Function<String, Comparable<?>> parse) {
+            this.property = property;
+            this.value = value;
+            this.parse = parse;
+        }
+    }
+
+    public static final WatchSort DEFAULT = new WatchSort(Key.ID, false);
+
+    /** @return null when {@code sort} names no known order */
+    public static WatchSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT;
+        }
+        boolean descending = sort.startsWith("-");
+        String name = descending ? sort.substring(1) : sort;
+        return switch (name.toLowerCase()) {
+            case "price" -> new WatchSort(Key.PRICE, descending);
+            case "model" -> new WatchSort(Key.MODEL, descending);
+            case "brand" -> new WatchSort(Key.BRAND, descending);
+            default -> null;
+        };
+    }
+
+    /** Puts the listing in this order; matches no rows by itself. */
+    public Specification<Watch> orderBy() {
+        return (root, query, cb) -> {
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            List<Order> orders = new ArrayList<>();
+            if (key != Key.ID) {
+                orders.add(direction(hcb, path(root)));
+            }
+            orders.add(direction(hcb, root.get("id")));
+            query.orderBy(orders);
+            return null;
+        };
+    }
+
+    /** The cursor for the page after {@code last}. */
+    public String cursorOf(Watch last) {
+        StringBuilder cursor = new StringBuilder()
+                .append(key.name()).append('|')
+                .append(descending ? "desc" : "asc").append('|')
+                .append(last.getId());
+        Comparable<?> value = key == Key.ID ? null : key.value.apply(last);
+        if (value != null) {
+            cursor.append('|').append(value instanceof BigDecimal d ? d.toPlainString() : value.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Watches that come after {@code cursor} in this order.
+     *
+     * @throws IllegalArgumentException when {@code cursor} was not made by {@link #cursorOf} for this order
+     */
+    public Specification<Watch> after(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("not a cursor: " + cursor);
+        }
+        if (parts.length < 3 || !parts[0].equals(key.name()) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new IllegalArgumentException("not a cursor for this sort: " + cursor);
+        }
+        int lastId;
+        Comparable<?> lastValue;
+        try {
+            lastId = Integer.parseInt(parts[2]);
+            lastValue = parts.length == 4 && key != Key.ID ? key.parse.apply(parts[3]) : null;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("not a cursor: " + cursor);
+        }
+
+        return (root, query, cb) -> {
+            Path<Integer> id = root.get("id");
+            Predicate idBeyond = descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+            if (key == Key.ID) {
+                return idBeyond;
+            }
+            return beyond(cb, path(root), lastValue, idBeyond);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate beyond(CriteriaBuilder cb, Path path, Comparable value, Predicate idBeyond) {
+        if (value == null) {
+            // after a null: the rest of the nulls, then (going up) every value
+            Predicate moreNulls = cb.and(cb.isNull(path), idBeyond);
+            return descending ? moreNulls : cb.or(moreNulls, cb.isNotNull(path));
+        }
+        Predicate strictly = descending ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+        Predicate beyond = cb.or(strictly, cb.and(cb.equal(path, value), idBeyond));
+        // going down, the nulls are still to come
+        return descending ? cb.or(beyond, cb.isNull(path)) : beyond;
+    }
+
+    // nulls lowest either way: first going up, last going down
+    private Order direction(HibernateCriteriaBuilder cb, Expression<?> expression) {
+        return descending ? cb.desc(expression, false) : cb.asc(expression, true);
+    }
+
+    private Path<?> path(Root<Watch> root) {
+        Path<?> path = root;
+        for (String part : key.property.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+}
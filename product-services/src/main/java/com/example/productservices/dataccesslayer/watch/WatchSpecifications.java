@@ -0,0 +1,42 @@
+package com.example.productservices.dataccesslayer.watch;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * The filters of {@code GET /api/v1/watches}, each one a WHERE clause on {@code watches}.
+ */
+public final class WatchSpecifications {
+
+    private WatchSpecifications() {
+    }
+
+    public static Specification<Watch> brandName(String brandName) {
+        return (root, query, cb) -> cb.equal(root.get("watchBrand").get("brandName"), brandName);
+    }
+
+    public static Specification<Watch> brandCountry(String brandCountry) {
+        return (root, query, cb) -> cb.equal(root.get("watchBrand").get("brandCountry"), brandCountry);
+    }
+
+    public static Specification<Watch> material(String material) {
+        return (root, query, cb) -> cb.equal(root.get("material"), material);
+    }
+
+    public static Specification<Watch> usageType(UsageType usageType) {
+        return (root, query, cb) -> cb.equal(root.get("usageType"), usageType);
+    }
+
+    public static Specification<Watch> msrpAtLeast(BigDecimal min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price").get("msrp"), min);
+    }
+
+    public static Specification<Watch> msrpAtMost(BigDecimal max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price").get("msrp"), max);
+    }
+
+    public static Specification<Watch> inStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("quantity"), 0);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.productservices.dataccesslayer.watch;
+
+/**
+ * A watch's stock and version as {@link WatchRepository#adjustQuantity} left them, read by
+ * {@link WatchRepository#findStockByWatchId}.
+ */
+public record WatchStock(Integer quantity, Long version) {
+}
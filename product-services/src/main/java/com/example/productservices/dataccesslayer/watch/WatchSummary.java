@@ -0,0 +1,11 @@
+package com.example.productservices.dataccesslayer.watch;
+
+import java.math.BigDecimal;
+
+/**
+ * A watch as a listing shows it: read straight into this record by
+ * {@link WatchRepository#findSummariesByCatalogId}, without the entity or its accessories.
+ */
+public record WatchSummary(String watchId, String catalogId, String model, String brandName, String brandCountry,
+                           String material, UsageType usageType, BigDecimal msrp, Integer quantity, Long version) {
+}
@@ -11,5 +11,6 @@ public interface CatalogRequestMapper {
 
     @Mapping(target = "id",ignore = true)
     @Mapping(target = "catalogIdentifier",ignore = true)
+    @Mapping(target = "version",ignore = true)
     Catalog requestModelToEntity(CatalogRequestModel catalogRequestModel);
 }
@@ -8,9 +8,12 @@ import com.example.productservices.dataccesslayer.watch.Watch;
 import com.example.productservices.dataccesslayer.watch.WatchBrand;
 import com.example.productservices.dataccesslayer.watch.WatchIdentifier;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Mappings;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 @Mapper(componentModel = "spring")
 public interface WatchRequestMapper {
@@ -20,6 +23,18 @@ public interface WatchRequestMapper {
     @Mapping(target="catalogIdentifier",ignore=true) // set in service
     @Mapping(target="price",            ignore=true) // set in service
     @Mapping(target="watchBrand",      ignore=true) // set in service
+    @Mapping(target="version",         ignore=true) // set in service
         // everything else (model, material, status, usageType, accessories) is auto‐mapped
     Watch requestModelToEntity(WatchRequestModel req);
+
+    // a PUT onto the stored watch: its scalar columns only, a null leaves the column as it is
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target="id",               ignore=true)
+    @Mapping(target="watchIdentifier",  ignore=true)
+    @Mapping(target="catalogIdentifier",ignore=true)
+    @Mapping(target="price",            ignore=true) // set in service
+    @Mapping(target="watchBrand",       ignore=true) // set in service
+    @Mapping(target="version",          ignore=true)
+    @Mapping(target="accessories",      ignore=true) // replaced in service, only when they changed
+    void updateEntityFromRequestModel(WatchRequestModel req, @MappingTarget Watch watch);
 }
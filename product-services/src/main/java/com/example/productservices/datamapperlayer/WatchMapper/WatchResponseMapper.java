@@ -2,7 +2,9 @@ package com.example.productservices.datamapperlayer.WatchMapper;
 
 
 import com.example.productservices.dataccesslayer.watch.Watch;
+import com.example.productservices.dataccesslayer.watch.WatchSummary;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSummaryResponseModel;
 import org.mapstruct.*;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
@@ -23,5 +25,9 @@ public interface WatchResponseMapper {
 
     List<WatchResponseModel> entityListToResponseModelList(List<Watch> watches);
 
+    WatchSummaryResponseModel summaryToResponseModel(WatchSummary summary);
+
+    List<WatchSummaryResponseModel> summaryListToResponseModelList(List<WatchSummary> summaries);
+
 
 }
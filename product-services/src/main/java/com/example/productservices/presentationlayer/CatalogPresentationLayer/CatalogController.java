@@ -2,11 +2,13 @@ package com.example.productservices.presentationlayer.CatalogPresentationLayer;
 
 
 import com.example.productservices.businesslayer.CatalogService;
+import com.example.productservices.utils.ETags;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 
@@ -24,14 +26,21 @@ public class CatalogController {
     @GetMapping()
     public ResponseEntity<List<CatalogResponseModel>> getCatalogs() {
 
-        return ResponseEntity.ok().body(
-                catalogService.getCatalogs()
-        );
+        List<CatalogResponseModel> catalogs = catalogService.getCatalogs();
+        return ResponseEntity.ok()
+                .eTag(ETags.of(catalogs, CatalogResponseModel::getCatalogId, CatalogResponseModel::getVersion))
+                .body(catalogs);
     }
 
     @GetMapping("/{catalogId}")
     public ResponseEntity<CatalogResponseModel> getCatalogById(@PathVariable String catalogId) {
-        return ResponseEntity.ok().body(catalogService.getCatalogById(catalogId));
+        CatalogResponseModel catalog = catalogService.getCatalogById(catalogId);
+        return ResponseEntity.ok().eTag(ETags.of(catalog.getVersion())).body(catalog);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<CatalogResponseModel>> getCatalogsByIds(@RequestBody List<String> catalogIds) {
+        return ResponseEntity.ok().body(catalogService.getCatalogsByIds(catalogIds));
     }
 
     @PostMapping()
@@ -47,10 +56,27 @@ public class CatalogController {
         return ResponseEntity.ok().body(catalogService.updateCatalog(catalogRequestModel,catalogId));
     }
 
+    // ?async=true for very large catalogs: 202 and a job to follow at /deletions/{jobId}
     @DeleteMapping("/{catalogId}")
-    public ResponseEntity<String> deleteCatalog(@PathVariable String catalogId) {
-
+    public ResponseEntity<CatalogDeletionResponseModel> deleteCatalog(@PathVariable String catalogId,
+                                                                      @RequestParam(defaultValue = "false") boolean async) {
+
+        if (async) {
+            CatalogDeletionResponseModel job = catalogService.startCatalogDeletion(catalogId);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/api/v1/catalogs/deletions/{jobId}")
+                            .buildAndExpand(job.getJobId())
+                            .toUri())
+                    .body(job);
+        }
         this.catalogService.deleteCatalog(catalogId);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<CatalogDeletionResponseModel> getCatalogDeletion(@PathVariable String jobId) {
+
+        return ResponseEntity.ok().body(catalogService.getCatalogDeletion(jobId));
+    }
 }
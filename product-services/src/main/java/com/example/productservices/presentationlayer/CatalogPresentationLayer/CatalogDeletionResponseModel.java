@@ -0,0 +1,25 @@
+package com.example.productservices.presentationlayer.CatalogPresentationLayer;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class CatalogDeletionResponseModel {
+
+    private String jobId;
+    private String catalogId;
+    // RUNNING, COMPLETED or FAILED
+    private String status;
+    // watches in the catalog when the job started, and deleted so far
+    private long totalWatches;
+    private long deletedWatches;
+    private int percentDone;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -12,4 +12,5 @@ public class CatalogResponseModel {
     private String catalogId;
     private String type;
     private String description;
+    private Long version;
 }
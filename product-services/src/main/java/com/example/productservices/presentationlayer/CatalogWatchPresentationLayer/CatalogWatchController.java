@@ -2,8 +2,11 @@ package com.example.productservices.presentationlayer.CatalogWatchPresentationLa
 
 
 import com.example.productservices.businesslayer.CatalogWatchService;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.AccessoryRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSummaryResponseModel;
+import com.example.productservices.utils.ETags;
 import com.example.productservices.utils.exceptions.InvalidInputException;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,13 +31,27 @@ public class CatalogWatchController {
     @GetMapping()
     public ResponseEntity<List<WatchResponseModel>> getWatchesInCatalogWithFiltering(@PathVariable("catalog_id") String catalogId, @RequestParam Map<String,String> queryParams) {
 
-        return ResponseEntity.ok().body(catalogWatchService.getWatchesInCatalogWithFiltering(catalogId,queryParams));
+        List<WatchResponseModel> watches = catalogWatchService.getWatchesInCatalogWithFiltering(catalogId,queryParams);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(watches, WatchResponseModel::getWatchId, WatchResponseModel::getVersion))
+                .body(watches);
+    }
+
+    // the same watches without accessories or cost, for listings that don't show them
+    @GetMapping("/summaries")
+    public ResponseEntity<List<WatchSummaryResponseModel>> getWatchSummariesInCatalog(@PathVariable("catalog_id") String catalogId) {
+
+        List<WatchSummaryResponseModel> watches = catalogWatchService.getWatchSummariesInCatalog(catalogId);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(watches, WatchSummaryResponseModel::getWatchId, WatchSummaryResponseModel::getVersion))
+                .body(watches);
     }
 
     @GetMapping("/{watchId}")
     public ResponseEntity<WatchResponseModel> getWatchInCatalogByWatchId(@PathVariable("watchId") String watchId) {
 
-        return ResponseEntity.ok().body(catalogWatchService.getCatalogWatchByID(watchId));
+        WatchResponseModel watch = catalogWatchService.getCatalogWatchByID(watchId);
+        return ResponseEntity.ok().eTag(ETags.of(watch.getVersion())).body(watch);
     }
 
     @PostMapping
@@ -60,6 +77,24 @@ public class CatalogWatchController {
         return ResponseEntity.noContent().build();
     }
 
+    // one accessory and the watch's totalOptionsCost, without rewriting the others
+    @PostMapping("/{watchId}/accessories/{name}")
+    public ResponseEntity<WatchResponseModel> addAccessory(
+            @PathVariable("catalog_id") String catalogId, @PathVariable("watchId") String watchId,
+            @PathVariable("name") String name, @RequestBody AccessoryRequestModel accessoryRequestModel
+    ){
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(catalogWatchService.addAccessory(catalogId, watchId, name, accessoryRequestModel));
+    }
+
+    @DeleteMapping("/{watchId}/accessories/{name}")
+    public ResponseEntity<Void> removeAccessory(@PathVariable("catalog_id") String catalogId,
+                                                @PathVariable("watchId") String watchId, @PathVariable("name") String name) {
+
+        catalogWatchService.removeAccessory(catalogId, watchId, name);
+        return ResponseEntity.noContent().build();
+    }
+
 
 
 
@@ -0,0 +1,16 @@
+package com.example.productservices.presentationlayer.WatchPresentationLayer;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessoryRequestModel {
+
+    // the name is the last segment of the path
+    private BigDecimal accessoryCost;
+}
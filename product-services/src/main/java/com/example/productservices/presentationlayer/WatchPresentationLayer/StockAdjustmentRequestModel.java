@@ -0,0 +1,14 @@
+package com.example.productservices.presentationlayer.WatchPresentationLayer;
+
+import lombok.*;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequestModel {
+
+    private Integer delta;
+    private String idempotencyKey;
+}
@@ -0,0 +1,18 @@
+package com.example.productservices.presentationlayer.WatchPresentationLayer;
+
+import lombok.*;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResponseModel {
+
+    private String watchId;
+    private Integer delta;
+    private Integer quantity;
+    private String idempotencyKey;
+    // true when the key had already been applied and this is the recorded answer
+    private boolean replayed;
+}
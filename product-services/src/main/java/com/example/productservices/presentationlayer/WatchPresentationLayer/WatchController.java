@@ -2,10 +2,14 @@ package com.example.productservices.presentationlayer.WatchPresentationLayer;
 
 
 import com.example.productservices.businesslayer.CatalogWatchService;
+import com.example.productservices.utils.ETags;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.Map;
@@ -21,16 +25,51 @@ public class WatchController {
         this.catalogWatchService = catalogWatchService;
     }
 
+    // brandName, brandCountry, material, usage, minPrice, maxPrice, inStock, sort, limit, after;
+    // the body stays a plain list, the next page is in the Link header
     @GetMapping()
     public ResponseEntity<List<WatchResponseModel>> getWatchesWithFilter(@RequestParam Map <String,String> queryParams){
 
-        return ResponseEntity.ok().body(catalogWatchService.getWatchesWithFilter(queryParams));
+        WatchPageResponseModel page = catalogWatchService.getWatchesWithFilter(queryParams);
+        List<WatchResponseModel> watches = page.getWatches();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(ETags.of(watches, WatchResponseModel::getWatchId, WatchResponseModel::getVersion));
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(watches);
+    }
+
+    // served from the in-memory search index: brand, brandCountry, material, usage, price, accessory
+    // (each may repeat), minPrice, maxPrice, inStock, sort (price or -price), offset, limit
+    @GetMapping("/search")
+    public ResponseEntity<WatchSearchResponseModel> searchWatches(@RequestParam MultiValueMap<String, String> queryParams){
+
+        return ResponseEntity.ok().body(catalogWatchService.searchWatches(queryParams));
     }
 
     @GetMapping("/{watchId}")
     public ResponseEntity<WatchResponseModel> getWatchInCatalogByID(@PathVariable String watchId){
 
-        return ResponseEntity.ok().body(catalogWatchService.getCatalogWatchByID(watchId));
+        WatchResponseModel watch = catalogWatchService.getCatalogWatchByID(watchId);
+        return ResponseEntity.ok().eTag(ETags.of(watch.getVersion())).body(watch);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<WatchResponseModel>> getWatchesByIds(@RequestBody List<String> watchIds){
+
+        return ResponseEntity.ok().body(catalogWatchService.getWatchesByIds(watchIds));
+    }
+
+    @PostMapping("/{watchId}/stock:adjust")
+    public ResponseEntity<StockAdjustmentResponseModel> adjustStock(@PathVariable String watchId,
+                                                                    @RequestBody StockAdjustmentRequestModel stockAdjustmentRequestModel){
+
+        return ResponseEntity.ok().body(catalogWatchService.adjustStock(watchId, stockAdjustmentRequestModel));
     }
 }
 
@@ -0,0 +1,17 @@
+package com.example.productservices.presentationlayer.WatchPresentationLayer;
+
+import lombok.*;
+
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchPageResponseModel {
+
+    private List<WatchResponseModel> watches;
+    // watchId to pass as ?after= for the next page, null on the last page
+    private String nextCursor;
+}
@@ -23,4 +23,5 @@ public class WatchResponseModel {
     private List<Accessory> accessories;
     private Price price;
     private WatchBrand watchBrand;
+    private Long version;
 }
@@ -0,0 +1,20 @@
+package com.example.productservices.presentationlayer.WatchPresentationLayer;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchSearchResponseModel {
+
+    // matching watches in all, hits is only the requested page of them
+    private int total;
+    private List<WatchResponseModel> hits;
+    // facet -> value -> matching watches, each facet counted without its own filter
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,25 @@
+package com.example.productservices.presentationlayer.WatchPresentationLayer;
+
+import com.example.productservices.dataccesslayer.watch.UsageType;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchSummaryResponseModel {
+
+    private String watchId;
+    private String catalogId;
+    private String model;
+    private String brandName;
+    private String brandCountry;
+    private String material;
+    private UsageType usageType;
+    private BigDecimal msrp;
+    private Integer quantity;
+    private Long version;
+}
@@ -6,59 +6,73 @@ package com.example.productservices.utils;
 
 import com.example.productservices.utils.exceptions.DuplicateCatalogTypeException;
 import com.example.productservices.utils.exceptions.DuplicateWatchModelException;
+import com.example.productservices.utils.exceptions.InsufficientStockException;
 import com.example.productservices.utils.exceptions.InvalidInputException;
 import com.example.productservices.utils.exceptions.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
 import static org.springframework.http.HttpStatus.*;
 
+// error bodies are JSON even for callers that prefer Smile, so every client can read them
 @RestControllerAdvice
 @Slf4j
 public class GlobalControllerExceptionHandler {
 
-    @ResponseStatus(NOT_FOUND)
     @ExceptionHandler(NotFoundException.class)
-    public HttpErrorInfo handleNotFoundException(WebRequest request, NotFoundException ex) {
-        return createHttpErrorInfo(NOT_FOUND, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleNotFoundException(WebRequest request, NotFoundException ex) {
+        return createResponse(NOT_FOUND, request, ex.getMessage());
     }
 
-    @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(InvalidInputException.class)
-    public HttpErrorInfo handleInvalidInputException(WebRequest request, InvalidInputException ex) {
-        return createHttpErrorInfo(UNPROCESSABLE_ENTITY, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleInvalidInputException(WebRequest request, InvalidInputException ex) {
+        return createResponse(UNPROCESSABLE_ENTITY, request, ex.getMessage());
     }
 
-    @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(DuplicateWatchModelException.class)
-    public HttpErrorInfo handleDuplicateWatchModelException(WebRequest request,
-                                                            DuplicateWatchModelException ex) {
-        return createHttpErrorInfo(UNPROCESSABLE_ENTITY, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleDuplicateWatchModelException(WebRequest request,
+                                                                            DuplicateWatchModelException ex) {
+        return createResponse(UNPROCESSABLE_ENTITY, request, ex.getMessage());
     }
 
-    @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(DuplicateCatalogTypeException.class)
-    public HttpErrorInfo handleDuplicateCatalogTypeException(WebRequest request,
-                                                             DuplicateCatalogTypeException ex) {
-        return createHttpErrorInfo(UNPROCESSABLE_ENTITY, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleDuplicateCatalogTypeException(WebRequest request,
+                                                                             DuplicateCatalogTypeException ex) {
+        return createResponse(UNPROCESSABLE_ENTITY, request, ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<HttpErrorInfo> handleInsufficientStockException(WebRequest request, InsufficientStockException ex) {
+        return createResponse(CONFLICT, request, ex.getMessage());
+    }
+
+    // a PUT that overlaps a stock adjustment (or another PUT) loses on the watch's @Version column
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<HttpErrorInfo> handleOptimisticLockingFailureException(WebRequest request,
+                                                                                 OptimisticLockingFailureException ex) {
+        return createResponse(CONFLICT, request,
+                "The resource was changed by another request; read it again and retry");
     }
 
-    @ResponseStatus(BAD_REQUEST)
     @ExceptionHandler(IllegalArgumentException.class)
-    public HttpErrorInfo handleIllegalArgumentException(WebRequest request, IllegalArgumentException ex) {
-        return createHttpErrorInfo(BAD_REQUEST, request, ex.getMessage());
+    public ResponseEntity<HttpErrorInfo> handleIllegalArgumentException(WebRequest request, IllegalArgumentException ex) {
+        return createResponse(BAD_REQUEST, request, ex.getMessage());
     }
 
-    private HttpErrorInfo createHttpErrorInfo(HttpStatus status,
-                                              WebRequest request,
-                                              String message) {
+    private ResponseEntity<HttpErrorInfo> createResponse(HttpStatus status,
+                                                         WebRequest request,
+                                                         String message) {
 
         String path = request.getDescription(false);
         log.debug("Returning HTTP {} for {}: {}", status, path, message);
-        return new HttpErrorInfo(status, path, message);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new HttpErrorInfo(status, path, message));
     }
 }
@@ -0,0 +1,14 @@
+package com.example.productservices.utils.exceptions;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException() {}
+
+    public InsufficientStockException(String watchId) {
+        super("Watch '" + watchId + "' is out of stock");
+    }
+
+    public InsufficientStockException(Throwable cause) { super(cause); }
+
+    public InsufficientStockException(String message, Throwable cause) { super(message, cause); }
+}
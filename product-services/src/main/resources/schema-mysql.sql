@@ -1,3 +1,4 @@
+DROP TABLE IF EXISTS stock_adjustments;
 DROP TABLE IF EXISTS watch_accessories;
 DROP TABLE IF EXISTS watches;
 
@@ -8,7 +9,8 @@ CREATE TABLE IF NOT EXISTS catalogs(
                                        id INTEGER NOT NULL AUTO_INCREMENT PRIMARY KEY,
                                        catalog_id VARCHAR(50) UNIQUE NOT NULL,
     type VARCHAR(50) NOT NULL,
-    description VARCHAR(50) NOT NULL
+    description VARCHAR(50) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 
     );
 
@@ -25,12 +27,34 @@ CREATE TABLE IF NOT EXISTS watches (
     msrp DECIMAL(10,2) NOT NULL,
     cost DECIMAL(10,2) NOT NULL,
     total_options_cost DECIMAL(10,2) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (catalog_id) REFERENCES catalogs(catalog_id) ON DELETE CASCADE
     );
 
+-- GET /api/v1/watches: each equality filter leads an index that continues in price order;
+-- InnoDB appends the primary key, so the keyset (msrp, id) is read straight off the index
+CREATE INDEX idx_watches_brand_msrp ON watches (brand_name, msrp);
+CREATE INDEX idx_watches_country_msrp ON watches (brand_country, msrp);
+CREATE INDEX idx_watches_material_msrp ON watches (material, msrp);
+CREATE INDEX idx_watches_usage_msrp ON watches (usage_type, msrp);
+CREATE INDEX idx_watches_msrp ON watches (msrp);
+CREATE INDEX idx_watches_model ON watches (model);
+-- sort=brand: keyset (brand_name, id); idx_watches_brand_msrp puts msrp before the key
+CREATE INDEX idx_watches_brand_id ON watches (brand_name, id);
+
 CREATE TABLE IF NOT EXISTS watch_accessories (
                                                  watch_id VARCHAR(50) NOT NULL,
     accessory_name VARCHAR(100) NOT NULL,
     accessory_cost DECIMAL(10,2) NOT NULL,
+    UNIQUE (watch_id, accessory_name),
     FOREIGN KEY (watch_id) REFERENCES watches(watch_id) ON DELETE CASCADE
-    );
\ No newline at end of file
+    );
+
+CREATE TABLE IF NOT EXISTS stock_adjustments (
+                                                 id INTEGER NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                                                 idempotency_key VARCHAR(100) UNIQUE NOT NULL,
+    watch_id VARCHAR(50) NOT NULL,
+    delta INTEGER NOT NULL,
+    resulting_quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL
+    );
@@ -7,6 +7,8 @@ import com.example.productservices.dataccesslayer.watch.*;
 import com.example.productservices.datamapperlayer.CatalogMapper.CatalogRequestMapper;
 import com.example.productservices.datamapperlayer.CatalogMapper.CatalogResponseMapper;
 import com.example.productservices.datamapperlayer.WatchMapper.WatchResponseMapper;
+import com.example.productservices.domainclientlayer.OrderServiceClient;
+import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogDeletionResponseModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogRequestModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogResponseModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
@@ -29,6 +31,7 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +51,13 @@ public class CatalogServiceUnitTest {
     private CatalogRequestMapper reqMapper = Mappers.getMapper(CatalogRequestMapper.class);
     @Spy
     private CatalogResponseMapper resMapper = Mappers.getMapper(CatalogResponseMapper.class);
+    @Mock
+    private OrderServiceClient orderServiceClient;
+    @Mock
+    private WatchSearchIndex watchSearchIndex;
+    @Mock
+    private CatalogDeletionJobs catalogDeletionJobs;
+
     @InjectMocks
     private CatalogServiceImpl service;
 
@@ -175,7 +185,12 @@ public class CatalogServiceUnitTest {
 
         String msg = service.deleteCatalog("C5");
         assertTrue(msg.contains("deleted"));
-        verify(repo).delete(stored);
+        verify(watchRepository).deleteAccessoriesInCatalog("C5");
+        verify(watchRepository).deleteAllInCatalog("C5");
+        verify(repo).deleteByCatalogId("C5");
+        verify(watchSearchIndex).removeCatalog("C5");
+        verify(orderServiceClient).catalogDeleted("C5");
+        verify(watchRepository, never()).findAllByCatalogIdentifier_CatalogId(any());
     }
 
     // Negative test: deleteCatalog non-existent id throws NotFoundException
@@ -185,6 +200,36 @@ public class CatalogServiceUnitTest {
         assertThrows(NotFoundException.class, () -> service.deleteCatalog("NONE"));
     }
 
+    // Positive test: startCatalogDeletion hands an existing catalog to the background jobs
+    @Test
+    public void startCatalogDeletion_existing_startsJob() {
+        when(repo.findByCatalogIdentifier_CatalogId("C5")).thenReturn(makeCatalogEntity("C5", "T5"));
+        CatalogDeletionResponseModel job = CatalogDeletionResponseModel.builder()
+                .jobId("J1").catalogId("C5").status("RUNNING").build();
+        when(catalogDeletionJobs.start("C5")).thenReturn(job);
+
+        assertSame(job, service.startCatalogDeletion("C5"));
+        verify(watchRepository, never()).deleteAllInCatalog(any());
+    }
+
+    // Negative test: startCatalogDeletion of an unknown catalog throws NotFoundException and starts nothing
+    @Test
+    public void startCatalogDeletion_notFound_throws() {
+        when(repo.findByCatalogIdentifier_CatalogId("NONE")).thenReturn(null);
+
+        assertThrows(NotFoundException.class, () -> service.startCatalogDeletion("NONE"));
+        verify(catalogDeletionJobs, never()).start(any());
+    }
+
+    // Negative test: getCatalogDeletion of an unknown job throws NotFoundException
+    @Test
+    public void getCatalogDeletion_unknownJob_throws() {
+        when(catalogDeletionJobs.get("J9")).thenReturn(null);
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.getCatalogDeletion("J9"));
+        assertTrue(ex.getMessage().contains("J9"));
+    }
+
     // Positive test: DuplicateCatalogTypeException constructor includes type
     @Test
     public void duplicateCatalogTypeException_constructors() {
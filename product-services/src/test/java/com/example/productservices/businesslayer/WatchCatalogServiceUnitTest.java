@@ -6,28 +6,45 @@ import com.example.productservices.dataccesslayer.catalog.CatalogRepository;
 import com.example.productservices.dataccesslayer.watch.*;
 import com.example.productservices.datamapperlayer.WatchMapper.WatchRequestMapper;
 import com.example.productservices.datamapperlayer.WatchMapper.WatchResponseMapper;
+import com.example.productservices.domainclientlayer.OrderServiceClient;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.AccessoryRequestModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.StockAdjustmentRequestModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.StockAdjustmentResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchPageResponseModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSearchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSummaryResponseModel;
 import com.example.productservices.utils.ResourceNotFoundException;
 import com.example.productservices.utils.exceptions.DuplicateWatchModelException;
+import com.example.productservices.utils.exceptions.InsufficientStockException;
 import com.example.productservices.utils.exceptions.InvalidInputException;
 import com.example.productservices.utils.exceptions.NotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.example.productservices.dataccesslayer.watch.WatchBrand;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +61,15 @@ public class WatchCatalogServiceUnitTest {
     @Spy
     private WatchResponseMapper resMapper = Mappers.getMapper(WatchResponseMapper.class);
 
+    @Mock
+    private OrderServiceClient orderServiceClient;
+
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepo;
+
+    @Mock
+    private WatchSearchIndex watchSearchIndex;
+
     @InjectMocks
     private CatalogWatchServiceImpl service;
 
@@ -92,17 +118,116 @@ public class WatchCatalogServiceUnitTest {
     @Test
     public void getWatchesWithFilter_returnsMappedList_and_usesResponseMapper() {
         Watch w = makeWatch("W1", "C1");
-        when(watchRepo.findAll()).thenReturn(List.of(w));
+        when(watchRepo.findBy(any(Specification.class), any())).thenReturn(List.of(w));
 
-        List<WatchResponseModel> out = service.getWatchesWithFilter(Collections.emptyMap());
+        WatchPageResponseModel out = service.getWatchesWithFilter(Collections.emptyMap());
 
-        assertEquals(1, out.size());
-        assertEquals("W1", out.get(0).getWatchId());
-        verify(watchRepo).findAll();
+        assertEquals(1, out.getWatches().size());
+        assertEquals("W1", out.getWatches().get(0).getWatchId());
+        assertNull(out.getNextCursor());
+        verify(watchRepo).findBy(any(Specification.class), any());
+        verify(watchRepo, never()).findAll();
         // verify that the spy response mapper was called
         verify(resMapper).entityListToResponseModelList(List.of(w));
     }
 
+    // ─── Positive test: a page that has more behind it ends in a cursor ─────
+    @Test
+    public void getWatchesWithFilter_morePages_returnsCursorOfLastWatch() {
+        when(watchRepo.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(makeWatch("W1", "C1"), makeWatch("W2", "C1"), makeWatch("W3", "C1")));
+
+        WatchPageResponseModel out = service.getWatchesWithFilter(Map.of("limit", "2"));
+
+        assertEquals(2, out.getWatches().size());
+        assertNotNull(out.getNextCursor());
+        assertNotEquals("W2", out.getNextCursor());
+    }
+
+    // ─── Negative tests: malformed filters are rejected before any query ─────
+    @Test
+    public void getWatchesWithFilter_invalidParameters_throwInvalidInput() {
+        assertThrows(InvalidInputException.class, () -> service.getWatchesWithFilter(Map.of("minPrice", "cheap")));
+        assertThrows(InvalidInputException.class, () -> service.getWatchesWithFilter(Map.of("usage", "vintage")));
+        assertThrows(InvalidInputException.class, () -> service.getWatchesWithFilter(Map.of("sort", "weight")));
+        assertThrows(InvalidInputException.class, () -> service.getWatchesWithFilter(Map.of("limit", "0")));
+        verify(watchRepo, never()).findBy(any(Specification.class), any());
+    }
+
+    // ─── Negative test: the cursor must come from a page of the same sort ─────
+    @Test
+    public void getWatchesWithFilter_unknownCursor_throwInvalidInput() {
+        String priceCursor = WatchSort.parse("price").cursorOf(makeWatch("W1", "C1"));
+
+        assertThrows(InvalidInputException.class, () -> service.getWatchesWithFilter(Map.of("after", "nope")));
+        assertThrows(InvalidInputException.class,
+                () -> service.getWatchesWithFilter(Map.of("sort", "model", "after", priceCursor)));
+        verify(watchRepo, never()).findBy(any(Specification.class), any());
+    }
+
+    // ─── Positive test: searchWatches turns the query string into an index query ─────
+    @Test
+    public void searchWatches_parsesParameters_and_queriesIndex() {
+        WatchSearchResponseModel result = new WatchSearchResponseModel(0, List.of(), Map.of());
+        when(watchSearchIndex.search(any())).thenReturn(result);
+
+        WatchSearchResponseModel out = service.searchWatches(Map.of(
+                "brand", List.of("Omega", "Apple"),
+                "usage", List.of("USED"),
+                "maxPrice", List.of("5000"),
+                "inStock", List.of("true"),
+                "sort", List.of("-price"),
+                "offset", List.of("10"),
+                "limit", List.of("5")));
+
+        assertSame(result, out);
+        ArgumentCaptor<WatchSearchIndex.Query> query = ArgumentCaptor.forClass(WatchSearchIndex.Query.class);
+        verify(watchSearchIndex).search(query.capture());
+        assertEquals(Set.of("Omega", "Apple"), query.getValue().facets().get("brand"));
+        assertEquals(Set.of("used"), query.getValue().facets().get("usage"));
+        assertNull(query.getValue().minPrice());
+        assertEquals(new BigDecimal("5000"), query.getValue().maxPrice());
+        assertTrue(query.getValue().inStock());
+        assertTrue(query.getValue().byPrice());
+        assertTrue(query.getValue().descending());
+        assertEquals(10, query.getValue().offset());
+        assertEquals(5, query.getValue().limit());
+    }
+
+    // ─── Negative tests: malformed search parameters never reach the index ─────
+    @Test
+    public void searchWatches_invalidParameters_throwInvalidInput() {
+        assertThrows(InvalidInputException.class, () -> service.searchWatches(Map.of("sort", List.of("model"))));
+        assertThrows(InvalidInputException.class, () -> service.searchWatches(Map.of("offset", List.of("-1"))));
+        assertThrows(InvalidInputException.class, () -> service.searchWatches(Map.of("minPrice", List.of("cheap"))));
+        verify(watchSearchIndex, never()).search(any());
+    }
+
+    // ─── Positive test: summaries come from the projection query, never from entities ─────
+    @Test
+    public void getWatchSummariesInCatalog_usesProjection() {
+        when(catalogRepo.existsByCatalogIdentifier_CatalogId("C1")).thenReturn(true);
+        when(watchRepo.findSummariesByCatalogId("C1")).thenReturn(List.of(new WatchSummary("W1", "C1", "Model",
+                "Brand", "Country", "Steel", UsageType.NEW, BigDecimal.TEN, 3, 0L)));
+
+        List<WatchSummaryResponseModel> out = service.getWatchSummariesInCatalog("C1");
+
+        assertEquals(1, out.size());
+        assertEquals("W1", out.get(0).getWatchId());
+        assertEquals("Brand", out.get(0).getBrandName());
+        assertEquals(3, out.get(0).getQuantity());
+        verify(watchRepo, never()).findAllByCatalogIdentifier_CatalogId(any());
+    }
+
+    // ─── Negative test: summaries of an unknown catalog throw ─────
+    @Test
+    public void getWatchSummariesInCatalog_unknownCatalog_throws() {
+        when(catalogRepo.existsByCatalogIdentifier_CatalogId("XX")).thenReturn(false);
+
+        assertThrows(InvalidInputException.class, () -> service.getWatchSummariesInCatalog("XX"));
+        verify(watchRepo, never()).findSummariesByCatalogId(any());
+    }
+
     // ─── Positive test: getCatalogWatchByID existing returns model and uses response mapper ──
     @Test
     public void getCatalogWatchByID_existing_returnsModel_and_usesResponseMapper() {
@@ -126,6 +251,25 @@ public class WatchCatalogServiceUnitTest {
         verify(resMapper, org.mockito.Mockito.never()).entityToResponseModel(any());
     }
 
+    // ─── Positive test: getWatchesByIds resolves the whole set with one query ─
+    @Test
+    public void getWatchesByIds_returnsMappedList() {
+        when(watchRepo.findAllByWatchIdentifier_WatchIdIn(any()))
+                .thenReturn(List.of(makeWatch("W1", "C1"), makeWatch("W2", "C1")));
+
+        List<WatchResponseModel> list = service.getWatchesByIds(List.of("W1", "W2", "W1"));
+
+        assertEquals(2, list.size());
+        verify(watchRepo).findAllByWatchIdentifier_WatchIdIn(any());
+    }
+
+    // ─── Negative test: getWatchesByIds with no ids never hits the repository ─
+    @Test
+    public void getWatchesByIds_empty_returnsEmpty() {
+        assertTrue(service.getWatchesByIds(Collections.emptyList()).isEmpty());
+        verify(watchRepo, never()).findAllByWatchIdentifier_WatchIdIn(any());
+    }
+
 
     // ─── Positive test: addWatches success uses both mappers and saves twice ─────────────────
     @Test
@@ -146,6 +290,7 @@ public class WatchCatalogServiceUnitTest {
         verify(resMapper).entityToResponseModel(any(Watch.class));
         // expect exactly one save (the service only calls save once)
         verify(watchRepo, times(1)).save(any(Watch.class));
+        verify(watchSearchIndex).put(any(Watch.class));
     }
     // ─── Negative test: addWatches duplicate model throws and no mapping to save ─────────────
     @Test
@@ -169,6 +314,7 @@ public class WatchCatalogServiceUnitTest {
 
         assertEquals("Watch with IDW4 was successfully removed", msg);
         verify(watchRepo).delete(w);
+        verify(watchSearchIndex).remove(w);
     }
 
     // ─── Negative test: removeWatchInCatalog missing catalog throws ────────────────────────
@@ -177,7 +323,7 @@ public class WatchCatalogServiceUnitTest {
         when(catalogRepo.findByCatalogIdentifier_CatalogId("XX")).thenReturn(null);
         assertThrows(InvalidInputException.class,
                 () -> service.removeWatchInCatalog("XX", "W"));
-        verify(watchRepo, org.mockito.Mockito.never()).delete(any());
+        verify(watchRepo, org.mockito.Mockito.never()).delete(any(Watch.class));
     }
 
     // ─── Negative test: removeWatchInCatalog missing watch throws ──────────────────────────
@@ -189,6 +335,206 @@ public class WatchCatalogServiceUnitTest {
                 () -> service.removeWatchInCatalog("C5", "WY"));
     }
 
+    // ─── Positive test: an update with the same accessories leaves the collection alone ─────
+    @Test
+    public void updateWatchInInventory_sameAccessories_keepsCollection() {
+        Watch stored = makeWatch("W6", "C6");
+        List<Accessory> accessories = new java.util.ArrayList<>(List.of(new Accessory("Strap", new BigDecimal("10.00"))));
+        stored.setAccessories(accessories);
+        stored.setPrice(new Price(BigDecimal.ONE, BigDecimal.ONE, new BigDecimal("10.00")));
+        when(catalogRepo.findByCatalogIdentifier_CatalogId("C6")).thenReturn(makeCatalog("C6"));
+        when(watchRepo.findByWatchIdentifier_WatchId("W6")).thenReturn(stored);
+        when(watchRepo.existsByModelAndCatalogIdentifier_CatalogId("M1", "C6")).thenReturn(false);
+        when(watchRepo.save(any(Watch.class))).thenAnswer(i -> i.getArgument(0));
+
+        WatchRequestModel req = makeRequest();
+        req.setQuantity(null);
+        req.setAccessories(List.of(new Accessory("Strap", BigDecimal.TEN)));
+        WatchResponseModel resp = service.updateWatchInInventory("C6", "W6", req);
+
+        assertSame(accessories, stored.getAccessories());
+        assertEquals("M1", resp.getModel());
+        assertEquals(10, resp.getQuantity());
+        assertEquals(0, new BigDecimal("10").compareTo(resp.getPrice().getTotalOptionsCost()));
+        verify(watchRepo).save(stored);
+        verify(reqMapper, never()).requestModelToEntity(any());
+        verify(orderServiceClient).watchUpdated("W6");
+    }
+
+    // ─── Positive test: different accessories replace the collection and recompute the total ─
+    @Test
+    public void updateWatchInInventory_changedAccessories_replacesAndRecomputesTotal() {
+        Watch stored = makeWatch("W7", "C7");
+        stored.setAccessories(new java.util.ArrayList<>(List.of(new Accessory("Strap", BigDecimal.TEN))));
+        when(catalogRepo.findByCatalogIdentifier_CatalogId("C7")).thenReturn(makeCatalog("C7"));
+        when(watchRepo.findByWatchIdentifier_WatchId("W7")).thenReturn(stored);
+        when(watchRepo.existsByModelAndCatalogIdentifier_CatalogId("M1", "C7")).thenReturn(false);
+        when(watchRepo.save(any(Watch.class))).thenAnswer(i -> i.getArgument(0));
+
+        WatchRequestModel req = makeRequest();
+        req.setAccessories(List.of(new Accessory("Strap", BigDecimal.TEN), new Accessory("Box", BigDecimal.ONE)));
+        WatchResponseModel resp = service.updateWatchInInventory("C7", "W7", req);
+
+        assertEquals(2, stored.getAccessories().size());
+        assertEquals(0, new BigDecimal("11").compareTo(resp.getPrice().getTotalOptionsCost()));
+    }
+
+    // ─── Positive test: addAccessory raises the total and inserts one row ─────
+    @Test
+    public void addAccessory_applied_insertsOneRow() {
+        when(watchRepo.addToOptionsCost("C1", "W1", BigDecimal.TEN)).thenReturn(1);
+        when(watchRepo.findByWatchIdentifier_WatchId("W1")).thenReturn(makeWatch("W1", "C1"));
+
+        WatchResponseModel resp = service.addAccessory("C1", "W1", "Strap", new AccessoryRequestModel(BigDecimal.TEN));
+
+        assertEquals("W1", resp.getWatchId());
+        verify(watchRepo).insertAccessory("W1", "Strap", BigDecimal.TEN);
+        verify(watchRepo, never()).save(any());
+        verify(watchSearchIndex).put(any(Watch.class));
+        verify(orderServiceClient).watchUpdated("W1");
+    }
+
+    // ─── Negative test: addAccessory with a name the watch already has ─────
+    @Test
+    public void addAccessory_duplicateName_throwsInvalidInput() {
+        when(watchRepo.addToOptionsCost("C1", "W1", BigDecimal.TEN)).thenReturn(1);
+        when(watchRepo.insertAccessory("W1", "Strap", BigDecimal.TEN))
+                .thenThrow(new org.springframework.dao.DataIntegrityViolationException("duplicate"));
+
+        assertThrows(InvalidInputException.class,
+                () -> service.addAccessory("C1", "W1", "Strap", new AccessoryRequestModel(BigDecimal.TEN)));
+        verify(orderServiceClient, never()).watchUpdated(any());
+    }
+
+    // ─── Negative tests: addAccessory on an unknown watch or with a bad cost ─────
+    @Test
+    public void addAccessory_unknownWatchOrBadCost_throws() {
+        when(watchRepo.addToOptionsCost("C1", "nope", BigDecimal.TEN)).thenReturn(0);
+
+        assertThrows(NotFoundException.class,
+                () -> service.addAccessory("C1", "nope", "Strap", new AccessoryRequestModel(BigDecimal.TEN)));
+        assertThrows(InvalidInputException.class,
+                () -> service.addAccessory("C1", "W1", "Strap", new AccessoryRequestModel(new BigDecimal("-1"))));
+        assertThrows(InvalidInputException.class,
+                () -> service.addAccessory("C1", "W1", "Strap", null));
+        verify(watchRepo, never()).insertAccessory(any(), any(), any());
+    }
+
+    // ─── Positive test: removeAccessory lowers the total and deletes one row ─────
+    @Test
+    public void removeAccessory_applied_deletesOneRow() {
+        when(watchRepo.subtractAccessoryFromOptionsCost("C1", "W1", "Strap")).thenReturn(1);
+        when(watchRepo.findByWatchIdentifier_WatchId("W1")).thenReturn(makeWatch("W1", "C1"));
+
+        service.removeAccessory("C1", "W1", "Strap");
+
+        verify(watchRepo).deleteAccessory("W1", "Strap");
+        verify(watchRepo, never()).save(any());
+    }
+
+    // ─── Negative test: removeAccessory of an accessory the watch doesn't have ─────
+    @Test
+    public void removeAccessory_unknownAccessory_throwsNotFound() {
+        when(watchRepo.subtractAccessoryFromOptionsCost("C1", "W1", "Strap")).thenReturn(0);
+        when(watchRepo.findByWatchIdentifier_WatchId("W1")).thenReturn(makeWatch("W1", "C1"));
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.removeAccessory("C1", "W1", "Strap"));
+        assertTrue(ex.getMessage().contains("Strap"));
+        verify(watchRepo, never()).deleteAccessory(any(), any());
+    }
+
+    // ─── Positive test: adjustStock applies the delta in one conditional update and records the key ─
+    @Test
+    public void adjustStock_applied_recordsKey() {
+        when(stockAdjustmentRepo.findByIdempotencyKey("order-1:reserve")).thenReturn(null);
+        when(watchRepo.adjustQuantity("W1", -1)).thenReturn(1);
+        when(watchRepo.findStockByWatchId("W1")).thenReturn(new WatchStock(9, 4L));
+
+        StockAdjustmentResponseModel resp = service.adjustStock("W1",
+                new StockAdjustmentRequestModel(-1, "order-1:reserve"));
+
+        assertEquals(9, resp.getQuantity());
+        assertFalse(resp.isReplayed());
+        verify(stockAdjustmentRepo).saveAndFlush(any(StockAdjustment.class));
+        verify(watchRepo, never()).save(any());
+        verify(watchSearchIndex).stockAdjusted("W1", 9, 4L);
+    }
+
+    // ─── Positive test: inside a transaction the index only hears of the adjustment on commit ─
+    @Test
+    public void adjustStock_inTransaction_indexUpdatedAfterCommit() {
+        when(stockAdjustmentRepo.findByIdempotencyKey("order-1:reserve")).thenReturn(null);
+        when(watchRepo.adjustQuantity("W1", -1)).thenReturn(1);
+        when(watchRepo.findStockByWatchId("W1")).thenReturn(new WatchStock(9, 4L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.adjustStock("W1", new StockAdjustmentRequestModel(-1, "order-1:reserve"));
+            verify(watchSearchIndex, never()).stockAdjusted(any(), anyInt(), anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(watchSearchIndex).stockAdjusted("W1", 9, 4L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ─── Negative test: an update that rolls back never reaches the index or order-services ─
+    @Test
+    public void updateWatchInInventory_rolledBack_indexUntouched() {
+        Watch stored = makeWatch("W7", "C7");
+        when(catalogRepo.findByCatalogIdentifier_CatalogId("C7")).thenReturn(makeCatalog("C7"));
+        when(watchRepo.findByWatchIdentifier_WatchId("W7")).thenReturn(stored);
+        when(watchRepo.existsByModelAndCatalogIdentifier_CatalogId("M1", "C7")).thenReturn(false);
+        when(watchRepo.save(any(Watch.class))).thenAnswer(i -> i.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.updateWatchInInventory("C7", "W7", makeRequest());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(watchSearchIndex, never()).put(any());
+        verify(orderServiceClient, never()).watchUpdated(any());
+    }
+
+    // ─── Positive test: adjustStock with a known key replays the recorded answer ─
+    @Test
+    public void adjustStock_sameKey_isReplayed() {
+        when(stockAdjustmentRepo.findByIdempotencyKey("order-1:reserve")).thenReturn(
+                new StockAdjustment(1, "order-1:reserve", "W1", -1, 9, LocalDateTime.now()));
+
+        StockAdjustmentResponseModel resp = service.adjustStock("W1",
+                new StockAdjustmentRequestModel(-1, "order-1:reserve"));
+
+        assertTrue(resp.isReplayed());
+        assertEquals(9, resp.getQuantity());
+        verify(watchRepo, never()).adjustQuantity(any(), anyInt());
+    }
+
+    // ─── Negative test: adjustStock below zero → InsufficientStockException, nothing recorded ─
+    @Test
+    public void adjustStock_outOfStock_throws() {
+        when(stockAdjustmentRepo.findByIdempotencyKey("k")).thenReturn(null);
+        when(watchRepo.adjustQuantity("W1", -1)).thenReturn(0);
+        when(watchRepo.findByWatchIdentifier_WatchId("W1")).thenReturn(makeWatch("W1", "C1"));
+
+        assertThrows(InsufficientStockException.class,
+                () -> service.adjustStock("W1", new StockAdjustmentRequestModel(-1, "k")));
+        verify(stockAdjustmentRepo, never()).saveAndFlush(any());
+    }
+
+    // ─── Negative test: adjustStock without a key → InvalidInputException ─
+    @Test
+    public void adjustStock_missingKey_throws() {
+        assertThrows(InvalidInputException.class,
+                () -> service.adjustStock("W1", new StockAdjustmentRequestModel(-1, null)));
+        verify(watchRepo, never()).adjustQuantity(any(), anyInt());
+    }
+
     // ─── Direct mapper tests ──────────────────────────────────────────────────────────────
 
     // Positive: request mapper returns null when given null input
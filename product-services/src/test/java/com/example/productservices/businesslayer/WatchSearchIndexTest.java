@@ -0,0 +1,186 @@
+package com.example.productservices.businesslayer;
+
+import com.example.productservices.dataccesslayer.catalog.CatalogIdentifier;
+import com.example.productservices.dataccesslayer.watch.*;
+import com.example.productservices.datamapperlayer.WatchMapper.WatchResponseMapper;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSearchResponseModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WatchSearchIndexTest {
+
+    @Mock
+    private WatchRepository watchRepo;
+
+    private WatchSearchIndex index;
+
+    private final List<Watch> inventory = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        index = new WatchSearchIndex(watchRepo, Mappers.getMapper(WatchResponseMapper.class),
+                List.of(new BigDecimal("1000"), new BigDecimal("5000")));
+        inventory.add(makeWatch(1, "Apple", "USA", "Aluminum", UsageType.NEW, "1200", 1, "Sport Band"));
+        inventory.add(makeWatch(2, "Omega", "Switzerland", "Titanium", UsageType.USED, "8000", 8, "Leather Strap"));
+        inventory.add(makeWatch(3, "Omega", "Switzerland", "Steel", UsageType.NEW, "4500", 0, "Leather Strap", "Sport Band"));
+        inventory.add(makeWatch(4, "Casio", "Japan", "Steel", UsageType.NEW, "90", 40));
+        lenient().when(watchRepo.findAll()).thenReturn(inventory);
+    }
+
+    private Watch makeWatch(int id, String brand, String country, String material, UsageType usage,
+                            String msrp, int quantity, String... accessories) {
+        Watch w = new Watch();
+        w.setId(id);
+        w.setWatchIdentifier(new WatchIdentifier("W" + id));
+        w.setCatalogIdentifier(new CatalogIdentifier("C1"));
+        w.setQuantity(quantity);
+        w.setUsageType(usage);
+        w.setModel("Model " + id);
+        w.setMaterial(material);
+        List<Accessory> list = new ArrayList<>();
+        for (String accessory : accessories) {
+            list.add(new Accessory(accessory, BigDecimal.TEN));
+        }
+        w.setAccessories(list);
+        w.setWatchBrand(new WatchBrand(brand, country));
+        w.setPrice(new Price(new BigDecimal(msrp), BigDecimal.ZERO, BigDecimal.ZERO));
+        return w;
+    }
+
+    private WatchSearchIndex.Query query(Map<String, Set<String>> facets) {
+        return new WatchSearchIndex.Query(facets, null, null, false, false, false, 0, 100);
+    }
+
+    private List<String> ids(WatchSearchResponseModel result) {
+        return result.getHits().stream().map(WatchResponseModel::getWatchId).toList();
+    }
+
+    // ─── Positive test: no filter → every watch, every facet value counted ─────
+    @Test
+    public void search_noFilter_returnsAllWithFacetCounts() {
+        WatchSearchResponseModel result = index.search(query(Map.of()));
+
+        assertEquals(4, result.getTotal());
+        assertEquals(List.of("W1", "W2", "W3", "W4"), ids(result));
+        assertEquals(Map.of("Omega", 2, "Apple", 1, "Casio", 1), result.getFacets().get("brand"));
+        assertEquals(Map.of("new", 3, "used", 1), result.getFacets().get("usage"));
+        assertEquals(Map.of("Leather Strap", 2, "Sport Band", 2), result.getFacets().get("accessory"));
+        assertEquals(List.of("0-1000", "1000-5000", "5000+"),
+                new ArrayList<>(result.getFacets().get("price").keySet()));
+    }
+
+    // ─── Positive test: values of one facet are OR-ed, facets are AND-ed, a facet ignores its own filter ─
+    @Test
+    public void search_facetFilters_combineAndCountWithoutOwnFilter() {
+        WatchSearchResponseModel result = index.search(query(Map.of(
+                "brand", Set.of("Omega", "Apple"),
+                "material", Set.of("Steel"))));
+
+        assertEquals(List.of("W3"), ids(result));
+        // brands counted among steel watches, materials among Omega and Apple
+        assertEquals(Map.of("Omega", 1, "Casio", 1), result.getFacets().get("brand"));
+        assertEquals(Map.of("Aluminum", 1, "Steel", 1, "Titanium", 1), result.getFacets().get("material"));
+    }
+
+    // ─── Positive test: price range, stock and price order ─────
+    @Test
+    public void search_priceRangeInStock_sortedByPrice() {
+        WatchSearchResponseModel result = index.search(new WatchSearchIndex.Query(Map.of(),
+                new BigDecimal("90"), new BigDecimal("8000"), true, true, true, 0, 100));
+
+        assertEquals(List.of("W2", "W1", "W4"), ids(result));
+
+        WatchSearchResponseModel page = index.search(new WatchSearchIndex.Query(Map.of(),
+                new BigDecimal("100"), null, false, true, false, 1, 1));
+        assertEquals(3, page.getTotal());
+        assertEquals(List.of("W3"), ids(page));
+    }
+
+    // ─── Positive test: an unknown value matches nothing instead of failing ─────
+    @Test
+    public void search_unknownValue_returnsNoHits() {
+        WatchSearchResponseModel result = index.search(query(Map.of("brand", Set.of("Rolex"))));
+
+        assertEquals(0, result.getTotal());
+        assertTrue(result.getHits().isEmpty());
+    }
+
+    // ─── Positive test: put and remove keep the index current without reading the database again ─
+    @Test
+    public void putAndRemove_updateIndexIncrementally() {
+        index.search(query(Map.of()));
+
+        Watch cheaper = makeWatch(2, "Omega", "Switzerland", "Titanium", UsageType.USED, "800", 8);
+        index.put(cheaper);
+        index.put(makeWatch(5, "Seiko", "Japan", "Steel", UsageType.NEW, "300", 2));
+        index.remove(inventory.get(0));
+
+        WatchSearchResponseModel result = index.search(new WatchSearchIndex.Query(Map.of(),
+                null, new BigDecimal("1000"), false, true, false, 0, 100));
+
+        assertEquals(List.of("W4", "W5", "W2"), ids(result));
+        assertEquals(Map.of("Omega", 2, "Casio", 1, "Seiko", 1), index.search(query(Map.of())).getFacets().get("brand"));
+        assertEquals(Map.of("Leather Strap", 1, "Sport Band", 1), index.search(query(Map.of())).getFacets().get("accessory"));
+        verify(watchRepo, times(1)).findAll();
+    }
+
+    // ─── Positive test: nothing is read until the first search ─────
+    @Test
+    public void changesBeforeFirstSearch_areLeftToTheInitialLoad() {
+        index.put(makeWatch(5, "Seiko", "Japan", "Steel", UsageType.NEW, "300", 2));
+        verify(watchRepo, never()).findAll();
+
+        assertEquals(4, index.search(query(Map.of())).getTotal());
+    }
+
+    // ─── Positive test: few hits sorted by price come out in price order, paged ─────
+    @Test
+    public void search_fewHitsByPrice_pagedInPriceOrder() {
+        for (int id = 10; id < 30; id++) {
+            inventory.add(makeWatch(id, "Casio", "Japan", "Resin", UsageType.NEW, String.valueOf(50 + id), 5));
+        }
+        inventory.add(makeWatch(30, "Omega", "Switzerland", "Gold", UsageType.NEW, "8000", 1));
+
+        WatchSearchResponseModel desc = index.search(new WatchSearchIndex.Query(Map.of("brand", Set.of("Omega")),
+                null, null, false, true, true, 0, 100));
+        assertEquals(List.of("W30", "W2", "W3"), ids(desc));
+
+        WatchSearchResponseModel page = index.search(new WatchSearchIndex.Query(Map.of("brand", Set.of("Omega")),
+                null, null, false, true, false, 1, 1));
+        assertEquals(3, page.getTotal());
+        assertEquals(List.of("W2"), ids(page));
+    }
+
+    // ─── Positive test: a stock adjustment moves the watch in or out of stock without reading it again ─
+    @Test
+    public void stockAdjusted_updatesStockWithoutReadingTheWatch() {
+        index.search(query(Map.of()));
+
+        index.stockAdjusted("W3", 2, 1L);
+        index.stockAdjusted("W1", 0, 1L);
+        // older than what the index holds → ignored
+        index.stockAdjusted("W3", 0, 1L);
+
+        WatchSearchResponseModel result = index.search(new WatchSearchIndex.Query(Map.of(),
+                null, null, true, false, false, 0, 100));
+        assertEquals(List.of("W2", "W3", "W4"), ids(result));
+        assertEquals(2, result.getHits().get(1).getQuantity());
+        verify(watchRepo, times(1)).findAll();
+        verify(watchRepo, never()).findByWatchIdentifier_WatchId(any());
+    }
+}
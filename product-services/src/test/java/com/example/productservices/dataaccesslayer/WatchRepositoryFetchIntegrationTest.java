@@ -0,0 +1,140 @@
+package com.example.productservices.dataaccesslayer;
+
+import com.example.productservices.dataccesslayer.catalog.Catalog;
+import com.example.productservices.dataccesslayer.catalog.CatalogIdentifier;
+import com.example.productservices.dataccesslayer.watch.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// counts the SQL statements of each list query: they must not grow with the number of watches.
+// Runs on schema-h2.sql: the generated schema makes watches.catalog_id unique, as it is on catalogs
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(scripts = "/schema-h2.sql")
+public class WatchRepositoryFetchIntegrationTest {
+
+    private static final String CATALOG_ID = "catalog-fetch";
+
+    @Autowired
+    private WatchRepository repo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.persist(new Catalog(null, new CatalogIdentifier(CATALOG_ID), "Fetch", "Fetch tests", null));
+    }
+
+    private void addWatches(int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            Watch w = new Watch();
+            w.setWatchIdentifier(new WatchIdentifier("FETCH-" + i));
+            w.setCatalogIdentifier(new CatalogIdentifier(CATALOG_ID));
+            w.setQuantity(10);
+            w.setUsageType(UsageType.NEW);
+            w.setModel("Model " + i);
+            w.setMaterial("Steel");
+            w.setAccessories(new ArrayList<>(List.of(
+                    new Accessory("Strap", BigDecimal.TEN),
+                    new Accessory("Box", BigDecimal.ONE))));
+            w.setWatchBrand(new WatchBrand("Brand", "Country"));
+            w.setPrice(new Price(BigDecimal.TEN, BigDecimal.ONE, new BigDecimal("11")));
+            repo.save(w);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // statements run by one read, with a cold persistence context
+    private long statements(Runnable read) {
+        entityManager.clear();
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void readAccessories(List<Watch> watches) {
+        watches.forEach(w -> assertEquals(2, w.getAccessories().size()));
+    }
+
+    // Positive: the catalog listing reads watches and accessories in one statement, however many there are
+    @Test
+    public void findAllByCatalogId_statementCountIndependentOfCatalogSize() {
+        addWatches(0, 3);
+        long few = statements(() -> readAccessories(repo.findAllByCatalogIdentifier_CatalogId(CATALOG_ID)));
+
+        addWatches(3, 40);
+        long many = statements(() -> {
+            List<Watch> watches = repo.findAllByCatalogIdentifier_CatalogId(CATALOG_ID);
+            assertEquals(43, watches.size());
+            readAccessories(watches);
+        });
+
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    // Positive: findAll (the search index load) is one statement too
+    @Test
+    public void findAll_statementCountIndependentOfCatalogSize() {
+        addWatches(0, 3);
+        long few = statements(() -> readAccessories(repo.findAll()));
+
+        addWatches(3, 40);
+        long many = statements(() -> readAccessories(repo.findAll()));
+
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    // Positive: a LIMITed page can't join the accessories; they come in one batch for the whole page
+    @Test
+    public void findByPage_loadsAccessoriesInOneBatch() {
+        addWatches(0, 3);
+        long few = statements(() -> readAccessories(repo.findBy(WatchSpecifications.brandName("Brand"),
+                q -> q.sortBy(Sort.by("id")).limit(100).all())));
+
+        addWatches(3, 60);
+        long many = statements(() -> readAccessories(repo.findBy(WatchSpecifications.brandName("Brand"),
+                q -> q.sortBy(Sort.by("id")).limit(100).all())));
+
+        assertEquals(2, few);
+        assertEquals(few, many);
+    }
+
+    // Positive: the summary projection never touches watch_accessories
+    @Test
+    public void findSummaries_oneStatementWithoutAccessories() {
+        addWatches(0, 20);
+
+        long count = statements(() -> {
+            List<WatchSummary> summaries = repo.findSummariesByCatalogId(CATALOG_ID);
+            assertEquals(20, summaries.size());
+            assertEquals("FETCH-0", summaries.get(0).watchId());
+            assertEquals(0, BigDecimal.TEN.compareTo(summaries.get(0).msrp()));
+        });
+
+        assertEquals(1, count);
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+}
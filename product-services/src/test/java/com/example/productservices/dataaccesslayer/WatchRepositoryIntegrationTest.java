@@ -9,8 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -129,6 +131,24 @@ public class WatchRepositoryIntegrationTest {
                 () -> repo.saveAndFlush(duplicate));
     }
 
+    // Positive/Negative: conditional stock update moves stock but never below zero
+    @Test
+    public void whenAdjustQuantity_thenNeverBelowZero() {
+        Watch w = makeWatch(VALID_ID, CATALOG_ID);
+        w.setQuantity(1);
+        repo.saveAndFlush(w);
+
+        long version = repo.findStockByWatchId(VALID_ID).version();
+
+        assertEquals(1, repo.adjustQuantity(VALID_ID, -1));
+        assertEquals(new WatchStock(0, version + 1), repo.findStockByWatchId(VALID_ID));
+
+        assertEquals(0, repo.adjustQuantity(VALID_ID, -1));
+        assertEquals(new WatchStock(0, version + 1), repo.findStockByWatchId(VALID_ID));
+
+        assertEquals(0, repo.adjustQuantity("no-such", 1));
+    }
+
     // Negative: findByWatchIdentifier on non‑existing id returns null
     @Test
     public void whenFindByNonExistingId_returnsNull() {
@@ -192,4 +212,74 @@ public class WatchRepositoryIntegrationTest {
         assertEquals("Invalid field", e4.getMessage());
         assertEquals(cause, e4.getCause());
     }
+
+    // one watch per page, following the cursor until a page comes back empty
+    private List<String> pageThrough(WatchSort sort, String cursor, int pages) {
+        List<String> seen = new ArrayList<>();
+        for (int i = 0; i < pages; i++) {
+            List<Specification<Watch>> specs = new ArrayList<>(List.of(sort.orderBy()));
+            if (cursor != null) {
+                specs.add(sort.after(cursor));
+            }
+            List<Watch> page = repo.findBy(Specification.allOf(specs), q -> q.limit(1).all());
+            if (page.isEmpty()) {
+                break;
+            }
+            seen.add(page.get(0).getWatchIdentifier().getWatchId());
+            cursor = sort.cursorOf(page.get(0));
+        }
+        return seen;
+    }
+
+    // a catalog of its own per watch: the embedded catalog id is unique in this schema
+    private void saveWithModel(String watchId, String model) {
+        Watch w = makeWatch(watchId, "cat-" + watchId);
+        w.setModel(model);
+        repo.save(w);
+    }
+
+    // Positive: watches without a model come first going up and last going down, each exactly once
+    @Test
+    public void keysetPaging_nullSortValues_areNeitherDroppedNorRepeated() {
+        repo.deleteAll();
+        saveWithModel("W-B", "B");
+        saveWithModel("W-NULL1", null);
+        saveWithModel("W-A", "A");
+        saveWithModel("W-NULL2", null);
+
+        assertEquals(List.of("W-NULL1", "W-NULL2", "W-A", "W-B"),
+                pageThrough(WatchSort.parse("model"), null, 10));
+        assertEquals(List.of("W-B", "W-A", "W-NULL2", "W-NULL1"),
+                pageThrough(WatchSort.parse("-model"), null, 10));
+    }
+
+    // Positive: the cursor carries its own position, so the watch it came from may change or go
+    @Test
+    public void keysetPaging_cursorWatchChangedOrDeleted_nextPageUnaffected() {
+        repo.deleteAll();
+        saveWithModel("W-A", "A");
+        saveWithModel("W-B", "B");
+        saveWithModel("W-C", "C");
+        WatchSort sort = WatchSort.parse("model");
+
+        Watch first = repo.findByWatchIdentifier_WatchId("W-A");
+        String cursor = sort.cursorOf(first);
+        first.setModel("Z");
+        repo.save(first);
+        assertEquals(List.of("W-B", "W-C", "W-A"), pageThrough(sort, cursor, 10));
+
+        repo.delete(repo.findByWatchIdentifier_WatchId("W-B"));
+        assertEquals(List.of("W-C", "W-A"), pageThrough(sort, cursor, 10));
+    }
+
+    // Negative: a cursor from another sort, or no cursor at all, is refused
+    @Test
+    public void keysetPaging_foreignCursor_isRejected() {
+        repo.deleteAll();
+        saveWithModel("W-A", "A");
+        String priceCursor = WatchSort.parse("price").cursorOf(repo.findByWatchIdentifier_WatchId("W-A"));
+
+        assertThrows(IllegalArgumentException.class, () -> WatchSort.parse("model").after(priceCursor));
+        assertThrows(IllegalArgumentException.class, () -> WatchSort.parse("model").after("WCH-001"));
+    }
 }
@@ -3,10 +3,13 @@ package com.example.productservices.presentationlayer;
 import com.example.productservices.ProductServicesApplication;
 import com.example.productservices.dataccesslayer.catalog.Catalog;
 import com.example.productservices.dataccesslayer.catalog.CatalogIdentifier;
+import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogDeletionResponseModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogRequestModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
 import com.example.productservices.utils.GlobalControllerExceptionHandler;
 import com.example.productservices.utils.HttpErrorInfo;
+import com.example.productservices.utils.SmileConfig;
 import com.example.productservices.utils.exceptions.InvalidInputException;
 import com.example.productservices.utils.exceptions.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,6 +69,64 @@ public class CatalogControllerIntegrationTest {
                 .expectStatus().isNoContent()
                 // and since there’s no body, assert it’s empty
                 .expectBody().isEmpty();
+
+        // the catalog's watches went with it, the other catalog's stayed
+        List<String> remaining = webClient.get().uri("/api/v1/watches")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(WatchResponseModel.class)
+                .returnResult()
+                .getResponseBody()
+                .stream().map(WatchResponseModel::getWatchId).toList();
+        assertEquals(List.of("WCH-002"), remaining);
+    }
+
+    // Positive: ?async=true answers 202 with a job that can be followed to completion
+    @Test
+    public void deleteExistingCatalog_async_returns202AndCompletes() throws InterruptedException {
+        CatalogDeletionResponseModel started = webClient.delete().uri(BASE + "/" + VALID_ID + "?async=true")
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().value("Location", location ->
+                        assertTrue(location.contains(BASE + "/deletions/")))
+                .expectBody(CatalogDeletionResponseModel.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(started);
+        assertEquals(VALID_ID, started.getCatalogId());
+        assertEquals(1, started.getTotalWatches());
+
+        CatalogDeletionResponseModel job = started;
+        for (int i = 0; i < 50 && "RUNNING".equals(job.getStatus()); i++) {
+            Thread.sleep(100);
+            job = webClient.get().uri(BASE + "/deletions/" + started.getJobId())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(CatalogDeletionResponseModel.class)
+                    .returnResult()
+                    .getResponseBody();
+        }
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(1, job.getDeletedWatches());
+        assertEquals(100, job.getPercentDone());
+        assertNotNull(job.getFinishedAt());
+
+        List<String> catalogs = webClient.get().uri(BASE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CatalogResponseModel.class)
+                .returnResult()
+                .getResponseBody()
+                .stream().map(CatalogResponseModel::getCatalogId).toList();
+        assertEquals(List.of(OTHER_ID), catalogs);
+    }
+
+    // Negative: an unknown deletion job returns 404
+    @Test
+    public void getCatalogDeletion_unknownJob_returns404() {
+        webClient.get().uri(BASE + "/deletions/no-such-job")
+                .exchange()
+                .expectStatus().isNotFound();
     }
     // Positive: get existing catalog by ID returns object
     @Test
@@ -230,6 +291,49 @@ public class CatalogControllerIntegrationTest {
                 });
     }
 
+    // Negative: an error is answered in JSON even to a caller that only accepts Smile
+    @Test
+    public void deleteNonExistingCatalog_smileOnly_errorIsJson() {
+        webClient.delete().uri(BASE + "/does-not-exist")
+                .accept(SmileConfig.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody(HttpErrorInfo.class)
+                .value(info -> assertEquals(HttpStatus.NOT_FOUND, info.getHttpStatus()));
+    }
+
+    // Positive: JSON and Smile are tagged apart, and the response varies on Accept
+    @Test
+    public void getById_jsonAndSmile_getDifferentETags() {
+        String json = webClient.get().uri(BASE + "/" + VALID_ID)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Vary", "Accept")
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+        String smile = webClient.get().uri(BASE + "/" + VALID_ID)
+                .accept(SmileConfig.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(SmileConfig.APPLICATION_SMILE)
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+
+        assertNotNull(json);
+        assertNotEquals(json, smile);
+        // the JSON tag does not validate the Smile body
+        webClient.get().uri(BASE + "/" + VALID_ID)
+                .accept(SmileConfig.APPLICATION_SMILE)
+                .ifNoneMatch(json)
+                .exchange()
+                .expectStatus().isOk();
+        webClient.get().uri(BASE + "/" + VALID_ID)
+                .accept(SmileConfig.APPLICATION_SMILE)
+                .ifNoneMatch(smile)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
     // ─── Direct exception‐handler tests ───────────────────────────────────────
 
     // Positive: handle NotFoundException directly via exception handler
@@ -238,7 +342,7 @@ public class CatalogControllerIntegrationTest {
         NotFoundException ex = new NotFoundException("no-id");
         HttpErrorInfo info = exceptionHandler.handleNotFoundException(
                 mockWebRequest, ex
-        );
+        ).getBody();
 
         assertEquals(HttpStatus.NOT_FOUND, info.getHttpStatus());
         assertEquals("no-id", info.getMessage());
@@ -252,7 +356,7 @@ public class CatalogControllerIntegrationTest {
                 new InvalidInputException("bad payload");
         HttpErrorInfo info = exceptionHandler.handleInvalidInputException(
                 mockWebRequest, ex
-        );
+        ).getBody();
 
         assertEquals(HttpStatus.UNPROCESSABLE_ENTITY,
                 info.getHttpStatus());
@@ -267,7 +371,7 @@ public class CatalogControllerIntegrationTest {
         HttpErrorInfo info =
                 exceptionHandler.handleIllegalArgumentException(
                         mockWebRequest, ex
-                );
+                ).getBody();
 
         assertEquals(HttpStatus.BAD_REQUEST, info.getHttpStatus());
         assertEquals("oops", info.getMessage());
@@ -398,7 +502,8 @@ public class CatalogControllerIntegrationTest {
                 1,
                 identifier,
                 "Smart Watch",
-                "Intelligent connected watches"
+                "Intelligent connected watches",
+                0L
         );
 
         assertEquals(1, catalog.getId());
@@ -412,9 +517,9 @@ public class CatalogControllerIntegrationTest {
         CatalogIdentifier id1 = new CatalogIdentifier("catalog-001");
         CatalogIdentifier id2 = new CatalogIdentifier("catalog-002");
 
-        Catalog c1 = new Catalog(1, id1, "Smart Watch", "Trackers and sensors");
-        Catalog c2 = new Catalog(1, id1, "Smart Watch", "Trackers and sensors");
-        Catalog c3 = new Catalog(2, id2, "Luxury Watch", "Gold and diamonds");
+        Catalog c1 = new Catalog(1, id1, "Smart Watch", "Trackers and sensors", 0L);
+        Catalog c2 = new Catalog(1, id1, "Smart Watch", "Trackers and sensors", 0L);
+        Catalog c3 = new Catalog(2, id2, "Luxury Watch", "Gold and diamonds", 0L);
 
         // Equals true case
         assertEquals(c1, c2);
@@ -1,11 +1,14 @@
 package com.example.productservices.presentationlayer;
 
 import com.example.productservices.ProductServicesApplication;
+import com.example.productservices.datamapperlayer.WatchMapper.WatchRequestMapper;
 import com.example.productservices.dataccesslayer.watch.*;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogRequestModel;
 import com.example.productservices.presentationlayer.CatalogPresentationLayer.CatalogResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.StockAdjustmentRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSummaryResponseModel;
 import com.example.productservices.utils.GlobalControllerExceptionHandler;
 import com.example.productservices.utils.HttpErrorInfo;
 import com.example.productservices.utils.exceptions.InvalidInputException;
@@ -16,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
@@ -29,9 +33,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -49,6 +56,9 @@ public class WatchCatalogControllerIntegrationTest {
     @MockBean
     private WebRequest mockWebRequest;
 
+    @SpyBean
+    private WatchRequestMapper watchRequestMapper;
+
     private static final String BASE_CATALOG     = "/api/v1/catalogs";
     private static final String VALID_CATALOG_ID = "catalog-001";
 
@@ -117,6 +127,98 @@ public class WatchCatalogControllerIntegrationTest {
                 });
     }
 
+    // ─── Positive: summaries list the catalog's watches without accessories ──
+    @Test
+    public void getWatchSummaries_seededCatalog_returnsSummaries() {
+        List<WatchSummaryResponseModel> summaries = webClient.get()
+                .uri(BASE_CATALOG + "/" + VALID_CATALOG_ID + "/watches/summaries")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectBodyList(WatchSummaryResponseModel.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(summaries);
+        assertEquals(1, summaries.size());
+        assertEquals("WCH-001", summaries.get(0).getWatchId());
+        assertEquals("Apple", summaries.get(0).getBrandName());
+        assertEquals(0, new BigDecimal("1200").compareTo(summaries.get(0).getMsrp()));
+    }
+
+    // ─── Negative: summaries of an unknown catalog returns 422 ──────────────
+    @Test
+    public void getWatchSummaries_unknownCatalog_returnsUnprocessableEntity() {
+        webClient.get()
+                .uri(BASE_CATALOG + "/no-such-catalog/watches/summaries")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    // ─── Positive: adding and removing one accessory moves totalOptionsCost by its cost ─
+    @Test
+    public void accessories_addThenRemove_updateTotalOptionsCost() {
+        String accessories = BASE_CATALOG + "/" + VALID_CATALOG_ID + "/watches/WCH-001/accessories/";
+
+        WatchResponseModel added = webClient.post()
+                .uri(accessories + "Gift Box")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("accessoryCost", 50))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(WatchResponseModel.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(added);
+        assertEquals(3, added.getAccessories().size());
+        assertEquals(0, new BigDecimal("250").compareTo(added.getPrice().getTotalOptionsCost()));
+
+        webClient.delete()
+                .uri(accessories + "Sapphire Crystal")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        WatchResponseModel after = webClient.get()
+                .uri(BASE_CATALOG + "/" + VALID_CATALOG_ID + "/watches/WCH-001")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(WatchResponseModel.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(after);
+        assertEquals(List.of("Gift Box", "Titanium Sport Band"),
+                after.getAccessories().stream().map(Accessory::getAccessoryName).sorted().toList());
+        assertEquals(0, new BigDecimal("130").compareTo(after.getPrice().getTotalOptionsCost()));
+        assertTrue(after.getVersion() > added.getVersion());
+    }
+
+    // ─── Negative: a second accessory with the same name, or removing a missing one ─
+    @Test
+    public void accessories_duplicateOrMissing_rejected() {
+        String accessories = BASE_CATALOG + "/" + VALID_CATALOG_ID + "/watches/WCH-001/accessories/";
+
+        webClient.post()
+                .uri(accessories + "Sapphire Crystal")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("accessoryCost", 10))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+
+        webClient.delete()
+                .uri(accessories + "Leather Strap")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        WatchResponseModel unchanged = webClient.get()
+                .uri(BASE_CATALOG + "/" + VALID_CATALOG_ID + "/watches/WCH-001")
+                .exchange()
+                .expectBody(WatchResponseModel.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(unchanged);
+        assertEquals(0, new BigDecimal("200").compareTo(unchanged.getPrice().getTotalOptionsCost()));
+    }
+
     // ─── Positive: add a new watch, returns 201 Created and correct body ─────
     @Test
     public void addWatch_validRequest_returnsCreated() {
@@ -511,7 +613,7 @@ public class WatchCatalogControllerIntegrationTest {
         InvalidInputException ex = new InvalidInputException("bad watch");
         HttpErrorInfo info = exceptionHandler.handleInvalidInputException(
                 mockWebRequest, ex
-        );
+        ).getBody();
 
         assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, info.getHttpStatus());
         assertEquals("bad watch", info.getMessage());
@@ -681,16 +783,62 @@ public class WatchCatalogControllerIntegrationTest {
                 });
     }
 
+    // ─── Negative: PUT overlapping a committed stock adjustment → 409 ───────
+    @Test
+    public void updateWatch_concurrentStockAdjustment_returnsConflict() {
+        // once the PUT has loaded WCH-001, an order takes one off the shelf and commits first
+        AtomicBoolean adjusted = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (adjusted.compareAndSet(false, true)) {
+                StockAdjustmentRequestModel adjustment = new StockAdjustmentRequestModel();
+                adjustment.setDelta(-1);
+                adjustment.setIdempotencyKey("concurrent-put-" + UUID.randomUUID());
+                webClient.post()
+                        .uri("/api/v1/watches/WCH-001/stock:adjust")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(adjustment)
+                        .exchange()
+                        .expectStatus().isOk();
+            }
+            return invocation.callRealMethod();
+        }).when(watchRequestMapper).updateEntityFromRequestModel(any(WatchRequestModel.class), any(Watch.class));
 
+        WatchRequestModel req = new WatchRequestModel();
+        WatchBrand brand = new WatchBrand();
+        brand.setBrandName("Rolex");
+        brand.setBrandCountry("Switzerland");
+        req.setWatchBrand(brand);
+        Price price = new Price();
+        price.setMsrp(BigDecimal.valueOf(9000.00));
+        price.setCost(BigDecimal.valueOf(7000.00));
+        price.setTotalOptionsCost(BigDecimal.ZERO);
+        req.setPrice(price);
+        req.setUsageType(UsageType.NEW);
+        req.setQuantity(5);
+        req.setModel("Submariner");
+        req.setMaterial("Steel");
+        req.setAccessories(new ArrayList<>());
 
+        webClient.put()
+                .uri(BASE_CATALOG + "/" + VALID_CATALOG_ID + "/watches/WCH-001")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(req)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(HttpErrorInfo.class)
+                .value(err -> assertTrue(err.getMessage().contains("read it again and retry")));
 
-
-
-
-
-
-
-
-
+        // the adjustment stands and the PUT changed nothing
+        webClient.get()
+                .uri(BASE_CATALOG + "/" + VALID_CATALOG_ID + "/watches/WCH-001")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(WatchResponseModel.class)
+                .value(w -> {
+                    assertTrue(adjusted.get());
+                    assertEquals(0, w.getQuantity());
+                    assertNotEquals("Submariner", w.getModel());
+                });
+    }
 
 }
@@ -4,6 +4,7 @@ import com.example.productservices.dataccesslayer.catalog.CatalogIdentifier;
 import com.example.productservices.dataccesslayer.watch.*;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchRequestModel;
 import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchResponseModel;
+import com.example.productservices.presentationlayer.WatchPresentationLayer.WatchSearchResponseModel;
 import com.example.productservices.utils.HttpErrorInfo;
 import com.example.productservices.utils.exceptions.DuplicateWatchModelException;
 import org.junit.jupiter.api.Test;
@@ -74,9 +75,9 @@ public class WatchControllerIntegrationTest {
         assertTrue(response.getBody().length > 0);
     }
 
-    // Positive Test: Query watches using a filter (but filters ignored)
+    // Positive Test: Query watches using a filter
     @Test
-    public void getWatchesWithFilter_returnsAllWatchesIgnoringFilter() {
+    public void getWatchesWithFilter_brandCountry_returnsMatchingWatches() {
         String filterValue = "USA";  // Pretend to filter
         String url = BASE_URL + "?brandCountry=" + filterValue;
 
@@ -116,6 +117,114 @@ public class WatchControllerIntegrationTest {
         assertTrue(foundMatch, "At least one watch should match the brand name: " + brandName);
     }
 
+    // Positive Test: price range and descending price order are applied by the query
+    @Test
+    public void getWatchesWithFilter_priceRangeSortedDescending_returnsOrderedMatches() {
+        ResponseEntity<WatchResponseModel[]> response = restTemplate.getForEntity(
+                BASE_URL + "?minPrice=1000&maxPrice=9000&sort=-price", WatchResponseModel[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("WCH-002", "WCH-001"),
+                Arrays.stream(response.getBody()).map(WatchResponseModel::getWatchId).toList());
+
+        ResponseEntity<WatchResponseModel[]> cheap = restTemplate.getForEntity(
+                BASE_URL + "?maxPrice=5000", WatchResponseModel[].class);
+        assertEquals(List.of("WCH-001"),
+                Arrays.stream(cheap.getBody()).map(WatchResponseModel::getWatchId).toList());
+    }
+
+    // Positive Test: usage type, material and stock filters combine
+    @Test
+    public void getWatchesWithFilter_usageMaterialInStock_returnsOnlyMatchingWatch() {
+        ResponseEntity<WatchResponseModel[]> response = restTemplate.getForEntity(
+                BASE_URL + "?usage=used&material=Titanium&inStock=true", WatchResponseModel[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().length);
+        assertEquals("WCH-002", response.getBody()[0].getWatchId());
+    }
+
+    // Positive Test: keyset pages follow each other through the Link header
+    @Test
+    public void getWatchesWithFilter_limit_pagesThroughLinkHeader() {
+        ResponseEntity<WatchResponseModel[]> first = restTemplate.getForEntity(
+                BASE_URL + "?sort=price&limit=1", WatchResponseModel[].class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(1, first.getBody().length);
+        assertEquals("WCH-001", first.getBody()[0].getWatchId());
+        String link = first.getHeaders().getFirst("Link");
+        assertNotNull(link);
+        assertTrue(link.contains("after=") && link.endsWith("rel=\"next\""));
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        // the cursor holds the position itself: WCH-001 going away does not lose the next page
+        restTemplate.delete("/api/v1/catalogs/catalog-001/watches/WCH-001");
+        ResponseEntity<WatchResponseModel[]> second = restTemplate.getForEntity(next, WatchResponseModel[].class);
+
+        assertEquals(1, second.getBody().length);
+        assertEquals("WCH-002", second.getBody()[0].getWatchId());
+        assertNull(second.getHeaders().getFirst("Link"));
+    }
+
+    // Negative Test: an unknown sort order is rejected
+    @Test
+    public void getWatchesWithFilter_unknownSort_returnsUnprocessableEntity() {
+        ResponseEntity<String> response = restTemplate.getForEntity(BASE_URL + "?sort=weight", String.class);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertTrue(response.getBody().contains("sort"));
+    }
+
+    // Positive Test: search filters on facets and counts each facet without its own filter
+    @Test
+    public void searchWatches_brandFilter_returnsHitsAndFacetCounts() {
+        ResponseEntity<WatchSearchResponseModel> response = restTemplate.getForEntity(
+                BASE_URL + "/search?brand=Omega&accessory=Leather Strap", WatchSearchResponseModel.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        WatchSearchResponseModel body = response.getBody();
+        assertNotNull(body);
+        assertEquals(1, body.getTotal());
+        assertEquals("WCH-002", body.getHits().get(0).getWatchId());
+        assertEquals(Map.of("Omega", 1), body.getFacets().get("brand"));
+        assertEquals(Map.of("Leather Strap", 1, "Titanium Bracelet", 1), body.getFacets().get("accessory"));
+        assertEquals(Map.of("used", 1), body.getFacets().get("usage"));
+    }
+
+    // Positive Test: price range and price order come from the index's sorted prices
+    @Test
+    public void searchWatches_priceRangeSortedByPrice_returnsCheapestLast() {
+        ResponseEntity<WatchSearchResponseModel> response = restTemplate.getForEntity(
+                BASE_URL + "/search?minPrice=1000&sort=-price", WatchSearchResponseModel.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("WCH-002", "WCH-001"),
+                response.getBody().getHits().stream().map(WatchResponseModel::getWatchId).toList());
+        assertEquals(Map.of("1000-2500", 1, "5000-10000", 1), response.getBody().getFacets().get("price"));
+    }
+
+    // Positive Test: a removed watch leaves the index straight away
+    @Test
+    public void searchWatches_afterRemoval_noLongerFindsWatch() {
+        assertEquals(2, restTemplate.getForObject(BASE_URL + "/search", WatchSearchResponseModel.class).getTotal());
+
+        restTemplate.delete("/api/v1/catalogs/catalog-001/watches/WCH-001");
+
+        WatchSearchResponseModel body = restTemplate.getForObject(BASE_URL + "/search", WatchSearchResponseModel.class);
+        assertEquals(1, body.getTotal());
+        assertEquals("WCH-002", body.getHits().get(0).getWatchId());
+        assertFalse(body.getFacets().get("brand").containsKey("Apple"));
+    }
+
+    // Negative Test: the search only sorts by price
+    @Test
+    public void searchWatches_unknownSort_returnsUnprocessableEntity() {
+        ResponseEntity<String> response = restTemplate.getForEntity(BASE_URL + "/search?sort=model", String.class);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
     // Positive Test: Get watch by valid ID and check nested accessory list
     @Test
     public void getWatchById_checkAccessories_notEmpty() {
@@ -410,7 +519,8 @@ public class WatchControllerIntegrationTest {
                 material,
                 accessories,
                 brand,
-                price
+                price,
+                0L
         );
 
         assertNotNull(watch);
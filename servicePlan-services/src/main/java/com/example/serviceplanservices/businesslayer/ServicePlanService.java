@@ -14,6 +14,8 @@ public interface ServicePlanService {
 
     ServicePlanResponseModel getServicePlansById(String planId);
 
+    List<ServicePlanResponseModel> getServicePlansByIds(List<String> planIds);
+
     ServicePlanResponseModel addServicePlan(ServicePlanRequestModel servicePlanRequestModel);
 
     ServicePlanResponseModel updateServicePlan(String planId, ServicePlanRequestModel servicePlanRequestModel);
@@ -6,6 +6,7 @@ import com.example.serviceplanservices.dataaccesslayer.ServicePlanIdentifier;
 import com.example.serviceplanservices.dataaccesslayer.ServicePlanRepository;
 import com.example.serviceplanservices.datamapperlayer.ServicePlanRequestMapper;
 import com.example.serviceplanservices.datamapperlayer.ServicePlanResponseMapper;
+import com.example.serviceplanservices.domainclientlayer.OrderServiceClient;
 import com.example.serviceplanservices.presentationlayer.ServicePlanRequestModel;
 import com.example.serviceplanservices.presentationlayer.ServicePlanResponseModel;
 import com.example.serviceplanservices.utils.exceptions.DuplicateCoverageDetailsException;
@@ -14,6 +15,8 @@ import com.example.serviceplanservices.utils.exceptions.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @Service
@@ -22,14 +25,17 @@ public class ServicePlanServiceImpl implements ServicePlanService {
     private final ServicePlanRepository servicePlanRepository;
     private final ServicePlanResponseMapper servicePlanResponseMapper;
     private final ServicePlanRequestMapper servicePlanRequestMapper;
+    private final OrderServiceClient orderServiceClient;
 
     @Autowired
     public ServicePlanServiceImpl(ServicePlanRepository servicePlanRepository,
                                   ServicePlanResponseMapper servicePlanResponseMapper,
-                                  ServicePlanRequestMapper servicePlanRequestMapper) {
+                                  ServicePlanRequestMapper servicePlanRequestMapper,
+                                  OrderServiceClient orderServiceClient) {
         this.servicePlanRepository = servicePlanRepository;
         this.servicePlanResponseMapper = servicePlanResponseMapper;
         this.servicePlanRequestMapper = servicePlanRequestMapper;
+        this.orderServiceClient = orderServiceClient;
     }
 
     @Override
@@ -47,6 +53,16 @@ public class ServicePlanServiceImpl implements ServicePlanService {
         return servicePlanResponseMapper.entityToResponseModel(servicePlan);
     }
 
+    @Override
+    public List<ServicePlanResponseModel> getServicePlansByIds(List<String> planIds) {
+        if (planIds == null || planIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ServicePlan> servicePlans = servicePlanRepository
+                .findAllByServicePlanIdentifier_PlanIdIn(new LinkedHashSet<>(planIds));
+        return servicePlanResponseMapper.entityListToResponseModelList(servicePlans);
+    }
+
     @Override
     public ServicePlanResponseModel addServicePlan(ServicePlanRequestModel servicePlanRequestModel) {
 
@@ -84,6 +100,7 @@ public class ServicePlanServiceImpl implements ServicePlanService {
         existingPlan.setExpirationDate(servicePlanRequestModel.getExpirationDate());
 
         ServicePlan updatedPlan = servicePlanRepository.save(existingPlan);
+        orderServiceClient.servicePlanUpdated(planId);
         return servicePlanResponseMapper.entityToResponseModel(updatedPlan);
     }
 
@@ -95,6 +112,7 @@ public class ServicePlanServiceImpl implements ServicePlanService {
         }
 
         servicePlanRepository.delete(existingPlan);
+        orderServiceClient.servicePlanDeleted(planId);
         return "Service Plan with ID " + planId + " deleted successfully.";
     }
 }
@@ -24,4 +24,7 @@ public class ServicePlan {
     private String coverageDetails;
 
     private LocalDate expirationDate;
+
+    @Version
+    private Long version;
 }
@@ -2,11 +2,16 @@ package com.example.serviceplanservices.dataaccesslayer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ServicePlanRepository extends JpaRepository<ServicePlan, Integer> {
 
     ServicePlan findByServicePlanIdentifier_PlanId(String servicePlanIdentifier);
 
     boolean existsByCoverageDetails(String coverageDetails);
 
+    List<ServicePlan> findAllByServicePlanIdentifier_PlanIdIn(Collection<String> planIds);
+
 
 }
@@ -11,6 +11,7 @@ public interface ServicePlanRequestMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "servicePlanIdentifier", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ServicePlan requestModelToEntity(ServicePlanRequestModel servicePlanRequestModel);
 
 }
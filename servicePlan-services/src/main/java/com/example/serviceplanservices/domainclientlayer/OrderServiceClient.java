@@ -0,0 +1,69 @@
+package com.example.serviceplanservices.domainclientlayer;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells order-services that an entity its orders point to was updated or deleted, so it
+ * can drop cached copies. Fire-and-forget: a failed notification is logged and never
+ * fails the write that triggered it (order-services' caches expire on their own anyway).
+ * <p>
+ * Every replica keeps its own caches, so with {@code app.order-services.replicas} set each
+ * of them is told, not just one.
+ */
+@Component
+@Slf4j
+public class OrderServiceClient {
+
+    private final WebClient webClient;
+    private final List<String> referenceUrls;
+    private final boolean notifyChanges;
+
+    public OrderServiceClient(WebClient.Builder webClientBuilder,
+                              @Value("${app.order-services.host:localhost}") String orderServicesHost,
+                              @Value("${app.order-services.port:8080}") String orderServicesPort,
+                              @Value("${app.order-services.replicas:}") List<String> orderServicesReplicas,
+                              @Value("${app.order-services.notify-changes:false}") boolean notifyChanges) {
+        this.webClient = webClientBuilder.build();
+        List<String> replicas = orderServicesReplicas.isEmpty()
+                ? List.of(orderServicesHost + ":" + orderServicesPort)
+                : orderServicesReplicas;
+        this.referenceUrls = replicas.stream()
+                .map(replica -> "http://" + replica + "/api/v1/references/changes")
+                .toList();
+        this.notifyChanges = notifyChanges;
+    }
+
+    public void servicePlanUpdated(String planId) {
+        referenceChanged("SERVICE_PLAN", planId, "UPDATED");
+    }
+
+    public void servicePlanDeleted(String planId) {
+        referenceChanged("SERVICE_PLAN", planId, "DELETED");
+    }
+
+    private void referenceChanged(String type, String id, String change) {
+        if (!notifyChanges) {
+            return;
+        }
+        for (String url : referenceUrls) {
+            webClient.post()
+                    .uri(url)
+                    .bodyValue(Map.of("type", type, "id", id, "change", change))
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofSeconds(2))
+                    .subscribe(
+                            ok -> log.debug("order-services notified at {}: {} {} {}", url, type, id, change),
+                            ex -> log.warn("could not notify order-services at {} of {} {} {}: {}", url, type, id, change, ex.getMessage())
+                    );
+        }
+    }
+}
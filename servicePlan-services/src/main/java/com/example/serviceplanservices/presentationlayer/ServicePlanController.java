@@ -2,6 +2,7 @@ package com.example.serviceplanservices.presentationlayer;
 
 
 import com.example.serviceplanservices.businesslayer.ServicePlanService;
+import com.example.serviceplanservices.utils.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,16 +24,26 @@ public class ServicePlanController {
     @GetMapping()
     public ResponseEntity<List<ServicePlanResponseModel>> getServicePlans() {
 
-        return ResponseEntity.ok(this.servicePlanService.getServicePlans());
+        List<ServicePlanResponseModel> plans = this.servicePlanService.getServicePlans();
+        return ResponseEntity.ok()
+                .eTag(ETags.of(plans, ServicePlanResponseModel::getPlanId, ServicePlanResponseModel::getVersion))
+                .body(plans);
     }
 
     @GetMapping("/{plan_id}")
     public ResponseEntity<ServicePlanResponseModel> getServicePlanById(@PathVariable String plan_id) {
 
-        return ResponseEntity.ok(this.servicePlanService.getServicePlansById(plan_id));
+        ServicePlanResponseModel plan = this.servicePlanService.getServicePlansById(plan_id);
+        return ResponseEntity.ok().eTag(ETags.of(plan.getVersion())).body(plan);
 
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ServicePlanResponseModel>> getServicePlansByIds(@RequestBody List<String> planIds) {
+
+        return ResponseEntity.ok(this.servicePlanService.getServicePlansByIds(planIds));
+    }
+
     @PostMapping()
     public ResponseEntity<ServicePlanResponseModel> addServicePlan(@RequestBody ServicePlanRequestModel servicePlanRequestModel) {
 
@@ -14,4 +14,5 @@ public class ServicePlanResponseModel {
     private String planId;
     private String coverageDetails;
     private LocalDate expirationDate;
+    private Long version;
 }
@@ -4,5 +4,6 @@ CREATE TABLE IF NOT EXISTS service_plans (
                                              id INTEGER NOT NULL AUTO_INCREMENT PRIMARY KEY,
                                              plan_id VARCHAR(50) UNIQUE NOT NULL,
     coverage_details VARCHAR(255) NOT NULL,
-    expiration_date DATE NOT NULL -- Store actual expiration date (YYYY-MM-DD)
+    expiration_date DATE NOT NULL, -- Store actual expiration date (YYYY-MM-DD)
+    version BIGINT NOT NULL DEFAULT 0
     );
\ No newline at end of file
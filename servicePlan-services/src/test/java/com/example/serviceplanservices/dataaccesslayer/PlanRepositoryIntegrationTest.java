@@ -129,7 +129,7 @@ public class PlanRepositoryIntegrationTest {
         ServicePlanIdentifier id = new ServicePlanIdentifier("P‑123");
         LocalDate exp = LocalDate.of(2030, 12, 31);
 
-        ServicePlan p = new ServicePlan(42, id, "Cov", exp);
+        ServicePlan p = new ServicePlan(42, id, "Cov", exp, 0L);
         assertEquals(42, p.getId());
         assertSame(id, p.getServicePlanIdentifier());
         assertEquals("Cov", p.getCoverageDetails());
@@ -167,9 +167,9 @@ public class PlanRepositoryIntegrationTest {
         ServicePlanIdentifier id2 = new ServicePlanIdentifier("A");
         LocalDate d = LocalDate.of(2025, 1, 1);
 
-        ServicePlan p1 = new ServicePlan(1, id1, "COV", d);
-        ServicePlan p2 = new ServicePlan(1, id2, "COV", d);
-        ServicePlan p3 = new ServicePlan(2, id1, "COV", d);
+        ServicePlan p1 = new ServicePlan(1, id1, "COV", d, 0L);
+        ServicePlan p2 = new ServicePlan(1, id2, "COV", d, 0L);
+        ServicePlan p3 = new ServicePlan(2, id1, "COV", d, 0L);
 
         // equals/hashCode
         assertEquals(p1, p2);
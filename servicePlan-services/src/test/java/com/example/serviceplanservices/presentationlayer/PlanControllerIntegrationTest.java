@@ -100,6 +100,60 @@ public class PlanControllerIntegrationTest {
                 });
     }
 
+    // ─── Conditional GET (ETag / If-None-Match) ───────────────────────────────────
+    @Test
+    void getById_ifNoneMatch_returns304_untilPlanChanges() {
+        String etag = webClient.get().uri(BASE + "/" + VALID_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .returnResult(ServicePlanResponseModel.class)
+                .getResponseHeaders().getETag();
+
+        webClient.get().uri(BASE + "/" + VALID_ID)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webClient.put().uri(BASE + "/" + VALID_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ServicePlanRequestModel("Changed coverage", LocalDate.of(2031, 1, 1)))
+                .exchange()
+                .expectStatus().isOk();
+
+        webClient.get().uri(BASE + "/" + VALID_ID)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("ETag", newTag -> assertNotEquals(etag, newTag));
+    }
+
+    @Test
+    void getAll_ifNoneMatch_returns304_untilAPlanIsAdded() {
+        String etag = webClient.get().uri(BASE)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ServicePlanResponseModel.class)
+                .getResponseHeaders().getETag();
+
+        webClient.get().uri(BASE)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webClient.post().uri(BASE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ServicePlanRequestModel("Another coverage", LocalDate.of(2029, 9, 9)))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webClient.get().uri(BASE)
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
     // ─── POST new plan (positive) ─────────────────────────────────────────────────
     @Test
     void createPlan_returnsCreated() {
@@ -161,7 +215,7 @@ public class PlanControllerIntegrationTest {
     void responseModel_allArgsAndNoArgs_andAccessors() {
         LocalDate exp = LocalDate.of(2030,12,31);
         ServicePlanResponseModel filled =
-                new ServicePlanResponseModel("ID123","Cov",exp);
+                new ServicePlanResponseModel("ID123","Cov",exp,0L);
 
         assertEquals("ID123", filled.getPlanId());
         assertEquals("Cov",   filled.getCoverageDetails());
@@ -193,8 +247,8 @@ public class PlanControllerIntegrationTest {
     @Test
     void responseModel_identityEquals_andHashCode_reflexiveAndNegative() {
         LocalDate d = LocalDate.of(2025, 1, 1);
-        ServicePlanResponseModel m1 = new ServicePlanResponseModel("X", "C", d);
-        ServicePlanResponseModel m2 = new ServicePlanResponseModel("X", "C", d);
+        ServicePlanResponseModel m1 = new ServicePlanResponseModel("X", "C", d, 0L);
+        ServicePlanResponseModel m2 = new ServicePlanResponseModel("X", "C", d, 0L);
 
         // reflexive
         assertEquals(m1, m1, "An object must equal itself");
@@ -262,7 +316,7 @@ public class PlanControllerIntegrationTest {
     @Test
     void handleNotFoundException_returns404AndPathAndMessage() {
         NotFoundException ex = new NotFoundException("no-id");
-        HttpErrorInfo info = handler.handleNotFoundException(webRequest, ex);
+        HttpErrorInfo info = handler.handleNotFoundException(webRequest, ex).getBody();
 
         assertThat(info.getHttpStatus())
                 .isEqualTo(org.springframework.http.HttpStatus.NOT_FOUND);
@@ -274,7 +328,7 @@ public class PlanControllerIntegrationTest {
     @Test
     void handleInvalidInputException_returns422() {
         InvalidInputException ex = new InvalidInputException("bad-payload");
-        HttpErrorInfo info = handler.handleInvalidInputException(webRequest, ex);
+        HttpErrorInfo info = handler.handleInvalidInputException(webRequest, ex).getBody();
 
         assertThat(info.getHttpStatus())
                 .isEqualTo(org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY);
@@ -286,7 +340,7 @@ public class PlanControllerIntegrationTest {
     void handleDuplicateCoverageDetailsException_returns422() {
         DuplicateCoverageDetailsException ex =
                 new DuplicateCoverageDetailsException("Gold Plan");
-        HttpErrorInfo info = handler.handleDuplicateCoverageDetailsException(webRequest, ex);
+        HttpErrorInfo info = handler.handleDuplicateCoverageDetailsException(webRequest, ex).getBody();
 
         assertThat(info.getHttpStatus())
                 .isEqualTo(org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY);
@@ -299,7 +353,7 @@ public class PlanControllerIntegrationTest {
     @Test
     void handleIllegalArgumentException_returns400() {
         IllegalArgumentException ex = new IllegalArgumentException("oops");
-        HttpErrorInfo info = handler.handleIllegalArgumentException(webRequest, ex);
+        HttpErrorInfo info = handler.handleIllegalArgumentException(webRequest, ex).getBody();
 
         assertThat(info.getHttpStatus())
                 .isEqualTo(org.springframework.http.HttpStatus.BAD_REQUEST);